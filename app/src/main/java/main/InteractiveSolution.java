@@ -0,0 +1,244 @@
+package main;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The class to execute the interactive solution
+ *
+ * Optional arguments:
+ *
+ *     --port &lt;port&gt;       serve the commands on a local socket instead of the Console
+ *     --currency &lt;code&gt;   hold the coins of GBP (the default), EUR or USD
+ *     --notes             also hold the currency's notes, e.g. 10, 20 and 50
+ *     --replay &lt;log&gt;      replay a log of Console commands through the machine instead of reading them
+ *     --from &lt;file&gt;       with --replay, start from the InventorySnapshot in the file instead of the float
+ *     --expect &lt;file&gt;     with --replay, compare the final coins with the InventorySnapshot in the file
+ *     &lt;directory&gt;         keep the coins in a journal in the directory between runs
+ *
+ * e.g. java -jar vendingmachine.jar --port 7070 data
+ *      java -jar vendingmachine.jar --currency EUR --notes
+ *      java -jar vendingmachine.jar --replay commands.log --from start.snapshot --expect end.snapshot
+ *
+ * @author Peter Tomboline
+ * @date 07/06/2020
+ *
+ */
+public class InteractiveSolution
+{
+
+	public static void main(String[] args) throws IOException
+	{
+
+		String code = "GBP";
+		boolean notes = false;
+		int port = -1;
+		String directory = null;
+		String log = null;
+		String from = null;
+		String expected = null;
+
+		for (int i = 0; i < args.length; i++)
+		{
+			if (args[i].equals("--port") && i + 1 < args.length)
+			{
+				port = Integer.parseInt(args[++i]);
+			}
+
+			else if (args[i].equals("--currency") && i + 1 < args.length)
+			{
+				code = args[++i];
+			}
+
+			else if (args[i].equals("--notes"))
+			{
+				notes = true;
+			}
+
+			else if (args[i].equals("--replay") && i + 1 < args.length)
+			{
+				log = args[++i];
+			}
+
+			else if (args[i].equals("--from") && i + 1 < args.length)
+			{
+				from = args[++i];
+			}
+
+			else if (args[i].equals("--expect") && i + 1 < args.length)
+			{
+				expected = args[++i];
+			}
+
+			else
+			{
+				directory = args[i];
+			}
+		}
+
+		CurrencyProfile currency = CurrencyProfile.forCode(code, notes);
+
+		// 1, 2 and 5 of each coin in turn, e.g. 1p, 2p, 5p, 10p, 20p, 50p, 1, 2, 5
+		int[] initCoins = new int[currency.getDenominationCount()];
+		for (int i = 0; i < initCoins.length; i++)
+		{
+			initCoins[i] = new int[] { 1, 2, 5 }[i % 3];
+		}
+
+		if (log != null)
+		{
+			replay(from != null ? new VendingMachine(currency, readSnapshot(from, currency))
+					: new VendingMachine(currency, initCoins), log, expected);
+			return;
+		}
+
+		if (directory == null)
+		{
+			run(new VendingMachine(currency, initCoins), TransactionListener.NONE, port);
+			return;
+		}
+
+		// Recover the coins from the last run, or start from the initial float
+		try (InventoryJournal journal = new InventoryJournal(Paths.get(directory), currency))
+		{
+			if (!journal.isInitialised())
+			{
+				journal.initialise(initCoins);
+			}
+
+			run(new VendingMachine(currency, journal.getCoinQuantities()), journal, port);
+		}
+
+	}
+
+	/**
+	 * Reads the file holding an InventorySnapshot, e.g. one written with InventorySnapshot.write or an
+	 * InventoryJournal's inventory.snapshot
+	 *
+	 * @param aPath The path of the file
+	 * @return The buffer holding the snapshot at position 0
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if the file does not start with a valid snapshot
+	 */
+	private static ByteBuffer mapSnapshot(String aPath) throws IOException
+	{
+		ByteBuffer snapshot;
+
+		try (FileChannel channel = FileChannel.open(Paths.get(aPath), StandardOpenOption.READ))
+		{
+			snapshot = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		if (!InventorySnapshot.isValid(snapshot, 0))
+		{
+			throw new IllegalArgumentException(aPath + " does not hold an InventorySnapshot");
+		}
+
+		return snapshot;
+	}
+
+	/**
+	 * Reads the quantity of each coin from the file holding an InventorySnapshot
+	 *
+	 * @param aPath The path of the file
+	 * @param aCurrency The currency the snapshot must hold
+	 * @return The quantity of each coin
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if the snapshot holds the coins of another currency
+	 */
+	private static long[] readSnapshot(String aPath, CurrencyProfile aCurrency) throws IOException
+	{
+		ByteBuffer snapshot = mapSnapshot(aPath);
+
+		if (!InventorySnapshot.isOf(snapshot, 0, aCurrency))
+		{
+			throw new IllegalArgumentException(aPath + " holds " + InventorySnapshot.getDenominationCount(snapshot, 0)
+					+ " " + InventorySnapshot.getCurrency(snapshot, 0) + " coins, not the "
+					+ aCurrency.getDenominationCount() + " " + aCurrency + " coins given by --currency and --notes");
+		}
+
+		long[] coins = new long[aCurrency.getDenominationCount()];
+		InventorySnapshot.read(snapshot, 0, coins);
+		return coins;
+	}
+
+	/**
+	 * Replays a log of Console commands, printing what was replayed, the coins left and the first coin 
+	 * they differ from the expected final snapshot in
+	 *
+	 * @param aMachine The Vending Machine, holding the coins the log starts from
+	 * @param aLog The path of the log
+	 * @param aExpected The path of the final snapshot, or null
+	 * @throws IOException if the log or the snapshot cannot be read
+	 */
+	private static void replay(VendingMachine aMachine, String aLog, String aExpected) throws IOException
+	{
+		ByteBuffer snapshot = aExpected == null ? null : mapSnapshot(aExpected);
+
+		CommandLogReplay replay = new CommandLogReplay(aMachine);
+		long start = System.nanoTime();
+		CommandLogReplay.Divergence divergence = null;
+
+		if (snapshot != null)
+		{
+			divergence = replay.replayAndVerify(Paths.get(aLog), snapshot, 0);
+		}
+
+		else
+		{
+			replay.replay(Paths.get(aLog));
+		}
+
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.printf("Replayed %d lines in %.3fs (%.0f lines/s): %d deposits, %d rejected, %d producecoins, "
+				+ "%d checks, %d invalid%s%n", replay.getLines(), seconds, replay.getLines() / seconds,
+				replay.getDeposits(), replay.getRejected(), replay.getChangeRequests(), replay.getChecks(),
+				replay.getInvalid(), replay.isExited() ? ", stopped at exit" : "");
+		System.out.println(aMachine.getInternalModelString());
+
+		if (snapshot == null)
+		{
+			return;
+		}
+
+		if (divergence != null)
+		{
+			System.out.println("First divergence: " + divergence);
+			System.exit(1);
+		}
+
+		System.out.println("The coins match the snapshot");
+	}
+
+	/**
+	 * Runs the Vending Machine on the Console, or serves it on a socket if a port is given
+	 *
+	 * @param aMachine The Vending Machine
+	 * @param aJournal The journal to keep the coins in, or TransactionListener.NONE
+	 * @param aPort The port to serve on, or -1 for the Console
+	 * @throws IOException if the port cannot be listened on
+	 */
+	private static void run(VendingMachine aMachine, TransactionListener aJournal, int aPort) throws IOException
+	{
+		if (aPort < 0)
+		{
+			aMachine.setTransactionListener(
+					TransactionListener.of(new ConsoleTransactionListener(System.out, aMachine.getCurrency()), aJournal));
+			aMachine.init();
+			return;
+		}
+
+		aMachine.setTransactionListener(aJournal);
+
+		try (CommandServer server = new CommandServer(aMachine, aPort))
+		{
+			System.out.println("Serving Vending Machine commands on port " + server.getPort());
+			server.run();
+		}
+	}
+
+}
@@ -0,0 +1,42 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmark suite, reporting throughput, latency percentiles (sample time)
+ * and allocation rate (GC profiler) for each benchmark.
+ *
+ * An optional argument selects the benchmarks to run by regular expression,
+ * e.g. "VendingMachineBenchmark.proceduceCoins". Results are written as JSON to
+ * jmh-result.json so they can be compared against a baseline run.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public class BenchmarkRunner
+{
+
+	public static void main(String[] args) throws RunnerException
+	{
+		String include = args.length > 0 ? args[0] : "benchmark\\..*Benchmark";
+
+		Options options = new OptionsBuilder()
+				.include(include)
+				.addProfiler(GCProfiler.class)
+				.forks(1)
+				.warmupIterations(3)
+				.measurementIterations(5)
+				.resultFormat(ResultFormatType.JSON)
+				.result("jmh-result.json")
+				.build();
+
+		new Runner(options).run();
+	}
+
+}
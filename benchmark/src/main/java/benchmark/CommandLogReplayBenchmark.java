@@ -0,0 +1,79 @@
+package benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import main.CommandLogReplay;
+import main.VendingMachine;
+
+/**
+ * Benchmarks replaying a log of Console commands, reported per line
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CommandLogReplayBenchmark
+{
+
+	/** The number of lines in the log */
+	private static final int LINES = 1000000;
+
+	/** The log: deposits, change giving the same coins back, and checks */
+	private Path mLog;
+
+	/** The machine replayed through, holding the same coins after each replay */
+	private VendingMachine mMachine;
+
+	/** The replay */
+	private CommandLogReplay mReplay;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		String[] commands = new String[] { "deposit 10p\n", "deposit 50p\n", "producecoins 60\n", "check\n" };
+		StringBuilder builder = new StringBuilder();
+
+		for (int i = 0; i < LINES; i++)
+		{
+			builder.append(commands[i % commands.length]);
+		}
+
+		mLog = Files.createTempFile("commands", ".log");
+		Files.write(mLog, builder.toString().getBytes(StandardCharsets.UTF_8));
+
+		mMachine = new VendingMachine(new int[] { 10, 10, 10, 10, 10, 10, 10, 10, 10 });
+		mReplay = new CommandLogReplay(mMachine);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException
+	{
+		Files.delete(mLog);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LINES)
+	public long replay() throws IOException
+	{
+		mReplay.replay(mLog);
+		return mReplay.getLines();
+	}
+
+}
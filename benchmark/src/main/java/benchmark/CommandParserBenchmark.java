@@ -0,0 +1,143 @@
+package benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import main.Command;
+import main.CommandParser;
+import main.GBPCoin;
+
+/**
+ * Benchmarks parsing Console commands, comparing the CommandParser with the lower-case, split and
+ * Integer.valueOf approach it replaced. Run with the GC profiler (as BenchmarkRunner does), the
+ * parser's gc.alloc.rate.norm should be 0 bytes per command.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CommandParserBenchmark
+{
+
+	/** A mix of the commands typed, as a customer would */
+	private static final String[] LINES = { "deposit 20p", "DEPOSIT 1", "deposit 50p", "producecoins 85", "check",
+			"deposit 2", "producecoins 120", "" };
+
+	/** The lines in UTF-8, back to back */
+	private byte[] mBytes;
+
+	/** The position of each line in the bytes */
+	private int[] mOffsets;
+
+	/** The length of each line in bytes */
+	private int[] mLengths;
+
+	private CommandParser mParser = new CommandParser();
+
+	private Command mCommand = new Command();
+
+	@Setup
+	public void setup()
+	{
+		mOffsets = new int[LINES.length];
+		mLengths = new int[LINES.length];
+
+		byte[][] lines = new byte[LINES.length][];
+		int length = 0;
+
+		for (int i = 0; i < LINES.length; i++)
+		{
+			lines[i] = LINES[i].getBytes(StandardCharsets.UTF_8);
+			mOffsets[i] = length;
+			mLengths[i] = lines[i].length;
+			length += lines[i].length;
+		}
+
+		mBytes = new byte[length];
+		for (int i = 0; i < LINES.length; i++)
+		{
+			System.arraycopy(lines[i], 0, mBytes, mOffsets[i], mLengths[i]);
+		}
+	}
+
+	/**
+	 * Parses each line as characters
+	 */
+	@Benchmark
+	@OperationsPerInvocation(8)
+	public int parseChars()
+	{
+		int sum = 0;
+
+		for (int i = 0; i < LINES.length; i++)
+		{
+			mParser.parse(LINES[i], mCommand);
+			sum += mCommand.getValue() + mCommand.getType().ordinal();
+		}
+
+		return sum;
+	}
+
+	/**
+	 * Parses each line in place from the bytes, as the CommandServer does
+	 */
+	@Benchmark
+	@OperationsPerInvocation(8)
+	public int parseBytes()
+	{
+		int sum = 0;
+
+		for (int i = 0; i < LINES.length; i++)
+		{
+			mParser.parse(mBytes, mOffsets[i], mLengths[i], mCommand);
+			sum += mCommand.getValue() + mCommand.getType().ordinal();
+		}
+
+		return sum;
+	}
+
+	/**
+	 * Parses each line as the Console used to, for comparison
+	 */
+	@Benchmark
+	@OperationsPerInvocation(8)
+	public int parseSplit()
+	{
+		int sum = 0;
+
+		for (int i = 0; i < LINES.length; i++)
+		{
+			String input = LINES[i].toLowerCase();
+
+			if (input.startsWith("deposit"))
+			{
+				sum += GBPCoin.of(input.split("deposit ")[1]).getValue();
+			}
+
+			else if (input.startsWith("producecoins"))
+			{
+				sum += Integer.valueOf(input.split("producecoins ")[1]);
+			}
+
+			else if (input.startsWith("check"))
+			{
+				sum++;
+			}
+		}
+
+		return sum;
+	}
+
+}
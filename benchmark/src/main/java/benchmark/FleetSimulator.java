@@ -0,0 +1,372 @@
+package benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import main.ChangeFailure;
+import main.Command;
+import main.CommandParser;
+import main.GBPCoin;
+import main.HistogramSnapshot;
+import main.MetricsHistogram;
+import main.TransactionListener;
+import main.VendingMachine;
+
+/**
+ * Load tests a fleet of Vending Machines on one box, without the Console.
+ *
+ * Each machine is driven by its own task replaying a customer workload: either synthetic customers who
+ * deposit coins for a random price and take their change, or a recorded list of Console commands
+ * (deposit &lt;coin&gt; and producecoins &lt;value&gt;). Once every machine has finished, the aggregate
+ * throughput, the rate of change requests that failed and histograms of the deposit and change latencies
+ * are printed.
+ *
+ * On Java 21 or later every machine gets its own virtual thread. The project is built for Java 8, so the
+ * virtual thread executor is looked up when the simulator starts, and on earlier versions the machines
+ * are shared between a fixed pool of threads instead (one per processor unless --threads is given).
+ * Each machine is created by its task and dropped when it finishes, so hundreds of thousands of machines
+ * can be simulated without holding them all in memory.
+ *
+ * Usage:
+ *
+ *     java -cp benchmark/target/benchmarks.jar benchmark.FleetSimulator [--machines n] [--customers n]
+ *          [--float n] [--threads n] [--seed n] [--workload file]
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public class FleetSimulator
+{
+
+	/** The options, reported with an invalid command line */
+	private static final String USAGE = "Usage: FleetSimulator [--machines n] [--customers n] [--float n] "
+			+ "[--threads n] [--seed n] [--workload file]";
+
+	/** The coins a synthetic customer pays with: 5p up to 2 */
+	private static final GBPCoin[] PAYMENT_COINS = new GBPCoin[] { GBPCoin.of(5), GBPCoin.of(10), GBPCoin.of(20),
+			GBPCoin.of(50), GBPCoin.of(100), GBPCoin.of(200) };
+
+	/** Recorded command: deposit a coin */
+	private static final int DEPOSIT = 0;
+
+	/** Recorded command: produce and dispense coins for a value */
+	private static final int PRODUCE_COINS = 1;
+
+	/** The number of machines to simulate */
+	private int mMachines = 10000;
+
+	/** The number of synthetic customers served by each machine */
+	private int mCustomers = 100;
+
+	/** The quantity of each coin each machine starts with */
+	private int mFloat = 20;
+
+	/** The number of platform threads, or 0 for virtual threads if available, otherwise one per processor */
+	private int mThreads;
+
+	/** Seeds the random customers, each machine uses its own sequence */
+	private long mSeed = 1;
+
+	/** The type of each recorded command, or null for synthetic customers */
+	private int[] mCommandTypes;
+
+	/** The coin index or value of each recorded command */
+	private int[] mCommandArguments;
+
+	/** The latency of each deposit in nanoseconds, recorded by every machine */
+	private final MetricsHistogram mDepositLatency = new MetricsHistogram();
+
+	/** The latency of each change request in nanoseconds, recorded by every machine */
+	private final MetricsHistogram mChangeLatency = new MetricsHistogram();
+
+	/** Counts the changes that failed, by reason */
+	private static class FailureCounter implements TransactionListener
+	{
+		long mInsufficientFunds;
+		long mNotPossible;
+
+		@Override
+		public void changeFailed(int aTargetValue, ChangeFailure aReason)
+		{
+			if (aReason == ChangeFailure.INSUFFICIENT_FUNDS)
+			{
+				mInsufficientFunds++;
+			}
+
+			else
+			{
+				mNotPossible++;
+			}
+		}
+
+		/**
+		 * Adds the failures of another machine
+		 *
+		 * @param aOther The failures of the other machine
+		 */
+		void merge(FailureCounter aOther)
+		{
+			mInsufficientFunds += aOther.mInsufficientFunds;
+			mNotPossible += aOther.mNotPossible;
+		}
+	}
+
+	public static void main(String[] args) throws Exception
+	{
+		FleetSimulator simulator = new FleetSimulator();
+		simulator.parse(args);
+		simulator.run();
+	}
+
+	/**
+	 * Reads the command line options
+	 *
+	 * @param args The options
+	 * @throws IOException if the workload cannot be read
+	 * @throws IllegalArgumentException if an option is unknown or has no value
+	 */
+	private void parse(String[] args) throws IOException
+	{
+		for (int i = 0; i < args.length; i += 2)
+		{
+			if (i + 1 == args.length)
+			{
+				throw new IllegalArgumentException("Missing value for option: " + args[i] + "\n" + USAGE);
+			}
+
+			String value = args[i + 1];
+
+			switch (args[i])
+			{
+			case "--machines":
+				mMachines = Integer.parseInt(value);
+				break;
+			case "--customers":
+				mCustomers = Integer.parseInt(value);
+				break;
+			case "--float":
+				mFloat = Integer.parseInt(value);
+				break;
+			case "--threads":
+				mThreads = Integer.parseInt(value);
+				break;
+			case "--seed":
+				mSeed = Long.parseLong(value);
+				break;
+			case "--workload":
+				readWorkload(value);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option: " + args[i] + "\n" + USAGE);
+			}
+		}
+	}
+
+	/**
+	 * Reads a recorded workload of Console commands, skipping any other lines, including commands with an
+	 * invalid coin or value
+	 *
+	 * @param aPath The file of commands
+	 * @throws IOException if the file cannot be read
+	 */
+	private void readWorkload(String aPath) throws IOException
+	{
+		List<String> lines = Files.readAllLines(Paths.get(aPath), StandardCharsets.UTF_8);
+		ArrayList<int[]> commands = new ArrayList<int[]>();
+		CommandParser parser = new CommandParser();
+		Command command = new Command();
+
+		for (String line : lines)
+		{
+			if (!parser.parse(line, command))
+			{
+				continue;
+			}
+
+			if (command.getType() == Command.Type.DEPOSIT)
+			{
+				commands.add(new int[] { DEPOSIT, command.getCoin().getIndex() });
+			}
+
+			else if (command.getType() == Command.Type.PRODUCE_COINS)
+			{
+				commands.add(new int[] { PRODUCE_COINS, command.getValue() });
+			}
+		}
+
+		mCommandTypes = new int[commands.size()];
+		mCommandArguments = new int[commands.size()];
+
+		for (int i = 0; i < commands.size(); i++)
+		{
+			mCommandTypes[i] = commands.get(i)[0];
+			mCommandArguments[i] = commands.get(i)[1];
+		}
+	}
+
+	/**
+	 * Simulates the fleet and prints the results
+	 *
+	 * @throws Exception if a machine fails
+	 */
+	private void run() throws Exception
+	{
+		ExecutorService executor = mThreads > 0 ? null : newVirtualThreadExecutor();
+		String threads = executor != null ? "a virtual thread per machine" : null;
+
+		if (executor == null)
+		{
+			int count = mThreads > 0 ? mThreads : Runtime.getRuntime().availableProcessors();
+			executor = Executors.newFixedThreadPool(count);
+			threads = count + " platform threads";
+		}
+
+		String workload = mCommandTypes == null ? mCustomers + " customers each"
+				: mCommandTypes.length + " recorded commands each";
+		System.out.println("Machines: " + mMachines + ", " + workload + ", float: " + mFloat + " of each coin, "
+				+ threads);
+
+		long start = System.nanoTime();
+		FailureCounter total = new FailureCounter();
+
+		// Failures are merged as each machine finishes, so only the running machines are held in memory
+		ArrayList<Future<?>> futures = new ArrayList<Future<?>>(mMachines);
+		for (int machine = 0; machine < mMachines; machine++)
+		{
+			final long seed = mSeed * 1_000_003L + machine;
+			futures.add(executor.submit(() ->
+			{
+				FailureCounter failures = simulate(seed);
+				synchronized (total)
+				{
+					total.merge(failures);
+				}
+			}));
+		}
+
+		for (Future<?> future : futures)
+		{
+			future.get();
+		}
+
+		double seconds = (System.nanoTime() - start) / 1e9;
+		executor.shutdown();
+
+		HistogramSnapshot depositLatency = mDepositLatency.getSnapshot();
+		HistogramSnapshot changeLatency = mChangeLatency.getSnapshot();
+		long deposits = depositLatency.getCount();
+		long changes = changeLatency.getCount();
+		long failed = total.mInsufficientFunds + total.mNotPossible;
+
+		System.out.printf("Operations: %d in %.2fs (%.0f operations/s)%n", deposits + changes, seconds,
+				(deposits + changes) / seconds);
+		System.out.printf("Change requests: %d, failed: %.3f%% (insufficient funds: %d, not possible: %d)%n", changes,
+				changes == 0 ? 0.0 : 100.0 * failed / changes, total.mInsufficientFunds,
+				total.mNotPossible);
+		System.out.println("Deposit latency (ns) " + depositLatency);
+		System.out.println("Change latency (ns)  " + changeLatency);
+	}
+
+	/**
+	 * Runs the workload against a new machine
+	 *
+	 * @param aSeed Seeds the machine's customers
+	 * @return The change failures of the machine
+	 */
+	private FailureCounter simulate(long aSeed)
+	{
+		int[] initCoins = new int[GBPCoin.COUNT];
+		Arrays.fill(initCoins, mFloat);
+
+		FailureCounter failures = new FailureCounter();
+		VendingMachine vm = new VendingMachine(initCoins);
+		vm.setTransactionListener(failures);
+
+		if (mCommandTypes != null)
+		{
+			for (int i = 0; i < mCommandTypes.length; i++)
+			{
+				if (mCommandTypes[i] == DEPOSIT)
+				{
+					deposit(vm, GBPCoin.fromIndex(mCommandArguments[i]));
+				}
+
+				else
+				{
+					produceCoins(vm, mCommandArguments[i]);
+				}
+			}
+
+			return failures;
+		}
+
+		SplittableRandom random = new SplittableRandom(aSeed);
+
+		for (int customer = 0; customer < mCustomers; customer++)
+		{
+			int price = random.nextInt(10, 61) * 5; // 50p to 3 in 5p steps
+			int paid = 0;
+
+			while (paid < price)
+			{
+				GBPCoin coin = PAYMENT_COINS[random.nextInt(PAYMENT_COINS.length)];
+				deposit(vm, coin);
+				paid += coin.getValue();
+			}
+
+			produceCoins(vm, paid - price);
+			vm.getCoinsDeposited().clear(); // as the Console does after each customer
+		}
+
+		return failures;
+	}
+
+	/**
+	 * Deposits a coin, recording the latency
+	 */
+	private void deposit(VendingMachine aMachine, GBPCoin aCoin)
+	{
+		long start = System.nanoTime();
+		aMachine.depositCoin(aCoin.getName());
+		mDepositLatency.record(System.nanoTime() - start);
+	}
+
+	/**
+	 * Produces and dispenses the coins for a value, recording the latency
+	 */
+	private void produceCoins(VendingMachine aMachine, int aValue)
+	{
+		long start = System.nanoTime();
+		aMachine.dispenseCoins(aMachine.proceduceCoins(aValue));
+		mChangeLatency.record(System.nanoTime() - start);
+	}
+
+	/**
+	 * Creates an executor starting a virtual thread per task, if the Java version running supports them
+	 *
+	 * @return The executor, or null before Java 21
+	 */
+	private static ExecutorService newVirtualThreadExecutor()
+	{
+		try
+		{
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		}
+
+		catch (ReflectiveOperationException e)
+		{
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,200 @@
+package benchmark;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import main.ChangeFailure;
+import main.ChangeStrategy;
+import main.GBPCoin;
+import main.TransactionListener;
+import main.VendingMachine;
+
+/**
+ * Measures how many customers a starting float survives under each change strategy.
+ *
+ * Every strategy is given the same machines, each created with the VendingMachine(int[]) constructor from
+ * the float, and the same customers: each buys an item for a random price (in steps of 5p by default, between
+ * the minimum and maximum price) and pays with random coins from 5p to 2 until the price is covered. The coins
+ * paid go into the machine and the change is produced and dispensed. A machine has survived until the
+ * first customer it cannot give change to, or the maximum number of customers.
+ *
+ * Customers never pay with 1p or 2p coins, and pay with whichever coins they have rather than those the machine
+ * needs, so the coins held drift away from the float. A strategy that spares the coins it holds fewest of, or
+ * leaves the most amounts makeable, can keep giving change for longer.
+ *
+ * Usage:
+ *
+ *     java -cp benchmark/target/benchmarks.jar benchmark.FloatSurvivalSimulator [--machines n]
+ *          [--float n,n,n,n,n,n,n,n,n] [--min-price n] [--max-price n] [--price-step n]
+ *          [--max-customers n] [--seed n]
+ *
+ * where --float gives the quantity of each coin from 1p to 5, e.g. 1,2,5,1,2,5,1,2,5 (the Console's float).
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public class FloatSurvivalSimulator
+{
+
+	/** The coins a customer pays with: 5p up to 2 */
+	private static final GBPCoin[] PAYMENT_COINS = new GBPCoin[] { GBPCoin.of(5), GBPCoin.of(10), GBPCoin.of(20),
+			GBPCoin.of(50), GBPCoin.of(100), GBPCoin.of(200) };
+
+	/** The number of machines simulated for each strategy */
+	private int mMachines = 1000;
+
+	/** The quantity of each coin each machine starts with, the float used by the Console */
+	private int[] mFloat = new int[] { 1, 2, 5, 1, 2, 5, 1, 2, 5 };
+
+	/** The lowest price of an item in pence */
+	private int mMinPrice = 25;
+
+	/** The highest price of an item in pence */
+	private int mMaxPrice = 300;
+
+	/** Prices are a multiple of this many pence */
+	private int mPriceStep = 5;
+
+	/** The most customers served by a machine */
+	private int mMaxCustomers = 100000;
+
+	/** Seeds the customers, each machine uses its own sequence */
+	private long mSeed = 1;
+
+	/** Stops a machine at the first change that cannot be made */
+	private static class FailureListener implements TransactionListener
+	{
+		boolean mFailed;
+
+		@Override
+		public void changeFailed(int aTargetValue, ChangeFailure aReason)
+		{
+			mFailed = true;
+		}
+	}
+
+	public static void main(String[] args)
+	{
+		FloatSurvivalSimulator simulator = new FloatSurvivalSimulator();
+		simulator.parse(args);
+		simulator.run();
+	}
+
+	/**
+	 * Reads the command line options
+	 *
+	 * @param args The options
+	 */
+	private void parse(String[] args)
+	{
+		for (int i = 0; i + 1 < args.length; i += 2)
+		{
+			String value = args[i + 1];
+
+			switch (args[i])
+			{
+			case "--machines":
+				mMachines = Integer.parseInt(value);
+				break;
+			case "--float":
+				mFloat = Arrays.stream(value.split(",")).mapToInt(Integer::parseInt).toArray();
+				break;
+			case "--min-price":
+				mMinPrice = Integer.parseInt(value);
+				break;
+			case "--max-price":
+				mMaxPrice = Integer.parseInt(value);
+				break;
+			case "--price-step":
+				mPriceStep = Integer.parseInt(value);
+				break;
+			case "--max-customers":
+				mMaxCustomers = Integer.parseInt(value);
+				break;
+			case "--seed":
+				mSeed = Long.parseLong(value);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+		}
+	}
+
+	/**
+	 * Simulates the machines under each strategy and prints how long they survived
+	 */
+	private void run()
+	{
+		System.out.println("Machines: " + mMachines + ", float: " + Arrays.toString(mFloat) + ", prices: "
+				+ mMinPrice + "p to " + mMaxPrice + "p in steps of " + mPriceStep + "p, at most " + mMaxCustomers + " customers");
+
+		for (ChangeStrategy strategy : ChangeStrategy.values())
+		{
+			long start = System.nanoTime();
+			int[] survived = new int[mMachines];
+
+			for (int machine = 0; machine < mMachines; machine++)
+			{
+				survived[machine] = simulate(strategy, mSeed * 1_000_003L + machine);
+			}
+
+			double seconds = (System.nanoTime() - start) / 1e9;
+			Arrays.sort(survived);
+
+			System.out.printf("%-22s customers served: mean %.1f, p10 %d, median %d, p90 %d (%.2fs)%n", strategy,
+					Arrays.stream(survived).average().orElse(0), percentile(survived, 10), percentile(survived, 50),
+					percentile(survived, 90), seconds);
+		}
+	}
+
+	/**
+	 * Serves customers until the machine cannot give change
+	 *
+	 * @param aStrategy The change strategy
+	 * @param aSeed Seeds the machine's customers
+	 * @return The number of customers given their change
+	 */
+	private int simulate(ChangeStrategy aStrategy, long aSeed)
+	{
+		VendingMachine vm = new VendingMachine(mFloat);
+		vm.setChangeStrategy(aStrategy);
+
+		FailureListener failures = new FailureListener();
+		vm.setTransactionListener(failures);
+
+		SplittableRandom random = new SplittableRandom(aSeed);
+
+		for (int customer = 0; customer < mMaxCustomers; customer++)
+		{
+			int price = random.nextInt(mMinPrice / mPriceStep, mMaxPrice / mPriceStep + 1) * mPriceStep;
+			int paid = 0;
+
+			while (paid < price)
+			{
+				GBPCoin coin = PAYMENT_COINS[random.nextInt(PAYMENT_COINS.length)];
+				vm.depositCoin(coin);
+				paid += coin.getValue();
+			}
+
+			vm.dispenseCoins(vm.proceduceCoins(paid - price));
+			vm.getCoinsDeposited().clear(); // as the Console does after each customer
+
+			if (failures.mFailed)
+			{
+				return customer;
+			}
+		}
+
+		return mMaxCustomers;
+	}
+
+	/**
+	 * Gets a percentile of sorted values
+	 */
+	private static int percentile(int[] aSorted, int aPercentile)
+	{
+		return aSorted.length == 0 ? 0 : aSorted[Math.min(aSorted.length - 1, aSorted.length * aPercentile / 100)];
+	}
+
+}
@@ -0,0 +1,66 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import main.GBPCoin;
+
+/**
+ * Benchmarks creating and looking up GBP coins
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GBPCoinBenchmark
+{
+
+	/** The coin to create */
+	@Param({ "1p", "50p", "5" })
+	public String mName;
+
+	/** The value of the coin in pence */
+	private int mValue;
+
+	@Setup
+	public void setup()
+	{
+		mValue = GBPCoin.of(mName).getValue();
+	}
+
+	@Benchmark
+	public GBPCoin constructByName()
+	{
+		return new GBPCoin(mName);
+	}
+
+	@Benchmark
+	public GBPCoin constructByValue()
+	{
+		return new GBPCoin(mValue);
+	}
+
+	@Benchmark
+	public GBPCoin ofName()
+	{
+		return GBPCoin.of(mName);
+	}
+
+	@Benchmark
+	public GBPCoin ofValue()
+	{
+		return GBPCoin.of(mValue);
+	}
+
+}
@@ -0,0 +1,110 @@
+package benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import main.CurrencyProfile;
+import main.GBPCoin;
+import main.InventorySnapshot;
+
+/**
+ * Benchmarks scanning the snapshots of a fleet of Vending Machines packed into one direct buffer
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class InventorySnapshotBenchmark
+{
+
+	/** The size of a snapshot of GBP coins */
+	private static final int SIZE = InventorySnapshot.size(CurrencyProfile.GBP);
+
+	/** The number of machines in the fleet */
+	@Param({ "10000", "1000000" })
+	public int mMachines;
+
+	/** A snapshot of every machine, back to back */
+	private ByteBuffer mSnapshots;
+
+	/** The same snapshots after some coins have been deposited and dispensed */
+	private ByteBuffer mLaterSnapshots;
+
+	/** The total of each coin across the fleet */
+	private long[] mTotals = new long[GBPCoin.COUNT];
+
+	/** The change in each coin of one machine */
+	private long[] mDiff = new long[GBPCoin.COUNT];
+
+	@Setup
+	public void setup()
+	{
+		Random random = new Random(1);
+		int[] coins = new int[GBPCoin.COUNT];
+
+		mSnapshots = ByteBuffer.allocateDirect(mMachines * SIZE);
+		mLaterSnapshots = ByteBuffer.allocateDirect(mMachines * SIZE);
+
+		for (int machine = 0; machine < mMachines; machine++)
+		{
+			for (int i = 0; i < coins.length; i++)
+			{
+				coins[i] = random.nextInt(100);
+			}
+			InventorySnapshot.write(mSnapshots, machine * SIZE, 1, coins);
+
+			coins[random.nextInt(coins.length)]++;
+			InventorySnapshot.write(mLaterSnapshots, machine * SIZE, 2, coins);
+		}
+	}
+
+	/**
+	 * Totals the coins held across the fleet
+	 */
+	@Benchmark
+	public long[] total()
+	{
+		Arrays.fill(mTotals, 0);
+
+		for (int offset = 0; offset < mSnapshots.capacity(); offset += SIZE)
+		{
+			InventorySnapshot.addTo(mSnapshots, offset, mTotals);
+		}
+
+		return mTotals;
+	}
+
+	/**
+	 * Counts the machines whose coins have changed between two scans of the fleet
+	 */
+	@Benchmark
+	public int diff()
+	{
+		int changed = 0;
+
+		for (int offset = 0; offset < mSnapshots.capacity(); offset += SIZE)
+		{
+			if (InventorySnapshot.diff(mSnapshots, offset, mLaterSnapshots, offset, mDiff))
+			{
+				changed++;
+			}
+		}
+
+		return changed;
+	}
+
+}
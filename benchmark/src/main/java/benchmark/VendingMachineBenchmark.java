@@ -0,0 +1,194 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import main.BoundedChangeSolver;
+import main.CachingChangeSolver;
+import main.ChangeQuote;
+import main.Denomination;
+import main.GBPCoin;
+import main.LowStockPredictor;
+import main.VendingMachine;
+import main.VendingMachineMetrics;
+
+/**
+ * Benchmarks the Vending Machine APIs for a range of float sizes and target values.
+ *
+ * Each benchmark leaves the machine as it found it, so results do not drift as the
+ * benchmark runs. As a result depositing is measured together with dispensing the coin
+ * again, and dispensing together with depositing the coins again.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VendingMachineBenchmark
+{
+
+	/** The quantity of each coin in the float */
+	@Param({ "10", "1000", "100000" })
+	public int mCoinsPerDenomination;
+
+	/** The value in pence to produce coins for */
+	@Param({ "60", "748", "3050" })
+	public int mTargetValue;
+
+	/** The machine under test */
+	private VendingMachine mMachine;
+
+	/** A machine with the same float, remembering the change calculated */
+	private VendingMachine mCachingMachine;
+
+	/** A machine with the same float, recording into metrics */
+	private VendingMachine mMeteredMachine;
+
+	/** A machine with the same float, predicting when each coin runs out */
+	private VendingMachine mPredictedMachine;
+
+	/** Coins for the target value, calculated once for the dispense benchmark */
+	private ArrayList<Denomination> mCoinsForTarget;
+
+	/** Names of the coins for the target value, to deposit them back */
+	private String[] mCoinNamesForTarget;
+
+	/** A single 20p coin, to dispense after depositing one */
+	private ArrayList<Denomination> mTwentyPence;
+
+	@Setup
+	public void setup()
+	{
+		int[] initCoins = new int[GBPCoin.COUNT];
+		Arrays.fill(initCoins, mCoinsPerDenomination);
+
+		mMachine = new VendingMachine(initCoins);
+
+		mCachingMachine = new VendingMachine(initCoins);
+		mCachingMachine.setChangeSolver(new CachingChangeSolver(new BoundedChangeSolver()));
+
+		mMeteredMachine = new VendingMachine(initCoins);
+		mMeteredMachine.setMetrics(new VendingMachineMetrics());
+
+		mPredictedMachine = new VendingMachine(initCoins);
+		mPredictedMachine.setTransactionListener(new LowStockPredictor(mPredictedMachine, 3600));
+
+		mTwentyPence = new ArrayList<Denomination>();
+		mTwentyPence.add(GBPCoin.of(20));
+
+		mCoinsForTarget = new ArrayList<Denomination>(mMachine.proceduceCoins(mTargetValue));
+		mCoinNamesForTarget = new String[mCoinsForTarget.size()];
+		for (int i = 0; i < mCoinNamesForTarget.length; i++)
+		{
+			mCoinNamesForTarget[i] = mCoinsForTarget.get(i).getName();
+		}
+	}
+
+	@Benchmark
+	public ArrayList<Denomination> proceduceCoins()
+	{
+		return mMachine.proceduceCoins(mTargetValue);
+	}
+
+	/**
+	 * Produces coins while recording metrics, to compare with proceduceCoins for the cost of recording
+	 */
+	@Benchmark
+	public ArrayList<Denomination> proceduceCoinsWithMetrics()
+	{
+		return mMeteredMachine.proceduceCoins(mTargetValue);
+	}
+
+	/**
+	 * Produces coins for a value already requested, so the plan is found in the cache
+	 */
+	@Benchmark
+	public ArrayList<Denomination> proceduceCoinsCached()
+	{
+		return mCachingMachine.proceduceCoins(mTargetValue);
+	}
+
+	/**
+	 * Quotes the change for the target value without changing the machine
+	 */
+	@Benchmark
+	public ChangeQuote quoteChange()
+	{
+		return mMachine.quoteChange(mTargetValue);
+	}
+
+	/**
+	 * Checks whether change can be made for the target value, from the bitset of makeable amounts
+	 */
+	@Benchmark
+	public boolean canMakeChange()
+	{
+		return mMachine.canMakeChange(mTargetValue);
+	}
+
+	@Benchmark
+	public boolean hasSufficientFunds()
+	{
+		return mMachine.hasSufficientFunds(mTargetValue);
+	}
+
+	/**
+	 * Deposits a coin, dispensing it again so the float does not grow
+	 */
+	@Benchmark
+	public long depositCoin()
+	{
+		mMachine.depositCoin("20p");
+		mMachine.dispenseCoins(mTwentyPence);
+		mMachine.getCoinsDeposited().clear(); // as the Console does after each customer
+		return mMachine.getTotalFundsInPence();
+	}
+
+	/**
+	 * Deposits and dispenses a coin as depositCoin does, with each event updating the low stock prediction
+	 */
+	@Benchmark
+	public long depositCoinWithPrediction()
+	{
+		mPredictedMachine.depositCoin("20p");
+		mPredictedMachine.dispenseCoins(mTwentyPence);
+		mPredictedMachine.getCoinsDeposited().clear(); // as the Console does after each customer
+		return mPredictedMachine.getTotalFundsInPence();
+	}
+
+	/**
+	 * Dispenses the coins for the target value, depositing them again so the float does not run out
+	 */
+	@Benchmark
+	public long dispenseCoins()
+	{
+		mMachine.dispenseCoins(mCoinsForTarget);
+
+		for (int i = 0; i < mCoinNamesForTarget.length; i++)
+		{
+			mMachine.depositCoin(mCoinNamesForTarget[i]);
+		}
+
+		mMachine.getCoinsDeposited().clear(); // as the Console does after each customer
+		return mMachine.getTotalFundsInPence();
+	}
+
+	@Benchmark
+	public String getInternalModelString()
+	{
+		return mMachine.getInternalModelString();
+	}
+
+}
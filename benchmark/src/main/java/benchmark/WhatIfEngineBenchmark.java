@@ -0,0 +1,100 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import main.ChangeStrategy;
+import main.GBPCoin;
+import main.WhatIfEngine;
+
+/**
+ * Benchmarks replaying a week of sales under every change strategy at a range of price changes, on one
+ * thread and on every core
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WhatIfEngineBenchmark
+{
+
+	/** The number of sales recorded, about a week for a busy machine */
+	@Param({ "10000" })
+	public int mSales;
+
+	/** The engine holding the sales */
+	private WhatIfEngine mEngine;
+
+	/** Each strategy at price changes from -20p to +20p */
+	private ArrayList<WhatIfEngine.Scenario> mScenarios = new ArrayList<WhatIfEngine.Scenario>();
+
+	/** A pool evaluating one scenario at a time */
+	private ForkJoinPool mSingleThread;
+
+	@Setup
+	public void setup()
+	{
+		SplittableRandom random = new SplittableRandom(1);
+		mEngine = new WhatIfEngine(new int[] { 20, 20, 20, 20, 20, 20, 20, 20, 20 });
+
+		for (int sale = 0; sale < mSales; sale++)
+		{
+			int price = random.nextInt(5, 61) * 5;
+			int[] coins = new int[GBPCoin.COUNT];
+			int paid = 0;
+
+			while (paid < price)
+			{
+				int index = random.nextInt(2, 8); // 5p to 2
+				coins[index]++;
+				paid += GBPCoin.fromIndex(index).getValue();
+			}
+
+			mEngine.addSale(coins, price);
+		}
+
+		for (ChangeStrategy strategy : ChangeStrategy.values())
+		{
+			for (int priceChange = -20; priceChange <= 20; priceChange += 5)
+			{
+				mScenarios.add(new WhatIfEngine.Scenario(strategy, priceChange));
+			}
+		}
+
+		mSingleThread = new ForkJoinPool(1);
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		mSingleThread.shutdown();
+	}
+
+	@Benchmark
+	public WhatIfEngine.Outcome[] evaluateSingleThread()
+	{
+		return mEngine.evaluate(mScenarios, mSingleThread);
+	}
+
+	@Benchmark
+	public WhatIfEngine.Outcome[] evaluateParallel()
+	{
+		return mEngine.evaluate(mScenarios);
+	}
+
+}
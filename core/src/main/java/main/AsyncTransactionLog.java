@@ -0,0 +1,435 @@
+package main;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * Passes the events of a Vending Machine to another listener on a background thread,
+ * so that writing the messages is taken off the thread depositing and producing coins.
+ *
+ * Events are copied into a fixed ring of pre-allocated slots, so recording an event does not
+ * create any objects or build any messages. The background thread wakes once a batch of events
+ * is waiting (or the flush interval passes), passes them to the listener and then flushes it
+ * once for the whole batch if it is Flushable.
+ *
+ * If the ring is full the event is dropped rather than blocking the Vending Machine;
+ * the number dropped is available from getDroppedCount. An event the listener fails to write is
+ * counted by getFailedCount and the events after it are still written.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public class AsyncTransactionLog implements TransactionListener, Closeable
+{
+
+	private static final int COIN_DEPOSITED = 0;
+	private static final int COIN_REJECTED = 1;
+	private static final int CHANGE_PRODUCED = 2;
+	private static final int CHANGE_FAILED = 3;
+	private static final int COIN_DISPENSED = 4;
+	private static final int COINS_DEPOSITED = 5;
+	private static final int COINS_DISPENSED = 6;
+
+	/** A recorded event waiting to be written */
+	private static class Event
+	{
+		int mType;
+		long mValue;
+		Denomination mCoin;
+		String mCoinName;
+		String mReason;
+		ChangeFailure mFailure;
+		int[] mCoinCounts = new int[GBPCoin.COUNT];
+	}
+
+	/** The listener the events are passed to */
+	private final TransactionListener mDelegate;
+
+	/** Ring of event slots */
+	private final Event[] mEvents;
+
+	/** The number of events waiting before the background thread is woken early */
+	private final int mBatchSize;
+
+	/** The longest time an event waits before being written */
+	private final long mFlushIntervalMillis;
+
+	/** Guards the fields below */
+	private final Object mLock = new Object();
+
+	/** The slot of the oldest event not yet written */
+	private int mHead;
+
+	/** The number of events recorded but not yet written (including those being written) */
+	private int mPending;
+
+	/** The number of events dropped because the ring was full */
+	private long mDropped;
+
+	/** The number of events the listener threw on */
+	private long mFailed;
+
+	/** Whether the log has been closed */
+	private boolean mClosed;
+
+	/** The background thread writing the events */
+	private final Thread mWriter;
+
+	/**
+	 * Creates a log with room for 8192 events, written in batches of up to 256 or every 100ms
+	 *
+	 * @param aDelegate The listener the events are passed to
+	 */
+	public AsyncTransactionLog(TransactionListener aDelegate)
+	{
+		this(aDelegate, 8192, 256, 100);
+	}
+
+	/**
+	 * Creates a log
+	 *
+	 * @param aDelegate The listener the events are passed to
+	 * @param aCapacity The number of events that can be waiting before events are dropped
+	 * @param aBatchSize The number of events waiting before they are written early
+	 * @param aFlushIntervalMillis The longest time in milliseconds an event waits before being written
+	 */
+	public AsyncTransactionLog(TransactionListener aDelegate, int aCapacity, int aBatchSize, long aFlushIntervalMillis)
+	{
+		if (aCapacity <= 0 || aBatchSize <= 0 || aBatchSize > aCapacity || aFlushIntervalMillis <= 0)
+		{
+			throw new IllegalArgumentException("Invalid log capacity: " + aCapacity + ", batch size: " + aBatchSize
+					+ ", flush interval: " + aFlushIntervalMillis);
+		}
+
+		mDelegate = aDelegate;
+		mBatchSize = aBatchSize;
+		mFlushIntervalMillis = aFlushIntervalMillis;
+
+		mEvents = new Event[aCapacity];
+		for (int i = 0; i < aCapacity; i++)
+		{
+			mEvents[i] = new Event();
+		}
+
+		mWriter = new Thread(this::writeEvents, "transaction-log");
+		mWriter.setDaemon(true);
+		mWriter.start();
+	}
+
+	/**
+	 * Gets the number of events dropped because too many were waiting to be written
+	 * @return the number of events dropped
+	 */
+	public long getDroppedCount()
+	{
+		synchronized (mLock)
+		{
+			return mDropped;
+		}
+	}
+
+	/**
+	 * Gets the number of events the listener failed to write by throwing an exception
+	 * @return the number of events that failed
+	 */
+	public long getFailedCount()
+	{
+		synchronized (mLock)
+		{
+			return mFailed;
+		}
+	}
+
+	@Override
+	public void coinDeposited(Denomination aCoin, long aTotalFunds)
+	{
+		synchronized (mLock)
+		{
+			Event event = claim(COIN_DEPOSITED);
+			if (event != null)
+			{
+				event.mCoin = aCoin;
+				event.mValue = aTotalFunds;
+				recorded();
+			}
+		}
+	}
+
+	@Override
+	public void coinsDeposited(int[] aCoinCounts, long aTotalFunds)
+	{
+		synchronized (mLock)
+		{
+			Event event = claim(COINS_DEPOSITED);
+			if (event != null)
+			{
+				copyCoinCounts(event, aCoinCounts);
+				event.mValue = aTotalFunds;
+				recorded();
+			}
+		}
+	}
+
+	@Override
+	public void coinRejected(String aCoin, String aReason)
+	{
+		synchronized (mLock)
+		{
+			Event event = claim(COIN_REJECTED);
+			if (event != null)
+			{
+				event.mCoinName = aCoin;
+				event.mReason = aReason;
+				recorded();
+			}
+		}
+	}
+
+	@Override
+	public void changeProduced(int aTargetValue, int[] aCoinsChosen)
+	{
+		synchronized (mLock)
+		{
+			Event event = claim(CHANGE_PRODUCED);
+			if (event != null)
+			{
+				copyCoinCounts(event, aCoinsChosen);
+				event.mValue = aTargetValue;
+				recorded();
+			}
+		}
+	}
+
+	@Override
+	public void changeFailed(int aTargetValue, ChangeFailure aReason)
+	{
+		synchronized (mLock)
+		{
+			Event event = claim(CHANGE_FAILED);
+			if (event != null)
+			{
+				event.mValue = aTargetValue;
+				event.mFailure = aReason;
+				recorded();
+			}
+		}
+	}
+
+	@Override
+	public void coinDispensed(Denomination aCoin, long aTotalFunds)
+	{
+		synchronized (mLock)
+		{
+			Event event = claim(COIN_DISPENSED);
+			if (event != null)
+			{
+				event.mCoin = aCoin;
+				event.mValue = aTotalFunds;
+				recorded();
+			}
+		}
+	}
+
+	@Override
+	public void coinsDispensed(int[] aCoinCounts, long aTotalFunds)
+	{
+		synchronized (mLock)
+		{
+			Event event = claim(COINS_DISPENSED);
+			if (event != null)
+			{
+				copyCoinCounts(event, aCoinCounts);
+				event.mValue = aTotalFunds;
+				recorded();
+			}
+		}
+	}
+
+	/**
+	 * Writes any waiting events and stops the background thread.
+	 * Events recorded after closing are dropped.
+	 */
+	@Override
+	public void close()
+	{
+		synchronized (mLock)
+		{
+			mClosed = true;
+			mLock.notifyAll();
+		}
+
+		try
+		{
+			mWriter.join();
+		}
+
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Claims the next free slot for an event, must be called holding mLock
+	 *
+	 * @param aType The type of event
+	 * @return The slot, or null if the event must be dropped
+	 */
+	private Event claim(int aType)
+	{
+		if (mClosed || mPending == mEvents.length)
+		{
+			mDropped++;
+			return null;
+		}
+
+		Event event = mEvents[(mHead + mPending) % mEvents.length];
+		event.mType = aType;
+		return event;
+	}
+
+	/**
+	 * Copies the quantity of each coin into a claimed slot, as the listener's array is only valid during the call
+	 *
+	 * @param aEvent The slot
+	 * @param aCoinCounts The quantity of each coin
+	 */
+	private static void copyCoinCounts(Event aEvent, int[] aCoinCounts)
+	{
+		if (aEvent.mCoinCounts.length != aCoinCounts.length)
+		{
+			aEvent.mCoinCounts = new int[aCoinCounts.length];
+		}
+
+		System.arraycopy(aCoinCounts, 0, aEvent.mCoinCounts, 0, aCoinCounts.length);
+	}
+
+	/**
+	 * Marks the claimed slot as recorded, must be called holding mLock
+	 */
+	private void recorded()
+	{
+		mPending++;
+
+		if (mPending == mBatchSize)
+		{
+			mLock.notifyAll();
+		}
+	}
+
+	/**
+	 * Background thread: waits for batches of events and passes them to the listener
+	 */
+	private void writeEvents()
+	{
+		while (true)
+		{
+			int start;
+			int count;
+
+			synchronized (mLock)
+			{
+				if (mPending < mBatchSize && !mClosed)
+				{
+					try
+					{
+						mLock.wait(mFlushIntervalMillis);
+					}
+
+					catch (InterruptedException e)
+					{
+						Thread.currentThread().interrupt();
+						return;
+					}
+				}
+
+				if (mPending == 0)
+				{
+					if (mClosed)
+					{
+						return;
+					}
+					continue;
+				}
+
+				start = mHead;
+				count = mPending;
+			}
+
+			// The slots being written are still counted as pending, so cannot be reused meanwhile
+			int failed = 0;
+
+			for (int i = 0; i < count; i++)
+			{
+				try
+				{
+					write(mEvents[(start + i) % mEvents.length]);
+				}
+
+				catch (RuntimeException e)
+				{
+					// Keep draining, or the ring would fill and every later event be dropped
+					failed++;
+				}
+			}
+
+			if (mDelegate instanceof Flushable)
+			{
+				try
+				{
+					((Flushable) mDelegate).flush();
+				}
+
+				catch (IOException | RuntimeException e)
+				{
+					// Keep logging, the next flush may succeed
+				}
+			}
+
+			synchronized (mLock)
+			{
+				mHead = (mHead + count) % mEvents.length;
+				mPending -= count;
+				mFailed += failed;
+			}
+		}
+	}
+
+	/**
+	 * Passes a recorded event to the listener
+	 *
+	 * @param aEvent The event
+	 */
+	private void write(Event aEvent)
+	{
+		switch (aEvent.mType)
+		{
+		case COIN_DEPOSITED:
+			mDelegate.coinDeposited(aEvent.mCoin, aEvent.mValue);
+			break;
+		case COIN_REJECTED:
+			mDelegate.coinRejected(aEvent.mCoinName, aEvent.mReason);
+			break;
+		case CHANGE_PRODUCED:
+			mDelegate.changeProduced((int) aEvent.mValue, aEvent.mCoinCounts);
+			break;
+		case CHANGE_FAILED:
+			mDelegate.changeFailed((int) aEvent.mValue, aEvent.mFailure);
+			break;
+		case COIN_DISPENSED:
+			mDelegate.coinDispensed(aEvent.mCoin, aEvent.mValue);
+			break;
+		case COINS_DEPOSITED:
+			mDelegate.coinsDeposited(aEvent.mCoinCounts, aEvent.mValue);
+			break;
+		case COINS_DISPENSED:
+			mDelegate.coinsDispensed(aEvent.mCoinCounts, aEvent.mValue);
+			break;
+		default:
+			break;
+		}
+	}
+
+}
@@ -0,0 +1,283 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * Produces change using the fewest coins possible from a limited supply of each coin.
+ *
+ * Subclasses may weigh some coins more than others (see weighCoins), in which case the change
+ * with the lowest total weight is produced instead.
+ *
+ * This is the bounded knapsack (coin change) problem. The table of minimum coins for every
+ * value up to the target is built one denomination at a time. For each denomination, values
+ * are grouped by their remainder against the coin's value and a sliding window minimum over
+ * the last 'quantity available' entries gives the best number of that coin to use.
+ *
+ * Unlike taking the largest coins first, this always finds an answer when one exists,
+ * e.g. 60p from 1 x 50p and 3 x 20p.
+ *
+ * Time complexity: O(denominations * target)
+ *
+ * The work arrays are kept between calls and only grown when a larger target is requested,
+ * so repeated calls do not allocate. Instances are therefore not thread-safe.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public class BoundedChangeSolver implements ChangeSolver
+{
+
+	/** Marks a value that cannot be made from the coins considered so far */
+	private static final int UNREACHABLE = Integer.MAX_VALUE / 2;
+
+	/** Fewest coins needed for each value using the denominations considered so far */
+	private int[] mMinCoins = new int[0];
+
+	/** Fewest coins needed for each value before the current denomination was considered */
+	private int[] mPreviousMinCoins = new int[0];
+
+	/** The quantity of each denomination used to reach each value: [denomination][value] */
+	private int[][] mCoinsUsed = new int[0][0];
+
+	/** Sliding window of candidate coin counts for the current remainder */
+	private int[] mWindow = new int[0];
+
+	/** The ordering key of each entry in the sliding window */
+	private int[] mWindowKeys = new int[0];
+
+	/** The weight of using one of each denomination */
+	private int[] mCosts = new int[0];
+
+	@Override
+	public boolean solve(int aTargetValue, int[] aCoinValues, int[] aAvailable, int[] aResult)
+	{
+		int denominations = aCoinValues.length;
+		Arrays.fill(aResult, 0, denominations, 0);
+
+		if (aTargetValue <= 0)
+		{
+			return aTargetValue == 0;
+		}
+
+		ensureCapacity(denominations, aTargetValue);
+		int[] costs = weigh(aTargetValue, aCoinValues, aAvailable);
+
+		int[] previous = mPreviousMinCoins;
+		int[] current = mMinCoins;
+
+		Arrays.fill(previous, 0, aTargetValue + 1, UNREACHABLE);
+		previous[0] = 0;
+
+		for (int i = 0; i < denominations; i++)
+		{
+			int coinValue = aCoinValues[i];
+			int[] used = mCoinsUsed[i];
+			int quantity = Math.min(aAvailable[i], aTargetValue / coinValue); // more than this never helps
+
+			if (quantity <= 0)
+			{
+				System.arraycopy(previous, 0, current, 0, aTargetValue + 1);
+				Arrays.fill(used, 0, aTargetValue + 1, 0);
+			}
+
+			else if (quantity == aTargetValue / coinValue) // the quantity held never limits this coin
+			{
+				fillUnlimited(coinValue, costs[i], aTargetValue, previous, current, used);
+			}
+
+			else
+			{
+				for (int remainder = 0; remainder < coinValue && remainder <= aTargetValue; remainder++)
+				{
+					fillRemainder(remainder, coinValue, costs[i], quantity, aTargetValue, previous, current, used);
+				}
+			}
+
+			int[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+
+		if (previous[aTargetValue] >= UNREACHABLE)
+		{
+			return false;
+		}
+
+		// Walk back from the largest denomination to recover the coins used
+		int value = aTargetValue;
+		for (int i = denominations - 1; i >= 0; i--)
+		{
+			int count = mCoinsUsed[i][value];
+			aResult[i] = count;
+			value -= count * aCoinValues[i];
+		}
+
+		return true;
+	}
+
+	/**
+	 * Calculates the fewest coins for every value when as many of the current coin as needed can be used,
+	 * which only needs a single pass in ascending order of value
+	 * 
+	 * @param aCoinValue The value of the current coin in pence
+	 * @param aCost The weight of one of the current coin
+	 * @param aTargetValue The largest value to calculate
+	 * @param aPrevious Fewest coins for each value before this coin
+	 * @param aCurrent Filled with the fewest coins for each value including this coin
+	 * @param aUsed Filled with the quantity of this coin used for each value
+	 */
+	private void fillUnlimited(int aCoinValue, int aCost, int aTargetValue, int[] aPrevious, int[] aCurrent,
+			int[] aUsed)
+	{
+		System.arraycopy(aPrevious, 0, aCurrent, 0, aCoinValue);
+		Arrays.fill(aUsed, 0, aCoinValue, 0);
+
+		for (int value = aCoinValue; value <= aTargetValue; value++)
+		{
+			int without = aPrevious[value];
+			int with = aCurrent[value - aCoinValue] + aCost;
+
+			if (with <= without) // prefer the larger coin when the number of coins is the same
+			{
+				aCurrent[value] = with;
+				aUsed[value] = aUsed[value - aCoinValue] + 1;
+			}
+
+			else
+			{
+				aCurrent[value] = without;
+				aUsed[value] = 0;
+			}
+		}
+	}
+
+	/**
+	 * Calculates the fewest coins for every value sharing the given remainder, using up
+	 * to the given quantity of the current coin on top of the previous denominations
+	 *
+	 * @param aRemainder The remainder of the values against the coin's value
+	 * @param aCoinValue The value of the current coin in pence
+	 * @param aCost The weight of one of the current coin
+	 * @param aQuantity The quantity of the current coin available
+	 * @param aTargetValue The largest value to calculate
+	 * @param aPrevious Fewest coins for each value before this coin
+	 * @param aCurrent Filled with the fewest coins for each value including this coin
+	 * @param aUsed Filled with the quantity of this coin used for each value
+	 */
+	private void fillRemainder(int aRemainder, int aCoinValue, int aCost, int aQuantity, int aTargetValue,
+			int[] aPrevious, int[] aCurrent, int[] aUsed)
+	{
+		int[] window = mWindow;
+		int[] keys = mWindowKeys;
+		int head = 0;
+		int tail = 0;
+
+		// Value v = remainder + step * coinValue. Using (step - s) of this coin on top of
+		// previous[remainder + s * coinValue] costs previous[...] - s * cost + step * cost, so keep
+		// the window ordered by previous[...] - s * cost.
+		for (int step = 0, value = aRemainder; value <= aTargetValue; step++, value += aCoinValue)
+		{
+			int coins = aPrevious[value];
+
+			if (coins < UNREACHABLE)
+			{
+				int key = coins - step * aCost;
+
+				while (tail > head && keys[tail - 1] > key)
+				{
+					tail--;
+				}
+
+				keys[tail] = key;
+				window[tail++] = step;
+			}
+
+			while (head < tail && window[head] < step - aQuantity)
+			{
+				head++;
+			}
+
+			if (head < tail)
+			{
+				aCurrent[value] = keys[head] + step * aCost;
+				aUsed[value] = step - window[head];
+			}
+
+			else
+			{
+				aCurrent[value] = UNREACHABLE;
+				aUsed[value] = 0;
+			}
+		}
+	}
+
+	/**
+	 * Weighs the denominations for a problem, falling back to counting coins if the weights
+	 * could overflow the table
+	 *
+	 * @return The weight of each denomination
+	 */
+	private int[] weigh(int aTargetValue, int[] aCoinValues, int[] aAvailable)
+	{
+		int[] costs = mCosts;
+		Arrays.fill(costs, 0, aCoinValues.length, 1);
+		weighCoins(aTargetValue, aCoinValues, aAvailable, costs);
+
+		for (int i = 0; i < aCoinValues.length; i++)
+		{
+			if (costs[i] < 1 || (long) costs[i] * aTargetValue >= UNREACHABLE)
+			{
+				Arrays.fill(costs, 0, aCoinValues.length, 1);
+				break;
+			}
+		}
+
+		return costs;
+	}
+
+	/**
+	 * Sets the weight of using one of each denomination. By default every coin weighs 1, so the change
+	 * with the fewest coins is produced.
+	 *
+	 * @param aTargetValue The value in pence the coins must sum to
+	 * @param aCoinValues The value of each denomination in pence, ascending
+	 * @param aAvailable The quantity of each denomination available to use
+	 * @param aCosts Filled with the weight of each denomination, at least 1; holds 1 for each when called
+	 */
+	protected void weighCoins(int aTargetValue, int[] aCoinValues, int[] aAvailable, int[] aCosts)
+	{
+		// Every coin weighs 1
+	}
+
+	/**
+	 * Grows the work arrays if they are too small for the given problem
+	 *
+	 * @param aDenominations The number of denominations
+	 * @param aTargetValue The target value in pence
+	 */
+	private void ensureCapacity(int aDenominations, int aTargetValue)
+	{
+		int size = aTargetValue + 1;
+		boolean grown = false;
+
+		if (mMinCoins.length < size)
+		{
+			mMinCoins = new int[size];
+			mPreviousMinCoins = new int[size];
+			mWindow = new int[size];
+			mWindowKeys = new int[size];
+			grown = true;
+		}
+
+		if (mCosts.length < aDenominations)
+		{
+			mCosts = new int[aDenominations];
+		}
+
+		if (grown || mCoinsUsed.length < aDenominations)
+		{
+			mCoinsUsed = new int[Math.max(aDenominations, mCoinsUsed.length)][mMinCoins.length];
+		}
+	}
+}
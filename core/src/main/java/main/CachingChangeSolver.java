@@ -0,0 +1,213 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * Remembers the change calculated for recent target values, so repeat requests become a table lookup.
+ *
+ * Plans are held in a fixed table of 2-way sets indexed by the target value, so the memory used is bounded
+ * by the capacity given. When both entries of a set are in use the least recently used one is replaced.
+ * As the set is chosen from the low bits of the target, a run of common values (e.g. 0 to 10 in 5p steps)
+ * is spread across the table rather than competing for the same entries.
+ *
+ * The quantity of each coin is compared with the quantities last seen on each call. When a quantity has
+ * changed only the plans it affects are discarded: a plan for target t depends on the quantity of a coin
+ * only up to t / value, as no more of that coin could ever be used, so e.g. depositing a 2 coin does not
+ * affect any plan below 2 and a float well stocked with a coin is unaffected by small changes to it.
+ * Plans therefore match those of the wrapped solver exactly, provided it also only considers the coins
+ * that could be used for the target (as BoundedChangeSolver does).
+ *
+ * As with the solvers it wraps, instances are not thread-safe.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public class CachingChangeSolver implements ChangeSolver
+{
+
+	/** The number of entries in each set */
+	private static final int WAYS = 2;
+
+	/** The solver used when a plan is not in the table */
+	private final ChangeSolver mSolver;
+
+	/** The number of sets less one, to select a set from the target value */
+	private final int mSetMask;
+
+	/** The target value of each entry */
+	private final int[] mTargets;
+
+	/** Whether each entry holds a current plan */
+	private final boolean[] mValid;
+
+	/** Whether the target value of each entry can be made */
+	private final boolean[] mPossible;
+
+	/** The quantity of each coin used by each entry: [entry][denomination] */
+	private int[][] mPlans = new int[0][0];
+
+	/** The entry (0 or 1) of each set used least recently */
+	private final int[] mLeastRecentlyUsed;
+
+	/** The value of each coin the plans were calculated for */
+	private int[] mCoinValues = new int[0];
+
+	/** The quantity of each coin the plans are valid for */
+	private int[] mQuantities = new int[0];
+
+	/** The number of requests answered from the table */
+	private long mHits;
+
+	/** The number of requests passed to the wrapped solver */
+	private long mMisses;
+
+	/**
+	 * Creates a cache holding up to 512 plans
+	 *
+	 * @param aSolver The solver used when a plan is not in the table
+	 */
+	public CachingChangeSolver(ChangeSolver aSolver)
+	{
+		this(aSolver, 512);
+	}
+
+	/**
+	 * Creates a cache
+	 *
+	 * @param aSolver The solver used when a plan is not in the table
+	 * @param aCapacity The number of plans held, a power of two of at least 2
+	 */
+	public CachingChangeSolver(ChangeSolver aSolver, int aCapacity)
+	{
+		if (aCapacity < WAYS || Integer.bitCount(aCapacity) != 1)
+		{
+			throw new IllegalArgumentException("Invalid cache capacity: " + aCapacity);
+		}
+
+		mSolver = aSolver;
+		mSetMask = aCapacity / WAYS - 1;
+		mTargets = new int[aCapacity];
+		mValid = new boolean[aCapacity];
+		mPossible = new boolean[aCapacity];
+		mLeastRecentlyUsed = new int[aCapacity / WAYS];
+	}
+
+	@Override
+	public boolean solve(int aTargetValue, int[] aCoinValues, int[] aAvailable, int[] aResult)
+	{
+		if (aTargetValue <= 0)
+		{
+			return mSolver.solve(aTargetValue, aCoinValues, aAvailable, aResult);
+		}
+
+		update(aCoinValues, aAvailable);
+
+		int denominations = aCoinValues.length;
+		int set = aTargetValue & mSetMask;
+		int first = set * WAYS;
+
+		for (int way = 0; way < WAYS; way++)
+		{
+			int entry = first + way;
+			if (mValid[entry] && mTargets[entry] == aTargetValue)
+			{
+				mHits++;
+				mLeastRecentlyUsed[set] = 1 - way;
+				System.arraycopy(mPlans[entry], 0, aResult, 0, denominations);
+				return mPossible[entry];
+			}
+		}
+
+		mMisses++;
+		boolean possible = mSolver.solve(aTargetValue, aCoinValues, aAvailable, aResult);
+
+		// Fill an empty entry of the set, otherwise replace the one used least recently
+		int way = mValid[first] ? (mValid[first + 1] ? mLeastRecentlyUsed[set] : 1) : 0;
+		int entry = first + way;
+
+		mTargets[entry] = aTargetValue;
+		mPossible[entry] = possible;
+		mValid[entry] = true;
+		System.arraycopy(aResult, 0, mPlans[entry], 0, denominations);
+		mLeastRecentlyUsed[set] = 1 - way;
+
+		return possible;
+	}
+
+	/**
+	 * Discards every plan held
+	 */
+	public void clear()
+	{
+		Arrays.fill(mValid, false);
+	}
+
+	/**
+	 * Gets the number of requests answered from the table
+	 * @return the number of hits
+	 */
+	public long getHitCount()
+	{
+		return mHits;
+	}
+
+	/**
+	 * Gets the number of requests passed to the wrapped solver
+	 * @return the number of misses
+	 */
+	public long getMissCount()
+	{
+		return mMisses;
+	}
+
+	/**
+	 * Brings the table up to date with the coins available, discarding the plans affected by any change
+	 *
+	 * @param aCoinValues The value of each coin in pence, ascending
+	 * @param aAvailable The quantity of each coin available to use
+	 */
+	private void update(int[] aCoinValues, int[] aAvailable)
+	{
+		if (!Arrays.equals(mCoinValues, aCoinValues))
+		{
+			mCoinValues = Arrays.copyOf(aCoinValues, aCoinValues.length);
+			mQuantities = Arrays.copyOf(aAvailable, aCoinValues.length);
+			mPlans = new int[mTargets.length][aCoinValues.length];
+			clear();
+			return;
+		}
+
+		for (int i = 0; i < mQuantities.length; i++)
+		{
+			if (mQuantities[i] != aAvailable[i])
+			{
+				invalidate(mCoinValues[i], mQuantities[i], aAvailable[i]);
+				mQuantities[i] = aAvailable[i];
+			}
+		}
+	}
+
+	/**
+	 * Discards the plans affected by a change in the quantity of a coin
+	 *
+	 * @param aCoinValue The value of the coin in pence
+	 * @param aOldQuantity The quantity the plans were calculated for
+	 * @param aNewQuantity The quantity now available
+	 */
+	private void invalidate(int aCoinValue, int aOldQuantity, int aNewQuantity)
+	{
+		for (int entry = 0; entry < mTargets.length; entry++)
+		{
+			if (mValid[entry])
+			{
+				int usable = mTargets[entry] / aCoinValue; // more of the coin than this is never used
+				if (Math.min(aOldQuantity, usable) != Math.min(aNewQuantity, usable))
+				{
+					mValid[entry] = false;
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,22 @@
+package main;
+
+/**
+ * The reasons the Vending Machine can fail to produce coins for a given value
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public enum ChangeFailure
+{
+
+	/** The value requested was negative */
+	NEGATIVE_VALUE,
+
+	/** The value requested exceeds the total funds in the Vending Machine */
+	INSUFFICIENT_FUNDS,
+
+	/** There are enough funds but no combination of the coins held sums to the value */
+	NOT_POSSIBLE
+
+}
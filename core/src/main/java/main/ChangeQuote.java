@@ -0,0 +1,141 @@
+package main;
+
+/**
+ * The change a Vending Machine would produce for a value, calculated without changing the machine.
+ *
+ * A quote is immutable and holds just the quantity of each coin, so many can be calculated speculatively,
+ * e.g. one for each candidate price, and only the one chosen is applied with VendingMachine.commitChange.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public final class ChangeQuote
+{
+
+	/** The value of the change in pence */
+	private final int mTargetValue;
+
+	/** The currency of the coins */
+	private final CurrencyProfile mCurrency;
+
+	/** The quantity of each coin quoted, indexed as Denomination.getIndex() */
+	private final int[] mCoinCounts;
+
+	/** Why the change cannot be made, or null if it can */
+	private final ChangeFailure mFailure;
+
+	/**
+	 * Creates a quote
+	 *
+	 * @param aTargetValue The value of the change in pence
+	 * @param aCurrency The currency of the coins
+	 * @param aCoinCounts The quantity of each coin, owned by the quote from now on
+	 * @param aFailure Why the change cannot be made, or null if it can
+	 */
+	ChangeQuote(int aTargetValue, CurrencyProfile aCurrency, int[] aCoinCounts, ChangeFailure aFailure)
+	{
+		mTargetValue = aTargetValue;
+		mCurrency = aCurrency;
+		mCoinCounts = aCoinCounts;
+		mFailure = aFailure;
+	}
+
+	/**
+	 * Gets the value of the change
+	 * @return the value of the change in pence
+	 */
+	public int getTargetValue()
+	{
+		return mTargetValue;
+	}
+
+	/**
+	 * Gets whether the change can be made
+	 * @return true if the coins quoted sum to the value
+	 */
+	public boolean isPossible()
+	{
+		return mFailure == null;
+	}
+
+	/**
+	 * Gets why the change cannot be made
+	 * @return the reason, or null if the change can be made
+	 */
+	public ChangeFailure getFailure()
+	{
+		return mFailure;
+	}
+
+	/**
+	 * Gets the currency of the coins quoted
+	 * @return the currency profile
+	 */
+	public CurrencyProfile getCurrency()
+	{
+		return mCurrency;
+	}
+
+	/**
+	 * Gets the quantity of a coin quoted
+	 *
+	 * @param aCoin The coin
+	 * @return the quantity of the coin, 0 if it is of another currency
+	 */
+	public int getCoinCount(Denomination aCoin)
+	{
+		return mCurrency.contains(aCoin) ? mCoinCounts[aCoin.getIndex()] : 0;
+	}
+
+	/**
+	 * Gets the number of coins quoted
+	 * @return the number of coins
+	 */
+	public int getTotalCoinCount()
+	{
+		int total = 0;
+
+		for (int i = 0; i < mCoinCounts.length; i++)
+		{
+			total += mCoinCounts[i];
+		}
+
+		return total;
+	}
+
+	/**
+	 * Gets the quantity of each coin quoted, which must not be modified
+	 * @return the quantity of each coin, indexed as Denomination.getIndex()
+	 */
+	int[] getCoinCounts()
+	{
+		return mCoinCounts;
+	}
+
+	@Override
+	public String toString()
+	{
+		if (mFailure != null)
+		{
+			return mFailure.name();
+		}
+
+		StringBuilder coins = new StringBuilder("[");
+
+		for (int i = mCoinCounts.length - 1; i >= 0; i--)
+		{
+			for (int count = mCoinCounts[i]; count > 0; count--)
+			{
+				if (coins.length() > 1)
+				{
+					coins.append(", ");
+				}
+				coins.append(mCurrency.getDenomination(i).getName());
+			}
+		}
+
+		return coins.append(']').toString();
+	}
+
+}
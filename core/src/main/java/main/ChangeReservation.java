@@ -0,0 +1,118 @@
+package main;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coins set aside by a ConcurrentVendingMachine to make up an amount of change.
+ *
+ * While reserved the coins cannot be used by any other request. The reservation must then be
+ * either committed (the coins are dispensed) or released (the coins are returned to the machine),
+ * and only the first of these takes effect.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public class ChangeReservation
+{
+
+	static final int RESERVED = 0;
+	static final int COMMITTED = 1;
+	static final int RELEASED = 2;
+
+	/** The value of the change in pence */
+	private final int mTargetValue;
+
+	/** The currency of the coins reserved */
+	private final CurrencyProfile mCurrency;
+
+	/** The quantity of each coin reserved, indexed as Denomination.getIndex() */
+	private final int[] mCoinCounts;
+
+	/** Whether the reservation is still reserved, committed or released */
+	private final AtomicInteger mState = new AtomicInteger(RESERVED);
+
+	/**
+	 * Creates a reservation
+	 *
+	 * @param aTargetValue The value of the change in pence
+	 * @param aCurrency The currency of the coins
+	 * @param aCoinCounts The quantity of each coin reserved (copied)
+	 */
+	ChangeReservation(int aTargetValue, CurrencyProfile aCurrency, int[] aCoinCounts)
+	{
+		mTargetValue = aTargetValue;
+		mCurrency = aCurrency;
+		mCoinCounts = aCoinCounts.clone();
+	}
+
+	/**
+	 * Gets the value of the change
+	 * @return the value of the change in pence
+	 */
+	public int getTargetValue()
+	{
+		return mTargetValue;
+	}
+
+	/**
+	 * Gets the quantity of a coin reserved
+	 *
+	 * @param aCoin The coin
+	 * @return the quantity of the coin reserved, 0 if the coin is not of the reservation's currency
+	 */
+	public int getCoinCount(Denomination aCoin)
+	{
+		return mCurrency.contains(aCoin) ? mCoinCounts[aCoin.getIndex()] : 0;
+	}
+
+	/**
+	 * Gets the quantity of each coin reserved
+	 * @return the quantity of each coin, indexed as Denomination.getIndex()
+	 */
+	int[] getCoinCounts()
+	{
+		return mCoinCounts;
+	}
+
+	/**
+	 * Gets whether the coins are still reserved, i.e. neither committed nor released
+	 * @return whether the coins are still reserved
+	 */
+	public boolean isReserved()
+	{
+		return mState.get() == RESERVED;
+	}
+
+	/**
+	 * Moves the reservation from reserved to the given state
+	 *
+	 * @param aState COMMITTED or RELEASED
+	 * @return Whether the reservation was still reserved
+	 */
+	boolean complete(int aState)
+	{
+		return mState.compareAndSet(RESERVED, aState);
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder coins = new StringBuilder("[");
+
+		for (int i = mCoinCounts.length - 1; i >= 0; i--)
+		{
+			for (int count = mCoinCounts[i]; count > 0; count--)
+			{
+				if (coins.length() > 1)
+				{
+					coins.append(", ");
+				}
+				coins.append(mCurrency.getDenomination(i).getName());
+			}
+		}
+
+		return coins.append(']').toString();
+	}
+
+}
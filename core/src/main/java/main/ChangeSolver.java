@@ -0,0 +1,28 @@
+package main;
+
+/**
+ * Calculates which coins should be used to make up a given amount of change.
+ *
+ * Denominations are passed as parallel arrays, indexed in ascending order of value
+ * (index 0 representing the 1p coin for GBP). Implementations may keep internal
+ * work arrays between calls and so are not required to be thread-safe.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public interface ChangeSolver
+{
+
+	/**
+	 * Calculates the quantity of each denomination summing exactly to the target value
+	 *
+	 * @param aTargetValue The value in pence the coins must sum to
+	 * @param aCoinValues The value of each denomination in pence, ascending
+	 * @param aAvailable The quantity of each denomination available to use
+	 * @param aResult Filled with the quantity of each denomination to use
+	 * @return Whether the target value can be made from the available coins
+	 */
+	boolean solve(int aTargetValue, int[] aCoinValues, int[] aAvailable, int[] aResult);
+
+}
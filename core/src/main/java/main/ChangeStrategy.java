@@ -0,0 +1,59 @@
+package main;
+
+import java.util.function.Supplier;
+
+/**
+ * The policies for choosing which coins to give as change, each creating its ChangeSolver, e.g.
+ *
+ *     vm.setChangeSolver(ChangeStrategy.PRESERVE_SCARCE_COINS.get());
+ *     new ConcurrentVendingMachine(coins, ChangeStrategy.MAXIMISE_COVERAGE);
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public enum ChangeStrategy implements Supplier<ChangeSolver>
+{
+
+	/** The fewest coins, preferring larger coins on a tie (the default) */
+	MIN_COINS
+	{
+		@Override
+		public ChangeSolver get()
+		{
+			return new BoundedChangeSolver();
+		}
+	},
+
+	/** Spare the coins held fewest of */
+	PRESERVE_SCARCE_COINS
+	{
+		@Override
+		public ChangeSolver get()
+		{
+			return new ScarceCoinChangeSolver();
+		}
+	},
+
+	/**
+	 * Leave the most amounts up to 5 that change can still be made for, searching the fewest coins, sparing
+	 * scarce coins and up to 64 other ways to make change up to 5
+	 */
+	MAXIMISE_COVERAGE
+	{
+		@Override
+		public ChangeSolver get()
+		{
+			return new CoverageChangeSolver();
+		}
+	};
+
+	/**
+	 * Creates a solver for the strategy; solvers are not thread-safe, so create one per machine or thread
+	 *
+	 * @return A new solver
+	 */
+	@Override
+	public abstract ChangeSolver get();
+
+}
@@ -0,0 +1,162 @@
+package main;
+
+/**
+ * A Console command parsed by a CommandParser.
+ *
+ * Commands are mutable so that one can be reused for every line parsed, e.g. one per connection,
+ * and parsing a line does not create any objects.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public class Command
+{
+
+	/** The commands understood */
+	public enum Type
+	{
+		/** deposit &lt;coin&gt; */
+		DEPOSIT,
+
+		/** producecoins &lt;value&gt; */
+		PRODUCE_COINS,
+
+		/** check */
+		CHECK,
+
+		/** exit */
+		EXIT,
+
+		/** A line of only whitespace */
+		EMPTY,
+
+		/** The first word is not a command */
+		UNKNOWN
+	}
+
+	/** The command, set even if its argument is invalid */
+	private Type mType = Type.EMPTY;
+
+	/** The coin to deposit */
+	private Denomination mCoin;
+
+	/** The value to produce coins for, in pence */
+	private int mValue;
+
+	/** Why the line could not be parsed, or null if it was */
+	private CommandError mError;
+
+	/** The position of the argument in the line */
+	private int mArgumentStart;
+
+	/** The position after the argument in the line */
+	private int mArgumentEnd;
+
+	/**
+	 * Gets the command
+	 * @return the type of command
+	 */
+	public Type getType()
+	{
+		return mType;
+	}
+
+	/**
+	 * Gets the coin to deposit
+	 * @return the coin, or null unless this is a valid deposit command
+	 */
+	public Denomination getCoin()
+	{
+		return mCoin;
+	}
+
+	/**
+	 * Gets the value to produce coins for
+	 * @return the value in pence, or 0 unless this is a valid producecoins command
+	 */
+	public int getValue()
+	{
+		return mValue;
+	}
+
+	/**
+	 * Gets why the line could not be parsed
+	 * @return the error, or null if the line was parsed
+	 */
+	public CommandError getError()
+	{
+		return mError;
+	}
+
+	/**
+	 * Whether the line was parsed
+	 * @return true if there is no error
+	 */
+	public boolean isValid()
+	{
+		return mError == null;
+	}
+
+	/**
+	 * Gets the position of the argument in the line, in chars or bytes as parsed,
+	 * e.g. to report an invalid coin
+	 *
+	 * @return the start of the argument, equal to the end if there is no argument
+	 */
+	public int getArgumentStart()
+	{
+		return mArgumentStart;
+	}
+
+	/**
+	 * Gets the position after the argument in the line, in chars or bytes as parsed.
+	 * If there are unexpected arguments, they are included.
+	 *
+	 * @return the end of the argument
+	 */
+	public int getArgumentEnd()
+	{
+		return mArgumentEnd;
+	}
+
+	/**
+	 * Sets the result of parsing a line
+	 */
+	void set(Type aType, Denomination aCoin, int aValue, CommandError aError, int aArgumentStart, int aArgumentEnd)
+	{
+		mType = aType;
+		mCoin = aCoin;
+		mValue = aValue;
+		mError = aError;
+		mArgumentStart = aArgumentStart;
+		mArgumentEnd = aArgumentEnd;
+	}
+
+	/**
+	 * Represents the command as it would be typed
+	 */
+	@Override
+	public String toString()
+	{
+		if (mError != null)
+		{
+			return mType + " " + mError;
+		}
+
+		switch (mType)
+		{
+		case DEPOSIT:
+			return "deposit " + mCoin;
+		case PRODUCE_COINS:
+			return "producecoins " + mValue;
+		case CHECK:
+			return "check";
+		case EXIT:
+			return "exit";
+		default:
+			return "";
+		}
+	}
+
+}
@@ -0,0 +1,28 @@
+package main;
+
+/**
+ * The reasons a command line can fail to parse
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public enum CommandError
+{
+
+	/** The first word is not a command */
+	UNKNOWN_COMMAND,
+
+	/** The command needs an argument but none was given, e.g. a bare "deposit" */
+	MISSING_ARGUMENT,
+
+	/** The command was given more arguments than it takes */
+	UNEXPECTED_ARGUMENT,
+
+	/** The argument of deposit is not the name of a minted coin */
+	INVALID_COIN,
+
+	/** The argument of producecoins is not a whole number of pence that fits in an int */
+	INVALID_VALUE
+
+}
@@ -0,0 +1,533 @@
+package main;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Replays a log of Console commands through a Vending Machine, e.g. to reproduce an incident, and checks
+ * the coins held against recorded InventorySnapshots.
+ *
+ * The log is the lines typed at the Console, one command per line in UTF-8. Each command does to the
+ * machine what init() does with it, without the output: deposit adds the coin (an invalid coin is reported
+ * to the machine's listener as rejected), producecoins produces and dispenses the change, check and
+ * invalid lines change nothing, and exit ends the replay.
+ *
+ * The log is memory-mapped a window at a time and copied a chunk at a time into one reused array, where
+ * each line is found and parsed in place by a CommandParser, so a line neither creates a String nor goes
+ * through a Scanner, and logs larger than memory stream through.
+ *
+ * The machine must hold the coins the log starts from, e.g. read with InventorySnapshot.read from a snapshot
+ * taken when the log was started. It may hold any currency, and the snapshots must be of the same currency.
+ *
+ * The final coins are checked with replayAndVerify, against one snapshot of the coins when the log ended,
+ * whatever its version (e.g. the generation of an InventoryJournal's snapshot). A Divergence then reports
+ * the first coin, in ascending value, that differs.
+ *
+ * To find the line where the coins first differ, replay compares snapshots as it goes. These are packed back
+ * to back, ascending in version, where the version of each is the number of lines of the log replayed when
+ * it was taken: whatever records the log writes InventorySnapshot.write(buffer, offset, lines, machine)
+ * after every line (or every n lines) it logs. Each snapshot is compared with the coins held once that many
+ * lines have been replayed; one whose version is beyond the end of the log is compared when the log ends.
+ * The replay stops at the first snapshot the coins held differ from, reporting the line and the coin.
+ *
+ * Typical use:
+ *
+ *     CurrencyProfile currency = InventorySnapshot.getCurrency(startSnapshot, 0);
+ *     long[] start = new long[currency.getDenominationCount()];
+ *     InventorySnapshot.read(startSnapshot, 0, start);
+ *     CommandLogReplay replay = new CommandLogReplay(new VendingMachine(currency, start));
+ *     CommandLogReplay.Divergence divergence = replay.replayAndVerify(log, finalSnapshot, 0);
+ *
+ * A replay is not thread-safe.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public class CommandLogReplay
+{
+
+	/**
+	 * The first point at which the coins held differ from a snapshot
+	 */
+	public static final class Divergence
+	{
+
+		private final long mLine;
+		private final String mCommand;
+		private final long mVersion;
+		private final Denomination mCoin;
+		private final long mExpected;
+		private final long mActual;
+
+		Divergence(long aLine, String aCommand, long aVersion, Denomination aCoin, long aExpected, long aActual)
+		{
+			mLine = aLine;
+			mCommand = aCommand;
+			mVersion = aVersion;
+			mCoin = aCoin;
+			mExpected = aExpected;
+			mActual = aActual;
+		}
+
+		/**
+		 * Gets the number of lines replayed when the coins differed
+		 * @return the line number, from 1, or 0 if the coins differed before the first line
+		 */
+		public long getLine()
+		{
+			return mLine;
+		}
+
+		/**
+		 * Gets the last line replayed before the coins differed
+		 * @return the line as logged, or null if compared before the first line or after the log ended
+		 */
+		public String getCommand()
+		{
+			return mCommand;
+		}
+
+		/**
+		 * Gets the version of the snapshot the coins differed from
+		 * @return the version
+		 */
+		public long getVersion()
+		{
+			return mVersion;
+		}
+
+		/**
+		 * Gets the first coin, in ascending value, whose quantity differed
+		 * @return the coin
+		 */
+		public Denomination getCoin()
+		{
+			return mCoin;
+		}
+
+		/**
+		 * Gets the quantity of the coin in the snapshot
+		 * @return the quantity expected
+		 */
+		public long getExpected()
+		{
+			return mExpected;
+		}
+
+		/**
+		 * Gets the quantity of the coin held by the machine
+		 * @return the quantity held
+		 */
+		public long getActual()
+		{
+			return mActual;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "After line " + mLine + (mCommand != null ? " (" + mCommand + ")" : "") + ", snapshot version "
+					+ mVersion + " expected " + mExpected + " x " + mCoin.getName() + " but the machine held " + mActual;
+		}
+
+	}
+
+	/** The most of the log mapped at once */
+	private static final long WINDOW_SIZE = 64L << 20;
+
+	/** The machine the commands are replayed through */
+	private final VendingMachine mMachine;
+
+	/** Parses each line in place */
+	private final CommandParser mParser;
+
+	/** The command parsed from the current line */
+	private final Command mCommand = new Command();
+
+	/** The bytes of the log being scanned for lines, grown if a line is longer */
+	private byte[] mChunk = new byte[64 * 1024];
+
+	/** The quantity of each coin in the snapshot being compared */
+	private final long[] mExpected;
+
+	/** The size of each snapshot of the machine's currency */
+	private final int mSnapshotSize;
+
+	/** The snapshots being compared, or null */
+	private ByteBuffer mSnapshots;
+
+	/** The number of snapshots */
+	private int mSnapshotCount;
+
+	/** The next snapshot to compare */
+	private int mNextSnapshot;
+
+	/** The first divergence found, or null */
+	private Divergence mDivergence;
+
+	/** Whether an exit command has been replayed */
+	private boolean mExited;
+
+	private long mLines;
+	private long mDeposits;
+	private long mRejected;
+	private long mChangeRequests;
+	private long mChecks;
+	private long mInvalid;
+
+	/**
+	 * Creates a replay through a Vending Machine, holding the coins the log starts from
+	 *
+	 * @param aMachine The machine, whose listener and metrics see the replayed commands
+	 */
+	public CommandLogReplay(VendingMachine aMachine)
+	{
+		mMachine = aMachine;
+		mParser = new CommandParser(aMachine.getCurrency());
+		mExpected = new long[aMachine.getCurrency().getDenominationCount()];
+		mSnapshotSize = InventorySnapshot.size(aMachine.getCurrency());
+	}
+
+	/**
+	 * Replays every command in a log
+	 *
+	 * @param aLog The log of Console commands
+	 * @throws IOException if the log cannot be read
+	 */
+	public void replay(Path aLog) throws IOException
+	{
+		replay(aLog, null);
+	}
+
+	/**
+	 * Replays every command in a log, then compares the coins held with one snapshot of the final coins
+	 *
+	 * @param aLog The log of Console commands
+	 * @param aSnapshot The buffer holding the snapshot, which is compared whatever its version
+	 * @param aOffset The offset of the snapshot in the buffer
+	 * @return The first coin the coins held differ from the snapshot in, or null if they match
+	 * @throws IOException if the log cannot be read
+	 * @throws IllegalArgumentException if the snapshot is not valid or not of the machine's currency
+	 */
+	public Divergence replayAndVerify(Path aLog, ByteBuffer aSnapshot, int aOffset) throws IOException
+	{
+		if (!InventorySnapshot.isValid(aSnapshot, aOffset, mMachine.getCurrency()))
+		{
+			throw new IllegalArgumentException(
+					"Not a valid InventorySnapshot of " + mMachine.getCurrency() + " coins at offset " + aOffset);
+		}
+
+		replay(aLog, null);
+
+		mDivergence = compare(aSnapshot, aOffset, -1, 0);
+		return mDivergence;
+	}
+
+	/**
+	 * Replays the commands in a log, comparing the coins held with snapshots versioned by line as it goes
+	 *
+	 * @param aLog The log of Console commands
+	 * @param aSnapshots Snapshots packed back to back from position 0 to the limit, ascending in version,
+	 * 		  or null to only replay
+	 * @return The first point the coins held differ from a snapshot, or null if they never do
+	 * @throws IOException if the log cannot be read
+	 * @throws IllegalArgumentException if there is not a snapshot of the machine's currency at each multiple of
+	 * 		   InventorySnapshot.size(currency)
+	 */
+	public Divergence replay(Path aLog, ByteBuffer aSnapshots) throws IOException
+	{
+		int snapshots = aSnapshots == null ? 0 : aSnapshots.limit() / mSnapshotSize;
+
+		for (int i = 0; i < snapshots; i++)
+		{
+			if (!InventorySnapshot.isOf(aSnapshots, i * mSnapshotSize, mMachine.getCurrency()))
+			{
+				throw new IllegalArgumentException("The snapshot at offset " + i * mSnapshotSize + " is not of "
+						+ mMachine.getCurrency() + " coins");
+			}
+		}
+
+		mSnapshots = aSnapshots;
+		mSnapshotCount = snapshots;
+		mNextSnapshot = 0;
+		mDivergence = null;
+		mExited = false;
+		mLines = 0;
+		mDeposits = 0;
+		mRejected = 0;
+		mChangeRequests = 0;
+		mChecks = 0;
+		mInvalid = 0;
+
+		verify(0, -1, 0); // snapshots of the coins before the first line
+
+		try (FileChannel channel = FileChannel.open(aLog, StandardOpenOption.READ))
+		{
+			long size = channel.size();
+			long position = 0;
+			int pending = 0; // the start of a line carried over from the last chunk
+
+			while (position < size && !isStopped())
+			{
+				long windowSize = Math.min(WINDOW_SIZE, size - position);
+				MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+				position += windowSize;
+
+				while (window.hasRemaining() && !isStopped())
+				{
+					if (pending == mChunk.length)
+					{
+						mChunk = Arrays.copyOf(mChunk, mChunk.length * 2);
+					}
+
+					int read = Math.min(window.remaining(), mChunk.length - pending);
+					window.get(mChunk, pending, read);
+
+					int end = pending + read;
+					int lineStart = 0;
+
+					for (int i = pending; i < end && !isStopped(); i++)
+					{
+						if (mChunk[i] == '\n')
+						{
+							replayLine(lineStart, i - lineStart);
+							lineStart = i + 1;
+						}
+					}
+
+					pending = end - lineStart;
+					System.arraycopy(mChunk, lineStart, mChunk, 0, pending);
+				}
+			}
+
+			if (pending > 0 && !isStopped()) // the last line need not end with a line terminator
+			{
+				replayLine(0, pending);
+			}
+		}
+
+		if (mDivergence == null)
+		{
+			verify(Long.MAX_VALUE, -1, 0); // snapshots beyond the end of the log, of the final coins
+		}
+
+		mSnapshots = null;
+		return mDivergence;
+	}
+
+	/**
+	 * Whether the replay has ended before the end of the log
+	 */
+	private boolean isStopped()
+	{
+		return mExited || mDivergence != null;
+	}
+
+	/**
+	 * Replays a line and compares the snapshots taken after it
+	 *
+	 * @param aStart The position of the line in the chunk
+	 * @param aLength The length of the line, without the line terminator
+	 */
+	private void replayLine(int aStart, int aLength)
+	{
+		mLines++;
+		mParser.parse(mChunk, aStart, aLength, mCommand);
+
+		switch (mCommand.getType())
+		{
+		case DEPOSIT:
+			if (mCommand.isValid())
+			{
+				mMachine.depositCoin(mCommand.getCoin());
+				mDeposits++;
+			}
+
+			else
+			{
+				if (mCommand.getError() != CommandError.MISSING_ARGUMENT) // reported to the listener as rejected
+				{
+					mMachine.depositCoin(new String(mChunk, aStart + mCommand.getArgumentStart(),
+							mCommand.getArgumentEnd() - mCommand.getArgumentStart(), StandardCharsets.UTF_8));
+				}
+
+				mRejected++;
+			}
+			break;
+
+		case PRODUCE_COINS:
+			if (!mCommand.isValid())
+			{
+				mInvalid++;
+				break;
+			}
+
+			mMachine.dispenseCoins(mMachine.proceduceCoins(mCommand.getValue()));
+			mMachine.getCoinsDeposited().clear(); // as the Console does after each producecoins
+			mChangeRequests++;
+			break;
+
+		case CHECK:
+			mChecks++;
+			break;
+
+		case EXIT:
+			if (mCommand.isValid())
+			{
+				mExited = true;
+			}
+
+			else
+			{
+				mInvalid++;
+			}
+			break;
+
+		case EMPTY:
+			break;
+
+		default:
+			mInvalid++;
+		}
+
+		verify(mLines, aStart, aLength);
+	}
+
+	/**
+	 * Compares the coins held with each snapshot up to a version, recording the first divergence
+	 *
+	 * @param aVersion The number of lines replayed
+	 * @param aStart The position of the last line replayed in the chunk, or -1 if there is none
+	 * @param aLength The length of the last line replayed
+	 */
+	private void verify(long aVersion, int aStart, int aLength)
+	{
+		while (mNextSnapshot < mSnapshotCount)
+		{
+			int offset = mNextSnapshot * mSnapshotSize;
+			long version = InventorySnapshot.getVersion(mSnapshots, offset);
+
+			if (version > aVersion)
+			{
+				return;
+			}
+
+			mNextSnapshot++;
+			mDivergence = compare(mSnapshots, offset, aStart, aLength);
+
+			if (mDivergence != null)
+			{
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Compares the coins held with a snapshot
+	 *
+	 * @param aSnapshots The buffer holding the snapshot
+	 * @param aOffset The offset of the snapshot in the buffer
+	 * @param aStart The position of the last line replayed in the chunk, or -1 if there is none
+	 * @param aLength The length of the last line replayed
+	 * @return The first coin that differs, or null if none do
+	 */
+	private Divergence compare(ByteBuffer aSnapshots, int aOffset, int aStart, int aLength)
+	{
+		InventorySnapshot.read(aSnapshots, aOffset, mExpected);
+
+		for (int i = 0; i < mExpected.length; i++)
+		{
+			Denomination coin = mMachine.getCurrency().getDenomination(i);
+			long actual = mMachine.getCoinQuantity(coin);
+
+			if (actual != mExpected[i])
+			{
+				String command = aStart < 0 ? null : new String(mChunk, aStart, aLength, StandardCharsets.UTF_8).trim();
+				return new Divergence(mLines, command, InventorySnapshot.getVersion(aSnapshots, aOffset), coin,
+						mExpected[i], actual);
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Gets the number of lines replayed
+	 * @return the lines, including empty and invalid lines
+	 */
+	public long getLines()
+	{
+		return mLines;
+	}
+
+	/**
+	 * Gets the number of coins deposited
+	 * @return the valid deposit commands replayed
+	 */
+	public long getDeposits()
+	{
+		return mDeposits;
+	}
+
+	/**
+	 * Gets the number of deposit commands without a valid coin
+	 * @return the deposits rejected
+	 */
+	public long getRejected()
+	{
+		return mRejected;
+	}
+
+	/**
+	 * Gets the number of producecoins commands replayed, whether or not the change could be made
+	 * @return the change requests
+	 */
+	public long getChangeRequests()
+	{
+		return mChangeRequests;
+	}
+
+	/**
+	 * Gets the number of check commands replayed
+	 * @return the checks
+	 */
+	public long getChecks()
+	{
+		return mChecks;
+	}
+
+	/**
+	 * Gets the number of lines that are not a valid command, other than deposits rejected
+	 * @return the invalid lines
+	 */
+	public long getInvalid()
+	{
+		return mInvalid;
+	}
+
+	/**
+	 * Gets the number of snapshots the coins held were compared with
+	 * @return the snapshots compared, including one the coins differed from
+	 */
+	public int getSnapshotsVerified()
+	{
+		return mNextSnapshot;
+	}
+
+	/**
+	 * Whether the replay ended at an exit command
+	 * @return true if an exit command was replayed
+	 */
+	public boolean isExited()
+	{
+		return mExited;
+	}
+
+}
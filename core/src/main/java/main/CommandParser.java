@@ -0,0 +1,419 @@
+package main;
+
+/**
+ * Parses the Console commands straight from the characters typed or the bytes received, into a reusable Command:
+ *
+ *     deposit &lt;coin&gt;, producecoins &lt;value&gt;, check, exit
+ *
+ * Commands and coins are matched ignoring the case of ASCII letters, and words may be separated by any
+ * whitespace. Coins are the names of a CurrencyProfile's coins, e.g. 10p and 2. Nothing is allocated while
+ * parsing: there is no regular expression, no lower-casing or splitting of the line into new Strings, and
+ * numbers are accumulated digit by digit instead of with Integer.valueOf. A line that cannot be parsed is
+ * reported with a CommandError rather than an exception.
+ *
+ * Bytes are parsed as UTF-8 and matched against the UTF-8 names of the coins, e.g.  is the two bytes
+ * 0xC2 0xA3.
+ *
+ * A parser keeps the line being parsed only while parsing, but is not thread-safe; use one per thread
+ * or connection.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public class CommandParser
+{
+
+	private static final String DEPOSIT = "deposit";
+	private static final String PRODUCE_COINS = "producecoins";
+	private static final String CHECK = "check";
+	private static final String EXIT = "exit";
+
+	/** The currency of the coins deposited */
+	private final CurrencyProfile mCurrency;
+
+	/** The characters being parsed, or null when parsing bytes */
+	private CharSequence mChars;
+
+	/** The bytes being parsed, or null when parsing characters */
+	private byte[] mBytes;
+
+	/** The position of the line in the bytes */
+	private int mOffset;
+
+	/**
+	 * Creates a parser for deposits of GBP coins
+	 */
+	public CommandParser()
+	{
+		this(CurrencyProfile.GBP);
+	}
+
+	/**
+	 * Creates a parser for deposits of the coins of a currency
+	 *
+	 * @param aCurrency The currency, e.g. CurrencyProfile.EUR
+	 */
+	public CommandParser(CurrencyProfile aCurrency)
+	{
+		mCurrency = aCurrency;
+	}
+
+	/**
+	 * Parses a line typed on the Console
+	 *
+	 * @param aLine The line, without the line terminator
+	 * @param aCommand Receives the command, positions are in chars from the start of the line
+	 * @return true if the line was parsed, otherwise aCommand.getError() gives the reason
+	 */
+	public boolean parse(CharSequence aLine, Command aCommand)
+	{
+		mChars = aLine;
+
+		try
+		{
+			return parse(0, aLine.length(), aCommand);
+		}
+
+		finally
+		{
+			mChars = null;
+		}
+	}
+
+	/**
+	 * Parses a line of UTF-8, e.g. received on a socket
+	 *
+	 * @param aBytes The buffer holding the line
+	 * @param aOffset The position of the line in the buffer
+	 * @param aLength The length of the line in bytes, without the line terminator
+	 * @param aCommand Receives the command, positions are in bytes from the start of the line
+	 * @return true if the line was parsed, otherwise aCommand.getError() gives the reason
+	 */
+	public boolean parse(byte[] aBytes, int aOffset, int aLength, Command aCommand)
+	{
+		mBytes = aBytes;
+		mOffset = aOffset;
+
+		try
+		{
+			return parse(aOffset, aOffset + aLength, aCommand);
+		}
+
+		finally
+		{
+			mBytes = null;
+			mOffset = 0;
+		}
+	}
+
+	/**
+	 * Parses the line between two positions
+	 */
+	private boolean parse(int aStart, int aEnd, Command aCommand)
+	{
+		int start = skipWhitespace(aStart, aEnd);
+		int end = aEnd;
+
+		while (end > start && isWhitespace(charAt(end - 1)))
+		{
+			end--;
+		}
+
+		if (start == end)
+		{
+			return set(aCommand, Command.Type.EMPTY, null, 0, null, end, end);
+		}
+
+		int wordEnd = skipWord(start, end);
+		int argumentStart = skipWhitespace(wordEnd, end);
+		int argumentEnd = skipWord(argumentStart, end);
+
+		Command.Type type = matchCommand(start, wordEnd);
+
+		if (type == Command.Type.UNKNOWN)
+		{
+			return fail(aCommand, type, CommandError.UNKNOWN_COMMAND, start, end);
+		}
+
+		if (type == Command.Type.CHECK || type == Command.Type.EXIT)
+		{
+			if (argumentStart < end)
+			{
+				return fail(aCommand, type, CommandError.UNEXPECTED_ARGUMENT, argumentStart, end);
+			}
+
+			return set(aCommand, type, null, 0, null, end, end);
+		}
+
+		if (argumentStart == end)
+		{
+			return fail(aCommand, type, CommandError.MISSING_ARGUMENT, end, end);
+		}
+
+		if (argumentEnd < end)
+		{
+			return fail(aCommand, type, CommandError.UNEXPECTED_ARGUMENT, argumentStart, end);
+		}
+
+		if (type == Command.Type.DEPOSIT)
+		{
+			Denomination coin = parseCoin(argumentStart, argumentEnd);
+
+			if (coin == null)
+			{
+				return fail(aCommand, type, CommandError.INVALID_COIN, argumentStart, argumentEnd);
+			}
+
+			return set(aCommand, type, coin, 0, null, argumentStart, argumentEnd);
+		}
+
+		long value = parseValue(argumentStart, argumentEnd);
+
+		if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+		{
+			return fail(aCommand, type, CommandError.INVALID_VALUE, argumentStart, argumentEnd);
+		}
+
+		return set(aCommand, type, null, (int) value, null, argumentStart, argumentEnd);
+	}
+
+	/**
+	 * Records an error
+	 *
+	 * @return false
+	 */
+	private boolean fail(Command aCommand, Command.Type aType, CommandError aError, int aArgumentStart,
+			int aArgumentEnd)
+	{
+		return set(aCommand, aType, null, 0, aError, aArgumentStart, aArgumentEnd);
+	}
+
+	/**
+	 * Records the result of parsing, with the positions relative to the start of the line
+	 *
+	 * @return true if there is no error
+	 */
+	private boolean set(Command aCommand, Command.Type aType, Denomination aCoin, int aValue, CommandError aError,
+			int aArgumentStart, int aArgumentEnd)
+	{
+		aCommand.set(aType, aCoin, aValue, aError, aArgumentStart - mOffset, aArgumentEnd - mOffset);
+		return aError == null;
+	}
+
+	/**
+	 * Works out which command a word is
+	 *
+	 * @return The command, or UNKNOWN
+	 */
+	private Command.Type matchCommand(int aStart, int aEnd)
+	{
+		if (matches(aStart, aEnd, DEPOSIT))
+		{
+			return Command.Type.DEPOSIT;
+		}
+
+		if (matches(aStart, aEnd, PRODUCE_COINS))
+		{
+			return Command.Type.PRODUCE_COINS;
+		}
+
+		if (matches(aStart, aEnd, CHECK))
+		{
+			return Command.Type.CHECK;
+		}
+
+		if (matches(aStart, aEnd, EXIT))
+		{
+			return Command.Type.EXIT;
+		}
+
+		return Command.Type.UNKNOWN;
+	}
+
+	/**
+	 * Compares a word with a lower case keyword, ignoring the case of the word
+	 */
+	private boolean matches(int aStart, int aEnd, String aKeyword)
+	{
+		if (aEnd - aStart != aKeyword.length())
+		{
+			return false;
+		}
+
+		for (int i = 0; i < aKeyword.length(); i++)
+		{
+			// Setting bit 5 lower-cases an ASCII letter, and cannot turn anything else into one
+			if ((charAt(aStart + i) | 0x20) != aKeyword.charAt(i))
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Parses the name of a coin of the currency
+	 *
+	 * @return The coin, or null if the currency has no coin of that name
+	 */
+	private Denomination parseCoin(int aStart, int aEnd)
+	{
+		for (int i = 0; i < mCurrency.getDenominationCount(); i++)
+		{
+			if (mBytes != null ? matchesBytes(aStart, aEnd, mCurrency.getNameBytes(i))
+					: matchesChars(aStart, aEnd, mCurrency.getDenomination(i).getName()))
+			{
+				return mCurrency.getDenomination(i);
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Compares a word of the line with the name of a coin, ignoring the case of ASCII letters
+	 */
+	private boolean matchesChars(int aStart, int aEnd, String aName)
+	{
+		if (aEnd - aStart != aName.length())
+		{
+			return false;
+		}
+
+		for (int i = 0; i < aName.length(); i++)
+		{
+			if (toLowerCase(mChars.charAt(aStart + i)) != toLowerCase(aName.charAt(i)))
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Compares a word of the line with the UTF-8 name of a coin, ignoring the case of ASCII letters
+	 */
+	private boolean matchesBytes(int aStart, int aEnd, byte[] aName)
+	{
+		if (aEnd - aStart != aName.length)
+		{
+			return false;
+		}
+
+		for (int i = 0; i < aName.length; i++)
+		{
+			if (toLowerCase(mBytes[aStart + i] & 0xFF) != toLowerCase(aName[i] & 0xFF))
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Lower-cases an ASCII letter, leaving any other character or byte as it is
+	 */
+	private static int toLowerCase(int aChar)
+	{
+		return aChar >= 'A' && aChar <= 'Z' ? aChar | 0x20 : aChar;
+	}
+
+	/**
+	 * Parses a whole number of pence with an optional sign, as Integer.valueOf would
+	 *
+	 * @return The number, or Long.MAX_VALUE if it is not a number or is too large to be an int
+	 */
+	private long parseValue(int aStart, int aEnd)
+	{
+		int i = aStart;
+		boolean negative = false;
+
+		if (charAt(i) == '-' || charAt(i) == '+')
+		{
+			negative = charAt(i) == '-';
+			i++;
+		}
+
+		if (i == aEnd)
+		{
+			return Long.MAX_VALUE;
+		}
+
+		long number = 0;
+
+		for (; i < aEnd; i++)
+		{
+			int digit = charAt(i) - '0';
+
+			if (digit < 0 || digit > 9)
+			{
+				return Long.MAX_VALUE;
+			}
+
+			number = number * 10 + digit;
+
+			if (number > (long) Integer.MAX_VALUE + 1) // stop before the long overflows
+			{
+				return Long.MAX_VALUE;
+			}
+		}
+
+		return negative ? -number : number;
+	}
+
+	/**
+	 * Skips to the end of a word
+	 *
+	 * @return The position of the first whitespace, or the end
+	 */
+	private int skipWord(int aStart, int aEnd)
+	{
+		int i = aStart;
+
+		while (i < aEnd && !isWhitespace(charAt(i)))
+		{
+			i++;
+		}
+
+		return i;
+	}
+
+	/**
+	 * Skips any whitespace
+	 *
+	 * @return The position of the next word, or the end
+	 */
+	private int skipWhitespace(int aStart, int aEnd)
+	{
+		int i = aStart;
+
+		while (i < aEnd && isWhitespace(charAt(i)))
+		{
+			i++;
+		}
+
+		return i;
+	}
+
+	/**
+	 * Whitespace as String.trim() sees it: any control character or space
+	 */
+	private static boolean isWhitespace(int aChar)
+	{
+		return aChar <= ' ';
+	}
+
+	/**
+	 * Gets a character of the line; bytes are returned unsigned, so every byte of a multi-byte
+	 * UTF-8 sequence is above 0x7F and never mistaken for ASCII
+	 */
+	private int charAt(int aIndex)
+	{
+		return mBytes != null ? mBytes[aIndex] & 0xFF : mChars.charAt(aIndex);
+	}
+
+}
@@ -0,0 +1,535 @@
+package main;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * Serves the Console commands of a Vending Machine over a local socket, so test harnesses and
+ * telemetry gateways can drive the machine without the Scanner on System.in.
+ *
+ * The protocol is one command per line (UTF-8, ending in \n or \r\n) with one response line per command:
+ *
+ *     deposit &lt;coin&gt;          OK &lt;total funds in pence&gt;    or ERR INVALID_COIN, MISSING_ARGUMENT
+ *     producecoins &lt;value&gt;    OK &lt;coins dispensed ...&gt;     or ERR NEGATIVE_VALUE, INSUFFICIENT_FUNDS,
+ *                                                            NOT_POSSIBLE, INVALID_VALUE, MISSING_ARGUMENT
+ *     check                   OK 1p:&lt;quantity&gt; ... 5:&lt;quantity&gt; total:&lt;pence&gt;
+ *     exit                    closes the connection
+ *
+ * Unknown commands are answered with ERR UNKNOWN_COMMAND, extra arguments with ERR UNEXPECTED_ARGUMENT, and
+ * empty lines are ignored. Commands are parsed in place from the bytes read by a CommandParser.
+ *
+ * A single thread serves every connection with a Selector, so commands reach the Vending Machine (which is
+ * not thread-safe) one at a time. Clients may pipeline: every complete line read is executed in order and
+ * the responses are written back together. Responses are encoded straight into a direct buffer kept for
+ * each connection and written from there to the socket. While a client is not reading its responses, no
+ * more of its commands are read. A connection whose command fails with an exception is closed, and the
+ * other connections are still served.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public class CommandServer implements Runnable, Closeable
+{
+
+	/** The longest command line accepted, in bytes */
+	private static final int MAX_LINE = 8192;
+
+	private static final byte[] OK = "OK".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] ERR = "ERR ".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] TOTAL = " total:".getBytes(StandardCharsets.UTF_8);
+
+	/** The Vending Machine the commands are executed on */
+	private final VendingMachine mMachine;
+
+	/** Waits for connections and commands */
+	private final Selector mSelector;
+
+	/** Accepts connections */
+	private final ServerSocketChannel mServer;
+
+	/** Whether the server has been closed */
+	private volatile boolean mClosed;
+
+	/** The currency of the machine's coins */
+	private final CurrencyProfile mCurrency;
+
+	/** Parses the commands of every connection, on the server's thread */
+	private final CommandParser mParser;
+
+	/** The command being executed */
+	private final Command mCommand = new Command();
+
+	/**
+	 * Creates a server listening on the loopback address
+	 *
+	 * @param aMachine The Vending Machine the commands are executed on
+	 * @param aPort The port to listen on, or 0 for any free port
+	 * @throws IOException if the port cannot be listened on
+	 */
+	public CommandServer(VendingMachine aMachine, int aPort) throws IOException
+	{
+		mMachine = aMachine;
+		mCurrency = aMachine.getCurrency();
+		mParser = new CommandParser(mCurrency);
+		mSelector = Selector.open();
+		mServer = ServerSocketChannel.open();
+
+		try
+		{
+			mServer.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), aPort));
+			mServer.configureBlocking(false);
+			mServer.register(mSelector, SelectionKey.OP_ACCEPT);
+		}
+
+		catch (IOException e)
+		{
+			mServer.close();
+			mSelector.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Gets the port the server is listening on
+	 * @return the port
+	 */
+	public int getPort()
+	{
+		return mServer.socket().getLocalPort();
+	}
+
+	/**
+	 * Serves connections until the server is closed
+	 */
+	@Override
+	public void run()
+	{
+		try
+		{
+			while (!mClosed)
+			{
+				mSelector.select();
+
+				Iterator<SelectionKey> keys = mSelector.selectedKeys().iterator();
+				while (keys.hasNext())
+				{
+					SelectionKey key = keys.next();
+					keys.remove();
+
+					if (!key.isValid())
+					{
+						continue;
+					}
+
+					if (key.isAcceptable())
+					{
+						accept();
+						continue;
+					}
+
+					Connection connection = (Connection) key.attachment();
+
+					try
+					{
+						if (key.isReadable())
+						{
+							connection.read();
+						}
+
+						if (key.isValid() && key.isWritable())
+						{
+							connection.flush();
+						}
+					}
+
+					catch (IOException | RuntimeException e)
+					{
+						// Only this client is dropped, e.g. if the machine or its listener fails
+						connection.close();
+					}
+				}
+			}
+		}
+
+		catch (IOException e)
+		{
+			if (!mClosed)
+			{
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		finally
+		{
+			for (SelectionKey key : mSelector.keys())
+			{
+				if (key.attachment() instanceof Connection)
+				{
+					((Connection) key.attachment()).close();
+				}
+			}
+
+			try
+			{
+				mServer.close();
+				mSelector.close();
+			}
+
+			catch (IOException e)
+			{
+				// Closing anyway
+			}
+		}
+	}
+
+	/**
+	 * Stops the server, closing every connection
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		mClosed = true;
+		mSelector.wakeup();
+	}
+
+	/**
+	 * Accepts a waiting connection
+	 *
+	 * @throws IOException if the connection cannot be set up
+	 */
+	private void accept() throws IOException
+	{
+		SocketChannel channel = mServer.accept();
+
+		if (channel != null)
+		{
+			channel.configureBlocking(false);
+			SelectionKey key = channel.register(mSelector, SelectionKey.OP_READ);
+			key.attach(new Connection(channel, key));
+		}
+	}
+
+	/** A client connection with its own buffers */
+	private class Connection
+	{
+
+		/** The client's socket */
+		private final SocketChannel mChannel;
+
+		/** The registration of the socket with the selector */
+		private final SelectionKey mKey;
+
+		/** Commands read but not yet executed */
+		private final ByteBuffer mInput = ByteBuffer.allocate(MAX_LINE);
+
+		/** Responses not yet written, in write mode */
+		private ByteBuffer mOutput = ByteBuffer.allocateDirect(MAX_LINE);
+
+		/** Whether the connection is closed once the responses are written */
+		private boolean mClosing;
+
+		Connection(SocketChannel aChannel, SelectionKey aKey)
+		{
+			mChannel = aChannel;
+			mKey = aKey;
+		}
+
+		/**
+		 * Reads what the client has sent, executes every complete command and writes the responses.
+		 * At the end of the stream a last command without a newline is executed too, and the connection is
+		 * closed once every response is written.
+		 *
+		 * @throws IOException if the socket fails
+		 */
+		void read() throws IOException
+		{
+			boolean ended = mChannel.read(mInput) < 0;
+
+			byte[] input = mInput.array();
+			int end = mInput.position();
+			int start = 0;
+
+			for (int i = 0; i < end && !mClosing; i++)
+			{
+				if (input[i] == '\n')
+				{
+					executeLine(input, start, i);
+					start = i + 1;
+				}
+			}
+
+			if (ended)
+			{
+				if (start < end && !mClosing)
+				{
+					executeLine(input, start, end);
+					start = end;
+				}
+				mClosing = true;
+			}
+
+			else if (start == 0 && end == input.length) // no room left for the rest of the line
+			{
+				error("LINE_TOO_LONG");
+				mClosing = true;
+			}
+
+			// Keep the start of any incomplete command for the next read
+			System.arraycopy(input, start, input, 0, end - start);
+			mInput.position(end - start);
+
+			flush();
+		}
+
+		/**
+		 * Executes the command on one line
+		 *
+		 * @param aInput The bytes read
+		 * @param aStart The offset of the line
+		 * @param aEnd The offset of the newline, or of the end of the stream
+		 */
+		private void executeLine(byte[] aInput, int aStart, int aEnd)
+		{
+			int length = aEnd - aStart;
+			if (length > 0 && aInput[aEnd - 1] == '\r')
+			{
+				length--;
+			}
+
+			mParser.parse(aInput, aStart, length, mCommand);
+			execute(mCommand);
+		}
+
+		/**
+		 * Writes as much of the responses as the socket will take, waiting to write the rest
+		 * (rather than reading more commands) if the client is not keeping up
+		 *
+		 * @throws IOException if the socket fails
+		 */
+		void flush() throws IOException
+		{
+			mOutput.flip();
+			mChannel.write(mOutput);
+			mOutput.compact();
+
+			if (mOutput.position() > 0)
+			{
+				mKey.interestOps(SelectionKey.OP_WRITE);
+			}
+
+			else if (mClosing)
+			{
+				close();
+			}
+
+			else
+			{
+				mKey.interestOps(SelectionKey.OP_READ);
+			}
+		}
+
+		/**
+		 * Closes the connection
+		 */
+		void close()
+		{
+			mKey.cancel();
+
+			try
+			{
+				mChannel.close();
+			}
+
+			catch (IOException e)
+			{
+				// Closing anyway
+			}
+		}
+
+		/**
+		 * Executes a command and encodes the response
+		 *
+		 * @param aCommand The command parsed
+		 */
+		private void execute(Command aCommand)
+		{
+			if (!aCommand.isValid())
+			{
+				error(aCommand.getError().name());
+				return;
+			}
+
+			switch (aCommand.getType())
+			{
+			case EXIT:
+				mClosing = true;
+				break;
+
+			case CHECK:
+				check();
+				break;
+
+			case DEPOSIT:
+				mMachine.depositCoin(aCommand.getCoin());
+
+				put(OK);
+				put((byte) ' ');
+				putNumber(mMachine.getTotalFundsInPence());
+				put((byte) '\n');
+				break;
+
+			case PRODUCE_COINS:
+				produceCoins(aCommand.getValue());
+				break;
+
+			default:
+				// empty line
+			}
+		}
+
+		/**
+		 * Quotes and dispenses coins for a value, responding with the coins dispensed (largest first) or why
+		 * the change cannot be made
+		 *
+		 * @param aValue The value in pence
+		 */
+		private void produceCoins(int aValue)
+		{
+			ChangeQuote quote = mMachine.quoteChange(aValue);
+
+			if (!quote.isPossible())
+			{
+				error(quote.getFailure().name());
+				return;
+			}
+
+			mMachine.commitChange(quote); // quoted from the coins held, so always dispensed
+
+			put(OK);
+			for (int i = mCurrency.getDenominationCount() - 1; i >= 0; i--)
+			{
+				for (int count = quote.getCoinCount(mCurrency.getDenomination(i)); count > 0; count--)
+				{
+					put((byte) ' ');
+					put(mCurrency.getNameBytes(i));
+				}
+			}
+			put((byte) '\n');
+		}
+
+		/**
+		 * Responds with the quantity of each coin and the total funds
+		 */
+		private void check()
+		{
+			put(OK);
+
+			for (int i = 0; i < mCurrency.getDenominationCount(); i++)
+			{
+				put((byte) ' ');
+				put(mCurrency.getNameBytes(i));
+				put((byte) ':');
+				putNumber(mMachine.getCoinQuantity(mCurrency.getDenomination(i)));
+			}
+
+			put(TOTAL);
+			putNumber(mMachine.getTotalFundsInPence());
+			put((byte) '\n');
+		}
+
+		/**
+		 * Responds with an error
+		 *
+		 * @param aCode The error code
+		 */
+		private void error(String aCode)
+		{
+			put(ERR);
+
+			for (int i = 0; i < aCode.length(); i++)
+			{
+				put((byte) aCode.charAt(i));
+			}
+
+			put((byte) '\n');
+		}
+
+		/**
+		 * Appends bytes to the responses
+		 *
+		 * @param aBytes The bytes
+		 */
+		private void put(byte[] aBytes)
+		{
+			ensureRemaining(aBytes.length);
+			mOutput.put(aBytes);
+		}
+
+		/**
+		 * Appends a byte to the responses
+		 *
+		 * @param aByte The byte
+		 */
+		private void put(byte aByte)
+		{
+			ensureRemaining(1);
+			mOutput.put(aByte);
+		}
+
+		/**
+		 * Appends a number in decimal to the responses, without creating a String
+		 *
+		 * @param aNumber The number
+		 */
+		private void putNumber(long aNumber)
+		{
+			if (aNumber < 0)
+			{
+				put((byte) '-');
+				aNumber = -aNumber;
+			}
+
+			long divisor = 1;
+			while (divisor <= aNumber / 10)
+			{
+				divisor *= 10;
+			}
+
+			ensureRemaining(19);
+			for (; divisor > 0; divisor /= 10)
+			{
+				mOutput.put((byte) ('0' + aNumber / divisor % 10));
+			}
+		}
+
+		/**
+		 * Grows the response buffer if needed, e.g. for a large amount of change
+		 *
+		 * @param aBytes The number of bytes about to be appended
+		 */
+		private void ensureRemaining(int aBytes)
+		{
+			if (mOutput.remaining() < aBytes)
+			{
+				ByteBuffer output = ByteBuffer.allocateDirect(Math.max(mOutput.capacity() * 2,
+						mOutput.position() + aBytes));
+				mOutput.flip();
+				output.put(mOutput);
+				mOutput = output;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,509 @@
+package main;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * A Vending Machine whose coins can be shared by several threads at once,
+ * e.g. a coin slot, an app and a card top-up all taking payment from the same coins.
+ *
+ * The quantity of each coin is held in its own atomic counter, so no lock is shared between
+ * deposits and change requests. Change is produced in two steps:
+ *
+ *  - reserveChange calculates the coins from a snapshot of the quantities and then takes each
+ *    coin from its counter with compare-and-set. If another thread has taken any of the coins
+ *    in the meantime, the coins already taken are put back and the calculation is retried.
+ *  - commitChange confirms the coins have been dispensed, or releaseChange puts them back.
+ *
+ * As a result two requests can never be given the same coin. The total funds are updated separately
+ * from the coins themselves, so may briefly differ from the quantities while other threads are busy.
+ * The coins may be of any CurrencyProfile, and each quantity and the total funds are longs, so deposits
+ * that would take the total funds above Long.MAX_VALUE are rejected.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public class ConcurrentVendingMachine
+{
+
+	/** The number of times a change request is recalculated when other threads take its coins */
+	private static final int MAX_RESERVE_ATTEMPTS = 16;
+
+	/** The number of finished transactions kept for reuse */
+	private static final int TRANSACTION_POOL_SIZE = 64;
+
+	/** The currency of the coins held */
+	private final CurrencyProfile mCurrency;
+
+	/** The quantity of each coin available, ascending in value */
+	private final AtomicLongArray mCoinQuantities;
+
+	/** The total value of the coins available (excluding reserved coins) */
+	private final AtomicLong mTotalFunds;
+
+	/** The value of each coin in pence, ascending */
+	private final int[] mCoinValues;
+
+	/** Change solver for each thread, as solvers keep work arrays between calls */
+	private final ThreadLocal<ChangeSolver> mChangeSolvers;
+
+	/** Work arrays for each thread: [0] coins available, [1] coins chosen */
+	private final ThreadLocal<int[][]> mWorkArrays;
+
+	/** Finished transactions kept for reuse, so beginning a transaction does not allocate */
+	private final ArrayBlockingQueue<Transaction> mIdleTransactions = new ArrayBlockingQueue<Transaction>(
+			TRANSACTION_POOL_SIZE);
+
+	/** Receives the events of the Vending Machine, must be thread-safe */
+	private volatile TransactionListener mTransactionListener = TransactionListener.NONE;
+
+	/**
+	 * Creates a Vending Machine of GBP coins using a BoundedChangeSolver for each thread
+	 *
+	 * @param aInitCoins The quantity of each coin (1p, 2p, 5p, 10p, 20p, 50p, 1, 2, 5)
+	 * @throws IllegalArgumentException if a quantity is not given for each coin or is negative
+	 */
+	public ConcurrentVendingMachine(int[] aInitCoins)
+	{
+		this(aInitCoins, BoundedChangeSolver::new);
+	}
+
+	/**
+	 * Creates a Vending Machine of GBP coins
+	 *
+	 * @param aInitCoins The quantity of each coin (1p, 2p, 5p, 10p, 20p, 50p, 1, 2, 5)
+	 * @param aChangeSolverFactory Creates the change solver for each thread
+	 * @throws IllegalArgumentException if a quantity is not given for each coin or is negative
+	 */
+	public ConcurrentVendingMachine(int[] aInitCoins, Supplier<ChangeSolver> aChangeSolverFactory)
+	{
+		this(CurrencyProfile.GBP, Arrays.stream(aInitCoins).asLongStream().toArray(), aChangeSolverFactory);
+	}
+
+	/**
+	 * Creates a Vending Machine for the coins of a currency using a BoundedChangeSolver for each thread
+	 *
+	 * @param aCurrency The currency, e.g. CurrencyProfile.EUR
+	 * @param aInitCoins The quantity of each coin, ascending in value
+	 * @throws IllegalArgumentException if a quantity is not given for each coin or is negative, or the total
+	 * 		   funds would exceed Long.MAX_VALUE
+	 */
+	public ConcurrentVendingMachine(CurrencyProfile aCurrency, long[] aInitCoins)
+	{
+		this(aCurrency, aInitCoins, BoundedChangeSolver::new);
+	}
+
+	/**
+	 * Creates a Vending Machine for the coins of a currency
+	 *
+	 * @param aCurrency The currency, e.g. CurrencyProfile.EUR
+	 * @param aInitCoins The quantity of each coin, ascending in value
+	 * @param aChangeSolverFactory Creates the change solver for each thread
+	 * @throws IllegalArgumentException if a quantity is not given for each coin or is negative, or the total
+	 * 		   funds would exceed Long.MAX_VALUE
+	 */
+	public ConcurrentVendingMachine(CurrencyProfile aCurrency, long[] aInitCoins,
+			Supplier<ChangeSolver> aChangeSolverFactory)
+	{
+		int count = aCurrency.getDenominationCount();
+
+		if (aInitCoins.length != count)
+		{
+			throw new IllegalArgumentException("Must specify quantity of each type of " + aCurrency.getCode()
+					+ " coin to deposit: " + aCurrency.describe());
+		}
+
+		mCurrency = aCurrency;
+		mCoinValues = aCurrency.getValues();
+		long total = 0;
+
+		for (int i = 0; i < aInitCoins.length; i++)
+		{
+			if (aInitCoins[i] < 0)
+			{
+				throw new IllegalArgumentException("Quantity of coins cannot be negative!");
+			}
+
+			try
+			{
+				total = Math.addExact(total, Math.multiplyExact(aInitCoins[i], mCoinValues[i]));
+			}
+
+			catch (ArithmeticException e)
+			{
+				throw new IllegalArgumentException("Total funds would exceed " + Long.MAX_VALUE);
+			}
+		}
+
+		mCoinQuantities = new AtomicLongArray(aInitCoins);
+		mTotalFunds = new AtomicLong(total);
+		mChangeSolvers = ThreadLocal.withInitial(aChangeSolverFactory);
+		mWorkArrays = ThreadLocal.withInitial(() -> new int[2][count]);
+	}
+
+	/**
+	 * Gets the currency of the coins held
+	 * @return the currency profile
+	 */
+	public CurrencyProfile getCurrency()
+	{
+		return mCurrency;
+	}
+
+	/**
+	 * Sets the listener to receive the events of the Vending Machine.
+	 * Events are raised on the calling threads, so the listener must be thread-safe.
+	 *
+	 * @param aTransactionListener The listener, or TransactionListener.NONE
+	 */
+	public void setTransactionListener(TransactionListener aTransactionListener)
+	{
+		mTransactionListener = aTransactionListener;
+	}
+
+	/**
+	 * Gets the total value of the coins available, excluding any coins reserved
+	 * @return the total funds in pence
+	 */
+	public long getTotalFundsInPence()
+	{
+		return mTotalFunds.get();
+	}
+
+	/**
+	 * Gets the quantity of a coin available, excluding any coins reserved
+	 *
+	 * @param aCoin The coin
+	 * @return The quantity of the coin
+	 * @throws IllegalArgumentException if the coin is not of the machine's currency
+	 */
+	public long getCoinQuantity(Denomination aCoin)
+	{
+		return mCoinQuantities.get(indexOf(aCoin));
+	}
+
+	/**
+	 * Adds a coin to the Vending Machine
+	 *
+	 * @param aCoin The coin deposited
+	 * @throws IllegalArgumentException if the coin is not of the machine's currency, or the total funds would
+	 * 		   exceed Long.MAX_VALUE
+	 */
+	public void depositCoin(Denomination aCoin)
+	{
+		int index = indexOf(aCoin);
+		long total = addFunds(aCoin.getValue());
+		mCoinQuantities.incrementAndGet(index);
+
+		mTransactionListener.coinDeposited(aCoin, total);
+	}
+
+	/**
+	 * Finds the position of a coin in the counters
+	 *
+	 * @param aCoin The coin
+	 * @return The index of the coin
+	 * @throws IllegalArgumentException if the coin is not of the machine's currency
+	 */
+	int indexOf(Denomination aCoin)
+	{
+		if (!mCurrency.contains(aCoin))
+		{
+			throw new IllegalArgumentException(
+					"The " + aCoin.getName() + " " + aCoin.getCurrency() + " coin is not accepted");
+		}
+
+		return aCoin.getIndex();
+	}
+
+	/**
+	 * Adds to the total funds, unless the total would overflow
+	 *
+	 * @param aValue The value added in pence
+	 * @return The new total funds
+	 * @throws IllegalArgumentException if the total funds would exceed Long.MAX_VALUE
+	 */
+	private long addFunds(long aValue)
+	{
+		while (true)
+		{
+			long current = mTotalFunds.get();
+			long total;
+
+			try
+			{
+				total = Math.addExact(current, aValue);
+			}
+
+			catch (ArithmeticException e)
+			{
+				throw new IllegalArgumentException("Total funds would exceed " + Long.MAX_VALUE);
+			}
+
+			if (mTotalFunds.compareAndSet(current, total))
+			{
+				return total;
+			}
+		}
+	}
+
+	/**
+	 * Adds a coin to the Vending Machine by name
+	 *
+	 * @param aCoin The name of the coin deposited
+	 * @return Whether the coin was accepted
+	 */
+	public boolean depositCoin(String aCoin)
+	{
+		try
+		{
+			depositCoin(mCurrency.of(aCoin));
+			return true;
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			rejectCoin(aCoin, e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Reports a coin that was not accepted, by the machine or one of its transactions
+	 *
+	 * @param aCoin The name given for the coin
+	 * @param aReason Why it was not accepted
+	 */
+	void rejectCoin(String aCoin, String aReason)
+	{
+		mTransactionListener.coinRejected(aCoin, aReason);
+	}
+
+	/**
+	 * Begins a customer transaction. Coins deposited into the transaction are held separately
+	 * until it is committed, so any number of transactions can run at once against this machine.
+	 *
+	 * @return The transaction, which must be committed or aborted
+	 */
+	public Transaction beginTransaction()
+	{
+		Transaction transaction = mIdleTransactions.poll();
+
+		if (transaction == null)
+		{
+			transaction = new Transaction(this);
+		}
+
+		transaction.begin();
+		return transaction;
+	}
+
+	/**
+	 * Returns a finished transaction to the pool for reuse
+	 * @param aTransaction The finished transaction
+	 */
+	void endTransaction(Transaction aTransaction)
+	{
+		mIdleTransactions.offer(aTransaction); // if the pool is full, leave it for the garbage collector
+	}
+
+	/**
+	 * If possible, reserves coins summing to the given value so that no other request can use them.
+	 * The reservation must be passed to commitChange or releaseChange.
+	 *
+	 * @param aTargetValue The value in pence the coins must sum to
+	 * @return The coins reserved, or null if the value cannot be made from the coins available
+	 */
+	public ChangeReservation reserveChange(int aTargetValue)
+	{
+		int[] chosen = mWorkArrays.get()[1];
+
+		if (!takeChange(aTargetValue, chosen))
+		{
+			return null;
+		}
+
+		return new ChangeReservation(aTargetValue, mCurrency, chosen);
+	}
+
+	/**
+	 * If possible, takes coins summing to the given value from the Vending Machine
+	 *
+	 * @param aTargetValue The value in pence the coins must sum to
+	 * @param aCoinsTaken Filled with the quantity of each coin taken
+	 * @return Whether the coins were taken
+	 */
+	boolean takeChange(int aTargetValue, int[] aCoinsTaken)
+	{
+		if (aTargetValue < 0)
+		{
+			mTransactionListener.changeFailed(aTargetValue, ChangeFailure.NEGATIVE_VALUE);
+			return false;
+		}
+
+		ChangeSolver solver = mChangeSolvers.get();
+		int[] available = mWorkArrays.get()[0];
+
+		for (int attempt = 0; attempt < MAX_RESERVE_ATTEMPTS; attempt++)
+		{
+			if (mTotalFunds.get() < aTargetValue)
+			{
+				mTransactionListener.changeFailed(aTargetValue, ChangeFailure.INSUFFICIENT_FUNDS);
+				return false;
+			}
+
+			for (int i = 0; i < available.length; i++)
+			{
+				available[i] = (int) Math.min(mCoinQuantities.get(i), Integer.MAX_VALUE);
+			}
+
+			if (!solver.solve(aTargetValue, mCoinValues, available, aCoinsTaken))
+			{
+				mTransactionListener.changeFailed(aTargetValue, ChangeFailure.NOT_POSSIBLE);
+				return false;
+			}
+
+			if (takeCoins(aCoinsTaken))
+			{
+				mTotalFunds.addAndGet(-aTargetValue);
+				mTransactionListener.changeProduced(aTargetValue, aCoinsTaken);
+				return true;
+			}
+
+			// Another thread took some of the coins, recalculate with what is left
+		}
+
+		mTransactionListener.changeFailed(aTargetValue, ChangeFailure.NOT_POSSIBLE);
+		return false;
+	}
+
+	/**
+	 * Confirms the reserved coins have been dispensed
+	 *
+	 * @param aReservation The coins reserved
+	 * @return Whether the coins were still reserved (false if already committed or released)
+	 */
+	public boolean commitChange(ChangeReservation aReservation)
+	{
+		if (!aReservation.complete(ChangeReservation.COMMITTED))
+		{
+			return false;
+		}
+
+		coinsDispensed(aReservation.getCoinCounts());
+		return true;
+	}
+
+	/**
+	 * Reports coins taken by takeChange as dispensed
+	 * @param aCoinCounts The quantity of each coin dispensed
+	 */
+	void coinsDispensed(int[] aCoinCounts)
+	{
+		mTransactionListener.coinsDispensed(aCoinCounts, mTotalFunds.get());
+	}
+
+	/**
+	 * Returns the reserved coins to the Vending Machine
+	 *
+	 * @param aReservation The coins reserved
+	 * @return Whether the coins were still reserved (false if already committed or released)
+	 */
+	public boolean releaseChange(ChangeReservation aReservation)
+	{
+		if (!aReservation.complete(ChangeReservation.RELEASED))
+		{
+			return false;
+		}
+
+		returnCoins(aReservation.getCoinCounts(), aReservation.getTargetValue());
+		return true;
+	}
+
+	/**
+	 * Puts coins taken by takeChange back into the Vending Machine
+	 *
+	 * @param aCoinCounts The quantity of each coin
+	 * @param aValue The total value of the coins in pence
+	 */
+	void returnCoins(int[] aCoinCounts, long aValue)
+	{
+		for (int i = 0; i < aCoinCounts.length; i++)
+		{
+			if (aCoinCounts[i] > 0)
+			{
+				mCoinQuantities.addAndGet(i, aCoinCounts[i]);
+			}
+		}
+		mTotalFunds.addAndGet(aValue);
+	}
+
+	/**
+	 * Adds the coins held by a transaction to the Vending Machine
+	 *
+	 * @param aCoinCounts The quantity of each coin
+	 * @param aValue The total value of the coins in pence
+	 * @throws IllegalArgumentException if the total funds would exceed Long.MAX_VALUE
+	 */
+	void depositCoins(int[] aCoinCounts, long aValue)
+	{
+		addFunds(aValue);
+
+		for (int i = 0; i < aCoinCounts.length; i++)
+		{
+			if (aCoinCounts[i] > 0)
+			{
+				mCoinQuantities.addAndGet(i, aCoinCounts[i]);
+			}
+		}
+
+		mTransactionListener.coinsDeposited(aCoinCounts, mTotalFunds.get());
+	}
+
+	/**
+	 * Takes the given quantity of each coin, either all or none
+	 *
+	 * @param aCoinCounts The quantity of each coin to take
+	 * @return Whether all coins were taken
+	 */
+	private boolean takeCoins(int[] aCoinCounts)
+	{
+		for (int i = 0; i < aCoinCounts.length; i++)
+		{
+			int count = aCoinCounts[i];
+			if (count == 0)
+			{
+				continue;
+			}
+
+			while (true)
+			{
+				long current = mCoinQuantities.get(i);
+
+				if (current < count) // Taken by another thread, put back what we have so far
+				{
+					for (int j = 0; j < i; j++)
+					{
+						if (aCoinCounts[j] > 0)
+						{
+							mCoinQuantities.addAndGet(j, aCoinCounts[j]);
+						}
+					}
+					return false;
+				}
+
+				if (mCoinQuantities.compareAndSet(i, current, current - count))
+				{
+					break;
+				}
+			}
+		}
+
+		return true;
+	}
+
+}
@@ -0,0 +1,152 @@
+package main;
+
+import java.io.Flushable;
+import java.io.PrintStream;
+
+/**
+ * Writes the events of a Vending Machine as human readable lines, as used by the interactive Console
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public class ConsoleTransactionListener implements TransactionListener, Flushable
+{
+
+	/** Where the messages are written */
+	private final PrintStream mOut;
+
+	/** The currency of the machine, to name the coins and format the amounts */
+	private final CurrencyProfile mCurrency;
+
+	/**
+	 * Creates a listener writing the events of a GBP machine to the given stream
+	 *
+	 * @param aOut The stream to write the messages to, e.g. System.out
+	 */
+	public ConsoleTransactionListener(PrintStream aOut)
+	{
+		this(aOut, CurrencyProfile.GBP);
+	}
+
+	/**
+	 * Creates a listener writing the events of a machine of the given currency to the given stream
+	 *
+	 * @param aOut The stream to write the messages to, e.g. System.out
+	 * @param aCurrency The currency of the machine
+	 */
+	public ConsoleTransactionListener(PrintStream aOut, CurrencyProfile aCurrency)
+	{
+		mOut = aOut;
+		mCurrency = aCurrency;
+	}
+
+	@Override
+	public void coinDeposited(Denomination aCoin, long aTotalFunds)
+	{
+		mOut.println("Coin deposited: " + aCoin.getName() + ", Total funds: " + mCurrency.format(aTotalFunds));
+	}
+
+	@Override
+	public void coinsDeposited(int[] aCoinCounts, long aTotalFunds)
+	{
+		StringBuilder coins = new StringBuilder();
+
+		for (int i = 0; i < aCoinCounts.length; i++)
+		{
+			if (aCoinCounts[i] > 0)
+			{
+				if (coins.length() > 0)
+				{
+					coins.append(", ");
+				}
+				coins.append(aCoinCounts[i]).append(" x ").append(mCurrency.getDenomination(i).getName());
+			}
+		}
+
+		mOut.println("Coins deposited: " + coins + ", Total funds: " + mCurrency.format(aTotalFunds));
+	}
+
+	@Override
+	public void coinRejected(String aCoin, String aReason)
+	{
+		mOut.println("Coin rejected - " + aReason);
+	}
+
+	@Override
+	public void changeProduced(int aTargetValue, int[] aCoinsChosen)
+	{
+		StringBuilder coins = new StringBuilder("[");
+
+		// Largest coins first
+		for (int i = aCoinsChosen.length - 1; i >= 0; i--)
+		{
+			for (int count = aCoinsChosen[i]; count > 0; count--)
+			{
+				if (coins.length() > 1)
+				{
+					coins.append(", ");
+				}
+				coins.append(mCurrency.getDenomination(i).getName());
+			}
+		}
+
+		coins.append(']');
+
+		mOut.println("For amount: " + mCurrency.format(aTargetValue) + ", Coins dispensed: " + coins + "\n");
+	}
+
+	@Override
+	public void changeFailed(int aTargetValue, ChangeFailure aReason)
+	{
+		switch (aReason)
+		{
+		case NEGATIVE_VALUE:
+			mOut.println("Cannot produce coins for negative input " + mCurrency.format(aTargetValue));
+			break;
+		case INSUFFICIENT_FUNDS:
+			mOut.println("Insufficient funds in Vending Machine to create " + mCurrency.format(aTargetValue));
+			break;
+		default:
+			mOut.println("Not able to create " + aTargetValue + " with available coins!");
+			break;
+		}
+	}
+
+	@Override
+	public void coinDispensed(Denomination aCoin, long aTotalFunds)
+	{
+		mOut.println("Coin dispensed: " + aCoin.getName());
+	}
+
+	@Override
+	public void coinsDispensed(int[] aCoinCounts, long aTotalFunds)
+	{
+		StringBuilder lines = new StringBuilder();
+
+		// Largest coins first, a line for each coin as for coinDispensed
+		for (int i = aCoinCounts.length - 1; i >= 0; i--)
+		{
+			for (int count = aCoinCounts[i]; count > 0; count--)
+			{
+				if (lines.length() > 0)
+				{
+					lines.append('\n');
+				}
+				lines.append("Coin dispensed: ").append(mCurrency.getDenomination(i).getName());
+			}
+		}
+
+		if (lines.length() > 0)
+		{
+			mOut.println(lines);
+		}
+	}
+
+	@Override
+	public void flush()
+	{
+		mOut.flush();
+	}
+
+}
@@ -0,0 +1,255 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * Produces the change that leaves the machine able to give change for the most amounts afterwards.
+ *
+ * The coins left by a choice of change are scored by the number of amounts up to a horizon (e.g. 5) that
+ * could still be made from them, using a MakeableAmounts bitset, and the choice leaving the most amounts
+ * makeable is produced. The choices scored are:
+ *
+ *  - the change proposed by each candidate solver, by default the fewest coins and sparing scarce coins
+ *  - for a value up to the horizon, up to a search limit (default 64) of the other ways to make the value,
+ *    enumerated largest coins first. A table of the amounts makeable from the smaller coins alone (one
+ *    bitset per coin) prunes every branch that cannot be completed, so each way found costs at most one
+ *    step per coin plus its score.
+ *
+ * A choice only replaces an earlier one if it leaves strictly more amounts makeable, so on a tie the
+ * earliest candidate wins, and the change is never worse for coverage than the best candidate's. The cost
+ * is a solve per candidate, a bitset per coin and a bitset build of horizon / 64 words per choice scored.
+ *
+ * Instances are not thread-safe.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public class CoverageChangeSolver implements ChangeSolver
+{
+
+	/** The default horizon, 5 */
+	public static final int DEFAULT_HORIZON = 500;
+
+	/** The default number of ways to make the value searched beyond the candidates */
+	public static final int DEFAULT_SEARCH_LIMIT = 64;
+
+	/** The solvers proposing change */
+	private final ChangeSolver[] mCandidates;
+
+	/** The largest amount scored */
+	private final int mHorizon;
+
+	/** The most ways to make the value searched, after the candidates */
+	private final int mSearchLimit;
+
+	/** Scores the coins left by a proposal, created for the coin values given */
+	private MakeableAmounts mAmounts;
+
+	/** The amounts makeable from the coins below each index, [0] being only the amount 0 */
+	private MakeableAmounts[] mPrefixes = new MakeableAmounts[0];
+
+	/** Work array for the quantities of the coins below an index */
+	private int[] mPrefixQuantities = new int[0];
+
+	/** The ways still to be searched in this solve */
+	private int mSearchesLeft;
+
+	/** The score of the best choice so far in this solve */
+	private int mBestScore;
+
+	/** The coin values mAmounts was created for */
+	private int[] mCoinValues = new int[0];
+
+	/** Work array for a proposal */
+	private int[] mProposal = new int[0];
+
+	/** Work array for the coins left by a proposal */
+	private int[] mRemaining = new int[0];
+
+	/**
+	 * Chooses between the fewest coins, sparing scarce coins and up to 64 other ways to make the value,
+	 * scoring the amounts up to 5
+	 */
+	public CoverageChangeSolver()
+	{
+		this(DEFAULT_HORIZON, DEFAULT_SEARCH_LIMIT, new BoundedChangeSolver(), new ScarceCoinChangeSolver());
+	}
+
+	/**
+	 * Chooses between the change proposed by the given solvers and up to 64 other ways to make the value
+	 *
+	 * @param aHorizon The largest amount scored in pence
+	 * @param aCandidates The solvers proposing change, at least one
+	 * @throws IllegalArgumentException if the horizon is negative or there are no candidates
+	 */
+	public CoverageChangeSolver(int aHorizon, ChangeSolver... aCandidates)
+	{
+		this(aHorizon, DEFAULT_SEARCH_LIMIT, aCandidates);
+	}
+
+	/**
+	 * Chooses between the change proposed by the given solvers and a number of other ways to make the value
+	 *
+	 * @param aHorizon The largest amount scored in pence
+	 * @param aSearchLimit The most other ways to make a value up to the horizon scored, 0 for only the candidates
+	 * @param aCandidates The solvers proposing change, at least one
+	 * @throws IllegalArgumentException if the horizon or search limit is negative or there are no candidates
+	 */
+	public CoverageChangeSolver(int aHorizon, int aSearchLimit, ChangeSolver... aCandidates)
+	{
+		if (aHorizon < 0 || aHorizon == Integer.MAX_VALUE || aSearchLimit < 0 || aCandidates.length == 0)
+		{
+			throw new IllegalArgumentException("Invalid coverage: horizon " + aHorizon + ", search limit "
+					+ aSearchLimit + ", " + aCandidates.length + " candidates");
+		}
+
+		mHorizon = aHorizon;
+		mSearchLimit = aSearchLimit;
+		mCandidates = aCandidates.clone();
+	}
+
+	@Override
+	public boolean solve(int aTargetValue, int[] aCoinValues, int[] aAvailable, int[] aResult)
+	{
+		int denominations = aCoinValues.length;
+		ensureCapacity(aCoinValues);
+
+		boolean possible = false;
+		mBestScore = -1;
+
+		for (ChangeSolver candidate : mCandidates)
+		{
+			if (!candidate.solve(aTargetValue, aCoinValues, aAvailable, mProposal))
+			{
+				continue;
+			}
+
+			if (possible && Arrays.equals(mProposal, aResult)) // same as a proposal already scored
+			{
+				continue;
+			}
+
+			score(aAvailable, aResult);
+			possible = true;
+		}
+
+		if (aTargetValue >= 0 && aTargetValue <= mHorizon && mSearchLimit > 0)
+		{
+			buildPrefixes(aAvailable);
+			mSearchesLeft = mSearchLimit;
+			possible |= search(denominations, aTargetValue, aCoinValues, aAvailable, aResult);
+		}
+
+		if (!possible)
+		{
+			Arrays.fill(aResult, 0, denominations, 0);
+		}
+
+		return possible;
+	}
+
+	/**
+	 * Scores the coins left by the proposal, keeping it as the result if it leaves the most amounts makeable
+	 *
+	 * @param aAvailable The quantity of each coin held
+	 * @param aResult Receives the proposal if it is the best so far
+	 */
+	private void score(int[] aAvailable, int[] aResult)
+	{
+		for (int i = 0; i < mProposal.length; i++)
+		{
+			mRemaining[i] = aAvailable[i] - mProposal[i];
+		}
+
+		mAmounts.rebuild(mRemaining);
+		int score = mAmounts.countMakeable();
+
+		if (score > mBestScore)
+		{
+			mBestScore = score;
+			System.arraycopy(mProposal, 0, aResult, 0, mProposal.length);
+		}
+	}
+
+	/**
+	 * Builds the amounts makeable from the coins below each index
+	 *
+	 * @param aAvailable The quantity of each coin held
+	 */
+	private void buildPrefixes(int[] aAvailable)
+	{
+		Arrays.fill(mPrefixQuantities, 0);
+
+		for (int i = 0; i < mPrefixes.length; i++)
+		{
+			mPrefixes[i].rebuild(mPrefixQuantities);
+
+			if (i < aAvailable.length)
+			{
+				mPrefixQuantities[i] = aAvailable[i];
+			}
+		}
+	}
+
+	/**
+	 * Enumerates the ways to make a value from the coins below an index, largest coins first, scoring each
+	 * until the search limit is reached
+	 *
+	 * @param aCoins The number of coins (from the smallest) that may still be used
+	 * @param aValue The value still to be made from them
+	 * @param aCoinValues The value of each coin
+	 * @param aAvailable The quantity of each coin held
+	 * @param aResult Receives the best way found
+	 * @return Whether any way was found
+	 */
+	private boolean search(int aCoins, int aValue, int[] aCoinValues, int[] aAvailable, int[] aResult)
+	{
+		if (aCoins == 0)
+		{
+			score(aAvailable, aResult);
+			mSearchesLeft--;
+			return true;
+		}
+
+		int coin = aCoins - 1;
+		int value = aCoinValues[coin];
+		boolean found = false;
+
+		// Only counts that leave a value the smaller coins can make, so no branch is a dead end
+		for (int count = Math.min(aAvailable[coin], aValue / value); count >= 0 && mSearchesLeft > 0; count--)
+		{
+			int rest = aValue - count * value;
+
+			if (mPrefixes[coin].isMakeable(rest))
+			{
+				mProposal[coin] = count;
+				found |= search(coin, rest, aCoinValues, aAvailable, aResult);
+			}
+		}
+
+		return found;
+	}
+
+	/**
+	 * Creates the work arrays and bitsets for the coin values if they have changed
+	 */
+	private void ensureCapacity(int[] aCoinValues)
+	{
+		if (!Arrays.equals(mCoinValues, aCoinValues))
+		{
+			mCoinValues = aCoinValues.clone();
+			mAmounts = new MakeableAmounts(aCoinValues, mHorizon);
+			mProposal = new int[aCoinValues.length];
+			mRemaining = new int[aCoinValues.length];
+			mPrefixQuantities = new int[aCoinValues.length];
+			mPrefixes = new MakeableAmounts[aCoinValues.length];
+
+			for (int i = 0; i < mPrefixes.length; i++)
+			{
+				mPrefixes[i] = new MakeableAmounts(aCoinValues, mHorizon);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,412 @@
+package main;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * The coins of a currency: their names and values, ascending in value, e.g. GBP, EUR or USD.
+ * The highest denominations may be notes, e.g. for a change machine or a car park pay station.
+ *
+ * A profile is defined once, at startup, and everything a Vending Machine looks up while running is
+ * precomputed into dense arrays: the value of each coin by index, the index of each coin by value, and the
+ * name of each coin in UTF-8 for parsing and writing commands. So a machine with a profile does the same
+ * array accesses whichever currency it holds.
+ *
+ * Coin systems need not be canonical: change is calculated with a ChangeSolver, which finds the fewest
+ * coins for any set of values (e.g. 6 from coins of 1, 3 and 4 is 3 + 3, where taking the largest coin
+ * first gives 4 + 1 + 1).
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public final class CurrencyProfile
+{
+
+	/** The largest value of a coin in the minor unit, e.g. 1000, which bounds the index of coins by value */
+	public static final int MAX_VALUE = 100000;
+
+	/** Pounds sterling: 1p, 2p, 5p, 10p, 20p, 50p, 1, 2, 5 */
+	public static final CurrencyProfile GBP = new CurrencyProfile("GBP", "", GBPCoin.COINS);
+
+	/** Euro: 1c, 2c, 5c, 10c, 20c, 50c, 1, 2 */
+	public static final CurrencyProfile EUR = define("EUR", "",
+			new String[] { "1c", "2c", "5c", "10c", "20c", "50c", "1", "2" },
+			new int[] { 1, 2, 5, 10, 20, 50, 100, 200 });
+
+	/** US dollars: 1c, 5c, 10c, 25c, 50c, $1 */
+	public static final CurrencyProfile USD = define("USD", "$",
+			new String[] { "1c", "5c", "10c", "25c", "50c", "$1" },
+			new int[] { 1, 5, 10, 25, 50, 100 });
+
+	/** Pounds sterling with notes: the GBP coins, then 10, 20 and 50 notes */
+	public static final CurrencyProfile GBP_WITH_NOTES = withNotes(GBP, new String[] { "10", "20", "50" },
+			new int[] { 1000, 2000, 5000 });
+
+	/** Euro with notes: the EUR coins, then 5, 10, 20, 50, 100 and 200 notes */
+	public static final CurrencyProfile EUR_WITH_NOTES = withNotes(EUR,
+			new String[] { "5", "10", "20", "50", "100", "200" },
+			new int[] { 500, 1000, 2000, 5000, 10000, 20000 });
+
+	/** US dollars with notes: the USD coins, then $5, $10, $20, $50 and $100 notes */
+	public static final CurrencyProfile USD_WITH_NOTES = withNotes(USD,
+			new String[] { "$5", "$10", "$20", "$50", "$100" },
+			new int[] { 500, 1000, 2000, 5000, 10000 });
+
+	/** The profiles that can be found by code */
+	private static final CurrencyProfile[] BUILT_IN = { GBP, EUR, USD };
+
+	/** The profiles with notes that can be found by code */
+	private static final CurrencyProfile[] BUILT_IN_WITH_NOTES = { GBP_WITH_NOTES, EUR_WITH_NOTES, USD_WITH_NOTES };
+
+	/** The code of the currency, e.g. GBP */
+	private final String mCode;
+
+	/** The sign of the major unit, e.g.  */
+	private final String mSymbol;
+
+	/** The coins, ascending in value */
+	private final Denomination[] mDenominations;
+
+	/** The value of each coin, ascending */
+	private final int[] mValues;
+
+	/** The index of the coin with each value, or -1 if there is no such coin */
+	private final int[] mIndexByValue;
+
+	/** The coins by name */
+	private final HashMap<String, Denomination> mByName = new HashMap<String, Denomination>();
+
+	/** The name of each coin in UTF-8 */
+	private final byte[][] mNameBytes;
+
+	/**
+	 * Creates a profile from coins already created, ascending in value and indexed in order
+	 *
+	 * @param aCode The code of the currency
+	 * @param aSymbol The sign of the major unit
+	 * @param aDenominations The coins
+	 */
+	CurrencyProfile(String aCode, String aSymbol, Denomination[] aDenominations)
+	{
+		mCode = aCode;
+		mSymbol = aSymbol;
+		mDenominations = aDenominations.clone();
+		mValues = new int[aDenominations.length];
+		mNameBytes = new byte[aDenominations.length][];
+		mIndexByValue = new int[aDenominations[aDenominations.length - 1].getValue() + 1];
+
+		Arrays.fill(mIndexByValue, -1);
+
+		for (int i = 0; i < aDenominations.length; i++)
+		{
+			Denomination coin = aDenominations[i];
+
+			mValues[i] = coin.getValue();
+			mNameBytes[i] = coin.getName().getBytes(StandardCharsets.UTF_8);
+			mIndexByValue[coin.getValue()] = i;
+			mByName.put(coin.getName(), coin);
+		}
+	}
+
+	/**
+	 * Defines the coins of a currency, without notes
+	 *
+	 * @param aCode The code of the currency, e.g. EUR
+	 * @param aSymbol The sign of the major unit, e.g. 
+	 * @param aNames The name of each coin, as deposited, e.g. 50c or 1
+	 * @param aValues The value of each coin in the minor unit, ascending
+	 * @return The profile
+	 * @throws IllegalArgumentException if the coins are invalid, as for define with notes
+	 */
+	public static CurrencyProfile define(String aCode, String aSymbol, String[] aNames, int[] aValues)
+	{
+		return define(aCode, aSymbol, aNames, aValues, 0);
+	}
+
+	/**
+	 * Defines the coins and notes of a currency
+	 *
+	 * @param aCode The code of the currency, e.g. EUR
+	 * @param aSymbol The sign of the major unit, e.g. 
+	 * @param aNames The name of each coin, as deposited, e.g. 50c or 1
+	 * @param aValues The value of each coin in the minor unit, ascending
+	 * @param aNotes The number of the highest denominations that are notes
+	 * @return The profile
+	 * @throws IllegalArgumentException if there are no coins, a name is missing, empty, repeated or contains
+	 * 		   whitespace, the values are not ascending between 1 and MAX_VALUE, or there are more notes than 
+	 * 		   denominations
+	 */
+	public static CurrencyProfile define(String aCode, String aSymbol, String[] aNames, int[] aValues, int aNotes)
+	{
+		if (aNames.length == 0 || aNames.length != aValues.length || aNotes < 0 || aNotes > aNames.length)
+		{
+			throw new IllegalArgumentException(
+					"Must specify a name and value for each " + aCode + " coin: " + aNames.length + " names, "
+							+ aValues.length + " values, " + aNotes + " notes");
+		}
+
+		Denomination[] coins = new Denomination[aNames.length];
+		HashMap<String, Integer> names = new HashMap<String, Integer>();
+
+		for (int i = 0; i < aNames.length; i++)
+		{
+			String name = aNames[i];
+
+			if (!isValidName(name) || names.put(name, i) != null)
+			{
+				throw new IllegalArgumentException("Invalid name for " + aCode + " coin: " + name);
+			}
+
+			if (aValues[i] <= 0 || aValues[i] > MAX_VALUE || (i > 0 && aValues[i] <= aValues[i - 1]))
+			{
+				throw new IllegalArgumentException(
+						"Values of " + aCode + " coins must ascend between 1 and " + MAX_VALUE + ": " + aValues[i]);
+			}
+
+			coins[i] = new Denomination(aCode, name, aValues[i], i, i >= aNames.length - aNotes);
+		}
+
+		return new CurrencyProfile(aCode, aSymbol, coins);
+	}
+
+	/**
+	 * Adds notes above the coins of a profile, sharing its coins
+	 *
+	 * @param aCoins The profile of the coins
+	 * @param aNames The name of each note
+	 * @param aValues The value of each note in the minor unit, ascending and above the coins
+	 * @return The profile with notes
+	 */
+	private static CurrencyProfile withNotes(CurrencyProfile aCoins, String[] aNames, int[] aValues)
+	{
+		int coins = aCoins.mDenominations.length;
+		Denomination[] denominations = Arrays.copyOf(aCoins.mDenominations, coins + aNames.length, Denomination[].class);
+
+		for (int i = 0; i < aNames.length; i++)
+		{
+			denominations[coins + i] = new Denomination(aCoins.mCode, aNames[i], aValues[i], coins + i, true);
+		}
+
+		return new CurrencyProfile(aCoins.mCode, aCoins.mSymbol, denominations);
+	}
+
+	/**
+	 * Whether a coin's name can be typed as one word of a command: not empty and without whitespace
+	 */
+	private static boolean isValidName(String aName)
+	{
+		if (aName == null || aName.isEmpty())
+		{
+			return false;
+		}
+
+		for (int i = 0; i < aName.length(); i++)
+		{
+			if (aName.charAt(i) <= ' ')
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Gets a built in profile by its code
+	 *
+	 * @param aCode The code of the currency: GBP, EUR or USD
+	 * @return The profile
+	 * @throws IllegalArgumentException if there is no profile for the code
+	 */
+	public static CurrencyProfile forCode(String aCode)
+	{
+		return forCode(aCode, false);
+	}
+
+	/**
+	 * Gets a built in profile by its code, with or without notes
+	 *
+	 * @param aCode The code of the currency: GBP, EUR or USD
+	 * @param aNotes Whether the profile includes notes
+	 * @return The profile
+	 * @throws IllegalArgumentException if there is no profile for the code
+	 */
+	public static CurrencyProfile forCode(String aCode, boolean aNotes)
+	{
+		for (CurrencyProfile profile : aNotes ? BUILT_IN_WITH_NOTES : BUILT_IN)
+		{
+			if (profile.mCode.equalsIgnoreCase(aCode))
+			{
+				return profile;
+			}
+		}
+
+		throw new IllegalArgumentException("Unknown currency: " + aCode);
+	}
+
+	/**
+	 * Gets the code of the currency
+	 *
+	 * @return the code, e.g. GBP
+	 */
+	public String getCode()
+	{
+		return mCode;
+	}
+
+	/**
+	 * Gets the sign of the major unit
+	 *
+	 * @return the sign, e.g. 
+	 */
+	public String getSymbol()
+	{
+		return mSymbol;
+	}
+
+	/**
+	 * Gets the number of coins in the currency
+	 *
+	 * @return the number of denominations
+	 */
+	public int getDenominationCount()
+	{
+		return mDenominations.length;
+	}
+
+	/**
+	 * Gets the coin at the given position when ordered by ascending value
+	 *
+	 * @param aIndex The index of the coin
+	 * @return The coin
+	 */
+	public Denomination getDenomination(int aIndex)
+	{
+		return mDenominations[aIndex];
+	}
+
+	/**
+	 * Gets the value of each coin
+	 *
+	 * @return a copy of the values in the minor unit, ascending
+	 */
+	public int[] getValues()
+	{
+		return mValues.clone();
+	}
+
+	/**
+	 * Gets the coin with the given name
+	 *
+	 * @param aName The name of the coin
+	 * @return The coin
+	 * @throws IllegalArgumentException if the currency has no such coin
+	 */
+	public Denomination of(String aName)
+	{
+		Denomination coin = mByName.get(aName);
+
+		if (coin == null)
+		{
+			throw new IllegalArgumentException("The " + aName + " coin has not (yet) been minted!");
+		}
+
+		return coin;
+	}
+
+	/**
+	 * Gets the coin with the given value
+	 *
+	 * @param aValue The value of the coin in the minor unit
+	 * @return The coin
+	 * @throws IllegalArgumentException if the currency has no such coin
+	 */
+	public Denomination of(int aValue)
+	{
+		Denomination coin = find(aValue);
+
+		if (coin == null)
+		{
+			throw new IllegalArgumentException("Invalid value for " + mCode + " coin: " + aValue);
+		}
+
+		return coin;
+	}
+
+	/**
+	 * Gets the coin with the given value, without throwing if there is none
+	 *
+	 * @param aValue The value of the coin in the minor unit
+	 * @return The coin, or null if the currency has no such coin
+	 */
+	public Denomination find(int aValue)
+	{
+		int index = (aValue > 0 && aValue < mIndexByValue.length) ? mIndexByValue[aValue] : -1;
+
+		return index < 0 ? null : mDenominations[index];
+	}
+
+	/**
+	 * Whether a coin belongs to this currency
+	 *
+	 * @param aCoin The coin
+	 * @return true if the coin is one of this currency's
+	 */
+	public boolean contains(Denomination aCoin)
+	{
+		int index = aCoin.getIndex();
+
+		return index < mDenominations.length && mDenominations[index].equals(aCoin);
+	}
+
+	/**
+	 * Gets the name of a coin in UTF-8, which must not be modified
+	 *
+	 * @param aIndex The index of the coin
+	 * @return The bytes of the name
+	 */
+	byte[] getNameBytes(int aIndex)
+	{
+		return mNameBytes[aIndex];
+	}
+
+	/**
+	 * Formats an amount in the major unit, as the Console shows it, e.g. 7.48
+	 *
+	 * @param aValue The amount in the minor unit
+	 * @return The amount with the currency's sign
+	 */
+	public String format(long aValue)
+	{
+		return mSymbol + Double.valueOf(aValue) / 100;
+	}
+
+	/**
+	 * Lists the names of the coins, e.g. for a message
+	 *
+	 * @return The names, ascending in value and separated by commas, with the number of coins
+	 */
+	public String describe()
+	{
+		StringBuilder names = new StringBuilder();
+
+		for (int i = 0; i < mDenominations.length; i++)
+		{
+			names.append(i == 0 ? "" : ", ").append(mDenominations[i].getName());
+		}
+
+		return names + " (" + mDenominations.length + " total)";
+	}
+
+	/**
+	 * Represents the profile by its currency code
+	 */
+	@Override
+	public String toString()
+	{
+		return mCode;
+	}
+
+}
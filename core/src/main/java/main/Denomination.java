@@ -0,0 +1,157 @@
+package main;
+
+/**
+ * A coin or note of a currency, e.g. the 20p coin or the 20 note, as defined by a CurrencyProfile.
+ * Notes are handled exactly as coins, and are called coins throughout.
+ *
+ * Each denomination knows its position when its currency's coins are ordered by ascending value, which is
+ * the index of its quantity in a Vending Machine and in the arrays passed to a TransactionListener.
+ * There is a single shared instance of each denomination, so they are usually compared by reference, but
+ * coins are equal if they are of the same currency and value.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public class Denomination implements Comparable<Denomination>
+{
+
+	/** The code of the currency, e.g. GBP */
+	private final String mCurrency;
+
+	/** The name of the coin */
+	private final String mName;
+
+	/** The value of the coin in the currency's minor unit, e.g. pence */
+	private final int mValue;
+
+	/** The position of the coin when ordered by ascending value */
+	private final int mIndex;
+
+	/** Whether this is a note rather than a coin */
+	private final boolean mNote;
+
+	/**
+	 * Creates a denomination, only for a CurrencyProfile
+	 *
+	 * @param aCurrency The code of the currency
+	 * @param aName The name of the coin
+	 * @param aValue The value of the coin in the currency's minor unit
+	 * @param aIndex The position of the coin when ordered by ascending value
+	 * @param aNote Whether this is a note rather than a coin
+	 */
+	Denomination(String aCurrency, String aName, int aValue, int aIndex, boolean aNote)
+	{
+		this.mCurrency = aCurrency;
+		this.mName = aName;
+		this.mValue = aValue;
+		this.mIndex = aIndex;
+		this.mNote = aNote;
+	}
+
+	/**
+	 * Gets the code of the coin's currency
+	 *
+	 * @return the currency code, e.g. GBP
+	 */
+	public String getCurrency()
+	{
+		return this.mCurrency;
+	}
+
+	/**
+	 * Gets the coin's position when ordered by ascending value
+	 *
+	 * @return the index of the coin
+	 */
+	public int getIndex()
+	{
+		return this.mIndex;
+	}
+
+	/**
+	 * Gets the coin's name
+	 *
+	 * @return the Name of the coin
+	 */
+	public String getName()
+	{
+		return this.mName;
+	}
+
+	/**
+	 * Gets the value of the coin in the currency's minor unit, e.g. pence or cents
+	 *
+	 * @return the value of the coin
+	 */
+	public int getValue()
+	{
+		return this.mValue;
+	}
+
+	/**
+	 * Whether this is a note, e.g. for a machine to route it to the note stacker rather than a coin tube
+	 *
+	 * @return true for a note, false for a coin
+	 */
+	public boolean isNote()
+	{
+		return this.mNote;
+	}
+
+	/**
+	 * Represents the coin in String format
+	 */
+	@Override
+	public String toString()
+	{
+		return this.mName;
+	}
+
+	/**
+	 * Coins are equal if they have the same currency and value
+	 */
+	@Override
+	public boolean equals(Object aOther)
+	{
+		if (this == aOther)
+		{
+			return true;
+		}
+
+		if (!(aOther instanceof Denomination))
+		{
+			return false;
+		}
+
+		Denomination other = (Denomination) aOther;
+		return this.mValue == other.mValue && this.mCurrency.equals(other.mCurrency);
+	}
+
+	/**
+	 * Consistent with equals, the hash code is the value of the coin
+	 */
+	@Override
+	public int hashCode()
+	{
+		return this.mValue;
+	}
+
+	/**
+	 * Orders coins by ascending value, and coins of the same value by currency
+	 *
+	 * @param aOther The coin being compared
+	 * @return negative, zero or positive as this coin is less than, equal to or greater than the other
+	 */
+	@Override
+	public int compareTo(Denomination aOther)
+	{
+		if (this.mValue != aOther.mValue)
+		{
+			return this.mValue < aOther.mValue ? -1 : 1;
+		}
+
+		return this.mCurrency.compareTo(aOther.mCurrency);
+	}
+
+}
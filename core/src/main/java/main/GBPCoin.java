@@ -0,0 +1,120 @@
+package main;
+
+/**
+ * Represents GBP coin in terms of GBP Coins and Notes. 
+ * Validates input to verify that only valid coin can be created.
+ * 
+ * Valid coins: 1p, 2p, 5p, 10p, 20p, 50p, 1, 2, 5
+ * 
+ * These are the denominations of CurrencyProfile.GBP, which holds the lookups by name and value.
+ * 
+ * @author Peter Tomboline 
+ * @date 07/06/2020
+ *
+ */
+public class GBPCoin extends Denomination
+{
+
+	/** The number of minted coins */
+	public static final int COUNT = 9;
+
+	private static final String[] VALID_COIN_NAMES = { "1p", "2p", "5p", "10p", "20p", "50p", "1", "2", "5" };
+
+	private static final int[] VALID_COIN_VALUES = { 1, 2, 5, 10, 20, 50, 100, 200, 500 };
+
+	/** The single shared instance of each coin, ascending in value */
+	static final GBPCoin[] COINS = new GBPCoin[COUNT];
+
+	static
+	{
+		for (int i = 0; i < COUNT; i++)
+		{
+			COINS[i] = new GBPCoin(VALID_COIN_NAMES[i], VALID_COIN_VALUES[i], i);
+		}
+	}
+
+	/** Constructor for the shared coins */
+	private GBPCoin(String aName, int aValue, int aIndex)
+	{
+		super("GBP", aName, aValue, aIndex, false);
+	}
+
+	/** Copies a shared coin */
+	private GBPCoin(GBPCoin aCoin)
+	{
+		this(aCoin.getName(), aCoin.getValue(), aCoin.getIndex());
+	}
+
+	/** 
+	 * Coin Constructor from name
+	 * Prefer GBPCoin.of(String), which returns the shared coin instead of creating a new one 
+	 */
+	public GBPCoin(String aName)
+	{
+		this(of(aName));
+	}
+
+	/** 
+	 * Coin Constructor from value in pence 
+	 * Prefer GBPCoin.of(int), which returns the shared coin instead of creating a new one 
+	 */
+	public GBPCoin(int aValue)
+	{
+		this(of(aValue));
+	}
+
+	/**
+	 * Gets the shared coin with the given name
+	 * 
+	 * @param aName The name of the coin
+	 * @return The coin
+	 * @throws IllegalArgumentException if the coin has not been minted
+	 */
+	public static GBPCoin of(String aName)
+	{
+		return (GBPCoin) CurrencyProfile.GBP.of(aName);
+	}
+
+	/**
+	 * Gets the shared coin with the given value
+	 * 
+	 * @param aValue The value of the coin in pence
+	 * @return The coin
+	 * @throws IllegalArgumentException if the coin has not been minted
+	 */
+	public static GBPCoin of(int aValue)
+	{
+		GBPCoin coin = find(aValue);
+
+		if (coin == null)
+		{
+			throw new IllegalArgumentException("Invaid value for GBP coin: " + aValue);
+		}
+
+		return coin;
+	}
+
+	/**
+	 * Gets the shared coin with the given value, without throwing if there is none
+	 * 
+	 * @param aValue The value of the coin in pence
+	 * @return The coin, or null if the coin has not been minted
+	 */
+	static GBPCoin find(int aValue)
+	{
+		return (GBPCoin) CurrencyProfile.GBP.find(aValue);
+	}
+
+	/**
+	 * Gets the shared coin at the given position when ordered by ascending value,
+	 * i.e. index 0 is the 1p coin and index 8 is the 5 coin
+	 * 
+	 * @param aIndex The index of the coin
+	 * @return The coin
+	 */
+	public static GBPCoin fromIndex(int aIndex)
+	{
+		return COINS[aIndex];
+	}
+
+}
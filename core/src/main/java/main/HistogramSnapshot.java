@@ -0,0 +1,121 @@
+package main;
+
+/**
+ * The values counted by a MetricsHistogram at one point in time
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public final class HistogramSnapshot
+{
+
+	/** The number of values in each bucket */
+	private final long[] mCounts;
+
+	/** The number of values */
+	private final long mCount;
+
+	/** The largest value */
+	private final long mMax;
+
+	/**
+	 * Creates a snapshot
+	 *
+	 * @param aCounts The number of values in each bucket, owned by the snapshot from now on
+	 * @param aMax The largest value
+	 */
+	HistogramSnapshot(long[] aCounts, long aMax)
+	{
+		long count = 0;
+
+		for (int i = 0; i < aCounts.length; i++)
+		{
+			count += aCounts[i];
+		}
+
+		mCounts = aCounts;
+		mCount = count;
+		mMax = count == 0 ? 0 : aMax;
+	}
+
+	/**
+	 * Gets the number of values recorded
+	 * @return the number of values
+	 */
+	public long getCount()
+	{
+		return mCount;
+	}
+
+	/**
+	 * Gets the largest value recorded
+	 * @return the largest value, or 0 if none have been recorded
+	 */
+	public long getMax()
+	{
+		return mMax;
+	}
+
+	/**
+	 * Gets the mean of the values, from the middle of each bucket
+	 * @return the approximate mean, or 0 if none have been recorded
+	 */
+	public double getMean()
+	{
+		if (mCount == 0)
+		{
+			return 0;
+		}
+
+		double total = 0;
+
+		for (int i = 0; i < mCounts.length; i++)
+		{
+			if (mCounts[i] > 0)
+			{
+				long low = MetricsHistogram.lowestValueOf(i);
+				total += mCounts[i] * (low + (MetricsHistogram.highestValueOf(i) - low) / 2.0);
+			}
+		}
+
+		return total / mCount;
+	}
+
+	/**
+	 * Gets the value below which the given percentage of values fall, rounded up to the top of its bucket
+	 *
+	 * @param aPercentile The percentage, e.g. 99.9
+	 * @return The value at the percentile, or 0 if none have been recorded
+	 */
+	public long getValueAtPercentile(double aPercentile)
+	{
+		long rank = (long) Math.ceil(mCount * aPercentile / 100);
+		long seen = 0;
+
+		for (int i = 0; i < mCounts.length; i++)
+		{
+			seen += mCounts[i];
+
+			if (seen >= rank && seen > 0)
+			{
+				return Math.min(MetricsHistogram.highestValueOf(i), mMax);
+			}
+		}
+
+		return mMax;
+	}
+
+	/**
+	 * Summarises the snapshot on one line
+	 *
+	 * @return The count, percentiles and maximum
+	 */
+	@Override
+	public String toString()
+	{
+		return "count: " + mCount + ", p50: " + getValueAtPercentile(50) + ", p90: " + getValueAtPercentile(90)
+				+ ", p99: " + getValueAtPercentile(99) + ", p99.9: " + getValueAtPercentile(99.9) + ", max: " + mMax;
+	}
+
+}
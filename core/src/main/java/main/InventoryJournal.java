@@ -0,0 +1,756 @@
+package main;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps the coins held by a Vending Machine on disk, so the machine can be recovered after a power cycle
+ * rather than being re-seeded by hand.
+ *
+ * Listen to a Vending Machine with the journal and every deposit and dispense is appended as a fixed-width
+ * record to a memory-mapped journal file. Appending is a couple of writes to memory; a background thread
+ * forces the records to disk once a batch of them is waiting or the flush interval passes (group commit),
+ * so the coins are not held up waiting for the disk. On a power cut the records of the last flush interval
+ * may be lost; flush can be called to force them to disk straight away.
+ *
+ * The quantity of each coin is also kept by the journal. When the journal is full (or snapshot is called)
+ * the quantities are written to a snapshot file and the journal is emptied, so recovery only reads the
+ * snapshot and replays the records made since. Initialising the coins is written as a snapshot.
+ * The journal keeps the quantities of the coins of one CurrencyProfile (GBP by default), whose code and
+ * number of coins are written in the journal header and the snapshot, so a journal is never reopened as
+ * another currency. listenTo refuses a machine of any other currency up front; an event for any other coin
+ * cannot then arise, and if one is passed to the journal directly it is ignored (and counted by
+ * getIgnoredCount) rather than recorded against the wrong coin. An event never throws for its coins,
+ * as the machine has already changed by the time it is reported.
+ *
+ * Typical use:
+ *
+ *     InventoryJournal journal = new InventoryJournal(directory, CurrencyProfile.EUR);
+ *     if (!journal.isInitialised())
+ *     {
+ *         journal.initialise(initCoins);
+ *     }
+ *     VendingMachine vm = new VendingMachine(journal.getCurrency(), journal.getCoinQuantities());
+ *     journal.listenTo(vm);
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public class InventoryJournal implements TransactionListener, Flushable, Closeable
+{
+
+	/** The name of the journal file in the directory */
+	private static final String JOURNAL_FILE = "inventory.journal";
+
+	/** The name of the snapshot file in the directory */
+	private static final String SNAPSHOT_FILE = "inventory.snapshot";
+
+	/** The first 4 bytes of the journal file: "VMJ1" */
+	private static final int JOURNAL_MAGIC = 0x564D4A31;
+
+	/** Journal header: magic, currency code and number of coins, generation */
+	private static final int HEADER_SIZE = 16;
+
+	/** Journal record: marker, flags, type and coin index, then the quantity */
+	private static final int RECORD_SIZE = 8;
+
+	/** The top byte of every record, so a record that was never written (zero) is not mistaken for one */
+	private static final int RECORD_MARKER = 0xA5;
+
+	private static final int DEPOSIT = 1;
+	private static final int DISPENSE = 2;
+
+	/** Set on every record of a batch except the last, so only whole batches are replayed */
+	private static final int CONTINUED = 1;
+
+	/** The directory holding the journal and snapshot */
+	private final Path mDirectory;
+
+	/** The currency of the coins kept */
+	private final CurrencyProfile mCurrency;
+
+	/** The currency packed as in the journal header and snapshot */
+	private final int mCurrencyHeader;
+
+	/** Snapshot file: an InventorySnapshot with the generation as its version, then a checksum */
+	private final int mSnapshotSize;
+
+	/** The open journal file */
+	private final FileChannel mChannel;
+
+	/** The journal file mapped into memory */
+	private final MappedByteBuffer mJournal;
+
+	/** The number of records the journal can hold */
+	private final int mCapacity;
+
+	/** The number of records waiting before they are forced to disk early */
+	private final int mBatchSize;
+
+	/** The longest time a record waits before being forced to disk */
+	private final long mFlushIntervalMillis;
+
+	/** Guards the fields below */
+	private final Object mLock = new Object();
+
+	/** The quantity of each coin, indexed as Denomination.getIndex() */
+	private final long[] mCoinQuantities;
+
+	/** Whether a snapshot has been written, i.e. the coins have been initialised */
+	private boolean mInitialised;
+
+	/** The number of the last snapshot written, the journal only holds the records made since */
+	private long mGeneration;
+
+	/** The number of records in the journal */
+	private int mRecords;
+
+	/** The number of records appended since the journal was last forced to disk */
+	private int mUnforced;
+
+	/** The number of events ignored as their coins are not of the journal's currency */
+	private long mIgnored;
+
+	/** Whether the journal has been closed */
+	private boolean mClosed;
+
+	/** The background thread forcing the records to disk */
+	private final Thread mFlusher;
+
+	/**
+	 * Opens (or creates) the journal of GBP coins in the given directory with room for 65536 records,
+	 * forced to disk in batches of up to 256 or every 10ms
+	 *
+	 * @param aDirectory The directory holding the journal and snapshot
+	 * @throws IOException if the journal cannot be read or created, or keeps another currency
+	 */
+	public InventoryJournal(Path aDirectory) throws IOException
+	{
+		this(aDirectory, CurrencyProfile.GBP);
+	}
+
+	/**
+	 * Opens (or creates) the journal of the coins of a currency in the given directory with room for 65536
+	 * records, forced to disk in batches of up to 256 or every 10ms
+	 *
+	 * @param aDirectory The directory holding the journal and snapshot
+	 * @param aCurrency The currency of the coins kept, e.g. CurrencyProfile.EUR_WITH_NOTES
+	 * @throws IOException if the journal cannot be read or created, or keeps another currency
+	 */
+	public InventoryJournal(Path aDirectory, CurrencyProfile aCurrency) throws IOException
+	{
+		this(aDirectory, aCurrency, 65536, 256, 10);
+	}
+
+	/**
+	 * Opens (or creates) the journal of GBP coins in the given directory, recovering the quantity of each coin
+	 * from the snapshot and the records made since
+	 *
+	 * @param aDirectory The directory holding the journal and snapshot
+	 * @param aCapacity The number of records held before a snapshot is taken
+	 * @param aBatchSize The number of records waiting before they are forced to disk early
+	 * @param aFlushIntervalMillis The longest time in milliseconds a record waits before being forced to disk
+	 * @throws IOException if the journal cannot be read or created, or keeps another currency
+	 */
+	public InventoryJournal(Path aDirectory, int aCapacity, int aBatchSize, long aFlushIntervalMillis)
+			throws IOException
+	{
+		this(aDirectory, CurrencyProfile.GBP, aCapacity, aBatchSize, aFlushIntervalMillis);
+	}
+
+	/**
+	 * Opens (or creates) the journal of the coins of a currency in the given directory, recovering the
+	 * quantity of each coin from the snapshot and the records made since
+	 *
+	 * @param aDirectory The directory holding the journal and snapshot
+	 * @param aCurrency The currency of the coins kept, e.g. CurrencyProfile.EUR_WITH_NOTES
+	 * @param aCapacity The number of records held before a snapshot is taken
+	 * @param aBatchSize The number of records waiting before they are forced to disk early
+	 * @param aFlushIntervalMillis The longest time in milliseconds a record waits before being forced to disk
+	 * @throws IOException if the journal cannot be read or created, or keeps another currency
+	 * @throws IllegalArgumentException if the currency cannot be kept in a snapshot, or the capacity holds
+	 * 		   fewer records than there are coins
+	 */
+	public InventoryJournal(Path aDirectory, CurrencyProfile aCurrency, int aCapacity, int aBatchSize,
+			long aFlushIntervalMillis) throws IOException
+	{
+		if (aCapacity < aCurrency.getDenominationCount() || aBatchSize <= 0 || aFlushIntervalMillis <= 0)
+		{
+			throw new IllegalArgumentException("Invalid journal capacity: " + aCapacity + ", batch size: "
+					+ aBatchSize + ", flush interval: " + aFlushIntervalMillis);
+		}
+
+		mDirectory = aDirectory;
+		mCurrency = aCurrency;
+		mCurrencyHeader = InventorySnapshot.encodeCurrency(aCurrency);
+		mSnapshotSize = InventorySnapshot.size(aCurrency) + 4;
+		mCoinQuantities = new long[aCurrency.getDenominationCount()];
+		mBatchSize = aBatchSize;
+		mFlushIntervalMillis = aFlushIntervalMillis;
+
+		Files.createDirectories(aDirectory);
+		readSnapshot();
+
+		mChannel = FileChannel.open(aDirectory.resolve(JOURNAL_FILE), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+		// Never shrink an existing journal, its records are still needed
+		long records = Math.max(aCapacity, (mChannel.size() - HEADER_SIZE) / RECORD_SIZE);
+		mCapacity = (int) Math.min(records, (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE);
+		mJournal = mChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) mCapacity * RECORD_SIZE);
+
+		recover();
+
+		mFlusher = new Thread(this::forceRecords, "inventory-journal");
+		mFlusher.setDaemon(true);
+		mFlusher.start();
+	}
+
+	/**
+	 * Gets whether the coins have been initialised, either now or before the journal was last closed
+	 * @return whether the coins have been initialised
+	 */
+	public boolean isInitialised()
+	{
+		synchronized (mLock)
+		{
+			return mInitialised;
+		}
+	}
+
+	/**
+	 * Gets the currency of the coins kept
+	 * @return the currency profile
+	 */
+	public CurrencyProfile getCurrency()
+	{
+		return mCurrency;
+	}
+
+	/**
+	 * Gets the quantity of each coin, as recovered and kept up to date by the events since
+	 * @return the quantity of each coin, indexed as Denomination.getIndex()
+	 */
+	public long[] getCoinQuantities()
+	{
+		synchronized (mLock)
+		{
+			return mCoinQuantities.clone();
+		}
+	}
+
+	/**
+	 * Sets the quantity of each coin, e.g. the initial float, and writes a snapshot of them
+	 *
+	 * @param aCoinQuantities The quantity of each coin, indexed as Denomination.getIndex()
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	public void initialise(int[] aCoinQuantities) throws IOException
+	{
+		initialise(Arrays.stream(aCoinQuantities).asLongStream().toArray());
+	}
+
+	/**
+	 * Sets the quantity of each coin, e.g. the float of a change machine, and writes a snapshot of them
+	 *
+	 * @param aCoinQuantities The quantity of each coin, indexed as Denomination.getIndex()
+	 * @throws IOException if the snapshot cannot be written
+	 * @throws IllegalArgumentException if a quantity is not given for each coin or is negative, or the total
+	 * 		   would exceed Long.MAX_VALUE
+	 */
+	public void initialise(long[] aCoinQuantities) throws IOException
+	{
+		synchronized (mLock)
+		{
+			checkOpen();
+			writeSnapshot(aCoinQuantities); // checks the quantities before any are kept
+			System.arraycopy(aCoinQuantities, 0, mCoinQuantities, 0, mCoinQuantities.length);
+		}
+	}
+
+	/**
+	 * Writes a snapshot of the quantity of each coin and empties the journal,
+	 * so recovery does not need to replay the records made so far
+	 *
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	public void snapshot() throws IOException
+	{
+		synchronized (mLock)
+		{
+			checkOpen();
+			writeSnapshot(mCoinQuantities);
+		}
+	}
+
+	/**
+	 * Listens to a Vending Machine, replacing its listener
+	 *
+	 * @param aMachine The machine, which must hold the coins of the journal's currency
+	 * @throws IllegalArgumentException if the machine holds the coins or notes of another currency
+	 */
+	public void listenTo(VendingMachine aMachine)
+	{
+		if (aMachine.getCurrency() != mCurrency)
+		{
+			throw new IllegalArgumentException("The journal keeps " + mCurrency + " coins, not a "
+					+ aMachine.getCurrency() + " machine");
+		}
+
+		aMachine.setTransactionListener(this);
+	}
+
+	/**
+	 * Gets the number of events ignored because their coins are not of the journal's currency,
+	 * which is always 0 for the events of a machine passed to listenTo
+	 * @return the number of events ignored
+	 */
+	public long getIgnoredCount()
+	{
+		synchronized (mLock)
+		{
+			return mIgnored;
+		}
+	}
+
+	@Override
+	public void coinDeposited(Denomination aCoin, long aTotalFunds)
+	{
+		appendCoin(DEPOSIT, aCoin);
+	}
+
+	@Override
+	public void coinsDeposited(int[] aCoinCounts, long aTotalFunds)
+	{
+		appendBatch(DEPOSIT, aCoinCounts);
+	}
+
+	@Override
+	public void coinsDispensed(int[] aCoinCounts, long aTotalFunds)
+	{
+		appendBatch(DISPENSE, aCoinCounts);
+	}
+
+	/**
+	 * Appends a record for each coin in a batch, linked so the batch is recovered all or nothing
+	 *
+	 * @param aType DEPOSIT or DISPENSE
+	 * @param aCoinCounts The quantity of each coin
+	 */
+	private void appendBatch(int aType, int[] aCoinCounts)
+	{
+		synchronized (mLock)
+		{
+			if (aCoinCounts.length != mCoinQuantities.length)
+			{
+				mIgnored++;
+				return;
+			}
+
+			int last = -1;
+			int records = 0;
+
+			for (int i = 0; i < aCoinCounts.length; i++)
+			{
+				if (aCoinCounts[i] > 0)
+				{
+					last = i;
+					records++;
+				}
+			}
+
+			if (records > 0)
+			{
+				reserve(records);
+
+				for (int i = 0; i <= last; i++)
+				{
+					if (aCoinCounts[i] > 0)
+					{
+						append(aType, i, aCoinCounts[i], i != last);
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public void coinDispensed(Denomination aCoin, long aTotalFunds)
+	{
+		appendCoin(DISPENSE, aCoin);
+	}
+
+	/**
+	 * Appends a record for one coin, unless it is of another currency
+	 *
+	 * @param aType DEPOSIT or DISPENSE
+	 * @param aCoin The coin
+	 */
+	private void appendCoin(int aType, Denomination aCoin)
+	{
+		boolean kept = mCurrency.contains(aCoin);
+
+		synchronized (mLock)
+		{
+			if (!kept)
+			{
+				mIgnored++;
+				return;
+			}
+
+			reserve(1);
+			append(aType, aCoin.getIndex(), 1, false);
+		}
+	}
+
+	/**
+	 * Forces the records appended so far to disk
+	 */
+	@Override
+	public void flush() throws IOException
+	{
+		synchronized (mLock)
+		{
+			mUnforced = 0;
+		}
+
+		mJournal.force();
+	}
+
+	/**
+	 * Forces the records to disk, stops the background thread and closes the journal file
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		synchronized (mLock)
+		{
+			if (mClosed)
+			{
+				return;
+			}
+
+			mClosed = true;
+			mLock.notifyAll();
+		}
+
+		try
+		{
+			mFlusher.join();
+		}
+
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+
+		mJournal.force();
+		mChannel.close();
+	}
+
+	/**
+	 * Reads the quantity of each coin from the snapshot, if one has been written
+	 *
+	 * @throws IOException if the snapshot cannot be read or is damaged
+	 */
+	private void readSnapshot() throws IOException
+	{
+		Path path = mDirectory.resolve(SNAPSHOT_FILE);
+
+		if (!Files.exists(path))
+		{
+			return;
+		}
+
+		ByteBuffer snapshot = ByteBuffer.wrap(Files.readAllBytes(path));
+		int size = snapshot.limit();
+
+		CRC32 checksum = new CRC32();
+		checksum.update(snapshot.array(), 0, Math.max(0, size - 4));
+
+		// At least the format and currency of the snapshot and the checksum
+		if (size < 12 || snapshot.getInt(size - 4) != (int) checksum.getValue())
+		{
+			throw new IOException("Inventory snapshot is damaged: " + path);
+		}
+
+		if (!InventorySnapshot.isOf(snapshot, 0, mCurrency))
+		{
+			throw new IOException("Inventory snapshot is not of " + mCurrency + " coins: " + path);
+		}
+
+		if (size != mSnapshotSize || !InventorySnapshot.isValid(snapshot, 0, mCurrency))
+		{
+			throw new IOException("Inventory snapshot is damaged: " + path);
+		}
+
+		InventorySnapshot.read(snapshot, 0, mCoinQuantities);
+		mGeneration = InventorySnapshot.getVersion(snapshot, 0);
+		mInitialised = true;
+	}
+
+	/**
+	 * Replays the records made since the snapshot, or starts a new journal
+	 *
+	 * @throws IOException if the journal does not belong with the snapshot
+	 */
+	private void recover() throws IOException
+	{
+		int magic = mJournal.getInt(0);
+		long generation = mJournal.getLong(8);
+
+		if (magic != JOURNAL_MAGIC)
+		{
+			if (magic != 0)
+			{
+				throw new IOException("Not an inventory journal: " + mDirectory.resolve(JOURNAL_FILE));
+			}
+
+			writeHeader();
+			return;
+		}
+
+		if (mJournal.getInt(4) != mCurrencyHeader)
+		{
+			throw new IOException("Inventory journal is not of " + mCurrency + " coins: "
+					+ mDirectory.resolve(JOURNAL_FILE));
+		}
+
+		if (generation > mGeneration)
+		{
+			throw new IOException("Inventory journal " + generation + " is newer than the snapshot " + mGeneration
+					+ " in " + mDirectory);
+		}
+
+		if (generation < mGeneration) // The snapshot was written but the journal was not emptied
+		{
+			clearRecords(0, mCapacity);
+			writeHeader();
+			return;
+		}
+
+		long[] batch = new long[mCoinQuantities.length];
+		int record = 0;
+
+		for (int position = HEADER_SIZE; record < mCapacity; record++, position += RECORD_SIZE)
+		{
+			int header = mJournal.getInt(position);
+			int type = (header >>> 8) & 0xFF;
+			int index = header & 0xFF;
+
+			if ((header >>> 24) != RECORD_MARKER || (type != DEPOSIT && type != DISPENSE)
+					|| index >= batch.length)
+			{
+				break;
+			}
+
+			int count = mJournal.getInt(position + 4);
+			batch[index] += type == DEPOSIT ? count : -count;
+
+			if ((((header >>> 16) & 0xFF) & CONTINUED) == 0)
+			{
+				for (int i = 0; i < batch.length; i++)
+				{
+					mCoinQuantities[i] += batch[i];
+					batch[i] = 0;
+				}
+
+				mRecords = record + 1;
+			}
+		}
+
+		// Discard any batch that was not completely written
+		if (record > mRecords)
+		{
+			clearRecords(mRecords, record);
+		}
+	}
+
+	/**
+	 * Makes room for the records of an event, taking a snapshot if the journal is full.
+	 * Must be called holding mLock.
+	 *
+	 * @param aRecords The number of records needed
+	 */
+	private void reserve(int aRecords)
+	{
+		checkOpen();
+
+		if (mRecords + aRecords > mCapacity)
+		{
+			try
+			{
+				writeSnapshot(mCoinQuantities);
+			}
+
+			catch (IOException e)
+			{
+				throw new UncheckedIOException("Could not write inventory snapshot", e);
+			}
+		}
+	}
+
+	/**
+	 * Appends a record and applies it to the quantity of each coin. Must be called holding mLock.
+	 *
+	 * @param aType DEPOSIT or DISPENSE
+	 * @param aIndex The index of the coin
+	 * @param aCount The quantity of the coin
+	 * @param aContinued Whether more records of the same event follow
+	 */
+	private void append(int aType, int aIndex, int aCount, boolean aContinued)
+	{
+		int position = HEADER_SIZE + mRecords * RECORD_SIZE;
+		int flags = aContinued ? CONTINUED : 0;
+
+		// The header is written last, so the record is not valid until it is complete
+		mJournal.putInt(position + 4, aCount);
+		mJournal.putInt(position, RECORD_MARKER << 24 | flags << 16 | aType << 8 | aIndex);
+
+		mCoinQuantities[aIndex] += aType == DEPOSIT ? aCount : -aCount;
+		mRecords++;
+		mUnforced++;
+
+		if (mUnforced == mBatchSize)
+		{
+			mLock.notifyAll();
+		}
+	}
+
+	/**
+	 * Writes the quantity of each coin to a new snapshot file, then empties the journal.
+	 * Must be called holding mLock.
+	 *
+	 * @param aCoinQuantities The quantity of each coin
+	 * @throws IOException if the snapshot cannot be written
+	 * @throws IllegalArgumentException if a quantity is not given for each coin or is negative, or the total
+	 * 		   would exceed Long.MAX_VALUE. Nothing is written in this case.
+	 */
+	private void writeSnapshot(long[] aCoinQuantities) throws IOException
+	{
+		long generation = mGeneration + 1;
+
+		ByteBuffer snapshot = ByteBuffer.allocate(mSnapshotSize);
+		InventorySnapshot.write(snapshot, 0, generation, mCurrency, aCoinQuantities);
+
+		CRC32 checksum = new CRC32();
+		checksum.update(snapshot.array(), 0, mSnapshotSize - 4);
+		snapshot.putInt(mSnapshotSize - 4, (int) checksum.getValue());
+
+		// Replace the snapshot in one step, so a power cut leaves either the old or the new one
+		Path temp = mDirectory.resolve(SNAPSHOT_FILE + ".tmp");
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			while (snapshot.hasRemaining())
+			{
+				channel.write(snapshot);
+			}
+			channel.force(true);
+		}
+
+		Files.move(temp, mDirectory.resolve(SNAPSHOT_FILE), StandardCopyOption.ATOMIC_MOVE,
+				StandardCopyOption.REPLACE_EXISTING);
+
+		mGeneration = generation;
+		mInitialised = true;
+
+		// The old records are cleared before the header moves on, so they can never be replayed onto the new snapshot
+		clearRecords(0, mRecords);
+		mJournal.force();
+		writeHeader();
+		mJournal.force();
+
+		mRecords = 0;
+		mUnforced = 0;
+	}
+
+	/**
+	 * Zeroes a range of records of the journal
+	 *
+	 * @param aFrom The first record to zero
+	 * @param aTo The record after the last to zero
+	 */
+	private void clearRecords(int aFrom, int aTo)
+	{
+		for (int i = aFrom; i < aTo; i++)
+		{
+			mJournal.putLong(HEADER_SIZE + i * RECORD_SIZE, 0L);
+		}
+	}
+
+	/**
+	 * Writes the journal header for the current snapshot
+	 */
+	private void writeHeader()
+	{
+		mJournal.putInt(0, JOURNAL_MAGIC);
+		mJournal.putInt(4, mCurrencyHeader);
+		mJournal.putLong(8, mGeneration);
+	}
+
+	/**
+	 * Checks the journal is still open, must be called holding mLock
+	 *
+	 * @throws IllegalStateException if the journal has been closed
+	 */
+	private void checkOpen()
+	{
+		if (mClosed)
+		{
+			throw new IllegalStateException("Inventory journal has been closed");
+		}
+	}
+
+	/**
+	 * Background thread: forces the records to disk once a batch is waiting or the flush interval passes
+	 */
+	private void forceRecords()
+	{
+		while (true)
+		{
+			synchronized (mLock)
+			{
+				if (mUnforced < mBatchSize && !mClosed)
+				{
+					try
+					{
+						mLock.wait(mFlushIntervalMillis);
+					}
+
+					catch (InterruptedException e)
+					{
+						Thread.currentThread().interrupt();
+						return;
+					}
+				}
+
+				if (mUnforced == 0)
+				{
+					if (mClosed)
+					{
+						return;
+					}
+					continue;
+				}
+
+				mUnforced = 0;
+			}
+
+			mJournal.force();
+		}
+	}
+
+}
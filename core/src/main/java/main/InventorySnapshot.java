@@ -0,0 +1,476 @@
+package main;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Reads and writes a fixed-width binary snapshot of the coins held by a Vending Machine,
+ * so the state of a whole fleet can be kept, scanned, compared and totalled without parsing text.
+ *
+ * A snapshot of a currency with n coins (and notes) is size(currency) = 24 + 8n bytes, e.g. 96 for GBP:
+ *
+ *     offset  0   int      format, "VM" followed by the layout version
+ *     offset  4   int      currency, its three letter code in ASCII followed by n
+ *     offset  8   long     total funds in the minor unit, e.g. pence
+ *     offset 16   long     version of the machine's state, e.g. a count of the changes made
+ *     offset 24   long[n]  quantity of each coin, ascending in value (indexed as Denomination.getIndex())
+ *
+ * The header says which currency and how many coins the snapshot holds, so it can be read back without
+ * knowing the currency up front (getCurrency), and a snapshot of one currency is never read as another.
+ *
+ * The methods read and write directly at an offset in a ByteBuffer (heap, direct or memory-mapped)
+ * using absolute gets and puts, so they neither copy the snapshot nor move the buffer's position,
+ * and many snapshots of one currency can be packed back to back at multiples of its size. Values are in
+ * the byte order of the buffer, big-endian unless changed, and must be read in the same order they were
+ * written.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public final class InventorySnapshot
+{
+
+	/** "VM" followed by version 2 of the layout */
+	private static final int FORMAT = 0x564D0002;
+
+	/** The most coins a snapshot can hold, as their number is kept in one byte */
+	private static final int MAX_DENOMINATIONS = 255;
+
+	private static final int CURRENCY_OFFSET = 4;
+	private static final int TOTAL_OFFSET = 8;
+	private static final int VERSION_OFFSET = 16;
+	private static final int COUNTS_OFFSET = 24;
+
+	private InventorySnapshot()
+	{
+	}
+
+	/**
+	 * Gets the size of a snapshot of the coins of a currency
+	 *
+	 * @param aCurrency The currency
+	 * @return The size in bytes
+	 */
+	public static int size(CurrencyProfile aCurrency)
+	{
+		return COUNTS_OFFSET + aCurrency.getDenominationCount() * 8;
+	}
+
+	/**
+	 * Writes a snapshot of the given quantities of GBP coins
+	 *
+	 * @param aBuffer The buffer to write to
+	 * @param aOffset The offset of the snapshot in the buffer
+	 * @param aVersion The version of the machine's state
+	 * @param aCoinQuantities The quantity of each coin, indexed as GBPCoin.getIndex()
+	 * @throws IllegalArgumentException as for write with a currency
+	 */
+	public static void write(ByteBuffer aBuffer, int aOffset, long aVersion, int[] aCoinQuantities)
+	{
+		write(aBuffer, aOffset, aVersion, CurrencyProfile.GBP,
+				Arrays.stream(aCoinQuantities).asLongStream().toArray());
+	}
+
+	/**
+	 * Writes a snapshot of the given quantities of the coins of a currency
+	 *
+	 * @param aBuffer The buffer to write to
+	 * @param aOffset The offset of the snapshot in the buffer
+	 * @param aVersion The version of the machine's state
+	 * @param aCurrency The currency of the coins
+	 * @param aCoinQuantities The quantity of each coin, indexed as Denomination.getIndex()
+	 * @throws IllegalArgumentException if a quantity is not given for each coin or is negative, their total
+	 * 		   value would overflow, or the currency cannot be held in a snapshot. Nothing is written in this case.
+	 */
+	public static void write(ByteBuffer aBuffer, int aOffset, long aVersion, CurrencyProfile aCurrency,
+			long[] aCoinQuantities)
+	{
+		int currency = encodeCurrency(aCurrency);
+
+		if (aCoinQuantities.length != aCurrency.getDenominationCount())
+		{
+			throw new IllegalArgumentException("Must specify quantity of each type of " + aCurrency.getCode()
+					+ " coin: " + aCurrency.describe());
+		}
+
+		long total = 0;
+
+		try
+		{
+			for (int i = 0; i < aCoinQuantities.length; i++)
+			{
+				if (aCoinQuantities[i] < 0)
+				{
+					throw new IllegalArgumentException("Quantity of coins cannot be negative!");
+				}
+
+				total = Math.addExact(total,
+						Math.multiplyExact(aCoinQuantities[i], aCurrency.getDenomination(i).getValue()));
+			}
+		}
+
+		catch (ArithmeticException e)
+		{
+			throw new IllegalArgumentException("Total funds would exceed " + Long.MAX_VALUE);
+		}
+
+		for (int i = 0; i < aCoinQuantities.length; i++)
+		{
+			aBuffer.putLong(aOffset + COUNTS_OFFSET + i * 8, aCoinQuantities[i]);
+		}
+
+		aBuffer.putLong(aOffset + TOTAL_OFFSET, total);
+		aBuffer.putLong(aOffset + VERSION_OFFSET, aVersion);
+		aBuffer.putInt(aOffset + CURRENCY_OFFSET, currency);
+		aBuffer.putInt(aOffset, FORMAT);
+	}
+
+	/**
+	 * Writes a snapshot of the coins currently held by a Vending Machine, of any currency and with notes
+	 *
+	 * @param aBuffer The buffer to write to
+	 * @param aOffset The offset of the snapshot in the buffer
+	 * @param aVersion The version of the machine's state
+	 * @param aMachine The Vending Machine
+	 * @throws IllegalArgumentException if the machine's currency cannot be held in a snapshot, in which case
+	 * 		   nothing is written
+	 */
+	public static void write(ByteBuffer aBuffer, int aOffset, long aVersion, VendingMachine aMachine)
+	{
+		CurrencyProfile currency = aMachine.getCurrency();
+		int header = encodeCurrency(currency);
+
+		for (int i = 0; i < currency.getDenominationCount(); i++)
+		{
+			aBuffer.putLong(aOffset + COUNTS_OFFSET + i * 8, aMachine.getCoinQuantity(currency.getDenomination(i)));
+		}
+
+		aBuffer.putLong(aOffset + TOTAL_OFFSET, aMachine.getTotalFundsInPence());
+		aBuffer.putLong(aOffset + VERSION_OFFSET, aVersion);
+		aBuffer.putInt(aOffset + CURRENCY_OFFSET, header);
+		aBuffer.putInt(aOffset, FORMAT);
+	}
+
+	/**
+	 * Checks a snapshot of a built in currency has the expected format, fits in the buffer, and its total matches
+	 * its quantities
+	 *
+	 * @param aBuffer The buffer holding the snapshot
+	 * @param aOffset The offset of the snapshot in the buffer
+	 * @return Whether the snapshot is valid
+	 */
+	public static boolean isValid(ByteBuffer aBuffer, int aOffset)
+	{
+		if (!fits(aBuffer, aOffset))
+		{
+			return false;
+		}
+
+		CurrencyProfile currency;
+
+		try
+		{
+			currency = getCurrency(aBuffer, aOffset);
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			return false;
+		}
+
+		return isValid(aBuffer, aOffset, currency);
+	}
+
+	/**
+	 * Checks a snapshot has the expected format, fits in the buffer, holds the coins of a currency, and its
+	 * total matches its quantities
+	 *
+	 * @param aBuffer The buffer holding the snapshot
+	 * @param aOffset The offset of the snapshot in the buffer
+	 * @param aCurrency The currency, which need not be built in
+	 * @return Whether the snapshot is valid
+	 */
+	public static boolean isValid(ByteBuffer aBuffer, int aOffset, CurrencyProfile aCurrency)
+	{
+		if (!fits(aBuffer, aOffset) || !isOf(aBuffer, aOffset, aCurrency))
+		{
+			return false;
+		}
+
+		long total = 0;
+
+		try
+		{
+			for (int i = 0; i < aCurrency.getDenominationCount(); i++)
+			{
+				long quantity = getCoinQuantity(aBuffer, aOffset, i);
+
+				if (quantity < 0)
+				{
+					return false;
+				}
+
+				total = Math.addExact(total, Math.multiplyExact(quantity, aCurrency.getDenomination(i).getValue()));
+			}
+		}
+
+		catch (ArithmeticException e)
+		{
+			return false;
+		}
+
+		return total == getTotalFunds(aBuffer, aOffset);
+	}
+
+	/**
+	 * Whether a snapshot holds the coins of a currency, i.e. has the same code and number of coins
+	 *
+	 * @param aBuffer The buffer holding the snapshot
+	 * @param aOffset The offset of the snapshot in the buffer
+	 * @param aCurrency The currency
+	 * @return true if the snapshot is of the currency
+	 */
+	public static boolean isOf(ByteBuffer aBuffer, int aOffset, CurrencyProfile aCurrency)
+	{
+		try
+		{
+			return aBuffer.getInt(aOffset + CURRENCY_OFFSET) == encodeCurrency(aCurrency);
+		}
+
+		catch (IllegalArgumentException e) // the currency cannot be held in a snapshot at all
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * Reads the quantity of each coin from a snapshot
+	 *
+	 * @param aBuffer The buffer holding the snapshot
+	 * @param aOffset The offset of the snapshot in the buffer
+	 * @param aResult Filled with the quantity of each coin, indexed as Denomination.getIndex()
+	 * @throws IllegalArgumentException if there is no snapshot at the offset, or it holds another number of coins
+	 */
+	public static void read(ByteBuffer aBuffer, int aOffset, long[] aResult)
+	{
+		checkFormat(aBuffer, aOffset, aResult.length);
+
+		for (int i = 0; i < aResult.length; i++)
+		{
+			aResult[i] = getCoinQuantity(aBuffer, aOffset, i);
+		}
+	}
+
+	/**
+	 * Reads the quantity of one coin from a snapshot
+	 *
+	 * @param aBuffer The buffer holding the snapshot
+	 * @param aOffset The offset of the snapshot in the buffer
+	 * @param aIndex The index of the coin, as Denomination.getIndex()
+	 * @return The quantity of the coin
+	 */
+	public static long getCoinQuantity(ByteBuffer aBuffer, int aOffset, int aIndex)
+	{
+		return aBuffer.getLong(aOffset + COUNTS_OFFSET + aIndex * 8);
+	}
+
+	/**
+	 * Reads the total funds from a snapshot
+	 *
+	 * @param aBuffer The buffer holding the snapshot
+	 * @param aOffset The offset of the snapshot in the buffer
+	 * @return The total funds in the minor unit
+	 */
+	public static long getTotalFunds(ByteBuffer aBuffer, int aOffset)
+	{
+		return aBuffer.getLong(aOffset + TOTAL_OFFSET);
+	}
+
+	/**
+	 * Reads the version of the machine's state from a snapshot
+	 *
+	 * @param aBuffer The buffer holding the snapshot
+	 * @param aOffset The offset of the snapshot in the buffer
+	 * @return The version
+	 */
+	public static long getVersion(ByteBuffer aBuffer, int aOffset)
+	{
+		return aBuffer.getLong(aOffset + VERSION_OFFSET);
+	}
+
+	/**
+	 * Reads the number of coins held by a snapshot
+	 *
+	 * @param aBuffer The buffer holding the snapshot
+	 * @param aOffset The offset of the snapshot in the buffer
+	 * @return The number of denominations
+	 */
+	public static int getDenominationCount(ByteBuffer aBuffer, int aOffset)
+	{
+		return aBuffer.getInt(aOffset + CURRENCY_OFFSET) & 0xFF;
+	}
+
+	/**
+	 * Reads the size of a snapshot from its header, e.g. to step through snapshots without knowing the currency
+	 *
+	 * @param aBuffer The buffer holding the snapshot
+	 * @param aOffset The offset of the snapshot in the buffer
+	 * @return The size in bytes
+	 */
+	public static int getSize(ByteBuffer aBuffer, int aOffset)
+	{
+		return COUNTS_OFFSET + getDenominationCount(aBuffer, aOffset) * 8;
+	}
+
+	/**
+	 * Finds the built in currency a snapshot holds the coins of, with or without notes
+	 *
+	 * @param aBuffer The buffer holding the snapshot
+	 * @param aOffset The offset of the snapshot in the buffer
+	 * @return The currency
+	 * @throws IllegalArgumentException if there is no snapshot at the offset, or no built in currency matches
+	 */
+	public static CurrencyProfile getCurrency(ByteBuffer aBuffer, int aOffset)
+	{
+		checkFormat(aBuffer, aOffset, getDenominationCount(aBuffer, aOffset));
+
+		int header = aBuffer.getInt(aOffset + CURRENCY_OFFSET);
+		String code = new String(new char[] { (char) (header >>> 24), (char) ((header >>> 16) & 0xFF),
+				(char) ((header >>> 8) & 0xFF) });
+
+		for (boolean notes : new boolean[] { false, true })
+		{
+			CurrencyProfile currency = CurrencyProfile.forCode(code, notes);
+
+			if (isOf(aBuffer, aOffset, currency))
+			{
+				return currency;
+			}
+		}
+
+		throw new IllegalArgumentException("No currency has " + getDenominationCount(aBuffer, aOffset) + " " + code
+				+ " coins");
+	}
+
+	/**
+	 * Calculates the change in the quantity of each coin from one snapshot to another
+	 *
+	 * @param aBuffer The buffer holding the earlier snapshot
+	 * @param aOffset The offset of the earlier snapshot
+	 * @param aOtherBuffer The buffer holding the later snapshot, which may be the same buffer
+	 * @param aOtherOffset The offset of the later snapshot
+	 * @param aResult Filled with the later quantity less the earlier quantity of each coin
+	 * @return Whether any quantity has changed
+	 * @throws IllegalArgumentException if either is not a snapshot, or they hold different currencies
+	 */
+	public static boolean diff(ByteBuffer aBuffer, int aOffset, ByteBuffer aOtherBuffer, int aOtherOffset,
+			long[] aResult)
+	{
+		checkFormat(aBuffer, aOffset, aResult.length);
+		checkFormat(aOtherBuffer, aOtherOffset, aResult.length);
+
+		if (aBuffer.getInt(aOffset + CURRENCY_OFFSET) != aOtherBuffer.getInt(aOtherOffset + CURRENCY_OFFSET))
+		{
+			throw new IllegalArgumentException("Cannot compare snapshots of different currencies");
+		}
+
+		boolean changed = false;
+
+		for (int i = 0; i < aResult.length; i++)
+		{
+			aResult[i] = getCoinQuantity(aOtherBuffer, aOtherOffset, i) - getCoinQuantity(aBuffer, aOffset, i);
+			changed |= aResult[i] != 0;
+		}
+
+		return changed;
+	}
+
+	/**
+	 * Adds the quantity of each coin in a snapshot to running totals, e.g. to total a fleet
+	 *
+	 * @param aBuffer The buffer holding the snapshot
+	 * @param aOffset The offset of the snapshot in the buffer
+	 * @param aTotals The running total of each coin, indexed as Denomination.getIndex()
+	 * @throws IllegalArgumentException if there is no snapshot at the offset, or it holds another number of coins
+	 */
+	public static void addTo(ByteBuffer aBuffer, int aOffset, long[] aTotals)
+	{
+		checkFormat(aBuffer, aOffset, aTotals.length);
+
+		for (int i = 0; i < aTotals.length; i++)
+		{
+			aTotals[i] += getCoinQuantity(aBuffer, aOffset, i);
+		}
+	}
+
+	/**
+	 * Whether there is a snapshot header at the offset and the buffer has room for the coins it says it holds
+	 */
+	private static boolean fits(ByteBuffer aBuffer, int aOffset)
+	{
+		return aOffset >= 0 && aOffset <= aBuffer.limit() - COUNTS_OFFSET && aBuffer.getInt(aOffset) == FORMAT
+				&& aOffset <= aBuffer.limit() - getSize(aBuffer, aOffset);
+	}
+
+	/**
+	 * Packs the code and number of coins of a currency into the header
+	 *
+	 * @param aCurrency The currency
+	 * @return The code's three ASCII letters followed by the number of coins
+	 * @throws IllegalArgumentException if the code is not three ASCII letters, or there are too many coins
+	 */
+	static int encodeCurrency(CurrencyProfile aCurrency)
+	{
+		String code = aCurrency.getCode();
+
+		if (code.length() != 3 || aCurrency.getDenominationCount() > MAX_DENOMINATIONS)
+		{
+			throw new IllegalArgumentException("A snapshot cannot hold the " + aCurrency.getDenominationCount() + " "
+					+ code + " coins: the code must be three letters and there must be at most " + MAX_DENOMINATIONS);
+		}
+
+		int header = 0;
+
+		for (int i = 0; i < 3; i++)
+		{
+			char letter = code.charAt(i);
+
+			if (letter <= ' ' || letter > '~')
+			{
+				throw new IllegalArgumentException("A snapshot cannot hold the coins of " + code
+						+ ": the code must be three ASCII letters");
+			}
+
+			header = header << 8 | letter;
+		}
+
+		return header << 8 | aCurrency.getDenominationCount();
+	}
+
+	/**
+	 * Checks there is a snapshot of the given number of coins at the offset
+	 *
+	 * @param aBuffer The buffer holding the snapshot
+	 * @param aOffset The offset of the snapshot in the buffer
+	 * @param aDenominations The number of coins expected
+	 * @throws IllegalArgumentException if there is no snapshot at the offset, or it holds another number of coins
+	 */
+	private static void checkFormat(ByteBuffer aBuffer, int aOffset, int aDenominations)
+	{
+		int format = aBuffer.getInt(aOffset);
+
+		if (format != FORMAT)
+		{
+			throw new IllegalArgumentException("Not an inventory snapshot at offset " + aOffset + ": format "
+					+ Integer.toHexString(format));
+		}
+
+		if (getDenominationCount(aBuffer, aOffset) != aDenominations)
+		{
+			throw new IllegalArgumentException("The inventory snapshot at offset " + aOffset + " holds "
+					+ getDenominationCount(aBuffer, aOffset) + " coins, not " + aDenominations);
+		}
+	}
+
+}
@@ -0,0 +1,405 @@
+package main;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Predicts when a Vending Machine will run out of each coin, from the rate coins have recently been
+ * deposited and dispensed, and proposes the coins to refill it with before it does.
+ *
+ * Listen to a Vending Machine with the predictor and each deposit and dispense updates an exponentially
+ * decayed count of the coins of that denomination going in or out, so recent flow counts most and flow
+ * a half-life ago counts half as much. Each event is O(1): the count is decayed for the time since its last
+ * event and the coins added, with no history kept. The rate is the decayed count over the decay's time
+ * constant, corrected for the time the predictor has been listening so it is not underestimated at first.
+ *
+ * A coin is draining when it is dispensed faster than it is deposited, and it will run out in the
+ * quantity held divided by the net rate. The refill for a horizon is the fewest of each coin that keeps
+ * every draining coin from running out before the horizon, at the current rates.
+ *
+ * Typical use:
+ *
+ *     LowStockPredictor predictor = new LowStockPredictor(vm, 3600); // an hour's half-life
+ *     vm.setTransactionListener(TransactionListener.of(console, predictor));
+ *     long[] refill = predictor.getRefill(24 * 3600);                // enough for the next day
+ *
+ * The predictor counts the coins of the machine's currency. An event for any other coin (or for counts of
+ * any other number of coins) is ignored and counted by getIgnoredCount, as an event never throws for its
+ * coins: the machine has already changed by the time it is reported.
+ *
+ * Events and predictions may be on different threads.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public class LowStockPredictor implements TransactionListener
+{
+
+	/** The coins of the machine */
+	private final CurrencyProfile mCurrency;
+
+	/** The time constant of the decay, in nanoseconds: the half-life over ln 2 */
+	private final double mTimeConstant;
+
+	/** Gives the time in nanoseconds, System.nanoTime unless testing */
+	private final LongSupplier mClock;
+
+	/** The time the predictor started listening */
+	private final long mStart;
+
+	/** The quantity of each coin held */
+	private final long[] mQuantities;
+
+	/** The decayed count of each coin deposited, as of its last deposit */
+	private final double[] mDeposited;
+
+	/** The time of the last deposit of each coin */
+	private final long[] mLastDeposit;
+
+	/** The decayed count of each coin dispensed, as of its last dispense */
+	private final double[] mDispensed;
+
+	/** The time of the last dispense of each coin */
+	private final long[] mLastDispense;
+
+	/** The number of events ignored as their coins are not of the machine's currency */
+	private long mIgnored;
+
+	/** Guards the counts, as events and predictions may be on different threads */
+	private final Object mLock = new Object();
+
+	/**
+	 * Creates a predictor for the coins a Vending Machine holds now
+	 *
+	 * @param aMachine The machine, which the predictor must then listen to
+	 * @param aHalfLifeSeconds How long ago flow counts half as much as flow now
+	 * @throws IllegalArgumentException if the half-life is not positive
+	 */
+	public LowStockPredictor(VendingMachine aMachine, double aHalfLifeSeconds)
+	{
+		this(aMachine, aHalfLifeSeconds, System::nanoTime);
+	}
+
+	/**
+	 * Creates a predictor for the coins a Vending Machine holds now, timing events with a given clock
+	 *
+	 * @param aMachine The machine, which the predictor must then listen to
+	 * @param aHalfLifeSeconds How long ago flow counts half as much as flow now
+	 * @param aClock Gives the time in nanoseconds
+	 * @throws IllegalArgumentException if the half-life is not positive
+	 */
+	public LowStockPredictor(VendingMachine aMachine, double aHalfLifeSeconds, LongSupplier aClock)
+	{
+		if (!(aHalfLifeSeconds > 0))
+		{
+			throw new IllegalArgumentException("Half-life must be positive: " + aHalfLifeSeconds);
+		}
+
+		mCurrency = aMachine.getCurrency();
+		mTimeConstant = aHalfLifeSeconds * 1e9 / Math.log(2);
+		mClock = aClock;
+		mStart = aClock.getAsLong();
+
+		int count = mCurrency.getDenominationCount();
+		mQuantities = new long[count];
+		mDeposited = new double[count];
+		mLastDeposit = new long[count];
+		mDispensed = new double[count];
+		mLastDispense = new long[count];
+
+		for (int i = 0; i < count; i++)
+		{
+			mQuantities[i] = aMachine.getCoinQuantity(mCurrency.getDenomination(i));
+			mLastDeposit[i] = mStart;
+			mLastDispense[i] = mStart;
+		}
+	}
+
+	@Override
+	public void coinDeposited(Denomination aCoin, long aTotalFunds)
+	{
+		long now = mClock.getAsLong();
+
+		synchronized (mLock)
+		{
+			if (!mCurrency.contains(aCoin))
+			{
+				mIgnored++;
+				return;
+			}
+
+			int i = aCoin.getIndex();
+			mDeposited[i] = decay(mDeposited[i], now - mLastDeposit[i]) + 1;
+			mLastDeposit[i] = now;
+			mQuantities[i]++;
+		}
+	}
+
+	@Override
+	public void coinsDeposited(int[] aCoinCounts, long aTotalFunds)
+	{
+		long now = mClock.getAsLong();
+
+		synchronized (mLock)
+		{
+			if (aCoinCounts.length != mQuantities.length)
+			{
+				mIgnored++;
+				return;
+			}
+
+			for (int i = 0; i < aCoinCounts.length; i++)
+			{
+				if (aCoinCounts[i] > 0)
+				{
+					mDeposited[i] = decay(mDeposited[i], now - mLastDeposit[i]) + aCoinCounts[i];
+					mLastDeposit[i] = now;
+					mQuantities[i] += aCoinCounts[i];
+				}
+			}
+		}
+	}
+
+	@Override
+	public void coinDispensed(Denomination aCoin, long aTotalFunds)
+	{
+		long now = mClock.getAsLong();
+
+		synchronized (mLock)
+		{
+			if (!mCurrency.contains(aCoin))
+			{
+				mIgnored++;
+				return;
+			}
+
+			int i = aCoin.getIndex();
+			mDispensed[i] = decay(mDispensed[i], now - mLastDispense[i]) + 1;
+			mLastDispense[i] = now;
+			mQuantities[i]--;
+		}
+	}
+
+	@Override
+	public void coinsDispensed(int[] aCoinCounts, long aTotalFunds)
+	{
+		long now = mClock.getAsLong();
+
+		synchronized (mLock)
+		{
+			if (aCoinCounts.length != mQuantities.length)
+			{
+				mIgnored++;
+				return;
+			}
+
+			for (int i = 0; i < aCoinCounts.length; i++)
+			{
+				if (aCoinCounts[i] > 0)
+				{
+					mDispensed[i] = decay(mDispensed[i], now - mLastDispense[i]) + aCoinCounts[i];
+					mLastDispense[i] = now;
+					mQuantities[i] -= aCoinCounts[i];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of events ignored as their coins are not of the machine's currency
+	 *
+	 * @return the number of events ignored
+	 */
+	public long getIgnoredCount()
+	{
+		synchronized (mLock)
+		{
+			return mIgnored;
+		}
+	}
+
+	/**
+	 * Decays a count for the time elapsed
+	 *
+	 * @param aCount The count
+	 * @param aElapsed The nanoseconds elapsed
+	 * @return The count decayed
+	 */
+	private double decay(double aCount, long aElapsed)
+	{
+		return aElapsed <= 0 ? aCount : aCount * Math.exp(-aElapsed / mTimeConstant);
+	}
+
+	/**
+	 * Converts a count decayed to now into a rate per second, corrected for the time listened
+	 */
+	private double rate(double aCount, long aNow)
+	{
+		double listened = 1 - Math.exp(-(aNow - mStart) / mTimeConstant);
+		return listened <= 0 ? 0 : aCount / (mTimeConstant * listened) * 1e9;
+	}
+
+	/**
+	 * Gets the recent rate a coin has been deposited
+	 *
+	 * @param aCoin The coin
+	 * @return The coins deposited per second
+	 */
+	public double getDepositRate(Denomination aCoin)
+	{
+		long now = mClock.getAsLong();
+
+		synchronized (mLock)
+		{
+			int i = indexOf(aCoin);
+			return rate(decay(mDeposited[i], now - mLastDeposit[i]), now);
+		}
+	}
+
+	/**
+	 * Gets the recent rate a coin has been dispensed
+	 *
+	 * @param aCoin The coin
+	 * @return The coins dispensed per second
+	 */
+	public double getDispenseRate(Denomination aCoin)
+	{
+		long now = mClock.getAsLong();
+
+		synchronized (mLock)
+		{
+			int i = indexOf(aCoin);
+			return rate(decay(mDispensed[i], now - mLastDispense[i]), now);
+		}
+	}
+
+	/**
+	 * Gets the quantity of a coin held, as counted from the events
+	 *
+	 * @param aCoin The coin
+	 * @return The quantity held
+	 */
+	public long getQuantity(Denomination aCoin)
+	{
+		synchronized (mLock)
+		{
+			return mQuantities[indexOf(aCoin)];
+		}
+	}
+
+	/**
+	 * Predicts how long until a coin runs out at the recent rates
+	 *
+	 * @param aCoin The coin
+	 * @return The seconds until none are held, 0 if none are held now, or Double.POSITIVE_INFINITY if the
+	 * 		   coin is not draining
+	 */
+	public double getSecondsToExhaustion(Denomination aCoin)
+	{
+		long now = mClock.getAsLong();
+
+		synchronized (mLock)
+		{
+			return secondsToExhaustion(indexOf(aCoin), now);
+		}
+	}
+
+	/**
+	 * Predicts how long until a coin runs out
+	 */
+	private double secondsToExhaustion(int aIndex, long aNow)
+	{
+		if (mQuantities[aIndex] <= 0)
+		{
+			return 0;
+		}
+
+		double drain = netDrain(aIndex, aNow);
+		return drain > 0 ? mQuantities[aIndex] / drain : Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Gets the rate a coin is dispensed less the rate it is deposited
+	 */
+	private double netDrain(int aIndex, long aNow)
+	{
+		return rate(decay(mDispensed[aIndex], aNow - mLastDispense[aIndex]), aNow)
+				- rate(decay(mDeposited[aIndex], aNow - mLastDeposit[aIndex]), aNow);
+	}
+
+	/**
+	 * Proposes the fewest coins to add so that no coin runs out before a horizon at the recent rates
+	 *
+	 * @param aHorizonSeconds How long the coins must last
+	 * @return The quantity of each coin to add, indexed as Denomination.getIndex()
+	 * @throws IllegalArgumentException if the horizon is negative or NaN
+	 */
+	public long[] getRefill(double aHorizonSeconds)
+	{
+		if (!(aHorizonSeconds >= 0))
+		{
+			throw new IllegalArgumentException("Horizon must not be negative: " + aHorizonSeconds);
+		}
+
+		long now = mClock.getAsLong();
+		long[] refill = new long[mQuantities.length];
+
+		synchronized (mLock)
+		{
+			for (int i = 0; i < refill.length; i++)
+			{
+				double drain = netDrain(i, now);
+
+				if (drain > 0)
+				{
+					refill[i] = Math.max(0, (long) Math.ceil(drain * aHorizonSeconds) - mQuantities[i]);
+				}
+			}
+		}
+
+		return refill;
+	}
+
+	/**
+	 * Finds the position of a coin in the counts
+	 *
+	 * @throws IllegalArgumentException if the coin is not of the machine's currency
+	 */
+	private int indexOf(Denomination aCoin)
+	{
+		if (!mCurrency.contains(aCoin))
+		{
+			throw new IllegalArgumentException(
+					"The " + aCoin.getName() + " " + aCoin.getCurrency() + " coin is not accepted");
+		}
+
+		return aCoin.getIndex();
+	}
+
+	/**
+	 * Lists each coin held with its recent flow per hour and the hours until it runs out
+	 */
+	@Override
+	public String toString()
+	{
+		long now = mClock.getAsLong();
+		StringBuilder builder = new StringBuilder();
+
+		synchronized (mLock)
+		{
+			for (int i = 0; i < mQuantities.length; i++)
+			{
+				double hours = secondsToExhaustion(i, now) / 3600;
+
+				builder.append(String.format("%s | Quantity: %d | In: %.1f/h | Out: %.1f/h | Runs out in: %s%n",
+						mCurrency.getDenomination(i), mQuantities[i],
+						rate(decay(mDeposited[i], now - mLastDeposit[i]), now) * 3600,
+						rate(decay(mDispensed[i], now - mLastDispense[i]), now) * 3600,
+						Double.isInfinite(hours) ? "never" : String.format("%.1fh", hours)));
+			}
+		}
+
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,261 @@
+package main;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Keeps a bitset of every amount, up to a limit, that can be made exactly from the coins held,
+ * so whether change can be given for a price is a single bit test.
+ *
+ * The bitset is built in one pass over the coins: starting from the amount 0, each coin is added by
+ * or-ing the bitset with itself shifted by the coin's value. The copies of a coin are added in chunks of
+ * 1, 2, 4, ... coins, so a coin held n times costs O(log n) shifts of limit / 64 words rather than n.
+ * Only limit / value of a coin could ever be used for an amount up to the limit, so any more are ignored.
+ *
+ * Coins deposited are added to the bitset in place in the same way. Removing a coin cannot be undone in
+ * place (the amounts it made may also be made without it), so the bitset is rebuilt the next time it is
+ * queried, unless the coin removed was one of those ignored, e.g. a well stocked coin used for change.
+ *
+ * Instances are not thread-safe.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public class MakeableAmounts
+{
+
+	/** The largest amount tracked, in pence */
+	private final int mLimit;
+
+	/** The value of each coin in pence, ascending */
+	private final int[] mCoinValues;
+
+	/** The quantity of each coin held */
+	private final long[] mQuantities;
+
+	/** Bit n is set if n pence can be made */
+	private final long[] mBits;
+
+	/** Whether a coin has been removed since the bitset was built */
+	private boolean mStale;
+
+	/**
+	 * Creates the bitset for an empty machine, where only 0 can be made
+	 *
+	 * @param aCoinValues The value of each coin in pence, ascending
+	 * @param aLimit The largest amount to track in pence
+	 * @throws IllegalArgumentException if the limit is negative
+	 */
+	public MakeableAmounts(int[] aCoinValues, int aLimit)
+	{
+		if (aLimit < 0 || aLimit == Integer.MAX_VALUE)
+		{
+			throw new IllegalArgumentException("Invalid limit for makeable amounts: " + aLimit);
+		}
+
+		mLimit = aLimit;
+		mCoinValues = Arrays.copyOf(aCoinValues, aCoinValues.length);
+		mQuantities = new long[aCoinValues.length];
+		mBits = new long[(aLimit >>> 6) + 1];
+		mBits[0] = 1;
+	}
+
+	/**
+	 * Rebuilds the bitset for the coins held
+	 *
+	 * @param aCoinQuantities The quantity of each coin held
+	 */
+	public void rebuild(int[] aCoinQuantities)
+	{
+		for (int i = 0; i < mQuantities.length; i++)
+		{
+			mQuantities[i] = aCoinQuantities[i];
+		}
+
+		rebuild();
+	}
+
+	/**
+	 * Rebuilds the bitset for the coins held, however many there are
+	 *
+	 * @param aCoinQuantities The quantity of each coin held
+	 */
+	public void rebuild(long[] aCoinQuantities)
+	{
+		System.arraycopy(aCoinQuantities, 0, mQuantities, 0, mQuantities.length);
+		rebuild();
+	}
+
+	/**
+	 * Adds deposited coins to the bitset
+	 *
+	 * @param aIndex The index of the coin, as Denomination.getIndex()
+	 * @param aCount The quantity deposited
+	 */
+	public void coinsAdded(int aIndex, int aCount)
+	{
+		int before = usable(aIndex);
+		mQuantities[aIndex] += aCount;
+
+		if (!mStale)
+		{
+			addCopies(mCoinValues[aIndex], usable(aIndex) - before);
+		}
+	}
+
+	/**
+	 * Removes dispensed coins from the bitset
+	 *
+	 * @param aIndex The index of the coin, as Denomination.getIndex()
+	 * @param aCount The quantity dispensed
+	 */
+	public void coinsRemoved(int aIndex, int aCount)
+	{
+		int before = usable(aIndex);
+		mQuantities[aIndex] -= aCount;
+
+		if (usable(aIndex) != before)
+		{
+			mStale = true;
+		}
+	}
+
+	/**
+	 * Gets the largest amount tracked
+	 * @return the limit in pence
+	 */
+	public int getLimit()
+	{
+		return mLimit;
+	}
+
+	/**
+	 * Whether an amount can be made exactly from the coins held
+	 *
+	 * @param aAmount The amount in pence, up to the limit
+	 * @return true if coins can be produced for the amount
+	 * @throws IllegalArgumentException if the amount is negative or above the limit
+	 */
+	public boolean isMakeable(int aAmount)
+	{
+		if (aAmount < 0 || aAmount > mLimit)
+		{
+			throw new IllegalArgumentException("Amount is not tracked: " + aAmount + "p, limit " + mLimit + "p");
+		}
+
+		if (mStale)
+		{
+			rebuild();
+		}
+
+		return (mBits[aAmount >>> 6] & (1L << aAmount)) != 0;
+	}
+
+	/**
+	 * Counts the amounts that can be made
+	 *
+	 * @return The number of amounts from 0 to the limit that can be made, at least 1 as 0 can always be made
+	 */
+	public int countMakeable()
+	{
+		if (mStale)
+		{
+			rebuild();
+		}
+
+		int count = 0;
+
+		for (int i = 0; i < mBits.length; i++)
+		{
+			count += Long.bitCount(mBits[i]);
+		}
+
+		return count;
+	}
+
+	/**
+	 * Copies the amounts that can be made
+	 *
+	 * @return A bitset where bit n is set if n pence can be made, up to the limit
+	 */
+	public BitSet toBitSet()
+	{
+		if (mStale)
+		{
+			rebuild();
+		}
+
+		return BitSet.valueOf(mBits);
+	}
+
+	/**
+	 * Builds the bitset from the quantities held
+	 */
+	private void rebuild()
+	{
+		Arrays.fill(mBits, 0);
+		mBits[0] = 1;
+
+		for (int i = 0; i < mCoinValues.length; i++)
+		{
+			addCopies(mCoinValues[i], usable(i));
+		}
+
+		mStale = false;
+	}
+
+	/**
+	 * Gets the quantity of a coin that could be used for an amount up to the limit
+	 */
+	private int usable(int aIndex)
+	{
+		return (int) Math.max(0, Math.min(mQuantities[aIndex], mLimit / mCoinValues[aIndex]));
+	}
+
+	/**
+	 * Adds copies of a coin, in chunks of 1, 2, 4, ... so that every number of copies from 0 to the
+	 * count is the sum of some of the chunks
+	 *
+	 * @param aValue The value of the coin
+	 * @param aCount The number of copies to add
+	 */
+	private void addCopies(int aValue, int aCount)
+	{
+		for (int chunk = 1; aCount > 0; chunk <<= 1)
+		{
+			int copies = Math.min(chunk, aCount);
+			orShiftedLeft(copies * aValue);
+			aCount -= copies;
+		}
+	}
+
+	/**
+	 * Sets every bit n + aShift where bit n is set, i.e. bits |= bits &lt;&lt; aShift, dropping amounts
+	 * above the limit
+	 *
+	 * @param aShift The shift in bits, at most the limit
+	 */
+	private void orShiftedLeft(int aShift)
+	{
+		int words = aShift >>> 6;
+		int bits = aShift & 63;
+
+		// From the top down, so each word is read before it is updated
+		for (int i = mBits.length - 1; i >= words; i--)
+		{
+			long shifted = mBits[i - words] << bits;
+
+			if (bits != 0 && i - words > 0)
+			{
+				shifted |= mBits[i - words - 1] >>> (64 - bits);
+			}
+
+			mBits[i] |= shifted;
+		}
+
+		// Clear the amounts above the limit in the last word
+		mBits[mBits.length - 1] &= -1L >>> (63 - (mLimit & 63));
+	}
+
+}
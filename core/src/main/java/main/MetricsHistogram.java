@@ -0,0 +1,119 @@
+package main;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts values, e.g. latencies in nanoseconds, in log-linear buckets as an HDR histogram does: each power
+ * of two is split into 8 buckets, so any value is reported to within 12.5% while the whole range of a long
+ * fits in 512 counters.
+ *
+ * Recording is lock-free and does not allocate, so one histogram can be shared by many threads on the hot
+ * path. Read it with getSnapshot.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public class MetricsHistogram
+{
+
+	/** log2 of the number of buckets per power of two */
+	private static final int SUB_BUCKET_BITS = 3;
+
+	/** The number of buckets per power of two */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/** The number of buckets */
+	static final int BUCKETS = 64 << SUB_BUCKET_BITS;
+
+	/** The number of values recorded in each bucket */
+	private final AtomicLongArray mCounts = new AtomicLongArray(BUCKETS);
+
+	/** The largest value recorded */
+	private final AtomicLong mMax = new AtomicLong();
+
+	/**
+	 * Records a value
+	 *
+	 * @param aValue The value, negative values are recorded as 0
+	 */
+	public void record(long aValue)
+	{
+		long value = Math.max(0, aValue);
+		mCounts.incrementAndGet(indexOf(value));
+
+		long max = mMax.get();
+		while (value > max && !mMax.compareAndSet(max, value))
+		{
+			max = mMax.get();
+		}
+	}
+
+	/**
+	 * Copies the values recorded so far. Values recorded while copying may or may not be included.
+	 *
+	 * @return The snapshot
+	 */
+	public HistogramSnapshot getSnapshot()
+	{
+		long[] counts = new long[BUCKETS];
+
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			counts[i] = mCounts.get(i);
+		}
+
+		return new HistogramSnapshot(counts, mMax.get());
+	}
+
+	/**
+	 * Calculates the bucket of a value
+	 *
+	 * @param aValue The value, not negative
+	 * @return The index of the bucket
+	 */
+	static int indexOf(long aValue)
+	{
+		if (aValue < SUB_BUCKETS)
+		{
+			return (int) aValue;
+		}
+
+		int exponent = 63 - Long.numberOfLeadingZeros(aValue);
+		int subBucket = (int) (aValue >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+		return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + subBucket;
+	}
+
+	/**
+	 * Calculates the largest value counted by a bucket
+	 *
+	 * @param aIndex The index of the bucket
+	 * @return The largest value of the bucket
+	 */
+	static long highestValueOf(int aIndex)
+	{
+		if (aIndex < SUB_BUCKETS)
+		{
+			return aIndex;
+		}
+
+		int exponent = (aIndex >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+		long subBucket = aIndex & (SUB_BUCKETS - 1);
+
+		return ((SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+	}
+
+	/**
+	 * Calculates the smallest value counted by a bucket
+	 *
+	 * @param aIndex The index of the bucket
+	 * @return The smallest value of the bucket
+	 */
+	static long lowestValueOf(int aIndex)
+	{
+		return aIndex == 0 ? 0 : highestValueOf(aIndex - 1) + 1;
+	}
+
+}
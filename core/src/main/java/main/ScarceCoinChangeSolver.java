@@ -0,0 +1,44 @@
+package main;
+
+/**
+ * Produces change while sparing the denominations the machine holds least of, so the float does not run out
+ * of a coin (e.g. the last 10p) while others are plentiful.
+ *
+ * Scarcity is measured by the value held in each coin rather than the quantity, as more small coins are
+ * needed to make the same amounts. A coin weighs 1 plus log2 of the most value held in any coin divided
+ * by the value held in that coin, and the change with the lowest total weight is produced. The coin held
+ * in the most value therefore weighs 1, one held in half the value weighs 2, and so on; the logarithm keeps
+ * scarce coins in use when the alternative would be many more coins.
+ *
+ * As the weights depend on every quantity held, the change for a value may change whenever a coin is
+ * deposited or dispensed; wrap it in a CachingChangeSolver only if that does not matter.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public class ScarceCoinChangeSolver extends BoundedChangeSolver
+{
+
+	@Override
+	protected void weighCoins(int aTargetValue, int[] aCoinValues, int[] aAvailable, int[] aCosts)
+	{
+		long mostHeld = 0;
+
+		for (int i = 0; i < aCoinValues.length; i++)
+		{
+			mostHeld = Math.max(mostHeld, (long) aAvailable[i] * aCoinValues[i]);
+		}
+
+		for (int i = 0; i < aCoinValues.length; i++)
+		{
+			long held = (long) aAvailable[i] * aCoinValues[i];
+
+			if (held > 0)
+			{
+				aCosts[i] = 64 - Long.numberOfLeadingZeros(mostHeld / held); // 1 + floor(log2(ratio))
+			}
+		}
+	}
+
+}
@@ -0,0 +1,281 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * A single customer's session with a ConcurrentVendingMachine.
+ *
+ * Coins deposited into the transaction are held in the transaction's own buffer rather than
+ * the machine, so many transactions can run at once against the same coins:
+ *
+ *  - begin      ConcurrentVendingMachine.beginTransaction()
+ *  - deposit    hold the customer's coins in the transaction
+ *  - quote      reserve the change due for a price from the machine's coins
+ *  - commit     add the held coins to the machine and dispense the reserved change
+ *  - abort      return the reserved change to the machine and refund the held coins
+ *
+ * Transactions are reused by the machine once committed or aborted, so a transaction must not be
+ * used after either. A transaction belongs to one customer and is not thread-safe.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public class Transaction
+{
+
+	private static final int CLOSED = 0;
+	private static final int OPEN = 1;
+	private static final int QUOTED = 2;
+
+	/** The machine this transaction takes change from */
+	private final ConcurrentVendingMachine mMachine;
+
+	/** The quantity of each coin deposited by the customer */
+	private final int[] mCoinsDeposited;
+
+	/** The quantity of each coin reserved as change */
+	private final int[] mCoinsChange;
+
+	/** The value of the coins deposited in pence */
+	private long mDepositedValue;
+
+	/** The value of the change reserved in pence */
+	private int mChangeValue;
+
+	/** Whether the transaction is closed, open or has change reserved */
+	private int mState = CLOSED;
+
+	/**
+	 * Creates a transaction, use ConcurrentVendingMachine.beginTransaction
+	 * @param aMachine The machine the transaction belongs to
+	 */
+	Transaction(ConcurrentVendingMachine aMachine)
+	{
+		mMachine = aMachine;
+		mCoinsDeposited = new int[aMachine.getCurrency().getDenominationCount()];
+		mCoinsChange = new int[mCoinsDeposited.length];
+	}
+
+	/**
+	 * Opens the transaction with no coins deposited
+	 */
+	void begin()
+	{
+		Arrays.fill(mCoinsDeposited, 0);
+		Arrays.fill(mCoinsChange, 0);
+		mDepositedValue = 0;
+		mChangeValue = 0;
+		mState = OPEN;
+	}
+
+	/**
+	 * Holds a coin deposited by the customer. Any change already quoted is returned to the
+	 * machine, as the change due has changed.
+	 *
+	 * @param aCoin The coin deposited
+	 * @throws IllegalArgumentException if the coin is not of the machine's currency, or the value or quantity
+	 * 		   deposited would overflow
+	 */
+	public void deposit(Denomination aCoin)
+	{
+		checkOpen();
+		int index = mMachine.indexOf(aCoin);
+		int count;
+		long value;
+
+		try
+		{
+			count = Math.addExact(mCoinsDeposited[index], 1);
+			value = Math.addExact(mDepositedValue, aCoin.getValue());
+		}
+
+		catch (ArithmeticException e)
+		{
+			throw new IllegalArgumentException("Deposited value would exceed " + Long.MAX_VALUE
+					+ " or quantity of " + aCoin.getName() + " would exceed " + Integer.MAX_VALUE);
+		}
+
+		releaseChange();
+
+		mCoinsDeposited[index] = count;
+		mDepositedValue = value;
+	}
+
+	/**
+	 * Holds a coin deposited by the customer, by name. A name that is not a coin of the machine's currency
+	 * is reported to the machine's listener as rejected.
+	 *
+	 * @param aCoin The name of the coin
+	 * @return Whether the coin was accepted
+	 */
+	public boolean deposit(String aCoin)
+	{
+		checkOpen();
+		Denomination coin;
+
+		try
+		{
+			coin = mMachine.getCurrency().of(aCoin);
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			mMachine.rejectCoin(aCoin, e.getMessage());
+			return false;
+		}
+
+		deposit(coin);
+		return true;
+	}
+
+	/**
+	 * Gets the value of the coins deposited
+	 * @return the value deposited in pence
+	 */
+	public long getDepositedValue()
+	{
+		return mDepositedValue;
+	}
+
+	/**
+	 * Gets the quantity of a coin deposited
+	 *
+	 * @param aCoin The coin
+	 * @return The quantity deposited, 0 if the coin is not of the machine's currency
+	 */
+	public int getDepositedCount(Denomination aCoin)
+	{
+		return mMachine.getCurrency().contains(aCoin) ? mCoinsDeposited[aCoin.getIndex()] : 0;
+	}
+
+	/**
+	 * Reserves the change due for the given price from the machine's coins, replacing any
+	 * change already quoted. Change is made from the coins already in the machine, not the coins
+	 * held by this transaction.
+	 *
+	 * @param aPrice The price in pence
+	 * @return Whether enough has been deposited and the change can be made, which it cannot if the change
+	 * 		   would exceed Integer.MAX_VALUE
+	 * @throws IllegalArgumentException if the price is negative, keeping any change already quoted
+	 */
+	public boolean quoteChange(int aPrice)
+	{
+		checkOpen();
+
+		if (aPrice < 0)
+		{
+			throw new IllegalArgumentException("Price cannot be negative: " + aPrice);
+		}
+
+		releaseChange();
+
+		if (aPrice > mDepositedValue)
+		{
+			return false;
+		}
+
+		long change = mDepositedValue - aPrice;
+
+		if (change > Integer.MAX_VALUE || !mMachine.takeChange((int) change, mCoinsChange))
+		{
+			Arrays.fill(mCoinsChange, 0); // the solver may have left a partial choice
+			return false;
+		}
+
+		mChangeValue = (int) change;
+		mState = QUOTED;
+		return true;
+	}
+
+	/**
+	 * Gets the value of the change quoted
+	 * @return the change in pence
+	 */
+	public int getChangeValue()
+	{
+		return mChangeValue;
+	}
+
+	/**
+	 * Gets the quantity of a coin in the change quoted
+	 *
+	 * @param aCoin The coin
+	 * @return The quantity of the coin, 0 if the coin is not of the machine's currency
+	 */
+	public int getChangeCount(Denomination aCoin)
+	{
+		return mMachine.getCurrency().contains(aCoin) ? mCoinsChange[aCoin.getIndex()] : 0;
+	}
+
+	/**
+	 * Adds the coins deposited to the machine and dispenses the change quoted.
+	 * The transaction is finished and must not be used again.
+	 *
+	 * @throws IllegalStateException if no change has been quoted
+	 * @throws IllegalArgumentException if the machine's total funds would exceed Long.MAX_VALUE, leaving
+	 * 		   the transaction open to be aborted
+	 */
+	public void commit()
+	{
+		if (mState != QUOTED)
+		{
+			throw new IllegalStateException("Change must be quoted before committing a transaction");
+		}
+
+		mMachine.depositCoins(mCoinsDeposited, mDepositedValue);
+		mMachine.coinsDispensed(mCoinsChange);
+		close();
+	}
+
+	/**
+	 * Returns any change quoted to the machine and refunds the coins deposited.
+	 * The transaction is finished and must not be used again.
+	 *
+	 * @return The value refunded in pence
+	 */
+	public long abort()
+	{
+		checkOpen();
+		releaseChange();
+
+		long refund = mDepositedValue;
+		close();
+		return refund;
+	}
+
+	/**
+	 * Returns any change quoted to the machine
+	 */
+	private void releaseChange()
+	{
+		if (mState == QUOTED)
+		{
+			mMachine.returnCoins(mCoinsChange, mChangeValue);
+			Arrays.fill(mCoinsChange, 0);
+			mChangeValue = 0;
+			mState = OPEN;
+		}
+	}
+
+	/**
+	 * Checks the transaction has not been committed or aborted
+	 */
+	private void checkOpen()
+	{
+		if (mState == CLOSED)
+		{
+			throw new IllegalStateException("Transaction has already been committed or aborted");
+		}
+	}
+
+	/**
+	 * Finishes the transaction and returns it to the machine for reuse
+	 */
+	private void close()
+	{
+		mState = CLOSED;
+		mMachine.endTransaction(this);
+	}
+
+}
@@ -0,0 +1,173 @@
+package main;
+
+/**
+ * Receives the events of a Vending Machine as coins are deposited, produced and dispensed.
+ *
+ * Events are raised on the thread performing the operation, so implementations should be quick
+ * and should build any messages themselves rather than the Vending Machine building them up front.
+ * Every method does nothing by default, so only the events of interest need to be overridden.
+ *
+ * Arrays passed to a listener are work arrays of the Vending Machine and are only valid for the
+ * duration of the call; copy them if they are needed later.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public interface TransactionListener
+{
+
+	/** Listener that ignores every event, used by default */
+	TransactionListener NONE = new TransactionListener()
+	{
+	};
+
+	/**
+	 * Creates a listener passing every event to each of the given listeners in turn,
+	 * e.g. to write the events to the Console and to an InventoryJournal
+	 *
+	 * @param aListeners The listeners to pass the events to
+	 * @return The combined listener
+	 */
+	static TransactionListener of(TransactionListener... aListeners)
+	{
+		final TransactionListener[] listeners = aListeners.clone();
+
+		return new TransactionListener()
+		{
+			@Override
+			public void coinDeposited(Denomination aCoin, long aTotalFunds)
+			{
+				for (TransactionListener listener : listeners)
+				{
+					listener.coinDeposited(aCoin, aTotalFunds);
+				}
+			}
+
+			@Override
+			public void coinsDeposited(int[] aCoinCounts, long aTotalFunds)
+			{
+				for (TransactionListener listener : listeners)
+				{
+					listener.coinsDeposited(aCoinCounts, aTotalFunds);
+				}
+			}
+
+			@Override
+			public void coinRejected(String aCoin, String aReason)
+			{
+				for (TransactionListener listener : listeners)
+				{
+					listener.coinRejected(aCoin, aReason);
+				}
+			}
+
+			@Override
+			public void changeProduced(int aTargetValue, int[] aCoinsChosen)
+			{
+				for (TransactionListener listener : listeners)
+				{
+					listener.changeProduced(aTargetValue, aCoinsChosen);
+				}
+			}
+
+			@Override
+			public void changeFailed(int aTargetValue, ChangeFailure aReason)
+			{
+				for (TransactionListener listener : listeners)
+				{
+					listener.changeFailed(aTargetValue, aReason);
+				}
+			}
+
+			@Override
+			public void coinDispensed(Denomination aCoin, long aTotalFunds)
+			{
+				for (TransactionListener listener : listeners)
+				{
+					listener.coinDispensed(aCoin, aTotalFunds);
+				}
+			}
+
+			@Override
+			public void coinsDispensed(int[] aCoinCounts, long aTotalFunds)
+			{
+				for (TransactionListener listener : listeners)
+				{
+					listener.coinsDispensed(aCoinCounts, aTotalFunds);
+				}
+			}
+		};
+	}
+
+	/**
+	 * A coin has been deposited into the Vending Machine
+	 *
+	 * @param aCoin The coin deposited
+	 * @param aTotalFunds The total funds in pence after the deposit
+	 */
+	default void coinDeposited(Denomination aCoin, long aTotalFunds)
+	{
+	}
+
+	/**
+	 * A batch of coins has been deposited into the Vending Machine in one go
+	 *
+	 * @param aCoinCounts The quantity of each coin deposited, indexed as Denomination.getIndex()
+	 * @param aTotalFunds The total funds in pence after the deposit
+	 */
+	default void coinsDeposited(int[] aCoinCounts, long aTotalFunds)
+	{
+	}
+
+	/**
+	 * A coin has been rejected by the Vending Machine
+	 *
+	 * @param aCoin The name of the coin given
+	 * @param aReason Why the coin was rejected
+	 */
+	default void coinRejected(String aCoin, String aReason)
+	{
+	}
+
+	/**
+	 * Coins have been found that sum to the value requested
+	 *
+	 * @param aTargetValue The value requested in pence
+	 * @param aCoinsChosen The quantity of each coin chosen, indexed as Denomination.getIndex()
+	 */
+	default void changeProduced(int aTargetValue, int[] aCoinsChosen)
+	{
+	}
+
+	/**
+	 * No coins could be produced for the value requested
+	 *
+	 * @param aTargetValue The value requested in pence
+	 * @param aReason Why the coins could not be produced
+	 */
+	default void changeFailed(int aTargetValue, ChangeFailure aReason)
+	{
+	}
+
+	/**
+	 * A coin has been removed from the Vending Machine
+	 *
+	 * @param aCoin The coin dispensed
+	 * @param aTotalFunds The total funds in pence after the coin was removed
+	 */
+	default void coinDispensed(Denomination aCoin, long aTotalFunds)
+	{
+	}
+
+	/**
+	 * A batch of coins has been removed from the Vending Machine in one go, e.g. the change committed
+	 *
+	 * @param aCoinCounts The quantity of each coin dispensed, indexed as Denomination.getIndex()
+	 * @param aTotalFunds The total funds in pence after the coins were removed
+	 */
+	default void coinsDispensed(int[] aCoinCounts, long aTotalFunds)
+	{
+	}
+
+}
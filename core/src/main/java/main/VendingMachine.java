@@ -0,0 +1,1072 @@
+package main;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Represents the Vending Machine with the following test methods
+ * 
+ *  - Initialise with given coins (protects against invalid coins)
+ * 	- Deposit coins (protects against invalid coins)
+ *  - Produce coins to sum to a given value (using the fewest coins possible)
+ *  - Check the contents of the vending machine 
+ * 
+ * Provides method to enable interaction via the Console if necessary
+ * 
+ * The coins are those of a CurrencyProfile, GBP unless another is given.
+ * 
+ * @author Peter Tomboline
+ * @date 07/06/2020
+ *
+ */
+public class VendingMachine
+{
+
+	/** The smallest limit of the amounts tracked once queried, 20 */
+	private static final int MIN_MAKEABLE_LIMIT = 2000;
+
+	/** The currency of the coins */
+	private final CurrencyProfile mCurrency;
+
+	/** Internal model of the Vending Machine's coin contents: the quantity of each coin, ascending in value */
+	private long[] mCoinQuantities;
+
+	/** One of each coin, ascending in value (matching mCoinQuantities) */
+	private Denomination[] mCoins;
+
+	/** Read-only view of the coin contents, created when first requested */
+	private Map<Denomination, Long> mCoinQuantityView;
+
+	/** The coins deposited by the user for the transaction */
+	private ArrayList<Denomination> mCoinsDeposited;
+
+	/** The coins to dispense */
+	private ArrayList<Denomination> mCoinsDispensed;
+
+	/** The total value in the vending machine, kept up to date as coins are deposited and dispensed */
+	private long mTotalFunds;
+
+	/** Whether the total value is checked against the coins held on each change */
+	private boolean mVerifyFunds;
+
+	/** Scanner for interactive input via the Console if preferred */
+	private Scanner mScanner;
+
+	/** Receives the events of the Vending Machine, e.g. for logging */
+	private TransactionListener mTransactionListener = TransactionListener.NONE;
+
+	/** Calculates which coins to use when producing coins */
+	private ChangeSolver mChangeSolver = new BoundedChangeSolver();
+
+	/** A solver of the strategy for each thread quoting change, or null to quote with mChangeSolver */
+	private volatile ThreadLocal<ChangeSolver> mQuoteSolvers = ThreadLocal.withInitial(BoundedChangeSolver::new);
+
+	/** Work array for each thread quoting change, for the quantity of each coin offered to its solver */
+	private final ThreadLocal<int[]> mQuoteCoinsAvailable = ThreadLocal.withInitial(() -> new int[mCoins.length]);
+
+	/** The value of each coin in the minor unit (e.g. pence), ascending */
+	private int[] mCoinValues;
+
+	/** Work array for the quantity of each coin offered to the change solver */
+	private int[] mCoinsAvailable;
+
+	/** Work array for the quantity of each coin chosen by the change solver */
+	private int[] mCoinsChosen;
+
+	/** Work array for the quantity of each coin counted from a stream of deposited coins */
+	private int[] mCoinsCounted;
+
+	/** The amounts that change can be made for, created when first queried */
+	private MakeableAmounts mMakeableAmounts;
+
+	/** Records what the machine does, or null */
+	private VendingMachineMetrics mMetrics;
+
+	/** 
+	 * VendingMachine constructor 
+	 * 
+	 * Creates a Vending Machine and initialises with the quantity of each valid GBP coin specified:
+	 * Each index for the input represents a GBP coin type (1p, 2p, 5p, 10p, 20p, 50p, 1, 2, 5)
+	 * 
+	 * @param initCoins The quantity of coins to be placed into the Vending Machine
+	 * 		  
+	 */
+	public VendingMachine(int[] aInitCoins)
+	{
+		this(CurrencyProfile.GBP, aInitCoins);
+	}
+
+	/** 
+	 * Creates a Vending Machine for the coins of a currency, initialised with the quantity of each coin
+	 * 
+	 * @param aCurrency The currency, e.g. CurrencyProfile.EUR
+	 * @param aInitCoins The quantity of each coin, ascending in value
+	 */
+	public VendingMachine(CurrencyProfile aCurrency, int[] aInitCoins)
+	{
+		this(aCurrency, Arrays.stream(aInitCoins).asLongStream().toArray());
+	}
+
+	/** 
+	 * Creates a Vending Machine for the coins and notes of a currency, initialised with the quantity of each,
+	 * e.g. a change machine holding millions of coins
+	 * 
+	 * @param aCurrency The currency, e.g. CurrencyProfile.GBP_WITH_NOTES
+	 * @param aInitCoins The quantity of each coin, ascending in value
+	 * @throws IllegalArgumentException if the total value of the coins would overflow
+	 */
+	public VendingMachine(CurrencyProfile aCurrency, long[] aInitCoins)
+	{
+		mCurrency = aCurrency;
+
+		if (aInitCoins.length != aCurrency.getDenominationCount())
+		{
+			System.out.println("Must specify quantity of each type of " + aCurrency.getCode() + " coin to deposit: "
+					+ aCurrency.describe());
+			return;
+		}
+
+		else
+		{
+
+			for (long i : aInitCoins)
+			{
+				if (i < 0)
+				{
+					System.out.println("Quantity of coins cannot be negative!");
+					return;
+				}
+			}
+
+			mCoinQuantities = Arrays.copyOf(aInitCoins, aInitCoins.length);
+			mCoinsDeposited = new ArrayList<Denomination>();
+			mCoinsDispensed = new ArrayList<Denomination>();
+
+			mCoins = new Denomination[aInitCoins.length];
+			mCoinValues = aCurrency.getValues();
+			mCoinsAvailable = new int[aInitCoins.length];
+			mCoinsChosen = new int[aInitCoins.length];
+			mCoinsCounted = new int[aInitCoins.length];
+
+			// Load the coins in the same order as the quantities
+			for (int i = 0; i < aInitCoins.length; i++)
+			{
+				mCoins[i] = aCurrency.getDenomination(i);
+			}
+
+			mTotalFunds = calcTotalFunds();
+		}
+	}
+
+	/**
+	 * Gets a read-only view of the Vending Machine funds, ordered by ascending coin value.
+	 * The view reflects the current quantities as coins are deposited and dispensed.
+	 * 
+	 * @return mCoinQuantityView the map model of the Vending Machine funds
+	 */
+	public Map<Denomination, Long> getCoinQuantityMap()
+	{
+		if (mCoinQuantityView == null)
+		{
+			mCoinQuantityView = new CoinQuantityView();
+		}
+
+		return mCoinQuantityView;
+	}
+
+	/**
+	 * Gets the currency of the coins held
+	 * @return mCurrency the currency profile
+	 */
+	public CurrencyProfile getCurrency()
+	{
+		return mCurrency;
+	}
+
+	/**
+	 * Gets the quantity of a coin held in the Vending Machine
+	 * 
+	 * @param aCoin The coin
+	 * @return The quantity of the coin
+	 * @throws IllegalArgumentException if the coin is not of the machine's currency
+	 */
+	public long getCoinQuantity(Denomination aCoin)
+	{
+		return mCoinQuantities[indexOf(aCoin)];
+	}
+
+	/**
+	 * Gets the coins deposited into the Vending Machine during deposit
+	 * @return mCoinsDeposited the coins deposited into the Vending Machine
+	 */
+	public ArrayList<Denomination> getCoinsDeposited()
+	{
+		return mCoinsDeposited;
+	}
+
+	/**
+	 * Gets the coins dispensed by the Vending Machine during producecoins
+	 * @return mCoinsDispensed the coins dispensed by the Vending Machine
+	 */
+	public ArrayList<Denomination> getCoinsDispensed()
+	{
+		return mCoinsDispensed;
+	}
+
+	/**
+	 * Sets the strategy used to calculate which coins to produce.
+	 * quoteChange(int) then uses this one solver too, so must only be called by one thread at a time; 
+	 * setChangeStrategy lets every thread quote.
+	 * 
+	 * @param aChangeSolver The change solver to use
+	 */
+	public void setChangeSolver(ChangeSolver aChangeSolver)
+	{
+		mChangeSolver = aChangeSolver;
+		mQuoteSolvers = null;
+	}
+
+	/**
+	 * Sets the strategy used to calculate which coins to produce, e.g. ChangeStrategy.MAXIMISE_COVERAGE.
+	 * Each thread calling quoteChange(int) is given its own solver of the strategy.
+	 * 
+	 * @param aStrategy Creates the change solvers to use
+	 */
+	public void setChangeStrategy(Supplier<? extends ChangeSolver> aStrategy)
+	{
+		mChangeSolver = aStrategy.get();
+		mQuoteSolvers = ThreadLocal.withInitial(aStrategy);
+	}
+
+	/**
+	 * Sets the listener to receive the events of the Vending Machine.
+	 * By default no events are reported, the Console uses a ConsoleTransactionListener.
+	 * 
+	 * @param aTransactionListener The listener, or TransactionListener.NONE
+	 */
+	public void setTransactionListener(TransactionListener aTransactionListener)
+	{
+		mTransactionListener = aTransactionListener;
+	}
+
+	/**
+	 * Sets the metrics to record deposits, change and dispenses into. Metrics may be shared by many machines.
+	 * By default nothing is recorded and nothing is timed.
+	 * 
+	 * @param aMetrics The metrics, or null to stop recording
+	 * @throws IllegalArgumentException if the metrics count the coins of another currency
+	 */
+	public void setMetrics(VendingMachineMetrics aMetrics)
+	{
+		if (aMetrics != null && aMetrics.getCurrency() != mCurrency)
+		{
+			throw new IllegalArgumentException(
+					"Metrics for " + aMetrics.getCurrency() + " cannot record a " + mCurrency + " machine");
+		}
+
+		mMetrics = aMetrics;
+	}
+
+	/**
+	 * Sets whether the running total of funds is verified against the coins held.
+	 * Intended for testing and diagnostics as every check is O(n) in the number of coin types.
+	 * 
+	 * @param aVerifyFunds Whether to verify the total funds
+	 */
+	public void setVerifyFunds(boolean aVerifyFunds)
+	{
+		mVerifyFunds = aVerifyFunds;
+		verifyFunds();
+	}
+
+	/**
+	 * Gets the sum of the total funds available in the Vending Machine
+	 * @return mTotalFunds the total funds available in the Vending Machine
+	 */
+	public long getTotalFundsInPence()
+	{
+		return mTotalFunds;
+	}
+
+	/**
+	 * Checks the internal model of the Vending Machine for funds
+	 * @return String representation of the Vending Machine's available funds
+	 */
+	public String getInternalModelString()
+	{
+
+		StringBuffer contents = new StringBuffer();
+
+		for (int i = 0; i < mCoins.length; i++)
+		{
+			contents.append(mCoins[i].getName() + " | Quantity: " + mCoinQuantities[i] + "\n");
+		}
+
+		return "Vending Machine Contents: \n-------\n" + contents + "------- \n" + "Total funds: "
+				+ mCurrency.format(mTotalFunds) + "\n";
+	}
+
+	/**
+	 * Adds a coin to the Vending Machine's internal model
+	 * @param aDepositedCoin The coin to be deposited
+	 */
+	public void depositCoin(String aCoin)
+	{
+		Denomination coin;
+
+		try
+		{
+			coin = mCurrency.of(aCoin);
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			if (mMetrics != null)
+			{
+				mMetrics.recordRejected();
+			}
+
+			mTransactionListener.coinRejected(aCoin, e.getMessage());
+			return;
+		}
+
+		depositCoin(coin);
+	}
+
+	/**
+	 * Adds a coin already validated, e.g. by a CommandParser, to the Vending Machine's internal model
+	 * @param aCoin The coin to be deposited
+	 * @throws IllegalArgumentException if the coin is not of the machine's currency, or the total funds held 
+	 * 		   would overflow
+	 */
+	public void depositCoin(Denomination aCoin)
+	{
+		long start = mMetrics != null ? System.nanoTime() : 0;
+		int index = indexOf(aCoin);
+
+		if (mTotalFunds > Long.MAX_VALUE - aCoin.getValue())
+		{
+			throw new IllegalArgumentException("Total funds would exceed " + Long.MAX_VALUE);
+		}
+
+		mCoinsDeposited.add(aCoin);
+
+		mCoinQuantities[index]++; // Increment quantity of coin by 1
+		mTotalFunds += aCoin.getValue();
+		verifyFunds();
+
+		if (mMakeableAmounts != null)
+		{
+			mMakeableAmounts.coinsAdded(index, 1);
+		}
+
+		mTransactionListener.coinDeposited(aCoin, mTotalFunds);
+
+		if (mMetrics != null)
+		{
+			mMetrics.recordDeposit(index, 1, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Adds a batch of coins to the Vending Machine's internal model in one go, 
+	 * e.g. a burst reported by the coin hopper or a bulk refill.
+	 * 
+	 * The batch is validated once and then applied with a single update of the total funds and a single 
+	 * coinsDeposited event, so the cost is O(n) in the number of coin types however many coins are deposited.
+	 * The coins are not added to the list returned by getCoinsDeposited.
+	 * 
+	 * @param aCoinCounts The quantity of each coin to deposit, indexed as Denomination.getIndex()
+	 * @throws IllegalArgumentException if a quantity is not given for each coin, a quantity is negative, or the 
+	 * 		   total funds held would overflow. No coins are deposited in this case.
+	 */
+	public void depositCoins(int[] aCoinCounts)
+	{
+		if (aCoinCounts.length != mCoins.length)
+		{
+			throw new IllegalArgumentException("Must specify quantity of each type of " + mCurrency.getCode()
+					+ " coin to deposit: " + mCurrency.describe());
+		}
+
+		long value = 0;
+
+		for (int i = 0; i < aCoinCounts.length; i++)
+		{
+			if (aCoinCounts[i] < 0)
+			{
+				throw new IllegalArgumentException("Quantity of coins cannot be negative!");
+			}
+
+			value += (long) aCoinCounts[i] * mCoinValues[i]; // below 2^48 each, so cannot overflow
+		}
+
+		// The total held bounds every quantity held, so only the total needs checking
+		if (mTotalFunds > Long.MAX_VALUE - value)
+		{
+			throw new IllegalArgumentException("Total funds would exceed " + Long.MAX_VALUE);
+		}
+
+		for (int i = 0; i < aCoinCounts.length; i++)
+		{
+			mCoinQuantities[i] += aCoinCounts[i];
+
+			if (mMakeableAmounts != null && aCoinCounts[i] > 0)
+			{
+				mMakeableAmounts.coinsAdded(i, aCoinCounts[i]);
+			}
+
+			if (mMetrics != null && aCoinCounts[i] > 0)
+			{
+				mMetrics.recordDeposit(i, aCoinCounts[i], -1); // a batch is not timed per coin
+			}
+		}
+
+		mTotalFunds += value;
+		verifyFunds();
+
+		mTransactionListener.coinsDeposited(aCoinCounts, mTotalFunds);
+	}
+
+	/**
+	 * Adds a stream of coins to the Vending Machine's internal model in one go.
+	 * 
+	 * Each coin name is checked as it is read and any invalid coins are rejected as for depositCoin, 
+	 * then the valid coins are deposited together as for depositCoins(int[]).
+	 * 
+	 * @param aCoins The names of the coins deposited
+	 * @return The number of coins deposited
+	 * @throws IllegalArgumentException if the quantity or total funds held would overflow, 
+	 * 		   no coins are deposited in this case
+	 */
+	public int depositCoins(Iterable<String> aCoins)
+	{
+		Arrays.fill(mCoinsCounted, 0);
+		int deposited = 0;
+
+		for (String name : aCoins)
+		{
+			try
+			{
+				mCoinsCounted[mCurrency.of(name).getIndex()]++;
+				deposited++;
+			}
+
+			catch (IllegalArgumentException e)
+			{
+				if (mMetrics != null)
+				{
+					mMetrics.recordRejected();
+				}
+
+				mTransactionListener.coinRejected(name, e.getMessage());
+			}
+		}
+
+		if (deposited > 0)
+		{
+			depositCoins(mCoinsCounted);
+		}
+
+		return deposited;
+	}
+
+	/**
+	 * If possible, produces coins summing to a given value
+	 * Value given must be offered in pence, i.e. 1 should be presented as 100
+	 * 
+	 * The list returned is reused by the next call; quoteChange and commitChange calculate and apply change 
+	 * without sharing any state.
+	 * 
+	 * @param aTargetValue The value in pence that coins produced must sum to
+	 * @return mCoinsDispensed The coins to dispense
+	 */
+	public ArrayList<Denomination> proceduceCoins(int aTargetValue)
+	{
+		long start = mMetrics != null ? System.nanoTime() : 0;
+		ChangeFailure failure = null;
+
+		mCoinsDispensed.clear(); // Only the coins for this value
+
+		if (aTargetValue < 0) // Defend against negative input
+		{
+			failure = ChangeFailure.NEGATIVE_VALUE;
+		}
+
+		else if (!hasSufficientFunds(aTargetValue)) // Check we aren't requesting more funds than available
+		{
+			failure = ChangeFailure.INSUFFICIENT_FUNDS;
+		}
+
+		else if (mChangeSolver.solve(aTargetValue, mCoinValues, offerCoins(mCoinsAvailable), mCoinsChosen))
+		{
+			// Largest coins first
+			for (int i = mCoins.length - 1; i >= 0; i--)
+			{
+				for (int count = mCoinsChosen[i]; count > 0; count--)
+				{
+					mCoinsDispensed.add(mCoins[i]);
+				}
+			}
+		}
+
+		else // Check we had the coins necessary for target
+		{
+			failure = ChangeFailure.NOT_POSSIBLE;
+		}
+
+		if (mMetrics != null)
+		{
+			mMetrics.recordChange(failure, System.nanoTime() - start);
+		}
+
+		if (failure == null)
+		{
+			mTransactionListener.changeProduced(aTargetValue, mCoinsChosen);
+		}
+
+		else
+		{
+			mTransactionListener.changeFailed(aTargetValue, failure);
+		}
+
+		return mCoinsDispensed;
+
+	}
+
+	/**
+	 * Calculates the change for a value without changing the Vending Machine: no coins are added to 
+	 * getCoinsDispensed and no events are reported. Apply the quote with commitChange.
+	 * 
+	 * Each thread quotes with its own solver of the strategy (by default the fewest coins), so many threads may 
+	 * quote at once while the machine is not changed, unless a single solver was given to setChangeSolver.
+	 * 
+	 * @param aTargetValue The value in pence that the coins must sum to
+	 * @return The quantity of each coin, or why the change cannot be made
+	 */
+	public ChangeQuote quoteChange(int aTargetValue)
+	{
+		ThreadLocal<ChangeSolver> quoteSolvers = mQuoteSolvers;
+
+		return quoteChange(aTargetValue, quoteSolvers != null ? quoteSolvers.get() : mChangeSolver);
+	}
+
+	/**
+	 * Calculates the change for a value with the given solver, without changing the Vending Machine.
+	 * 
+	 * Quotes only read the coins held, so many can be calculated at once, e.g. for each candidate price on a 
+	 * thread pool, as long as each thread uses its own solver and the machine is not changed meanwhile.
+	 * 
+	 * @param aTargetValue The value in pence that the coins must sum to
+	 * @param aChangeSolver The solver to calculate the change, not used by any other thread
+	 * @return The quantity of each coin, or why the change cannot be made
+	 */
+	public ChangeQuote quoteChange(int aTargetValue, ChangeSolver aChangeSolver)
+	{
+		int[] coinCounts = new int[mCoins.length];
+
+		if (aTargetValue < 0)
+		{
+			return new ChangeQuote(aTargetValue, mCurrency, coinCounts, ChangeFailure.NEGATIVE_VALUE);
+		}
+
+		if (aTargetValue > mTotalFunds)
+		{
+			return new ChangeQuote(aTargetValue, mCurrency, coinCounts, ChangeFailure.INSUFFICIENT_FUNDS);
+		}
+
+		if (!aChangeSolver.solve(aTargetValue, mCoinValues, offerCoins(mQuoteCoinsAvailable.get()), coinCounts))
+		{
+			Arrays.fill(coinCounts, 0);
+			return new ChangeQuote(aTargetValue, mCurrency, coinCounts, ChangeFailure.NOT_POSSIBLE);
+		}
+
+		return new ChangeQuote(aTargetValue, mCurrency, coinCounts, null);
+	}
+
+	/**
+	 * Dispenses the coins of a quote, all or none of them. 
+	 * 
+	 * The coins are checked against those held, so a quote made before other coins were dispensed is only 
+	 * applied if its coins are all still in the machine. The change is reported to the listener as produced 
+	 * and then as one coinsDispensed batch, so the cost is O(n) in the number of coin types however many 
+	 * coins are dispensed.
+	 * 
+	 * @param aQuote The change quoted by quoteChange
+	 * @return true if the coins were dispensed, false if the change was not possible or the coins are no 
+	 * 		   longer held
+	 * @throws IllegalArgumentException if the quote is for another currency
+	 */
+	public boolean commitChange(ChangeQuote aQuote)
+	{
+		if (!aQuote.isPossible())
+		{
+			return false;
+		}
+
+		int[] coinCounts = aQuote.getCoinCounts();
+
+		if (aQuote.getCurrency() != mCurrency)
+		{
+			throw new IllegalArgumentException("Cannot commit a " + aQuote.getCurrency() + " quote to a " + mCurrency
+					+ " machine");
+		}
+
+		for (int i = 0; i < mCoins.length; i++)
+		{
+			if (coinCounts[i] > mCoinQuantities[i])
+			{
+				return false;
+			}
+		}
+
+		if (mMetrics != null)
+		{
+			mMetrics.recordDispense(aQuote.getTotalCoinCount());
+		}
+
+		// A copy for the listener, as the quote is immutable
+		System.arraycopy(coinCounts, 0, mCoinsChosen, 0, mCoins.length);
+		mTransactionListener.changeProduced(aQuote.getTargetValue(), mCoinsChosen);
+
+		for (int i = 0; i < mCoins.length; i++)
+		{
+			if (coinCounts[i] == 0)
+			{
+				continue;
+			}
+
+			mCoinQuantities[i] -= coinCounts[i];
+			mTotalFunds -= (long) coinCounts[i] * mCoinValues[i];
+
+			if (mMakeableAmounts != null)
+			{
+				mMakeableAmounts.coinsRemoved(i, coinCounts[i]);
+			}
+		}
+		verifyFunds();
+
+		mTransactionListener.coinsDispensed(mCoinsChosen, mTotalFunds);
+
+		return true;
+	}
+
+	/** 
+	 * A helper method to determine if the Vending Machine has the 
+	 * funds sufficient to make the requested value
+	 * 
+	 * O(1) operation as the total funds are kept up to date
+	 * 
+	 * @param aValue The value to sum to
+	 * @return If the Vending Machine has sufficient funds
+	 */
+	public boolean hasSufficientFunds(long aValue)
+	{
+		verifyFunds();
+
+		if (mTotalFunds < aValue)
+		{
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Whether coins can be produced summing exactly to a value, without producing them,
+	 * e.g. to decide whether to ask for exact change only before a price is paid.
+	 * 
+	 * Answered from a bitset of the amounts that can be made, built in one pass over the coins held the first 
+	 * time it is needed and kept up to date as coins are deposited and dispensed, so most queries are O(1).
+	 * 
+	 * @param aValue The value in pence
+	 * @return true if proceduceCoins would produce coins for the value
+	 */
+	public boolean canMakeChange(int aValue)
+	{
+		if (aValue < 0 || aValue > mTotalFunds)
+		{
+			return false;
+		}
+
+		return trackMakeableAmounts(aValue).isMakeable(aValue);
+	}
+
+	/**
+	 * Gets every amount up to a limit that coins can currently be produced for
+	 * 
+	 * @param aLimit The largest amount of interest in pence
+	 * @return A copy of the amounts, where bit n is set if n pence can be made
+	 * @throws IllegalArgumentException if the limit is negative or Integer.MAX_VALUE, as a BitSet cannot hold
+	 * 		   a bit past it
+	 */
+	public BitSet getMakeableAmounts(int aLimit)
+	{
+		if (aLimit < 0 || aLimit == Integer.MAX_VALUE)
+		{
+			throw new IllegalArgumentException(
+					"Limit for makeable amounts must be from 0 to " + (Integer.MAX_VALUE - 1) + ": " + aLimit);
+		}
+
+		BitSet amounts = trackMakeableAmounts(aLimit).toBitSet();
+		amounts.clear(aLimit + 1, Math.max(aLimit + 1, amounts.length()));
+		return amounts;
+	}
+
+	/**
+	 * Starts tracking the amounts that can be made, or tracks more of them, up to at least a value
+	 * 
+	 * @param aValue The amount that must be tracked
+	 * @return The amounts tracked
+	 */
+	private MakeableAmounts trackMakeableAmounts(int aValue)
+	{
+		if (mMakeableAmounts == null || mMakeableAmounts.getLimit() < aValue)
+		{
+			long limit = mMakeableAmounts == null ? MIN_MAKEABLE_LIMIT : 2L * mMakeableAmounts.getLimit();
+
+			limit = Math.max(aValue, Math.min(limit, Integer.MAX_VALUE - 1));
+
+			mMakeableAmounts = new MakeableAmounts(mCoinValues, (int) limit);
+			mMakeableAmounts.rebuild(mCoinQuantities);
+		}
+
+		return mMakeableAmounts;
+	}
+
+	/**
+	 * Copies the quantity of each coin held for a change solver, which works in ints. Change never needs 
+	 * more than Integer.MAX_VALUE of a coin, so larger quantities are offered as Integer.MAX_VALUE.
+	 * 
+	 * O(n) operation in the number of coin types
+	 * 
+	 * @param aAvailable Receives the quantity of each coin
+	 * @return aAvailable
+	 */
+	private int[] offerCoins(int[] aAvailable)
+	{
+		for (int i = 0; i < aAvailable.length; i++)
+		{
+			aAvailable[i] = (int) Math.min(mCoinQuantities[i], Integer.MAX_VALUE);
+		}
+
+		return aAvailable;
+	}
+
+	/**
+	 * Calculates the total value of the coins held from the quantity of each coin
+	 * 
+	 * O(n) operation in the number of coin types
+	 * 
+	 * @return The total value in pence
+	 * @throws IllegalArgumentException if the total would overflow
+	 */
+	private long calcTotalFunds()
+	{
+		long total = 0;
+
+		try
+		{
+			for (int i = 0; i < mCoinQuantities.length; i++)
+			{
+				total = Math.addExact(total, Math.multiplyExact(mCoinQuantities[i], mCoinValues[i]));
+			}
+		}
+
+		catch (ArithmeticException e)
+		{
+			throw new IllegalArgumentException("Total funds would exceed " + Long.MAX_VALUE);
+		}
+
+		return total;
+	}
+
+	/**
+	 * Finds the position of a coin in the internal model
+	 * 
+	 * @param aCoin The coin
+	 * @return The index of the coin
+	 * @throws IllegalArgumentException if the coin is not of the machine's currency
+	 */
+	private int indexOf(Denomination aCoin)
+	{
+		if (!mCurrency.contains(aCoin))
+		{
+			throw new IllegalArgumentException(
+					"The " + aCoin.getName() + " " + aCoin.getCurrency() + " coin is not accepted");
+		}
+
+		return aCoin.getIndex();
+	}
+
+	/**
+	 * If verification is switched on, checks the running total matches the coins held
+	 * 
+	 * @throws IllegalStateException if the running total is incorrect
+	 */
+	private void verifyFunds()
+	{
+		if (mVerifyFunds)
+		{
+			long total = calcTotalFunds();
+
+			if (total != mTotalFunds)
+			{
+				throw new IllegalStateException(
+						"Total funds of " + mTotalFunds + " does not match the coins held: " + total);
+			}
+		}
+	}
+
+	/**
+	 * Removes the coins specified from the Vending Machine
+	 * @param coins The coins to remove from the Vending Machine
+	 */
+	public void dispenseCoins(List<? extends Denomination> coins)
+	{
+		if (mMetrics != null && !coins.isEmpty())
+		{
+			mMetrics.recordDispense(coins.size());
+		}
+
+		for (int i = 0; i < coins.size(); i++)
+		{
+			Denomination coin = coins.get(i);
+			int index = indexOf(coin);
+			mCoinQuantities[index]--; // Decrement quantity of coin by 1
+			mTotalFunds -= coin.getValue();
+
+			if (mMakeableAmounts != null)
+			{
+				mMakeableAmounts.coinsRemoved(index, 1);
+			}
+
+			mTransactionListener.coinDispensed(coin, mTotalFunds);
+		}
+		verifyFunds();
+	}
+
+	/** 
+	 * Starts the interactive Vending Machine process
+	 */
+	public void init()
+	{
+		mScanner = new Scanner(System.in);
+
+		if (mTransactionListener == TransactionListener.NONE)
+		{
+			setTransactionListener(new ConsoleTransactionListener(System.out, mCurrency));
+		}
+
+		System.out.println("Starting up Vending Machine...\n");
+		System.out.println(getInternalModelString());
+		promptForAction();
+
+		CommandParser parser = new CommandParser(mCurrency);
+		Command command = new Command();
+
+		while (mScanner.hasNext())
+		{
+			String input = mScanner.nextLine();
+			parser.parse(input, command);
+
+			switch (command.getType())
+			{
+			case EXIT:
+				if (!command.isValid())
+				{
+					promptForAction();
+					break;
+				}
+
+				System.out.println("Terminating Vending Machine...");
+				System.out.println("Bye! \n");
+				mScanner.close();
+				return;
+
+			case DEPOSIT:
+				if (command.isValid())
+				{
+					depositCoin(command.getCoin());
+				}
+
+				else if (command.getError() == CommandError.MISSING_ARGUMENT)
+				{
+					System.out.println("Please specify the coin to deposit, e.g. deposit 10p");
+				}
+
+				else if (command.getError() == CommandError.UNEXPECTED_ARGUMENT)
+				{
+					System.out.println("Unexpected input: " + firstExtraArgument(input, command)
+							+ ", please deposit one coin at a time, e.g. deposit 10p");
+				}
+
+				else
+				{
+					// reported to the listener as rejected
+					depositCoin(input.substring(command.getArgumentStart(), command.getArgumentEnd()));
+				}
+				break;
+
+			case PRODUCE_COINS:
+				if (!command.isValid())
+				{
+					String argument = command.getError() == CommandError.UNEXPECTED_ARGUMENT
+							? firstExtraArgument(input, command)
+							: input.substring(command.getArgumentStart(), command.getArgumentEnd());
+
+					System.out.println(
+							"Cannot process input: " + argument + ", please provide value in pence, e.g. 1 = 100");
+					break;
+				}
+
+				proceduceCoins(command.getValue());
+				dispenseCoins(mCoinsDispensed);
+
+				mCoinsDeposited = new ArrayList<Denomination>();
+				mCoinsDispensed = new ArrayList<Denomination>();
+				break;
+
+			case CHECK:
+				System.out.println("Counting Available Vending Machine coins" + "\n");
+				System.out.println(getInternalModelString());
+				break;
+
+			case EMPTY:
+				// do nothing
+				break;
+
+			default:
+				// prompt for a transaction above
+				promptForAction();
+			}
+
+		}
+	}
+
+	/**
+	 * Finds the first argument after those a command takes, e.g. 20p in "deposit 10p 20p"
+	 * 
+	 * @param aInput The line parsed
+	 * @param aCommand The command, with an unexpected argument
+	 * @return The first unexpected argument
+	 */
+	private static String firstExtraArgument(String aInput, Command aCommand)
+	{
+		int start = aCommand.getArgumentStart();
+		int end = aCommand.getArgumentEnd();
+
+		if (aCommand.getType() == Command.Type.DEPOSIT || aCommand.getType() == Command.Type.PRODUCE_COINS)
+		{
+			// Skip the argument the command takes
+			while (start < end && aInput.charAt(start) > ' ')
+			{
+				start++;
+			}
+
+			while (start < end && aInput.charAt(start) <= ' ')
+			{
+				start++;
+			}
+		}
+
+		int argumentEnd = start;
+		while (argumentEnd < end && aInput.charAt(argumentEnd) > ' ')
+		{
+			argumentEnd++;
+		}
+
+		return aInput.substring(start, argumentEnd);
+	}
+
+	/**
+	 * Prints the actions that can be entered on the Console
+	 */
+	private static void promptForAction()
+	{
+		System.out.println(
+				"Please enter one of the following actions: deposit <coin>, producecoins <value>, check, exit" + "\n");
+	}
+
+	/**
+	 * Read-only Map view over the internal model, ordered by ascending coin value
+	 */
+	private class CoinQuantityView extends AbstractMap<Denomination, Long>
+	{
+
+		@Override
+		public Long get(Object aKey)
+		{
+			if (containsKey(aKey))
+			{
+				return mCoinQuantities[((Denomination) aKey).getIndex()];
+			}
+
+			return null;
+		}
+
+		@Override
+		public boolean containsKey(Object aKey)
+		{
+			return aKey instanceof Denomination && mCurrency.contains((Denomination) aKey);
+		}
+
+		@Override
+		public int size()
+		{
+			return mCoins.length;
+		}
+
+		@Override
+		public Set<Entry<Denomination, Long>> entrySet()
+		{
+			return new AbstractSet<Entry<Denomination, Long>>()
+			{
+				@Override
+				public int size()
+				{
+					return mCoins.length;
+				}
+
+				@Override
+				public Iterator<Entry<Denomination, Long>> iterator()
+				{
+					return new Iterator<Entry<Denomination, Long>>()
+					{
+						private int mIndex = 0;
+
+						@Override
+						public boolean hasNext()
+						{
+							return mIndex < mCoins.length;
+						}
+
+						@Override
+						public Entry<Denomination, Long> next()
+						{
+							if (!hasNext())
+							{
+								throw new NoSuchElementException();
+							}
+
+							Entry<Denomination, Long> entry = new SimpleImmutableEntry<Denomination, Long>(mCoins[mIndex],
+									mCoinQuantities[mIndex]);
+							mIndex++;
+							return entry;
+						}
+					};
+				}
+			};
+		}
+	}
+
+}
@@ -0,0 +1,294 @@
+package main;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts what Vending Machines do and how long it takes: coins deposited (per coin) and rejected, change
+ * requested, the reason for each change that could not be produced, and the number of coins in each
+ * dispense, with histograms of the deposit and change latencies in nanoseconds.
+ *
+ * A VendingMachine records into the metrics given to setMetrics. Recording is lock-free and does not
+ * allocate (counters are LongAdders, histograms are MetricsHistograms), so one instance can be shared by a
+ * fleet of machines on many threads. Metrics are read by pulling a Snapshot; each counter is read
+ * independently, so a snapshot taken while machines are busy may be a few events apart between counters.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public class VendingMachineMetrics
+{
+
+	/** The currency of the coins counted */
+	private final CurrencyProfile mCurrency;
+
+	/** The number of each coin deposited */
+	private final LongAdder[] mDeposits;
+
+	/** The number of coins rejected */
+	private final LongAdder mRejected = new LongAdder();
+
+	/** The number of requests to produce change */
+	private final LongAdder mChangeRequests = new LongAdder();
+
+	/** The number of changes not produced, by ChangeFailure */
+	private final LongAdder[] mChangeFailures = new LongAdder[ChangeFailure.values().length];
+
+	/** The time taken to deposit a coin */
+	private final MetricsHistogram mDepositLatency = new MetricsHistogram();
+
+	/** The time taken to produce change */
+	private final MetricsHistogram mChangeLatency = new MetricsHistogram();
+
+	/** The number of coins in each dispense */
+	private final MetricsHistogram mDispenseSizes = new MetricsHistogram();
+
+	/** Creates metrics for GBP machines with every count at zero */
+	public VendingMachineMetrics()
+	{
+		this(CurrencyProfile.GBP);
+	}
+
+	/**
+	 * Creates metrics for machines of a currency with every count at zero
+	 *
+	 * @param aCurrency The currency of the machines
+	 */
+	public VendingMachineMetrics(CurrencyProfile aCurrency)
+	{
+		mCurrency = aCurrency;
+		mDeposits = new LongAdder[aCurrency.getDenominationCount()];
+
+		for (int i = 0; i < mDeposits.length; i++)
+		{
+			mDeposits[i] = new LongAdder();
+		}
+
+		for (int i = 0; i < mChangeFailures.length; i++)
+		{
+			mChangeFailures[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Gets the currency of the coins counted
+	 * @return the currency profile
+	 */
+	public CurrencyProfile getCurrency()
+	{
+		return mCurrency;
+	}
+
+	/**
+	 * Records coins deposited
+	 *
+	 * @param aIndex The index of the coin, as Denomination.getIndex()
+	 * @param aCount The quantity deposited
+	 * @param aNanos The time taken, or a negative value if it was not measured
+	 */
+	void recordDeposit(int aIndex, int aCount, long aNanos)
+	{
+		mDeposits[aIndex].add(aCount);
+
+		if (aNanos >= 0)
+		{
+			mDepositLatency.record(aNanos);
+		}
+	}
+
+	/**
+	 * Records a coin rejected
+	 */
+	void recordRejected()
+	{
+		mRejected.increment();
+	}
+
+	/**
+	 * Records a request to produce change
+	 *
+	 * @param aFailure Why the change was not produced, or null if it was
+	 * @param aNanos The time taken
+	 */
+	void recordChange(ChangeFailure aFailure, long aNanos)
+	{
+		mChangeRequests.increment();
+
+		if (aFailure != null)
+		{
+			mChangeFailures[aFailure.ordinal()].increment();
+		}
+
+		mChangeLatency.record(aNanos);
+	}
+
+	/**
+	 * Records coins dispensed together
+	 *
+	 * @param aCoins The number of coins dispensed
+	 */
+	void recordDispense(int aCoins)
+	{
+		mDispenseSizes.record(aCoins);
+	}
+
+	/**
+	 * Copies the metrics recorded so far
+	 *
+	 * @return The snapshot
+	 */
+	public Snapshot getSnapshot()
+	{
+		long[] deposits = new long[mDeposits.length];
+		for (int i = 0; i < deposits.length; i++)
+		{
+			deposits[i] = mDeposits[i].sum();
+		}
+
+		long[] failures = new long[mChangeFailures.length];
+		for (int i = 0; i < failures.length; i++)
+		{
+			failures[i] = mChangeFailures[i].sum();
+		}
+
+		return new Snapshot(mCurrency, deposits, mRejected.sum(), mChangeRequests.sum(), failures,
+				mDepositLatency.getSnapshot(), mChangeLatency.getSnapshot(), mDispenseSizes.getSnapshot());
+	}
+
+	/** The metrics recorded at one point in time */
+	public static final class Snapshot
+	{
+
+		private final CurrencyProfile mCurrency;
+		private final long[] mDeposits;
+		private final long mRejected;
+		private final long mChangeRequests;
+		private final long[] mChangeFailures;
+		private final HistogramSnapshot mDepositLatency;
+		private final HistogramSnapshot mChangeLatency;
+		private final HistogramSnapshot mDispenseSizes;
+
+		Snapshot(CurrencyProfile aCurrency, long[] aDeposits, long aRejected, long aChangeRequests,
+				long[] aChangeFailures, HistogramSnapshot aDepositLatency, HistogramSnapshot aChangeLatency,
+				HistogramSnapshot aDispenseSizes)
+		{
+			mCurrency = aCurrency;
+			mDeposits = aDeposits;
+			mRejected = aRejected;
+			mChangeRequests = aChangeRequests;
+			mChangeFailures = aChangeFailures;
+			mDepositLatency = aDepositLatency;
+			mChangeLatency = aChangeLatency;
+			mDispenseSizes = aDispenseSizes;
+		}
+
+		/**
+		 * Gets the number of a coin deposited
+		 *
+		 * @param aCoin The coin
+		 * @return the number deposited, 0 if the coin is of another currency
+		 */
+		public long getDeposits(Denomination aCoin)
+		{
+			return mCurrency.contains(aCoin) ? mDeposits[aCoin.getIndex()] : 0;
+		}
+
+		/**
+		 * Gets the number of coins deposited
+		 * @return the number of coins of every kind deposited
+		 */
+		public long getTotalDeposits()
+		{
+			long total = 0;
+
+			for (int i = 0; i < mDeposits.length; i++)
+			{
+				total += mDeposits[i];
+			}
+
+			return total;
+		}
+
+		/**
+		 * Gets the number of coins rejected
+		 * @return the number of coins rejected
+		 */
+		public long getRejected()
+		{
+			return mRejected;
+		}
+
+		/**
+		 * Gets the number of requests to produce change
+		 * @return the number of requests, whether or not change was produced
+		 */
+		public long getChangeRequests()
+		{
+			return mChangeRequests;
+		}
+
+		/**
+		 * Gets the number of changes not produced for a reason
+		 *
+		 * @param aReason The reason, e.g. INSUFFICIENT_FUNDS
+		 * @return the number of changes not produced
+		 */
+		public long getChangeFailures(ChangeFailure aReason)
+		{
+			return mChangeFailures[aReason.ordinal()];
+		}
+
+		/**
+		 * Gets the time taken to deposit coins
+		 * @return the latencies in nanoseconds
+		 */
+		public HistogramSnapshot getDepositLatency()
+		{
+			return mDepositLatency;
+		}
+
+		/**
+		 * Gets the time taken to produce change
+		 * @return the latencies in nanoseconds
+		 */
+		public HistogramSnapshot getChangeLatency()
+		{
+			return mChangeLatency;
+		}
+
+		/**
+		 * Gets the number of coins in each dispense
+		 * @return the sizes of the dispenses
+		 */
+		public HistogramSnapshot getDispenseSizes()
+		{
+			return mDispenseSizes;
+		}
+
+		/**
+		 * Summarises the metrics, one line for each
+		 */
+		@Override
+		public String toString()
+		{
+			StringBuilder deposits = new StringBuilder();
+
+			for (int i = 0; i < mDeposits.length; i++)
+			{
+				deposits.append(i == 0 ? "" : ", ").append(mCurrency.getDenomination(i).getName()).append(": ")
+						.append(mDeposits[i]);
+			}
+
+			return "Deposits: " + deposits + ", rejected: " + mRejected + "\n"
+					+ "Change requests: " + mChangeRequests
+					+ ", negative value: " + getChangeFailures(ChangeFailure.NEGATIVE_VALUE)
+					+ ", insufficient funds: " + getChangeFailures(ChangeFailure.INSUFFICIENT_FUNDS)
+					+ ", not possible: " + getChangeFailures(ChangeFailure.NOT_POSSIBLE) + "\n"
+					+ "Deposit latency (ns): " + mDepositLatency + "\n"
+					+ "Change latency (ns): " + mChangeLatency + "\n"
+					+ "Coins per dispense: " + mDispenseSizes + "\n";
+		}
+
+	}
+
+}
@@ -0,0 +1,582 @@
+package main;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * Replays recorded sales against one float under many scenarios at once, e.g. each change strategy at
+ * each of the prices being considered, to see how often each would have given change and the coins
+ * each would have been left with.
+ *
+ * The float is read once from an InventorySnapshot (or a Vending Machine), of whichever currency it holds,
+ * and each scenario forks its own copy of the coins,
+ * so scenarios share nothing but the recorded sales, which are only read. Scenarios are evaluated in
+ * parallel by fork/join, splitting the scenarios in half until each task has one to replay. Within a
+ * scenario the sales are replayed in order as each depends on the coins left by the last.
+ *
+ * Each sale is replayed as the VendingMachine would serve it, but on the quantities directly, without
+ * creating coins, lists or output: the coins paid go into the machine, the change is made by the
+ * scenario's ChangeSolver from every coin held and taken out, and if the change cannot be made the coins
+ * paid are refunded. A sale whose coins no longer cover its price is not served.
+ *
+ * Sales are added before evaluating, and the engine is not thread-safe while they are.
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ *
+ */
+public class WhatIfEngine
+{
+
+	/**
+	 * A change strategy and the price change to evaluate it at
+	 */
+	public static final class Scenario
+	{
+
+		/** The name reported for the scenario */
+		private final String mName;
+
+		/** Creates the solver giving change */
+		private final Supplier<ChangeSolver> mChangeSolverFactory;
+
+		/** The pence added to the price of every sale, negative for a price cut */
+		private final int mPriceChange;
+
+		/**
+		 * Creates a scenario
+		 *
+		 * @param aName The name reported for the scenario
+		 * @param aChangeSolverFactory Creates the solver giving change, e.g. ChangeStrategy.MAXIMISE_COVERAGE
+		 * @param aPriceChange The pence added to the price of every sale, negative for a price cut
+		 */
+		public Scenario(String aName, Supplier<ChangeSolver> aChangeSolverFactory, int aPriceChange)
+		{
+			mName = aName;
+			mChangeSolverFactory = aChangeSolverFactory;
+			mPriceChange = aPriceChange;
+		}
+
+		/**
+		 * Creates a scenario named for its strategy and price change, e.g. MIN_COINS +10p
+		 *
+		 * @param aStrategy The change strategy
+		 * @param aPriceChange The pence added to the price of every sale, negative for a price cut
+		 */
+		public Scenario(ChangeStrategy aStrategy, int aPriceChange)
+		{
+			this(aStrategy + (aPriceChange < 0 ? " " : " +") + aPriceChange + "p", aStrategy, aPriceChange);
+		}
+
+		/**
+		 * Gets the name reported for the scenario
+		 * @return the name
+		 */
+		public String getName()
+		{
+			return mName;
+		}
+
+		/**
+		 * Gets the pence added to the price of every sale
+		 * @return the price change, negative for a price cut
+		 */
+		public int getPriceChange()
+		{
+			return mPriceChange;
+		}
+
+		@Override
+		public String toString()
+		{
+			return mName;
+		}
+
+	}
+
+	/**
+	 * What happened to the float under one scenario
+	 */
+	public static final class Outcome
+	{
+
+		private final Scenario mScenario;
+		private final CurrencyProfile mCurrency;
+		private final int mSales;
+		private final int mServed;
+		private final int mChangeFailures;
+		private final int mUnderpaid;
+		private final int[] mEndCoinQuantities;
+		private final long mEndTotalFunds;
+
+		Outcome(Scenario aScenario, CurrencyProfile aCurrency, int aSales, int aServed, int aChangeFailures,
+				int aUnderpaid, int[] aEndCoinQuantities, long aEndTotalFunds)
+		{
+			mScenario = aScenario;
+			mCurrency = aCurrency;
+			mSales = aSales;
+			mServed = aServed;
+			mChangeFailures = aChangeFailures;
+			mUnderpaid = aUnderpaid;
+			mEndCoinQuantities = aEndCoinQuantities;
+			mEndTotalFunds = aEndTotalFunds;
+		}
+
+		/**
+		 * Gets the scenario evaluated
+		 * @return the scenario
+		 */
+		public Scenario getScenario()
+		{
+			return mScenario;
+		}
+
+		/**
+		 * Gets the number of sales replayed
+		 * @return the number of sales
+		 */
+		public int getSales()
+		{
+			return mSales;
+		}
+
+		/**
+		 * Gets the number of sales given their change
+		 * @return the number of sales served
+		 */
+		public int getServed()
+		{
+			return mServed;
+		}
+
+		/**
+		 * Gets the number of sales refunded as their change could not be made
+		 * @return the number of change failures
+		 */
+		public int getChangeFailures()
+		{
+			return mChangeFailures;
+		}
+
+		/**
+		 * Gets the number of sales whose coins did not cover the scenario's price
+		 * @return the number of sales underpaid
+		 */
+		public int getUnderpaid()
+		{
+			return mUnderpaid;
+		}
+
+		/**
+		 * Gets the fraction of sales served
+		 * @return the success rate, from 0 to 1, or 1 if there were no sales
+		 */
+		public double getSuccessRate()
+		{
+			return mSales == 0 ? 1 : (double) mServed / mSales;
+		}
+
+		/**
+		 * Gets the quantity of a coin left after the last sale
+		 *
+		 * @param aCoin The coin
+		 * @return The quantity left, 0 if the coin is of another currency
+		 */
+		public int getEndCoinQuantity(Denomination aCoin)
+		{
+			return mCurrency.contains(aCoin) ? mEndCoinQuantities[aCoin.getIndex()] : 0;
+		}
+
+		/**
+		 * Gets the quantity of each coin left after the last sale
+		 * @return A copy of the quantities, indexed as Denomination.getIndex()
+		 */
+		public int[] getEndCoinQuantities()
+		{
+			return mEndCoinQuantities.clone();
+		}
+
+		/**
+		 * Gets the value of the coins left after the last sale
+		 * @return the total funds in pence
+		 */
+		public long getEndTotalFunds()
+		{
+			return mEndTotalFunds;
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format("%-28s served %d of %d (%.2f%%), change failures %d, underpaid %d, end float %s = %s",
+					mScenario, mServed, mSales, getSuccessRate() * 100, mChangeFailures, mUnderpaid,
+					Arrays.toString(mEndCoinQuantities), mCurrency.format(mEndTotalFunds));
+		}
+
+	}
+
+	/** The currency of the float */
+	private final CurrencyProfile mCurrency;
+
+	/** The value of each coin in pence */
+	private final int[] mCoinValues;
+
+	/** The number of coins of the currency, and so of quantities paid per sale */
+	private final int mCoinCount;
+
+	/** The quantity of each coin in the float */
+	private final int[] mFloat;
+
+	/** The value of the float in pence */
+	private final long mFloatTotal;
+
+	/** The quantity of each coin paid for each sale, mCoinCount per sale */
+	private int[] mPayments;
+
+	/** The value of the coins paid for each sale */
+	private int[] mPaid = new int[64];
+
+	/** The price of each sale */
+	private int[] mPrices = new int[64];
+
+	/** The number of sales recorded */
+	private int mSales;
+
+	/**
+	 * Creates an engine for the float held in a snapshot of a built in currency, with or without notes
+	 *
+	 * @param aSnapshot The buffer holding the snapshot
+	 * @param aOffset The offset of the snapshot in the buffer
+	 * @throws IllegalArgumentException if there is no snapshot of a built in currency at the offset, or it holds
+	 * 		   more than Integer.MAX_VALUE of a coin
+	 */
+	public WhatIfEngine(ByteBuffer aSnapshot, int aOffset)
+	{
+		this(aSnapshot, aOffset, InventorySnapshot.getCurrency(aSnapshot, aOffset));
+	}
+
+	/**
+	 * Creates an engine for the float held in a snapshot of the coins of a currency
+	 *
+	 * @param aSnapshot The buffer holding the snapshot
+	 * @param aOffset The offset of the snapshot in the buffer
+	 * @param aCurrency The currency of the snapshot
+	 * @throws IllegalArgumentException if there is no snapshot of the currency at the offset, or it holds more
+	 * 		   than Integer.MAX_VALUE of a coin
+	 */
+	public WhatIfEngine(ByteBuffer aSnapshot, int aOffset, CurrencyProfile aCurrency)
+	{
+		this(aCurrency, readFloat(aSnapshot, aOffset, aCurrency));
+	}
+
+	/**
+	 * Creates an engine for the coins currently held by a Vending Machine
+	 *
+	 * @param aMachine The machine, of any currency
+	 * @throws IllegalArgumentException if the machine holds more than Integer.MAX_VALUE of a coin
+	 */
+	public WhatIfEngine(VendingMachine aMachine)
+	{
+		this(aMachine.getCurrency(), readFloat(aMachine));
+	}
+
+	/**
+	 * Creates an engine for a float of GBP coins
+	 *
+	 * @param aFloat The quantity of each coin, indexed as GBPCoin.getIndex()
+	 * @throws IllegalArgumentException if a quantity is not given for each coin or is negative
+	 */
+	public WhatIfEngine(int[] aFloat)
+	{
+		this(CurrencyProfile.GBP, aFloat);
+	}
+
+	/**
+	 * Creates an engine for a float of the coins of a currency
+	 *
+	 * @param aCurrency The currency, e.g. CurrencyProfile.EUR
+	 * @param aFloat The quantity of each coin, indexed as Denomination.getIndex()
+	 * @throws IllegalArgumentException if a quantity is not given for each coin or is negative
+	 */
+	public WhatIfEngine(CurrencyProfile aCurrency, int[] aFloat)
+	{
+		if (aFloat.length != aCurrency.getDenominationCount())
+		{
+			throw new IllegalArgumentException("Must specify quantity of each type of " + aCurrency.getCode()
+					+ " coin: " + aCurrency.describe());
+		}
+
+		mCurrency = aCurrency;
+		mCoinValues = aCurrency.getValues();
+		mCoinCount = aFloat.length;
+		mPayments = new int[64 * mCoinCount];
+
+		long total = 0;
+
+		for (int i = 0; i < aFloat.length; i++)
+		{
+			if (aFloat[i] < 0)
+			{
+				throw new IllegalArgumentException("Quantity of coins cannot be negative!");
+			}
+
+			total += (long) aFloat[i] * mCoinValues[i];
+		}
+
+		mFloat = aFloat.clone();
+		mFloatTotal = total;
+	}
+
+	/**
+	 * Reads the float from a snapshot, whose quantities must fit the ints the change solvers work in
+	 */
+	private static int[] readFloat(ByteBuffer aSnapshot, int aOffset, CurrencyProfile aCurrency)
+	{
+		if (!InventorySnapshot.isOf(aSnapshot, aOffset, aCurrency))
+		{
+			throw new IllegalArgumentException("The snapshot at offset " + aOffset + " is not of " + aCurrency
+					+ " coins");
+		}
+
+		long[] quantities = new long[aCurrency.getDenominationCount()];
+		InventorySnapshot.read(aSnapshot, aOffset, quantities);
+
+		return toFloat(aCurrency, quantities);
+	}
+
+	/**
+	 * Reads the float from the coins held by a machine
+	 */
+	private static int[] readFloat(VendingMachine aMachine)
+	{
+		CurrencyProfile currency = aMachine.getCurrency();
+		long[] quantities = new long[currency.getDenominationCount()];
+
+		for (int i = 0; i < quantities.length; i++)
+		{
+			quantities[i] = aMachine.getCoinQuantity(currency.getDenomination(i));
+		}
+
+		return toFloat(currency, quantities);
+	}
+
+	/**
+	 * Narrows the quantities of a float to the ints the change solvers work in
+	 *
+	 * @throws IllegalArgumentException if a quantity is above Integer.MAX_VALUE
+	 */
+	private static int[] toFloat(CurrencyProfile aCurrency, long[] aQuantities)
+	{
+		int[] coins = new int[aQuantities.length];
+
+		for (int i = 0; i < coins.length; i++)
+		{
+			if (aQuantities[i] > Integer.MAX_VALUE)
+			{
+				throw new IllegalArgumentException("Too many " + aCurrency.getDenomination(i).getName()
+						+ " coins for a float: " + aQuantities[i]);
+			}
+
+			coins[i] = (int) aQuantities[i];
+		}
+
+		return coins;
+	}
+
+	/**
+	 * Gets the currency of the float
+	 * @return the currency profile
+	 */
+	public CurrencyProfile getCurrency()
+	{
+		return mCurrency;
+	}
+
+	/**
+	 * Records a sale to replay
+	 *
+	 * @param aCoinsPaid The quantity of each coin the customer paid with, indexed as Denomination.getIndex()
+	 * @param aPrice The price paid for in pence, before any scenario's price change
+	 * @throws IllegalArgumentException if a quantity is not given for each coin, a quantity or the price is
+	 * 		   negative, or the coins paid do not cover the price
+	 */
+	public void addSale(int[] aCoinsPaid, int aPrice)
+	{
+		if (aCoinsPaid.length != mCoinCount)
+		{
+			throw new IllegalArgumentException("Must specify quantity of each type of " + mCurrency.getCode()
+					+ " coin paid: " + mCurrency.describe());
+		}
+
+		long paid = 0;
+
+		for (int i = 0; i < aCoinsPaid.length; i++)
+		{
+			if (aCoinsPaid[i] < 0)
+			{
+				throw new IllegalArgumentException("Quantity of coins cannot be negative!");
+			}
+
+			paid += (long) aCoinsPaid[i] * mCoinValues[i];
+		}
+
+		if (aPrice < 0 || paid < aPrice || paid > Integer.MAX_VALUE)
+		{
+			throw new IllegalArgumentException("Coins paid (" + mCurrency.format(paid) + ") must cover the price: "
+					+ mCurrency.format(aPrice));
+		}
+
+		if (mSales == mPrices.length)
+		{
+			mPayments = Arrays.copyOf(mPayments, mPayments.length * 2);
+			mPaid = Arrays.copyOf(mPaid, mPaid.length * 2);
+			mPrices = Arrays.copyOf(mPrices, mPrices.length * 2);
+		}
+
+		System.arraycopy(aCoinsPaid, 0, mPayments, mSales * mCoinCount, mCoinCount);
+		mPaid[mSales] = (int) paid;
+		mPrices[mSales] = aPrice;
+		mSales++;
+	}
+
+	/**
+	 * Gets the number of sales recorded
+	 * @return the number of sales
+	 */
+	public int getSaleCount()
+	{
+		return mSales;
+	}
+
+	/**
+	 * Evaluates the scenarios in parallel on the common fork/join pool
+	 *
+	 * @param aScenarios The scenarios
+	 * @return The outcome of each scenario, in the same order
+	 */
+	public Outcome[] evaluate(List<Scenario> aScenarios)
+	{
+		return evaluate(aScenarios, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Evaluates the scenarios in parallel on a fork/join pool, e.g. one with a single thread to compare
+	 *
+	 * @param aScenarios The scenarios
+	 * @param aPool The pool to evaluate them on
+	 * @return The outcome of each scenario, in the same order
+	 */
+	public Outcome[] evaluate(List<Scenario> aScenarios, ForkJoinPool aPool)
+	{
+		Scenario[] scenarios = aScenarios.toArray(new Scenario[0]);
+		Outcome[] outcomes = new Outcome[scenarios.length];
+
+		if (scenarios.length > 0)
+		{
+			aPool.invoke(new EvaluateTask(scenarios, outcomes, 0, scenarios.length));
+		}
+
+		return outcomes;
+	}
+
+	/**
+	 * Replays every sale under one scenario on its own copy of the float
+	 *
+	 * @param aScenario The scenario
+	 * @return What happened to the float
+	 */
+	public Outcome evaluate(Scenario aScenario)
+	{
+		ChangeSolver solver = aScenario.mChangeSolverFactory.get();
+		int[] coins = mFloat.clone();
+		int[] change = new int[mCoinCount];
+		long total = mFloatTotal;
+		int served = 0;
+		int changeFailures = 0;
+		int underpaid = 0;
+
+		for (int sale = 0; sale < mSales; sale++)
+		{
+			int price = Math.max(0, mPrices[sale] + aScenario.mPriceChange);
+			int paid = mPaid[sale];
+
+			if (paid < price)
+			{
+				underpaid++;
+				continue;
+			}
+
+			int payment = sale * mCoinCount;
+
+			for (int i = 0; i < mCoinCount; i++)
+			{
+				coins[i] += mPayments[payment + i];
+			}
+
+			if (solver.solve(paid - price, mCoinValues, coins, change))
+			{
+				for (int i = 0; i < mCoinCount; i++)
+				{
+					coins[i] -= change[i];
+				}
+
+				total += price;
+				served++;
+			}
+
+			else
+			{
+				for (int i = 0; i < mCoinCount; i++)
+				{
+					coins[i] -= mPayments[payment + i];
+				}
+
+				changeFailures++;
+			}
+		}
+
+		return new Outcome(aScenario, mCurrency, mSales, served, changeFailures, underpaid, coins, total);
+	}
+
+	/**
+	 * Evaluates a range of the scenarios, splitting it until one scenario is left
+	 */
+	private class EvaluateTask extends RecursiveAction
+	{
+
+		private static final long serialVersionUID = 1L;
+
+		private final Scenario[] mScenarios;
+		private final Outcome[] mOutcomes;
+		private final int mFrom;
+		private final int mTo;
+
+		EvaluateTask(Scenario[] aScenarios, Outcome[] aOutcomes, int aFrom, int aTo)
+		{
+			mScenarios = aScenarios;
+			mOutcomes = aOutcomes;
+			mFrom = aFrom;
+			mTo = aTo;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (mTo - mFrom == 1)
+			{
+				mOutcomes[mFrom] = evaluate(mScenarios[mFrom]);
+				return;
+			}
+
+			int middle = (mFrom + mTo) >>> 1;
+			invokeAll(new EvaluateTask(mScenarios, mOutcomes, mFrom, middle),
+					new EvaluateTask(mScenarios, mOutcomes, middle, mTo));
+		}
+
+	}
+
+}
@@ -0,0 +1,178 @@
+package junit;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import main.BoundedChangeSolver;
+
+/**
+ * Tests the change calculation of the Bounded Change Solver
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ */
+class TestBoundedChangeSolver
+{
+
+	/** The solver to test */
+	BoundedChangeSolver solver = new BoundedChangeSolver();
+
+	/** The GBP coin values: 1p, 2p, 5p, 10p, 20p, 50p, 1, 2, 5 */
+	int[] coinValues = new int[] { 1, 2, 5, 10, 20, 50, 100, 200, 500 };
+
+	/** The quantity of each coin chosen by the solver */
+	int[] result = new int[9];
+
+	/**
+	 * Sums the value of the coins chosen by the solver
+	 */
+	private int sumResult()
+	{
+		int total = 0;
+		for (int i = 0; i < result.length; i++)
+		{
+			total += result[i] * coinValues[i];
+		}
+		return total;
+	}
+
+	/**
+	 * Verifies that the solver does not get stuck behind a large coin
+	 */
+	@Test
+	void testLargestCoinBlocks()
+	{
+		int[] available = new int[] { 0, 0, 0, 0, 3, 1, 0, 0, 0 }; // 3 x 20p, 1 x 50p
+
+		Assert.assertTrue(solver.solve(60, coinValues, available, result));
+		Assert.assertTrue(result[4] == 3);
+		Assert.assertTrue(result[5] == 0);
+	}
+
+	/**
+	 * Verifies that the solver uses the fewest coins possible
+	 */
+	@Test
+	void testFewestCoins()
+	{
+		int[] available = new int[] { 10, 10, 10, 10, 10, 10, 10, 10, 10 };
+
+		Assert.assertTrue(solver.solve(388, coinValues, available, result)); // 2 + 1 + 50p + 20p + 10p + 5p + 2p + 1p
+		Assert.assertTrue(sumResult() == 388);
+
+		int coins = 0;
+		for (int count : result)
+		{
+			coins += count;
+		}
+		Assert.assertTrue(coins == 8);
+	}
+
+	/**
+	 * Verifies that the solver never uses more coins than are available
+	 */
+	@Test
+	void testRespectsAvailable()
+	{
+		int[] available = new int[] { 3, 0, 1, 0, 0, 0, 0, 0, 0 }; // 3 x 1p, 1 x 5p
+
+		Assert.assertTrue(solver.solve(8, coinValues, available, result));
+		Assert.assertTrue(result[0] == 3);
+		Assert.assertTrue(result[2] == 1);
+
+		Assert.assertFalse(solver.solve(9, coinValues, available, result));
+	}
+
+	/**
+	 * Verifies that a value which cannot be made is reported
+	 */
+	@Test
+	void testNotPossible()
+	{
+		int[] available = new int[] { 0, 0, 0, 1, 0, 0, 0, 1, 0 }; // 10p, 2
+
+		Assert.assertFalse(solver.solve(203, coinValues, available, result));
+	}
+
+	/**
+	 * Verifies that a value of 0 needs no coins
+	 */
+	@Test
+	void testZero()
+	{
+		int[] available = new int[] { 1, 1, 1, 1, 1, 1, 1, 1, 1 };
+
+		Assert.assertTrue(solver.solve(0, coinValues, available, result));
+		Assert.assertTrue(sumResult() == 0);
+	}
+
+	/**
+	 * Verifies that the solver can be reused for smaller and larger values
+	 */
+	@Test
+	void testReuse()
+	{
+		int[] available = new int[] { 1, 3, 5, 7, 9, 11, 13, 15, 17 };
+
+		Assert.assertTrue(solver.solve(12345, coinValues, available, result));
+		Assert.assertTrue(sumResult() == 12345);
+
+		Assert.assertTrue(solver.solve(7, coinValues, available, result));
+		Assert.assertTrue(sumResult() == 7);
+
+		Assert.assertTrue(solver.solve(12346, coinValues, available, result));
+		Assert.assertTrue(sumResult() == 12346);
+	}
+
+	/**
+	 * Verifies the solver against every value up to 10 from a small float, comparing the
+	 * number of coins against treating every coin individually
+	 */
+	@Test
+	void testAllValues()
+	{
+		int[] available = new int[] { 1, 2, 1, 2, 1, 2, 1, 1, 1 };
+
+		// Fewest coins for each value, adding the coins one at a time
+		int limit = 1000;
+		int[] fewest = new int[limit + 1];
+		Arrays.fill(fewest, Integer.MAX_VALUE);
+		fewest[0] = 0;
+
+		for (int i = 0; i < coinValues.length; i++)
+		{
+			for (int n = 0; n < available[i]; n++)
+			{
+				for (int value = limit; value >= coinValues[i]; value--)
+				{
+					if (fewest[value - coinValues[i]] != Integer.MAX_VALUE)
+					{
+						fewest[value] = Math.min(fewest[value], fewest[value - coinValues[i]] + 1);
+					}
+				}
+			}
+		}
+
+		for (int target = 0; target <= limit; target++)
+		{
+			boolean solved = solver.solve(target, coinValues, available, result);
+			Assert.assertTrue(solved == (fewest[target] != Integer.MAX_VALUE));
+
+			if (solved)
+			{
+				Assert.assertTrue(sumResult() == target);
+
+				int coins = 0;
+				for (int i = 0; i < result.length; i++)
+				{
+					Assert.assertTrue(result[i] <= available[i]);
+					coins += result[i];
+				}
+				Assert.assertTrue(coins == fewest[target]);
+			}
+		}
+	}
+
+}
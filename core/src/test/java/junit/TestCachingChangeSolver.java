@@ -0,0 +1,134 @@
+package junit;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import main.BoundedChangeSolver;
+import main.CachingChangeSolver;
+
+/**
+ * Tests the plans remembered by the Caching Change Solver
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ */
+class TestCachingChangeSolver
+{
+
+	/** The GBP coin values: 1p, 2p, 5p, 10p, 20p, 50p, 1, 2, 5 */
+	int[] coinValues = new int[] { 1, 2, 5, 10, 20, 50, 100, 200, 500 };
+
+	/** The quantity of each coin chosen by the solver */
+	int[] result = new int[9];
+
+	/**
+	 * Verifies that a repeat request is answered from the table with the same coins
+	 */
+	@Test
+	void testRepeatIsHit()
+	{
+		CachingChangeSolver solver = new CachingChangeSolver(new BoundedChangeSolver());
+		int[] available = new int[] { 10, 10, 10, 10, 10, 10, 10, 10, 10 };
+
+		Assert.assertTrue(solver.solve(385, coinValues, available, result));
+		int[] first = Arrays.copyOf(result, result.length);
+
+		Arrays.fill(result, 0);
+		Assert.assertTrue(solver.solve(385, coinValues, available, result));
+
+		Assert.assertArrayEquals(first, result);
+		Assert.assertTrue(solver.getMissCount() == 1);
+		Assert.assertTrue(solver.getHitCount() == 1);
+	}
+
+	/**
+	 * Verifies that a change to a coin only discards the plans that could use it
+	 */
+	@Test
+	void testOnlyAffectedPlansDiscarded()
+	{
+		CachingChangeSolver solver = new CachingChangeSolver(new BoundedChangeSolver());
+		int[] available = new int[] { 10, 10, 10, 10, 10, 10, 10, 10, 0 };
+
+		solver.solve(150, coinValues, available, result);
+		solver.solve(600, coinValues, available, result);
+
+		available[8]++; // deposit 5, which cannot be used for 1.50
+
+		solver.solve(150, coinValues, available, result);
+		Assert.assertTrue(solver.getHitCount() == 1);
+
+		Assert.assertTrue(solver.solve(600, coinValues, available, result));
+		Assert.assertTrue(result[8] == 1);
+		Assert.assertTrue(solver.getMissCount() == 3);
+	}
+
+	/**
+	 * Verifies that a target that could not be made is recalculated once coins are deposited
+	 */
+	@Test
+	void testNotPossibleDiscarded()
+	{
+		CachingChangeSolver solver = new CachingChangeSolver(new BoundedChangeSolver());
+		int[] available = new int[] { 0, 0, 0, 0, 3, 0, 0, 0, 0 };
+
+		Assert.assertFalse(solver.solve(70, coinValues, available, result));
+		Assert.assertFalse(solver.solve(70, coinValues, available, result));
+
+		available[3]++; // deposit 10p
+
+		Assert.assertTrue(solver.solve(70, coinValues, available, result));
+		Assert.assertTrue(result[3] == 1 && result[4] == 3);
+	}
+
+	/**
+	 * Verifies that the plans always match the wrapped solver as coins come and go,
+	 * including when plans are replaced in a small table
+	 */
+	@Test
+	void testMatchesSolver()
+	{
+		Random random = new Random(11);
+		BoundedChangeSolver reference = new BoundedChangeSolver();
+		CachingChangeSolver solver = new CachingChangeSolver(new BoundedChangeSolver(), 16);
+
+		int[] available = new int[] { 5, 5, 5, 5, 5, 5, 5, 5, 5 };
+		int[] expected = new int[9];
+
+		for (int i = 0; i < 5000; i++)
+		{
+			int target = random.nextInt(200) * 5 + random.nextInt(2);
+
+			boolean possible = reference.solve(target, coinValues, available, expected);
+			Assert.assertTrue(solver.solve(target, coinValues, available, result) == possible);
+			Assert.assertArrayEquals(expected, result);
+
+			int coin = random.nextInt(available.length);
+			available[coin] = Math.max(0, available[coin] + random.nextInt(3) - 1);
+		}
+
+		Assert.assertTrue(solver.getHitCount() > 0);
+	}
+
+	/**
+	 * Verifies that the capacity must be a power of two
+	 */
+	@Test
+	void testInvalidCapacity()
+	{
+		try
+		{
+			new CachingChangeSolver(new BoundedChangeSolver(), 100);
+			Assert.fail();
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("Invalid cache capacity"));
+		}
+	}
+
+}
@@ -0,0 +1,161 @@
+package junit;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import main.BoundedChangeSolver;
+import main.ChangeSolver;
+import main.ChangeStrategy;
+import main.CoverageChangeSolver;
+import main.GBPCoin;
+import main.MakeableAmounts;
+import main.ScarceCoinChangeSolver;
+import main.VendingMachine;
+
+/**
+ * Tests the change produced by each Change Strategy
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ */
+class TestChangeStrategy
+{
+
+	/** The GBP coin values: 1p, 2p, 5p, 10p, 20p, 50p, 1, 2, 5 */
+	int[] coinValues = new int[] { 1, 2, 5, 10, 20, 50, 100, 200, 500 };
+
+	/** The quantity of each coin chosen by the solver */
+	int[] result = new int[9];
+
+	/**
+	 * Counts the amounts up to 5 that can be made from the coins left after the change
+	 */
+	private int coverageAfter(int[] aAvailable, int[] aChange)
+	{
+		int[] remaining = new int[aAvailable.length];
+		for (int i = 0; i < remaining.length; i++)
+		{
+			remaining[i] = aAvailable[i] - aChange[i];
+		}
+
+		MakeableAmounts amounts = new MakeableAmounts(coinValues, CoverageChangeSolver.DEFAULT_HORIZON);
+		amounts.rebuild(remaining);
+		return amounts.countMakeable();
+	}
+
+	/**
+	 * Verifies that the last of a coin is spared when plentiful smaller coins can be used instead
+	 */
+	@Test
+	void testScarceCoinSpared()
+	{
+		int[] available = new int[] { 0, 0, 10, 1, 0, 0, 0, 0, 0 }; // 10 x 5p, 1 x 10p
+
+		Assert.assertTrue(new BoundedChangeSolver().solve(10, coinValues, available, result));
+		Assert.assertEquals(1, result[3]);
+
+		Assert.assertTrue(new ScarceCoinChangeSolver().solve(10, coinValues, available, result));
+		Assert.assertEquals(2, result[2]);
+		Assert.assertEquals(0, result[3]);
+
+		// The scarce coin is still used when nothing else will do
+		Assert.assertTrue(new ScarceCoinChangeSolver().solve(55, coinValues, available, result));
+		Assert.assertEquals(9, result[2]);
+		Assert.assertEquals(1, result[3]);
+	}
+
+	/**
+	 * Verifies that every strategy produces valid change exactly when the fewest coins can be produced,
+	 * and that maximising coverage leaves at least as many amounts makeable as the other strategies
+	 */
+	@Test
+	void testStrategiesMatchFeasibility()
+	{
+		Random random = new Random(19);
+		BoundedChangeSolver minCoins = new BoundedChangeSolver();
+		ChangeSolver scarce = ChangeStrategy.PRESERVE_SCARCE_COINS.get();
+		ChangeSolver coverage = ChangeStrategy.MAXIMISE_COVERAGE.get();
+		int[] expected = new int[9];
+		int[] spared = new int[9];
+
+		for (int trial = 0; trial < 500; trial++)
+		{
+			int[] available = new int[coinValues.length];
+			for (int i = 0; i < available.length; i++)
+			{
+				available[i] = random.nextInt(6);
+			}
+
+			int target = random.nextInt(1000);
+			boolean possible = minCoins.solve(target, coinValues, available, expected);
+
+			Assert.assertEquals(possible, scarce.solve(target, coinValues, available, spared));
+			Assert.assertEquals(possible, coverage.solve(target, coinValues, available, result));
+
+			if (possible)
+			{
+				int sum = 0;
+				for (int i = 0; i < coinValues.length; i++)
+				{
+					Assert.assertTrue(spared[i] <= available[i] && result[i] <= available[i]);
+					sum += result[i] * coinValues[i];
+				}
+				Assert.assertEquals(target, sum);
+
+				int covered = coverageAfter(available, result);
+				Assert.assertTrue(covered >= coverageAfter(available, expected));
+				Assert.assertTrue(covered >= coverageAfter(available, spared));
+			}
+		}
+	}
+
+	/**
+	 * Verifies that maximising coverage searches beyond the change proposed by its candidates
+	 */
+	@Test
+	void testCoverageSearch()
+	{
+		int[] available = new int[] { 3, 3, 2, 0, 3, 3, 1, 0, 0 };
+		ChangeSolver bestOfTwo = new CoverageChangeSolver(CoverageChangeSolver.DEFAULT_HORIZON, 0,
+				new BoundedChangeSolver(), new ScarceCoinChangeSolver());
+
+		// The candidates offer 5p + 3 x 20p, leaving 90 amounts makeable
+		Assert.assertTrue(bestOfTwo.solve(65, coinValues, available, result));
+		Assert.assertArrayEquals(new int[] { 0, 0, 1, 0, 3, 0, 0, 0, 0 }, result);
+		Assert.assertEquals(90, coverageAfter(available, result));
+
+		// The search finds 1p + 2 x 2p + 2 x 5p + 50p, leaving 100
+		Assert.assertTrue(ChangeStrategy.MAXIMISE_COVERAGE.get().solve(65, coinValues, available, result));
+		Assert.assertArrayEquals(new int[] { 1, 2, 2, 0, 0, 1, 0, 0, 0 }, result);
+		Assert.assertEquals(100, coverageAfter(available, result));
+
+		try
+		{
+			new CoverageChangeSolver(CoverageChangeSolver.DEFAULT_HORIZON, -1, new BoundedChangeSolver());
+			Assert.fail();
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			// Expected
+		}
+	}
+
+	/**
+	 * Verifies that a strategy plugs in behind the Vending Machine's existing API
+	 */
+	@Test
+	void testStrategyInMachine()
+	{
+		VendingMachine vm = new VendingMachine(new int[] { 0, 0, 10, 1, 0, 0, 0, 0, 0 });
+		vm.setChangeSolver(ChangeStrategy.PRESERVE_SCARCE_COINS.get());
+
+		vm.dispenseCoins(vm.proceduceCoins(10));
+
+		Assert.assertTrue(vm.getCoinQuantity(GBPCoin.of("10p")) == 1);
+		Assert.assertTrue(vm.getCoinQuantity(GBPCoin.of("5p")) == 8);
+	}
+
+}
@@ -0,0 +1,281 @@
+package junit;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import main.CommandLogReplay;
+import main.CurrencyProfile;
+import main.GBPCoin;
+import main.InventorySnapshot;
+import main.VendingMachine;
+
+/**
+ * Tests replaying logs of Console commands with the Command Log Replay
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ */
+class TestCommandLogReplay
+{
+
+	/** The directory to write the logs in, deleted after each test */
+	@TempDir
+	Path directory;
+
+	/** The size of a snapshot of GBP coins */
+	static final int SIZE = InventorySnapshot.size(CurrencyProfile.GBP);
+
+	/** Initialise the Vending Machine with 10 of all coins */
+	int[] initCoins10 = new int[] { 10, 10, 10, 10, 10, 10, 10, 10, 10 };
+
+	/** Commands as typed at the Console, including invalid and empty lines and Windows line endings */
+	String log = "deposit 2\r\ndeposit 50p\n\ndeposit 3p\ndeposit\nproducecoins 230\nDEPOSIT 1\n  check  \n"
+			+ "producecoins lots\nwithdraw 10p\nproducecoins 100000\ndeposit 20p\nproducecoins 20"; // no last newline
+
+	/**
+	 * Writes a log
+	 */
+	private Path write(String aLog) throws IOException
+	{
+		Path path = directory.resolve("commands.log");
+		Files.write(path, aLog.getBytes(StandardCharsets.UTF_8));
+		return path;
+	}
+
+	/**
+	 * Verifies that replaying a log leaves the coins the Console leaves after reading the same commands
+	 */
+	@Test
+	void testMatchesConsole() throws IOException
+	{
+		// The Console reads in the platform's charset, so only ASCII coins are typed at it
+		String ascii = log.replace("2", "20p").replace("1", "10p");
+
+		VendingMachine replayed = new VendingMachine(initCoins10);
+		CommandLogReplay replay = new CommandLogReplay(replayed);
+		Assert.assertNull(replay.replay(write(ascii + "\nexit\ndeposit 5p\n"), null));
+
+		Assert.assertEquals(14, replay.getLines()); // stopping at exit
+		Assert.assertTrue(replay.isExited());
+		Assert.assertEquals(4, replay.getDeposits());
+		Assert.assertEquals(2, replay.getRejected());
+		Assert.assertEquals(3, replay.getChangeRequests());
+		Assert.assertEquals(1, replay.getChecks());
+		Assert.assertEquals(2, replay.getInvalid());
+
+		VendingMachine console = new VendingMachine(initCoins10);
+		InputStream in = System.in;
+		PrintStream out = System.out;
+
+		try
+		{
+			System.setIn(new ByteArrayInputStream((ascii + "\nexit\n").getBytes(StandardCharsets.US_ASCII)));
+			System.setOut(new PrintStream(new ByteArrayOutputStream(), true, "UTF-8"));
+			console.init();
+		}
+
+		finally
+		{
+			System.setIn(in);
+			System.setOut(out);
+		}
+
+		Assert.assertEquals(console.getTotalFundsInPence(), replayed.getTotalFundsInPence());
+		Assert.assertEquals(console.getCoinQuantityMap(), replayed.getCoinQuantityMap());
+		Assert.assertEquals(8880 + 100 - 230 - 20, replayed.getTotalFundsInPence());
+	}
+
+	/**
+	 * Verifies that the replay stops at the first snapshot the coins differ from, reporting the line and coin
+	 */
+	@Test
+	void testFirstDivergence() throws IOException
+	{
+		int[] coins = initCoins10.clone();
+		ByteBuffer snapshots = ByteBuffer.allocate(SIZE * 4);
+
+		InventorySnapshot.write(snapshots, 0, 0, coins); // before the first line
+		coins[7]++; // 2
+		coins[5]++; // 50p
+		InventorySnapshot.write(snapshots, SIZE, 2, coins);
+		coins[1]++; // 2p recorded instead of 3p, which is rejected
+		InventorySnapshot.write(snapshots, SIZE * 2, 4, coins);
+		InventorySnapshot.write(snapshots, SIZE * 3, Long.MAX_VALUE, coins);
+
+		VendingMachine vm = new VendingMachine(initCoins10);
+		CommandLogReplay replay = new CommandLogReplay(vm);
+		CommandLogReplay.Divergence divergence = replay.replay(write(log), snapshots);
+
+		Assert.assertNotNull(divergence);
+		Assert.assertEquals(4, divergence.getLine());
+		Assert.assertEquals("deposit 3p", divergence.getCommand());
+		Assert.assertEquals(4, divergence.getVersion());
+		Assert.assertSame(GBPCoin.of("2p"), divergence.getCoin());
+		Assert.assertEquals(11, divergence.getExpected());
+		Assert.assertEquals(10, divergence.getActual());
+		Assert.assertEquals(3, replay.getSnapshotsVerified());
+		Assert.assertEquals(4, replay.getLines()); // stopped at the divergence
+
+		// Without the wrong snapshot the final coins are compared when the log ends
+		vm = new VendingMachine(initCoins10);
+		replay = new CommandLogReplay(vm);
+		snapshots.limit(SIZE * 2);
+		Assert.assertNull(replay.replay(write(log), snapshots));
+		Assert.assertEquals(13, replay.getLines());
+		Assert.assertEquals(2, replay.getSnapshotsVerified());
+	}
+
+	/**
+	 * Verifies that a replay from a snapshot of the starting coins is compared with one snapshot of the final
+	 * coins, whatever its version
+	 */
+	@Test
+	void testVerifyFinalSnapshot() throws IOException
+	{
+		ByteBuffer start = ByteBuffer.allocate(SIZE);
+		InventorySnapshot.write(start, 0, 7, new int[] { 5, 5, 5, 5, 5, 5, 5, 5, 5 });
+
+		long[] coins = new long[GBPCoin.COUNT];
+		InventorySnapshot.read(start, 0, coins);
+		VendingMachine expected = new VendingMachine(CurrencyProfile.GBP, coins);
+		new CommandLogReplay(expected).replay(write(log));
+
+		ByteBuffer end = ByteBuffer.allocate(SIZE * 2);
+		InventorySnapshot.write(end, SIZE, 3, expected); // e.g. a journal's generation
+
+		CommandLogReplay replay = new CommandLogReplay(new VendingMachine(CurrencyProfile.GBP, coins));
+		Assert.assertNull(replay.replayAndVerify(write(log), end, SIZE));
+		Assert.assertEquals(13, replay.getLines());
+
+		long[] wrong = new long[GBPCoin.COUNT];
+		InventorySnapshot.read(end, SIZE, wrong);
+		wrong[6]--; // one 1 fewer
+		InventorySnapshot.write(end, 0, 3, CurrencyProfile.GBP, wrong);
+
+		replay = new CommandLogReplay(new VendingMachine(CurrencyProfile.GBP, coins));
+		CommandLogReplay.Divergence divergence = replay.replayAndVerify(write(log), end, 0);
+
+		Assert.assertNotNull(divergence);
+		Assert.assertEquals(13, divergence.getLine());
+		Assert.assertNull(divergence.getCommand());
+		Assert.assertEquals(3, divergence.getVersion());
+		Assert.assertSame(GBPCoin.of("1"), divergence.getCoin());
+		Assert.assertEquals(wrong[6] + 1, divergence.getActual());
+
+		try
+		{
+			replay.replayAndVerify(write(log), end, SIZE + 1);
+			Assert.fail();
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("Not a valid InventorySnapshot"));
+		}
+	}
+
+	/**
+	 * Verifies that a log is replayed through a machine of another currency and compared with snapshots of
+	 * that currency, and that snapshots of any other currency are refused
+	 */
+	@Test
+	void testCurrency() throws IOException
+	{
+		CurrencyProfile eur = CurrencyProfile.EUR;
+		long[] coins = new long[] { 10, 10, 10, 10, 10, 10, 10, 10 };
+		Path path = write("deposit 2\nproducecoins 150\n");
+
+		int size = InventorySnapshot.size(eur);
+		ByteBuffer snapshots = ByteBuffer.allocate(size);
+		long[] expected = coins.clone();
+		expected[7]++; // 2
+		expected[6]--; // 1
+		InventorySnapshot.write(snapshots, 0, Long.MAX_VALUE, eur, expected);
+
+		CommandLogReplay replay = new CommandLogReplay(new VendingMachine(eur, coins));
+		CommandLogReplay.Divergence divergence = replay.replay(path, snapshots);
+
+		Assert.assertNotNull(divergence);
+		Assert.assertSame(eur.of("50c"), divergence.getCoin());
+		Assert.assertEquals(10, divergence.getExpected());
+		Assert.assertEquals(9, divergence.getActual());
+		Assert.assertTrue(divergence.toString().contains("10 x 50c"));
+
+		expected[5]--;
+		InventorySnapshot.write(snapshots, 0, 2, eur, expected);
+		replay = new CommandLogReplay(new VendingMachine(eur, coins));
+		Assert.assertNull(replay.replayAndVerify(path, snapshots, 0));
+
+		ByteBuffer gbp = ByteBuffer.allocate(SIZE);
+		InventorySnapshot.write(gbp, 0, 2, initCoins10);
+
+		try
+		{
+			new CommandLogReplay(new VendingMachine(eur, coins)).replay(path, gbp);
+			Assert.fail();
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("is not of EUR coins"));
+		}
+
+		try
+		{
+			new CommandLogReplay(new VendingMachine(eur, coins)).replayAndVerify(path, gbp, 0);
+			Assert.fail();
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("Not a valid InventorySnapshot of EUR coins"));
+		}
+	}
+
+	/**
+	 * Verifies that a log many times the size of a chunk streams through, including a line longer than a chunk
+	 */
+	@Test
+	void testLargeLog() throws IOException
+	{
+		StringBuilder builder = new StringBuilder();
+
+		for (int i = 0; i < 100000; i++)
+		{
+			builder.append(i % 2 == 0 ? "deposit 10p\n" : "producecoins 10\n");
+		}
+
+		for (int i = 0; i < 200000; i++)
+		{
+			builder.append(' ');
+		}
+		builder.append("deposit 5\n");
+
+		ByteBuffer snapshots = ByteBuffer.allocate(SIZE);
+		int[] coins = initCoins10.clone();
+		coins[8]++;
+		InventorySnapshot.write(snapshots, 0, Long.MAX_VALUE, coins);
+
+		VendingMachine vm = new VendingMachine(initCoins10);
+		CommandLogReplay replay = new CommandLogReplay(vm);
+
+		Assert.assertNull(replay.replay(write(builder.toString()), snapshots));
+		Assert.assertEquals(100001, replay.getLines());
+		Assert.assertEquals(50001, replay.getDeposits());
+		Assert.assertEquals(50000, replay.getChangeRequests());
+		Assert.assertEquals(8880 + 500, vm.getTotalFundsInPence());
+		Assert.assertEquals(1, vm.getCoinsDeposited().size()); // cleared at each producecoins
+	}
+
+}
@@ -0,0 +1,153 @@
+package junit;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import main.Command;
+import main.CommandError;
+import main.CommandParser;
+import main.GBPCoin;
+
+/**
+ * Tests the Console commands parsed by the Command Parser
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ */
+class TestCommandParser
+{
+
+	/** The parser to test */
+	CommandParser parser = new CommandParser();
+
+	/** Reused for every line parsed */
+	Command command = new Command();
+
+	/**
+	 * Parses a line both as characters and as UTF-8 bytes in the middle of a buffer,
+	 * checking that both give the same command
+	 */
+	private boolean parse(String aLine)
+	{
+		byte[] line = aLine.getBytes(StandardCharsets.UTF_8);
+		byte[] buffer = new byte[line.length + 6];
+		System.arraycopy(line, 0, buffer, 3, line.length);
+
+		boolean parsedBytes = parser.parse(buffer, 3, line.length, command);
+		String fromBytes = command.toString();
+		String argumentFromBytes = new String(line, command.getArgumentStart(),
+				command.getArgumentEnd() - command.getArgumentStart(), StandardCharsets.UTF_8);
+
+		boolean parsed = parser.parse(aLine, command);
+		Assert.assertEquals(parsed, parsedBytes);
+		Assert.assertEquals(command.toString(), fromBytes);
+		Assert.assertEquals(aLine.substring(command.getArgumentStart(), command.getArgumentEnd()), argumentFromBytes);
+
+		return parsed;
+	}
+
+	/**
+	 * Verifies that each command is parsed, ignoring case and extra whitespace
+	 */
+	@Test
+	void testCommands()
+	{
+		Assert.assertTrue(parse("deposit 10p"));
+		Assert.assertEquals(Command.Type.DEPOSIT, command.getType());
+		Assert.assertSame(GBPCoin.of("10p"), command.getCoin());
+
+		Assert.assertTrue(parse("  DEPOSIT\t2 \r"));
+		Assert.assertSame(GBPCoin.of("2"), command.getCoin());
+
+		Assert.assertTrue(parse("Deposit 50P"));
+		Assert.assertSame(GBPCoin.of("50p"), command.getCoin());
+
+		Assert.assertTrue(parse("producecoins 270"));
+		Assert.assertEquals(Command.Type.PRODUCE_COINS, command.getType());
+		Assert.assertEquals(270, command.getValue());
+
+		Assert.assertTrue(parse("ProduceCoins   -5"));
+		Assert.assertEquals(-5, command.getValue());
+
+		Assert.assertTrue(parse("producecoins -2147483648"));
+		Assert.assertEquals(Integer.MIN_VALUE, command.getValue());
+
+		Assert.assertTrue(parse("check"));
+		Assert.assertEquals(Command.Type.CHECK, command.getType());
+
+		Assert.assertTrue(parse("EXIT "));
+		Assert.assertEquals(Command.Type.EXIT, command.getType());
+
+		Assert.assertTrue(parse(" \t "));
+		Assert.assertEquals(Command.Type.EMPTY, command.getType());
+	}
+
+	/**
+	 * Verifies that every minted coin is parsed by its name, and nothing else is
+	 */
+	@Test
+	void testCoins()
+	{
+		for (int i = 0; i < GBPCoin.COUNT; i++)
+		{
+			GBPCoin coin = GBPCoin.fromIndex(i);
+			Assert.assertTrue(parse("deposit " + coin.getName()));
+			Assert.assertSame(coin, command.getCoin());
+		}
+
+		String[] invalid = { "3p", "0p", "05p", "100p", "500p", "p", "", "3", "10", "05", "1p", "1", "10pp",
+				"-1p", "1.5p", "1" };
+
+		for (String coin : invalid)
+		{
+			Assert.assertFalse(coin, parse("deposit " + coin));
+			Assert.assertEquals(CommandError.INVALID_COIN, command.getError());
+			Assert.assertNull(command.getCoin());
+		}
+	}
+
+	/**
+	 * Verifies that lines which cannot be parsed are reported with an error rather than an exception
+	 */
+	@Test
+	void testErrors()
+	{
+		Assert.assertFalse(parse("deposit"));
+		Assert.assertEquals(Command.Type.DEPOSIT, command.getType());
+		Assert.assertEquals(CommandError.MISSING_ARGUMENT, command.getError());
+
+		Assert.assertFalse(parse("producecoins  "));
+		Assert.assertEquals(CommandError.MISSING_ARGUMENT, command.getError());
+
+		Assert.assertFalse(parse("deposit 1p 2p"));
+		Assert.assertEquals(CommandError.UNEXPECTED_ARGUMENT, command.getError());
+		Assert.assertEquals("1p 2p", "deposit 1p 2p".substring(command.getArgumentStart(), command.getArgumentEnd()));
+
+		Assert.assertFalse(parse("check now"));
+		Assert.assertEquals(CommandError.UNEXPECTED_ARGUMENT, command.getError());
+
+		Assert.assertFalse(parse("depositx 1p"));
+		Assert.assertEquals(Command.Type.UNKNOWN, command.getType());
+		Assert.assertEquals(CommandError.UNKNOWN_COMMAND, command.getError());
+
+		Assert.assertFalse(parse("5"));
+		Assert.assertEquals(CommandError.UNKNOWN_COMMAND, command.getError());
+
+		String[] invalid = { "ten", "1e3", "-", "+", "12p", "2147483648", "-2147483649", "99999999999999999999999" };
+
+		for (String value : invalid)
+		{
+			Assert.assertFalse(value, parse("producecoins " + value));
+			Assert.assertEquals(CommandError.INVALID_VALUE, command.getError());
+			Assert.assertEquals(value,
+					("producecoins " + value).substring(command.getArgumentStart(), command.getArgumentEnd()));
+		}
+
+		// A valid line after an invalid one clears the error
+		Assert.assertTrue(parse("producecoins 5"));
+		Assert.assertNull(command.getError());
+	}
+
+}
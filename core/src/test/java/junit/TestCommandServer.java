@@ -0,0 +1,200 @@
+package junit;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import main.CommandServer;
+import main.Denomination;
+import main.TransactionListener;
+import main.VendingMachine;
+
+/**
+ * Tests the commands served over a socket by the Command Server
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ */
+class TestCommandServer
+{
+
+	/** Initialise the Vending Machine with 10 of all coins */
+	int[] initCoins10 = new int[] { 10, 10, 10, 10, 10, 10, 10, 10, 10 };
+
+	/** The Vending Machine served */
+	VendingMachine vm;
+
+	/** The server to test */
+	CommandServer server;
+
+	/** The thread running the server */
+	Thread serverThread;
+
+	@BeforeEach
+	void start() throws IOException
+	{
+		vm = new VendingMachine(initCoins10);
+		server = new CommandServer(vm, 0);
+		serverThread = new Thread(server, "command-server");
+		serverThread.start();
+	}
+
+	@AfterEach
+	void stop() throws Exception
+	{
+		server.close();
+		serverThread.join(5000);
+		Assert.assertFalse(serverThread.isAlive());
+	}
+
+	/**
+	 * Sends the commands in one write and reads a response line for each
+	 */
+	private String[] send(Socket aSocket, String... aCommands) throws IOException
+	{
+		StringBuilder commands = new StringBuilder();
+		for (String command : aCommands)
+		{
+			commands.append(command).append("\r\n");
+		}
+
+		OutputStream out = aSocket.getOutputStream();
+		out.write(commands.toString().getBytes(StandardCharsets.UTF_8));
+		out.flush();
+
+		BufferedReader in = new BufferedReader(new InputStreamReader(aSocket.getInputStream(), StandardCharsets.UTF_8));
+		String[] responses = new String[aCommands.length];
+		for (int i = 0; i < responses.length; i++)
+		{
+			responses[i] = in.readLine();
+		}
+		return responses;
+	}
+
+	/**
+	 * Verifies that pipelined commands are each answered in order
+	 */
+	@Test
+	void testPipelinedCommands() throws IOException
+	{
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort()))
+		{
+			String[] responses = send(socket, "deposit 2", "DEPOSIT 50p", "producecoins 270", "check");
+
+			Assert.assertEquals("OK 9080", responses[0]);
+			Assert.assertEquals("OK 9130", responses[1]);
+			Assert.assertEquals("OK 2 50p 20p", responses[2]);
+			Assert.assertEquals("OK 1p:10 2p:10 5p:10 10p:10 20p:9 50p:10 1:10 2:10 5:10 total:8860",
+					responses[3]);
+		}
+
+		Assert.assertTrue(vm.getTotalFundsInPence() == 8860);
+	}
+
+	/**
+	 * Verifies that a command failing with an exception closes only its own connection
+	 */
+	@Test
+	void testCommandFails() throws IOException
+	{
+		vm.setTransactionListener(new TransactionListener()
+		{
+			@Override
+			public void coinDeposited(Denomination aCoin, long aTotalFunds)
+			{
+				if (aCoin.getValue() == 500)
+				{
+					throw new IllegalStateException("Cannot record " + aCoin);
+				}
+			}
+		});
+
+		try (Socket failing = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+				Socket other = new Socket(InetAddress.getLoopbackAddress(), server.getPort()))
+		{
+			Assert.assertNull(send(failing, "deposit 5")[0]); // closed without a response
+			Assert.assertEquals("OK 9390", send(other, "deposit 10p")[0]); // the 5 was taken before the listener failed
+		}
+
+		Assert.assertTrue(serverThread.isAlive());
+	}
+
+	/**
+	 * Verifies that invalid commands are answered with an error code
+	 */
+	@Test
+	void testErrors() throws IOException
+	{
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort()))
+		{
+			String[] responses = send(socket, "deposit 3p", "deposit", "producecoins ten", "producecoins -5",
+					"producecoins 100000", "dance", "check all");
+
+			Assert.assertEquals("ERR INVALID_COIN", responses[0]);
+			Assert.assertEquals("ERR MISSING_ARGUMENT", responses[1]);
+			Assert.assertEquals("ERR INVALID_VALUE", responses[2]);
+			Assert.assertEquals("ERR NEGATIVE_VALUE", responses[3]);
+			Assert.assertEquals("ERR INSUFFICIENT_FUNDS", responses[4]);
+			Assert.assertEquals("ERR UNKNOWN_COMMAND", responses[5]);
+			Assert.assertEquals("ERR UNEXPECTED_ARGUMENT", responses[6]);
+		}
+	}
+
+	/**
+	 * Verifies that a last command without a newline is answered when the client stops sending, before the
+	 * connection is closed
+	 */
+	@Test
+	void testEndOfStream() throws IOException
+	{
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort()))
+		{
+			OutputStream out = socket.getOutputStream();
+			out.write("deposit 50p\nproducecoins 70".getBytes(StandardCharsets.UTF_8));
+			out.flush();
+			socket.shutdownOutput();
+
+			BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+			Assert.assertEquals("OK 8930", in.readLine());
+			Assert.assertEquals("OK 50p 20p", in.readLine());
+			Assert.assertNull(in.readLine()); // closed
+		}
+
+		Assert.assertTrue(vm.getTotalFundsInPence() == 8860);
+	}
+
+	/**
+	 * Verifies that thousands of pipelined commands are all answered, and exit closes the connection
+	 */
+	@Test
+	void testManyCommands() throws IOException
+	{
+		String[] commands = new String[5001];
+		for (int i = 0; i < 5000; i++)
+		{
+			commands[i] = i % 2 == 0 ? "deposit 1p" : "producecoins 1";
+		}
+		commands[5000] = "exit";
+
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort()))
+		{
+			String[] responses = send(socket, commands);
+
+			Assert.assertEquals("OK 8881", responses[4998]);
+			Assert.assertEquals("OK 1p", responses[4999]);
+			Assert.assertNull(responses[5000]); // closed
+		}
+
+		Assert.assertTrue(vm.getTotalFundsInPence() == 8880);
+	}
+
+}
@@ -0,0 +1,255 @@
+package junit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import main.ChangeReservation;
+import main.ConcurrentVendingMachine;
+import main.CurrencyProfile;
+import main.GBPCoin;
+
+/**
+ * Tests the Concurrent Vending Machine class and APIs
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ */
+class TestConcurrentVendingMachine
+{
+
+	/** Initialise the Vending Machine with 10 of all coins */
+	int[] initCoins10 = new int[] { 10, 10, 10, 10, 10, 10, 10, 10, 10 };
+
+	/**
+	 * Verifies that a Concurrent Vending Machine cannot be created with negative quantities
+	 */
+	@Test
+	void testNegativeInput()
+	{
+		try
+		{
+			new ConcurrentVendingMachine(new int[] { -1, 0, 0, 0, 0, 0, 0, 0, 0 });
+			Assert.fail();
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("cannot be negative"));
+		}
+	}
+
+	/**
+	 * Verifies that reserved coins are removed and cannot be reserved again
+	 */
+	@Test
+	void testReserveAndCommit()
+	{
+		ConcurrentVendingMachine vm = new ConcurrentVendingMachine(new int[] { 0, 0, 0, 0, 3, 1, 0, 0, 0 });
+
+		ChangeReservation reservation = vm.reserveChange(60);
+
+		Assert.assertNotNull(reservation);
+		Assert.assertTrue(reservation.getCoinCount(GBPCoin.of("20p")) == 3);
+		Assert.assertTrue(vm.getCoinQuantity(GBPCoin.of("20p")) == 0);
+		Assert.assertTrue(vm.getTotalFundsInPence() == 50);
+
+		Assert.assertNull(vm.reserveChange(60));
+
+		Assert.assertTrue(vm.commitChange(reservation));
+		Assert.assertFalse(vm.commitChange(reservation));
+		Assert.assertFalse(vm.releaseChange(reservation));
+		Assert.assertTrue(vm.getTotalFundsInPence() == 50);
+	}
+
+	/**
+	 * Verifies that released coins are returned to the Vending Machine
+	 */
+	@Test
+	void testReserveAndRelease()
+	{
+		ConcurrentVendingMachine vm = new ConcurrentVendingMachine(initCoins10);
+		long startingFunds = vm.getTotalFundsInPence();
+
+		ChangeReservation reservation = vm.reserveChange(388);
+		Assert.assertTrue(vm.getTotalFundsInPence() == startingFunds - 388);
+
+		Assert.assertTrue(vm.releaseChange(reservation));
+		Assert.assertFalse(reservation.isReserved());
+		Assert.assertTrue(vm.getTotalFundsInPence() == startingFunds);
+		Assert.assertTrue(vm.getCoinQuantity(GBPCoin.of("2")) == 10);
+	}
+
+	/**
+	 * Verifies that deposits are accepted and invalid coins rejected
+	 */
+	@Test
+	void testDeposit()
+	{
+		ConcurrentVendingMachine vm = new ConcurrentVendingMachine(new int[9]);
+
+		Assert.assertTrue(vm.depositCoin("50p"));
+		Assert.assertFalse(vm.depositCoin("15p"));
+		Assert.assertTrue(vm.getTotalFundsInPence() == 50);
+	}
+
+	/**
+	 * Verifies that total funds above Long.MAX_VALUE are rejected rather than overflowing
+	 */
+	@Test
+	void testOverflow()
+	{
+		try
+		{
+			new ConcurrentVendingMachine(CurrencyProfile.GBP,
+					new long[] { 0, 0, 0, 0, 0, 0, 0, 0, Long.MAX_VALUE / 500 + 1 });
+			Assert.fail();
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("would exceed"));
+		}
+
+		long fivers = Long.MAX_VALUE / 500;
+		ConcurrentVendingMachine vm = new ConcurrentVendingMachine(CurrencyProfile.GBP,
+				new long[] { 0, 0, 0, 0, 0, 0, 0, 0, fivers });
+		long total = vm.getTotalFundsInPence();
+		Assert.assertTrue(total > Integer.MAX_VALUE);
+
+		try
+		{
+			vm.depositCoin(GBPCoin.of("5"));
+			Assert.fail();
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("would exceed"));
+		}
+
+		Assert.assertFalse(vm.depositCoin("5"));
+		Assert.assertTrue(vm.depositCoin("1p"));
+		Assert.assertTrue(vm.getTotalFundsInPence() == total + 1);
+		Assert.assertTrue(vm.getCoinQuantity(GBPCoin.of("5")) == fivers);
+		Assert.assertTrue(vm.reserveChange(501).getCoinCount(GBPCoin.of("5")) == 1);
+	}
+
+	/**
+	 * Verifies that a Concurrent Vending Machine holds the coins of another currency and refuses coins
+	 * of any other
+	 */
+	@Test
+	void testCurrency()
+	{
+		CurrencyProfile eur = CurrencyProfile.EUR;
+		ConcurrentVendingMachine vm = new ConcurrentVendingMachine(eur, new long[] { 0, 0, 0, 0, 0, 3, 0, 1 });
+		Assert.assertTrue(vm.getCurrency() == eur);
+		Assert.assertTrue(vm.getTotalFundsInPence() == 350);
+
+		Assert.assertTrue(vm.depositCoin("1"));
+		Assert.assertFalse(vm.depositCoin("1"));
+		Assert.assertTrue(vm.getCoinQuantity(eur.of("1")) == 1);
+
+		try
+		{
+			vm.depositCoin(GBPCoin.of("1"));
+			Assert.fail();
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("not accepted"));
+		}
+
+		ChangeReservation reservation = vm.reserveChange(150);
+		Assert.assertTrue(reservation.getCoinCount(eur.of("1")) == 1);
+		Assert.assertTrue(reservation.getCoinCount(eur.of("50c")) == 1);
+		Assert.assertTrue(reservation.getCoinCount(GBPCoin.of("50p")) == 0);
+		Assert.assertEquals("[1, 50c]", reservation.toString());
+		vm.commitChange(reservation);
+		Assert.assertTrue(vm.getTotalFundsInPence() == 300);
+	}
+
+	/**
+	 * Verifies that threads depositing and taking change at the same time never share
+	 * coins and that every coin is accounted for
+	 */
+	@Test
+	void testConcurrentChange() throws Exception
+	{
+		final ConcurrentVendingMachine vm = new ConcurrentVendingMachine(initCoins10);
+		final long startingFunds = vm.getTotalFundsInPence();
+		int threads = 8;
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<int[]>> results = new ArrayList<Future<int[]>>();
+
+		for (int t = 0; t < threads; t++)
+		{
+			final int seed = t;
+			results.add(executor.submit(new Callable<int[]>()
+			{
+				@Override
+				public int[] call()
+				{
+					int deposited = 0;
+					int dispensed = 0;
+
+					for (int i = 0; i < 2000; i++)
+					{
+						if (i % 3 == 0)
+						{
+							vm.depositCoin(GBPCoin.fromIndex((i + seed) % GBPCoin.COUNT));
+							deposited += GBPCoin.fromIndex((i + seed) % GBPCoin.COUNT).getValue();
+						}
+
+						ChangeReservation reservation = vm.reserveChange(1 + (i * 37 + seed) % 400);
+						if (reservation != null)
+						{
+							if (i % 5 == 0)
+							{
+								vm.releaseChange(reservation);
+							}
+
+							else
+							{
+								vm.commitChange(reservation);
+								dispensed += reservation.getTargetValue();
+							}
+						}
+					}
+
+					return new int[] { deposited, dispensed };
+				}
+			}));
+		}
+
+		int deposited = 0;
+		int dispensed = 0;
+		for (Future<int[]> result : results)
+		{
+			deposited += result.get()[0];
+			dispensed += result.get()[1];
+		}
+		executor.shutdown();
+
+		long coinsTotal = 0;
+		for (int i = 0; i < GBPCoin.COUNT; i++)
+		{
+			long quantity = vm.getCoinQuantity(GBPCoin.fromIndex(i));
+			Assert.assertTrue(quantity >= 0);
+			coinsTotal += quantity * GBPCoin.fromIndex(i).getValue();
+		}
+
+		Assert.assertTrue(coinsTotal == startingFunds + deposited - dispensed);
+		Assert.assertTrue(vm.getTotalFundsInPence() == coinsTotal);
+	}
+
+}
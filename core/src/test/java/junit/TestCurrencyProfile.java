@@ -0,0 +1,267 @@
+package junit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import main.BoundedChangeSolver;
+import main.ChangeSolver;
+import main.ChangeStrategy;
+import main.Command;
+import main.CommandParser;
+import main.CurrencyProfile;
+import main.Denomination;
+import main.GBPCoin;
+import main.VendingMachine;
+
+/**
+ * Tests Vending Machines holding the coins of each Currency Profile
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ */
+class TestCurrencyProfile
+{
+
+	/**
+	 * Finds the fewest coins summing to a value by trying every combination
+	 */
+	private int fewestCoins(int[] aValues, int[] aAvailable, int aIndex, int aRemaining)
+	{
+		if (aRemaining == 0)
+		{
+			return 0;
+		}
+
+		if (aIndex < 0)
+		{
+			return Integer.MAX_VALUE;
+		}
+
+		int best = Integer.MAX_VALUE;
+
+		for (int count = 0; count <= aAvailable[aIndex] && count * aValues[aIndex] <= aRemaining; count++)
+		{
+			int rest = fewestCoins(aValues, aAvailable, aIndex - 1, aRemaining - count * aValues[aIndex]);
+
+			if (rest != Integer.MAX_VALUE)
+			{
+				best = Math.min(best, rest + count);
+			}
+		}
+
+		return best;
+	}
+
+	/**
+	 * Verifies that the built in profiles hold their coins and GBP's are the GBPCoins
+	 */
+	@Test
+	void testBuiltInProfiles()
+	{
+		Assert.assertSame(CurrencyProfile.EUR, CurrencyProfile.forCode("eur"));
+		Assert.assertEquals(8, CurrencyProfile.EUR.getDenominationCount());
+		Assert.assertEquals(200, CurrencyProfile.EUR.of("2").getValue());
+		Assert.assertEquals("25c", CurrencyProfile.USD.of(25).getName());
+		Assert.assertNull(CurrencyProfile.USD.find(2));
+
+		Assert.assertSame(GBPCoin.of("2"), CurrencyProfile.GBP.of(200));
+		Assert.assertEquals("1p, 2p, 5p, 10p, 20p, 50p, 1, 2, 5 (9 total)", CurrencyProfile.GBP.describe());
+
+		// Coins of the same value in different currencies are different coins
+		Assert.assertNotEquals(CurrencyProfile.EUR.of(200), GBPCoin.of(200));
+		Assert.assertFalse(CurrencyProfile.EUR.contains(GBPCoin.of(200)));
+
+		try
+		{
+			CurrencyProfile.forCode("JPY");
+			Assert.fail("Expected IllegalArgumentException");
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("Unknown currency"));
+		}
+	}
+
+	/**
+	 * Verifies that a Euro machine deposits, parses and produces euro coins, and does not accept pounds
+	 */
+	@Test
+	void testEuroMachine()
+	{
+		VendingMachine vm = new VendingMachine(CurrencyProfile.EUR, new int[] { 0, 0, 0, 0, 5, 5, 0, 0 });
+		vm.setVerifyFunds(true);
+
+		vm.depositCoin("2");
+		vm.depositCoin("2"); // rejected
+		Assert.assertEquals(550, vm.getTotalFundsInPence());
+		Assert.assertTrue(vm.getInternalModelString().contains("Total funds: 5.5"));
+
+		CommandParser parser = new CommandParser(CurrencyProfile.EUR);
+		Command command = new Command();
+		byte[] line = "DEPOSIT 1".getBytes(StandardCharsets.UTF_8);
+
+		Assert.assertTrue(parser.parse(line, 0, line.length, command));
+		Assert.assertSame(CurrencyProfile.EUR.of("1"), command.getCoin());
+		Assert.assertTrue(parser.parse("deposit 50C", command));
+		Assert.assertFalse(parser.parse("deposit 50p", command));
+		vm.depositCoin(CurrencyProfile.EUR.of("1"));
+
+		ArrayList<Denomination> coins = vm.proceduceCoins(340);
+		Assert.assertEquals("[2, 1, 20c, 20c]", coins.toString());
+		vm.dispenseCoins(coins);
+		Assert.assertEquals(310, vm.getTotalFundsInPence());
+
+		try
+		{
+			vm.depositCoin(GBPCoin.of("1"));
+			Assert.fail("Expected IllegalArgumentException");
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("not accepted"));
+		}
+
+		Assert.assertEquals(310, vm.getTotalFundsInPence());
+	}
+
+	/**
+	 * Verifies that change is the fewest coins for coin systems where taking the largest coin first is not,
+	 * including the US coins for 30c when there are no dimes
+	 */
+	@Test
+	void testNonCanonicalCoins()
+	{
+		CurrencyProfile profile = CurrencyProfile.define("XNC", "", new String[] { "1u", "3u", "4u" },
+				new int[] { 1, 3, 4 });
+
+		VendingMachine vm = new VendingMachine(profile, new int[] { 10, 10, 10 });
+		Assert.assertEquals("[3u, 3u]", vm.proceduceCoins(6).toString()); // not 4u, 1u, 1u
+
+		VendingMachine usd = new VendingMachine(CurrencyProfile.USD, new int[] { 10, 10, 0, 10, 0, 0 });
+		Assert.assertEquals("[25c, 5c]", usd.proceduceCoins(30).toString());
+
+		Random random = new Random(21);
+		int[] values = new int[] { 1, 7, 10, 15, 40 };
+		int[] result = new int[values.length];
+		ChangeSolver solver = new BoundedChangeSolver();
+		ChangeSolver coverage = ChangeStrategy.MAXIMISE_COVERAGE.get();
+
+		for (int trial = 0; trial < 200; trial++)
+		{
+			int[] available = new int[values.length];
+			for (int i = 0; i < available.length; i++)
+			{
+				available[i] = random.nextInt(5);
+			}
+
+			int target = random.nextInt(150);
+			int expected = fewestCoins(values, available, values.length - 1, target);
+
+			Assert.assertEquals(expected != Integer.MAX_VALUE, solver.solve(target, values, available, result));
+			Assert.assertEquals(expected != Integer.MAX_VALUE, coverage.solve(target, values, available, new int[5]));
+
+			if (expected != Integer.MAX_VALUE)
+			{
+				int coins = 0;
+				for (int count : result)
+				{
+					coins += count;
+				}
+				Assert.assertEquals(expected, coins);
+			}
+		}
+	}
+
+	/**
+	 * Verifies that a machine with notes holds billions of each coin, making change and keeping the total
+	 * exact, and refuses a total that would overflow
+	 */
+	@Test
+	void testNotesAndLargeCounts()
+	{
+		CurrencyProfile profile = CurrencyProfile.forCode("GBP", true);
+		Assert.assertSame(CurrencyProfile.GBP_WITH_NOTES, profile);
+		Assert.assertEquals(12, profile.getDenominationCount());
+		Assert.assertTrue(profile.of("20").isNote());
+		Assert.assertFalse(profile.of("5").isNote());
+		Assert.assertSame(GBPCoin.of("5"), profile.of(500)); // the coins are shared
+
+		long[] counts = new long[profile.getDenominationCount()];
+		Arrays.fill(counts, 3000000000L);
+
+		VendingMachine vm = new VendingMachine(profile, counts);
+		vm.setVerifyFunds(true);
+		Assert.assertEquals(3000000000L * 8888, vm.getTotalFundsInPence());
+
+		vm.depositCoin("50");
+		Assert.assertEquals(3000000001L, vm.getCoinQuantity(profile.of("50")));
+
+		ArrayList<Denomination> coins = vm.proceduceCoins(7001);
+		Assert.assertEquals("[50, 20, 1p]", coins.toString());
+		vm.dispenseCoins(coins);
+		Assert.assertEquals(3000000000L * 8888 + 5000 - 7001, vm.getTotalFundsInPence());
+		Assert.assertEquals(2999999999L, vm.getCoinQuantity(profile.of("20")));
+
+		counts[11] = Long.MAX_VALUE / 5000;
+
+		try
+		{
+			new VendingMachine(profile, counts);
+			Assert.fail("Expected IllegalArgumentException");
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("Total funds would exceed"));
+		}
+
+		counts = new long[profile.getDenominationCount()];
+		counts[11] = Long.MAX_VALUE / 5000;
+		vm = new VendingMachine(profile, counts);
+
+		try
+		{
+			vm.depositCoin(profile.of("50"));
+			Assert.fail("Expected IllegalArgumentException");
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("Total funds would exceed"));
+		}
+
+		Assert.assertEquals(Long.MAX_VALUE / 5000, vm.getCoinQuantity(profile.of("50")));
+	}
+
+	/**
+	 * Verifies that a profile cannot be defined with coins that could not be deposited or looked up
+	 */
+	@Test
+	void testInvalidProfiles()
+	{
+		String[][] names = { { "1u", "2u" }, { "1u", "1u" }, { "1u", "2 u" }, { "1u", "2u" }, { "1u" } };
+		int[][] values = { { 2, 1 }, { 1, 2 }, { 1, 2 }, { 0, 2 }, { 1, 2 } };
+
+		for (int i = 0; i < names.length; i++)
+		{
+			try
+			{
+				CurrencyProfile.define("XIV", "", names[i], values[i]);
+				Assert.fail("Expected IllegalArgumentException for profile " + i);
+			}
+
+			catch (IllegalArgumentException e)
+			{
+				// expected
+			}
+		}
+	}
+
+}
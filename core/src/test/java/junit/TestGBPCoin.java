@@ -166,4 +166,58 @@ class TestGBPCoin
 		Assert.assertFalse(testCoin.getName().equals("500p"));
 	}
 
+	/**
+	 * Verifies that the same shared coin is returned by name and by value
+	 */
+	@Test
+	void testOfShared()
+	{
+		Assert.assertSame(GBPCoin.of("20p"), GBPCoin.of("20p"));
+		Assert.assertSame(GBPCoin.of("20p"), GBPCoin.of(20));
+		Assert.assertSame(GBPCoin.of("5"), GBPCoin.fromIndex(8));
+		Assert.assertTrue(GBPCoin.of(50).getIndex() == 5);
+	}
+
+	/**
+	 * Verifies that a GBP coin with an invalid name or value cannot be looked up
+	 */
+	@Test
+	void testOfInvalid()
+	{
+		try
+		{
+			GBPCoin.of("15p");
+			Assert.fail();
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("has not (yet) been minted"));
+		}
+
+		try
+		{
+			GBPCoin.of(501);
+			Assert.fail();
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("Invaid value for GBP coin"));
+		}
+	}
+
+	/**
+	 * Verifies that coins of the same value are equal
+	 */
+	@Test
+	void testEquals()
+	{
+		testCoin = new GBPCoin("2");
+
+		Assert.assertEquals(GBPCoin.of(200), testCoin);
+		Assert.assertEquals(GBPCoin.of(200).hashCode(), testCoin.hashCode());
+		Assert.assertNotEquals(GBPCoin.of(100), testCoin);
+	}
+
 }
@@ -0,0 +1,244 @@
+package junit;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import main.CurrencyProfile;
+import main.Denomination;
+import main.GBPCoin;
+import main.InventoryJournal;
+import main.VendingMachine;
+
+/**
+ * Tests that the Inventory Journal recovers the coins held by a Vending Machine
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ */
+class TestInventoryJournal
+{
+
+	/** The directory to keep the journal in, deleted after each test */
+	@TempDir
+	Path directory;
+
+	/** Initialise the Vending Machine with 10 of all coins */
+	long[] initCoins10 = new long[] { 10, 10, 10, 10, 10, 10, 10, 10, 10 };
+
+	/**
+	 * Creates a Vending Machine from the journal, initialising the coins if there are none yet
+	 */
+	private VendingMachine open(InventoryJournal aJournal) throws IOException
+	{
+		if (!aJournal.isInitialised())
+		{
+			aJournal.initialise(initCoins10);
+		}
+
+		VendingMachine vm = new VendingMachine(aJournal.getCurrency(), aJournal.getCoinQuantities());
+		aJournal.listenTo(vm);
+		return vm;
+	}
+
+	/**
+	 * Verifies that a new journal has no coins until initialised, and the initial coins are kept
+	 */
+	@Test
+	void testInitialise() throws IOException
+	{
+		try (InventoryJournal journal = new InventoryJournal(directory))
+		{
+			Assert.assertFalse(journal.isInitialised());
+			journal.initialise(initCoins10);
+		}
+
+		try (InventoryJournal journal = new InventoryJournal(directory))
+		{
+			Assert.assertTrue(journal.isInitialised());
+			Assert.assertArrayEquals(initCoins10, journal.getCoinQuantities());
+		}
+	}
+
+	/**
+	 * Verifies that deposits and dispenses are recovered after the journal is closed
+	 */
+	@Test
+	void testRecoverEvents() throws IOException
+	{
+		long[] expected;
+
+		try (InventoryJournal journal = new InventoryJournal(directory))
+		{
+			VendingMachine vm = open(journal);
+
+			vm.depositCoin("2");
+			vm.depositCoin("15p");
+			vm.depositCoins(new int[] { 5, 0, 0, 0, 0, 0, 0, 0, 1 });
+			vm.dispenseCoins(vm.proceduceCoins(380));
+
+			expected = new long[GBPCoin.COUNT];
+			for (int i = 0; i < expected.length; i++)
+			{
+				expected[i] = vm.getCoinQuantity(GBPCoin.fromIndex(i));
+			}
+		}
+
+		try (InventoryJournal journal = new InventoryJournal(directory))
+		{
+			VendingMachine vm = open(journal);
+
+			Assert.assertArrayEquals(expected, journal.getCoinQuantities());
+			Assert.assertTrue(vm.getTotalFundsInPence() == 888 * 10 + 200 + 5 + 500 - 380);
+		}
+	}
+
+	/**
+	 * Verifies that the coins are recovered from the snapshots taken as the journal fills,
+	 * and from a journal that was flushed but never closed
+	 */
+	@Test
+	void testRecoverAfterSnapshots() throws IOException
+	{
+		InventoryJournal journal = new InventoryJournal(directory, 16, 4, 10);
+		VendingMachine vm = open(journal);
+
+		for (int i = 0; i < 100; i++)
+		{
+			vm.depositCoin("10p");
+			vm.depositCoin("5p");
+			vm.dispenseCoins(vm.proceduceCoins(5));
+		}
+
+		vm.depositCoin("1p");
+		journal.flush();
+
+		try (InventoryJournal recovered = new InventoryJournal(directory, 16, 4, 10))
+		{
+			long[] expected = Arrays.copyOf(initCoins10, initCoins10.length);
+			expected[0] += 1;
+			expected[3] += 100;
+
+			Assert.assertArrayEquals(expected, recovered.getCoinQuantities());
+		}
+
+		journal.close();
+	}
+
+	/**
+	 * Verifies that the journal refuses machines of other currencies, and ignores the coins and notes of other
+	 * currencies without recording them
+	 */
+	@Test
+	void testOtherCurrencies() throws IOException
+	{
+		try (InventoryJournal journal = new InventoryJournal(directory))
+		{
+			journal.initialise(initCoins10);
+
+			VendingMachine[] machines = { new VendingMachine(CurrencyProfile.EUR, new int[8]),
+					new VendingMachine(CurrencyProfile.GBP_WITH_NOTES, new int[CurrencyProfile.GBP_WITH_NOTES
+							.getDenominationCount()]) };
+
+			for (VendingMachine machine : machines)
+			{
+				try
+				{
+					journal.listenTo(machine);
+					Assert.fail("Expected IllegalArgumentException for " + machine.getCurrency());
+				}
+
+				catch (IllegalArgumentException e)
+				{
+					Assert.assertTrue(e.getMessage().contains("keeps GBP coins"));
+				}
+			}
+
+			// Events are reported after the machine has changed, so are ignored rather than throwing
+			Denomination[] coins = { CurrencyProfile.EUR.of(10), CurrencyProfile.GBP_WITH_NOTES.of(1000) };
+
+			for (Denomination coin : coins)
+			{
+				journal.coinDeposited(coin, 0);
+				journal.coinDispensed(coin, 0);
+			}
+
+			journal.coinsDeposited(new int[8], 0);
+			journal.coinsDispensed(new int[12], 0);
+
+			Assert.assertEquals(6, journal.getIgnoredCount());
+			Assert.assertArrayEquals(initCoins10, journal.getCoinQuantities());
+		}
+	}
+
+	/**
+	 * Verifies that a journal keeps the coins and notes of another currency, with counts beyond an int, and
+	 * cannot be reopened as a different currency
+	 */
+	@Test
+	void testCurrency() throws IOException
+	{
+		CurrencyProfile eur = CurrencyProfile.EUR_WITH_NOTES;
+		long[] coins = new long[eur.getDenominationCount()];
+		coins[0] = 3L * Integer.MAX_VALUE;
+
+		try (InventoryJournal journal = new InventoryJournal(directory, eur))
+		{
+			Assert.assertSame(eur, journal.getCurrency());
+			journal.initialise(coins);
+
+			VendingMachine vm = open(journal);
+			vm.depositCoin("20");
+			vm.depositCoins(new int[] { 0, 0, 0, 0, 0, 0, 0, 0, 2, 0, 0, 0, 0, 0 });
+			Assert.assertTrue(vm.commitChange(vm.quoteChange(2000)));
+		}
+
+		coins[8] = 2; // the 5 notes, the 20 note was dispensed as the change
+
+		try (InventoryJournal journal = new InventoryJournal(directory, eur))
+		{
+			Assert.assertArrayEquals(coins, journal.getCoinQuantities());
+		}
+
+		CurrencyProfile[] others = { CurrencyProfile.GBP, CurrencyProfile.EUR };
+
+		for (CurrencyProfile other : others)
+		{
+			try (InventoryJournal journal = new InventoryJournal(directory, other))
+			{
+				Assert.fail("Expected IOException for " + other.getDenominationCount() + " " + other + " coins");
+			}
+
+			catch (IOException e)
+			{
+				Assert.assertTrue(e.getMessage().contains("is not of " + other + " coins"));
+			}
+		}
+	}
+
+	/**
+	 * Verifies that a closed journal cannot record events
+	 */
+	@Test
+	void testClosed() throws IOException
+	{
+		InventoryJournal journal = new InventoryJournal(directory);
+		journal.close();
+
+		try
+		{
+			journal.coinDeposited(GBPCoin.of("1p"), 1);
+			Assert.fail();
+		}
+
+		catch (IllegalStateException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("closed"));
+		}
+	}
+
+}
@@ -0,0 +1,169 @@
+package junit;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import main.CurrencyProfile;
+import main.GBPCoin;
+import main.InventorySnapshot;
+import main.VendingMachine;
+
+/**
+ * Tests reading and writing binary Inventory Snapshots
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ */
+class TestInventorySnapshot
+{
+
+	/** The size of a snapshot of GBP coins */
+	static final int SIZE = InventorySnapshot.size(CurrencyProfile.GBP);
+
+	/** Initialise the Vending Machine with odd quantities of all coins */
+	int[] initCoinsOdd = new int[] { 1, 3, 5, 7, 9, 11, 13, 15, 17 };
+
+	/**
+	 * Verifies that a snapshot reads back as written, at an offset and without moving the buffer
+	 */
+	@Test
+	void testRoundTrip()
+	{
+		ByteBuffer buffer = ByteBuffer.allocateDirect(SIZE * 2);
+		InventorySnapshot.write(buffer, SIZE, 42, initCoinsOdd);
+
+		long[] result = new long[GBPCoin.COUNT];
+		InventorySnapshot.read(buffer, SIZE, result);
+
+		Assert.assertArrayEquals(Arrays.stream(initCoinsOdd).asLongStream().toArray(), result);
+		Assert.assertSame(CurrencyProfile.GBP, InventorySnapshot.getCurrency(buffer, SIZE));
+		Assert.assertEquals(SIZE, InventorySnapshot.getSize(buffer, SIZE));
+		Assert.assertTrue(InventorySnapshot.getVersion(buffer, SIZE) == 42);
+		Assert.assertTrue(InventorySnapshot.getTotalFunds(buffer, SIZE)
+				== new VendingMachine(initCoinsOdd).getTotalFundsInPence());
+		Assert.assertTrue(InventorySnapshot.isValid(buffer, SIZE));
+		Assert.assertFalse(InventorySnapshot.isValid(buffer, 0));
+		Assert.assertTrue(buffer.position() == 0);
+	}
+
+	/**
+	 * Verifies that a snapshot of a Vending Machine matches its coins, including notes and quantities beyond
+	 * Integer.MAX_VALUE
+	 */
+	@Test
+	void testWriteMachine()
+	{
+		VendingMachine vm = new VendingMachine(initCoinsOdd);
+		vm.depositCoin("2");
+
+		ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+		InventorySnapshot.write(buffer, 0, 1, vm);
+
+		Assert.assertTrue(InventorySnapshot.isValid(buffer, 0));
+		Assert.assertTrue(InventorySnapshot.getCoinQuantity(buffer, 0, GBPCoin.of("2").getIndex()) == 16);
+		Assert.assertTrue(InventorySnapshot.getTotalFunds(buffer, 0) == vm.getTotalFundsInPence());
+
+		// A change machine holding notes and billions of 1p coins
+		CurrencyProfile currency = CurrencyProfile.GBP_WITH_NOTES;
+		long[] withNotes = new long[currency.getDenominationCount()];
+		withNotes[0] = 3L * Integer.MAX_VALUE;
+		withNotes[currency.getDenominationCount() - 1] = 2; // 50 notes
+		VendingMachine changeMachine = new VendingMachine(currency, withNotes);
+
+		ByteBuffer notes = ByteBuffer.allocate(InventorySnapshot.size(currency));
+		InventorySnapshot.write(notes, 0, 1, changeMachine);
+
+		Assert.assertTrue(InventorySnapshot.isValid(notes, 0));
+		Assert.assertSame(currency, InventorySnapshot.getCurrency(notes, 0));
+		Assert.assertTrue(InventorySnapshot.getCoinQuantity(notes, 0, 0) == 3L * Integer.MAX_VALUE);
+		Assert.assertTrue(InventorySnapshot.getTotalFunds(notes, 0) == changeMachine.getTotalFundsInPence());
+
+		long[] result = new long[currency.getDenominationCount()];
+		InventorySnapshot.read(notes, 0, result);
+		Assert.assertArrayEquals(withNotes, result);
+	}
+
+	/**
+	 * Verifies that a snapshot says which currency it holds, and is not read as another
+	 */
+	@Test
+	void testCurrency()
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(InventorySnapshot.size(CurrencyProfile.EUR));
+		InventorySnapshot.write(buffer, 0, 1, CurrencyProfile.EUR, new long[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+
+		Assert.assertTrue(InventorySnapshot.isValid(buffer, 0));
+		Assert.assertTrue(InventorySnapshot.isOf(buffer, 0, CurrencyProfile.EUR));
+		Assert.assertFalse(InventorySnapshot.isOf(buffer, 0, CurrencyProfile.EUR_WITH_NOTES));
+		Assert.assertFalse(InventorySnapshot.isValid(buffer, 0, CurrencyProfile.USD));
+		Assert.assertSame(CurrencyProfile.EUR, InventorySnapshot.getCurrency(buffer, 0));
+
+		try
+		{
+			InventorySnapshot.read(buffer, 0, new long[GBPCoin.COUNT]);
+			Assert.fail();
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("holds 8 coins, not 9"));
+		}
+
+		// A snapshot that does not fit in the buffer is not valid
+		buffer.limit(buffer.limit() - 1);
+		Assert.assertFalse(InventorySnapshot.isValid(buffer, 0));
+	}
+
+	/**
+	 * Verifies the change in each coin between two snapshots, and totalling a run of snapshots
+	 */
+	@Test
+	void testDiffAndTotal()
+	{
+		int[] later = initCoinsOdd.clone();
+		later[0] += 4;
+		later[8] -= 2;
+
+		ByteBuffer buffer = ByteBuffer.allocate(SIZE * 2);
+		InventorySnapshot.write(buffer, 0, 1, initCoinsOdd);
+		InventorySnapshot.write(buffer, SIZE, 2, later);
+
+		long[] diff = new long[GBPCoin.COUNT];
+		Assert.assertTrue(InventorySnapshot.diff(buffer, 0, buffer, SIZE, diff));
+		Assert.assertArrayEquals(new long[] { 4, 0, 0, 0, 0, 0, 0, 0, -2 }, diff);
+		Assert.assertFalse(InventorySnapshot.diff(buffer, 0, buffer, 0, diff));
+
+		long[] totals = new long[GBPCoin.COUNT];
+		for (int offset = 0; offset < buffer.capacity(); offset += SIZE)
+		{
+			InventorySnapshot.addTo(buffer, offset, totals);
+		}
+
+		Assert.assertTrue(totals[0] == 1 + 5);
+		Assert.assertTrue(totals[8] == 17 + 15);
+	}
+
+	/**
+	 * Verifies that reading where there is no snapshot is rejected
+	 */
+	@Test
+	void testNotSnapshot()
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+
+		try
+		{
+			InventorySnapshot.read(buffer, 0, new long[GBPCoin.COUNT]);
+			Assert.fail();
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("Not an inventory snapshot"));
+		}
+	}
+
+}
@@ -0,0 +1,162 @@
+package junit;
+
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import main.CurrencyProfile;
+import main.GBPCoin;
+import main.LowStockPredictor;
+import main.VendingMachine;
+
+/**
+ * Tests the predictions of the Low Stock Predictor from the coins deposited and dispensed
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ */
+class TestLowStockPredictor
+{
+
+	/** The time of the manual clock in nanoseconds */
+	long[] now = new long[1];
+
+	/**
+	 * Deposits and dispenses 10p coins at steady rates, one event per second at most
+	 */
+	private void flow(VendingMachine aMachine, int aSeconds, int aDepositEvery, int aDispenseEvery)
+	{
+		for (int second = 1; second <= aSeconds; second++)
+		{
+			now[0] += 1000000000L;
+
+			if (second % aDepositEvery == 0)
+			{
+				aMachine.depositCoin(GBPCoin.of("10p"));
+			}
+
+			if (second % aDispenseEvery == 0)
+			{
+				aMachine.dispenseCoins(Collections.singletonList(GBPCoin.of("10p")));
+			}
+		}
+	}
+
+	/**
+	 * Verifies that steady flows are measured, and a draining coin is predicted to run out and refilled for
+	 * a horizon while the other coins are not
+	 */
+	@Test
+	void testSteadyDrain()
+	{
+		VendingMachine vm = new VendingMachine(new int[] { 10, 10, 10, 10000, 10, 10, 10, 10, 10 });
+		LowStockPredictor predictor = new LowStockPredictor(vm, 3600, () -> now[0]);
+		vm.setTransactionListener(predictor);
+
+		flow(vm, 7200, 10, 5); // in 0.1/s, out 0.2/s for two hours
+
+		GBPCoin tenPence = GBPCoin.of("10p");
+		Assert.assertEquals(9280, vm.getCoinQuantity(tenPence));
+		Assert.assertEquals(9280, predictor.getQuantity(tenPence));
+		Assert.assertEquals(0.1, predictor.getDepositRate(tenPence), 0.005);
+		Assert.assertEquals(0.2, predictor.getDispenseRate(tenPence), 0.01);
+		Assert.assertEquals(92800, predictor.getSecondsToExhaustion(tenPence), 92800 * 0.05);
+		Assert.assertTrue(Double.isInfinite(predictor.getSecondsToExhaustion(GBPCoin.of("20p"))));
+
+		long[] refill = predictor.getRefill(100000);
+		Assert.assertEquals(720, refill[tenPence.getIndex()], 720 * 0.1);
+		Assert.assertEquals(0, refill[GBPCoin.of("20p").getIndex()]);
+		Assert.assertArrayEquals(new long[GBPCoin.COUNT], predictor.getRefill(10000)); // enough for now
+		Assert.assertTrue(predictor.toString().contains("10p | Quantity: 9280"));
+	}
+
+	/**
+	 * Verifies that recent flow outweighs older flow, so a coin that stops draining is no longer refilled
+	 */
+	@Test
+	void testRecentFlowCounts()
+	{
+		VendingMachine vm = new VendingMachine(new int[] { 10, 10, 10, 1000, 10, 10, 10, 10, 10 });
+		LowStockPredictor predictor = new LowStockPredictor(vm, 60, () -> now[0]);
+		vm.setTransactionListener(predictor);
+
+		GBPCoin tenPence = GBPCoin.of("10p");
+
+		flow(vm, 600, Integer.MAX_VALUE, 2); // out only, for ten half-lives
+		Assert.assertEquals(700, vm.getCoinQuantity(tenPence));
+		Assert.assertEquals(1400, predictor.getSecondsToExhaustion(tenPence), 1400 * 0.05);
+
+		flow(vm, 600, 1, 2); // then in faster than out
+		Assert.assertTrue(Double.isInfinite(predictor.getSecondsToExhaustion(tenPence)));
+		Assert.assertEquals(0, predictor.getRefill(86400)[tenPence.getIndex()]);
+
+		// Without the machine's coins nothing is left, whatever the flow
+		vm = new VendingMachine(new int[] { 0, 0, 0, 0, 0, 0, 0, 0, 0 });
+		Assert.assertEquals(0, new LowStockPredictor(vm, 60).getSecondsToExhaustion(tenPence), 0);
+	}
+
+	/**
+	 * Verifies that the half-life must be positive and the coins must be the machine's
+	 */
+	@Test
+	void testInvalid()
+	{
+		VendingMachine vm = new VendingMachine(new int[] { 10, 10, 10, 10, 10, 10, 10, 10, 10 });
+
+		try
+		{
+			new LowStockPredictor(vm, 0);
+			Assert.fail("Expected IllegalArgumentException");
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("Half-life"));
+		}
+
+		try
+		{
+			new LowStockPredictor(vm, 60).getDispenseRate(CurrencyProfile.EUR.of(10));
+			Assert.fail("Expected IllegalArgumentException");
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("not accepted"));
+		}
+
+		for (double horizon : new double[] { -1, Double.NaN })
+		{
+			try
+			{
+				new LowStockPredictor(vm, 60).getRefill(horizon);
+				Assert.fail("Expected IllegalArgumentException");
+			}
+
+			catch (IllegalArgumentException e)
+			{
+				Assert.assertTrue(e.getMessage().contains("Horizon"));
+			}
+		}
+	}
+
+	/**
+	 * Verifies that events for coins of another currency are ignored and counted rather than thrown
+	 */
+	@Test
+	void testForeignCoins()
+	{
+		VendingMachine vm = new VendingMachine(new int[] { 10, 10, 10, 10, 10, 10, 10, 10, 10 });
+		LowStockPredictor predictor = new LowStockPredictor(vm, 60, () -> now[0]);
+
+		predictor.coinDeposited(CurrencyProfile.GBP_WITH_NOTES.of("50"), 0);
+		predictor.coinDispensed(CurrencyProfile.EUR.of(10), 0);
+		predictor.coinsDeposited(new int[CurrencyProfile.GBP_WITH_NOTES.getDenominationCount()], 0);
+		predictor.coinsDispensed(new int[CurrencyProfile.EUR.getDenominationCount()], 0);
+
+		Assert.assertEquals(4, predictor.getIgnoredCount());
+		Assert.assertEquals(10, predictor.getQuantity(GBPCoin.of("10p")));
+	}
+
+}
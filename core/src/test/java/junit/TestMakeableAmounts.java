@@ -0,0 +1,141 @@
+package junit;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import main.BoundedChangeSolver;
+import main.MakeableAmounts;
+
+/**
+ * Tests the bitset of amounts kept by Makeable Amounts
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ */
+class TestMakeableAmounts
+{
+
+	/** The GBP coin values: 1p, 2p, 5p, 10p, 20p, 50p, 1, 2, 5 */
+	int[] coinValues = new int[] { 1, 2, 5, 10, 20, 50, 100, 200, 500 };
+
+	/** The quantity of each coin chosen by the solver */
+	int[] result = new int[9];
+
+	/**
+	 * Checks every amount up to the limit against the change solver
+	 */
+	private void assertMatchesSolver(MakeableAmounts aAmounts, int[] aQuantities)
+	{
+		BoundedChangeSolver solver = new BoundedChangeSolver();
+		BitSet bits = aAmounts.toBitSet();
+
+		for (int amount = 0; amount <= aAmounts.getLimit(); amount++)
+		{
+			boolean possible = solver.solve(amount, coinValues, aQuantities, result);
+
+			Assert.assertEquals("Amount " + amount, possible, aAmounts.isMakeable(amount));
+			Assert.assertEquals("Amount " + amount, possible, bits.get(amount));
+		}
+
+		Assert.assertTrue(bits.length() <= aAmounts.getLimit() + 1);
+	}
+
+	/**
+	 * Verifies the amounts that can be made from a few coins
+	 */
+	@Test
+	void testFewCoins()
+	{
+		MakeableAmounts amounts = new MakeableAmounts(coinValues, 100);
+		amounts.rebuild(new int[] { 0, 0, 1, 0, 2, 0, 0, 0, 0 }); // 5p, 2 x 20p
+
+		Assert.assertTrue(amounts.isMakeable(0));
+		Assert.assertTrue(amounts.isMakeable(5));
+		Assert.assertTrue(amounts.isMakeable(25));
+		Assert.assertTrue(amounts.isMakeable(45));
+		Assert.assertFalse(amounts.isMakeable(1));
+		Assert.assertFalse(amounts.isMakeable(30));
+		Assert.assertFalse(amounts.isMakeable(60));
+		Assert.assertEquals(6, amounts.toBitSet().cardinality()); // 0, 5, 20, 25, 40, 45
+
+		try
+		{
+			amounts.isMakeable(101);
+			Assert.fail();
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("not tracked"));
+		}
+	}
+
+	/**
+	 * Verifies that coins added and removed one batch at a time give the same amounts as the change solver,
+	 * across limits that do and do not end on a word boundary
+	 */
+	@Test
+	void testIncrementalMatchesSolver()
+	{
+		Random random = new Random(17);
+
+		for (int limit : new int[] { 63, 64, 500, 1237 })
+		{
+			int[] quantities = new int[coinValues.length];
+			MakeableAmounts amounts = new MakeableAmounts(coinValues, limit);
+
+			for (int step = 0; step < 40; step++)
+			{
+				int index = random.nextInt(coinValues.length);
+
+				if (random.nextBoolean() && quantities[index] > 0)
+				{
+					int count = 1 + random.nextInt(quantities[index]);
+					quantities[index] -= count;
+					amounts.coinsRemoved(index, count);
+				}
+
+				else
+				{
+					int count = 1 + random.nextInt(5);
+					quantities[index] += count;
+					amounts.coinsAdded(index, count);
+				}
+
+				assertMatchesSolver(amounts, quantities);
+			}
+		}
+	}
+
+	/**
+	 * Verifies that a well stocked float, where coins beyond the limit are ignored, matches the change solver
+	 */
+	@Test
+	void testLargeFloat()
+	{
+		int[] quantities = new int[] { 3, 0, 1000, 7, 0, 1000000, 2, 0, 40 };
+		MakeableAmounts amounts = new MakeableAmounts(coinValues, 2000);
+		amounts.rebuild(quantities);
+		assertMatchesSolver(amounts, quantities);
+
+		// Dispensing one of many 50p coins does not change what can be made
+		quantities[5]--;
+		amounts.coinsRemoved(5, 1);
+		assertMatchesSolver(amounts, quantities);
+
+		try
+		{
+			new MakeableAmounts(coinValues, -1);
+			Assert.fail();
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("Invalid limit"));
+		}
+	}
+
+}
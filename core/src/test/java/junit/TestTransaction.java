@@ -0,0 +1,233 @@
+package junit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import main.ConcurrentVendingMachine;
+import main.GBPCoin;
+import main.Transaction;
+import main.TransactionListener;
+
+/**
+ * Tests customer transactions against a Concurrent Vending Machine
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ */
+class TestTransaction
+{
+
+	/** Initialise the Vending Machine with 10 of all coins */
+	int[] initCoins10 = new int[] { 10, 10, 10, 10, 10, 10, 10, 10, 10 };
+
+	/**
+	 * Verifies that deposited coins are only added to the machine when committed
+	 */
+	@Test
+	void testCommit()
+	{
+		ConcurrentVendingMachine vm = new ConcurrentVendingMachine(initCoins10);
+		long startingFunds = vm.getTotalFundsInPence();
+
+		Transaction transaction = vm.beginTransaction();
+		Assert.assertTrue(transaction.deposit("1"));
+		Assert.assertFalse(transaction.deposit("15p"));
+		Assert.assertTrue(transaction.getDepositedValue() == 100);
+		Assert.assertTrue(vm.getTotalFundsInPence() == startingFunds);
+
+		Assert.assertTrue(transaction.quoteChange(65)); // 35p change: 20p, 10p, 5p
+		Assert.assertTrue(transaction.getChangeValue() == 35);
+		Assert.assertTrue(transaction.getChangeCount(GBPCoin.of("20p")) == 1);
+		Assert.assertTrue(vm.getCoinQuantity(GBPCoin.of("20p")) == 9);
+
+		transaction.commit();
+
+		Assert.assertTrue(vm.getTotalFundsInPence() == startingFunds + 65);
+		Assert.assertTrue(vm.getCoinQuantity(GBPCoin.of("1")) == 11);
+	}
+
+	/**
+	 * Verifies that a coin the transaction does not accept is reported to the machine's listener as rejected
+	 */
+	@Test
+	void testRejectedReported()
+	{
+		ConcurrentVendingMachine vm = new ConcurrentVendingMachine(initCoins10);
+		List<String> rejected = new ArrayList<>();
+		vm.setTransactionListener(new TransactionListener()
+		{
+			@Override
+			public void coinRejected(String aCoin, String aReason)
+			{
+				rejected.add(aCoin);
+			}
+		});
+
+		Transaction transaction = vm.beginTransaction();
+		Assert.assertFalse(transaction.deposit("15p"));
+		Assert.assertTrue(transaction.deposit("50p"));
+		Assert.assertFalse(transaction.deposit("1"));
+
+		Assert.assertEquals(Arrays.asList("15p", "1"), rejected);
+		Assert.assertTrue(transaction.getDepositedValue() == 50);
+		transaction.abort();
+	}
+
+	/**
+	 * Verifies that aborting refunds the deposit and returns the change quoted
+	 */
+	@Test
+	void testAbort()
+	{
+		ConcurrentVendingMachine vm = new ConcurrentVendingMachine(initCoins10);
+		long startingFunds = vm.getTotalFundsInPence();
+
+		Transaction transaction = vm.beginTransaction();
+		transaction.deposit(GBPCoin.of("2"));
+		Assert.assertTrue(transaction.quoteChange(120));
+		Assert.assertTrue(vm.getTotalFundsInPence() == startingFunds - 80);
+
+		Assert.assertTrue(transaction.abort() == 200);
+		Assert.assertTrue(vm.getTotalFundsInPence() == startingFunds);
+	}
+
+	/**
+	 * Verifies that a price larger than the deposit cannot be quoted or committed
+	 */
+	@Test
+	void testInsufficientDeposit()
+	{
+		ConcurrentVendingMachine vm = new ConcurrentVendingMachine(initCoins10);
+
+		Transaction transaction = vm.beginTransaction();
+		transaction.deposit(GBPCoin.of("50p"));
+
+		Assert.assertFalse(transaction.quoteChange(60));
+
+		try
+		{
+			transaction.commit();
+			Assert.fail();
+		}
+
+		catch (IllegalStateException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("must be quoted"));
+		}
+
+		transaction.deposit(GBPCoin.of("10p"));
+		Assert.assertTrue(transaction.quoteChange(60));
+		transaction.commit();
+	}
+
+	/**
+	 * Verifies that a negative price keeps the change already quoted, and a failed quote reports no coins
+	 */
+	@Test
+	void testFailedQuote()
+	{
+		ConcurrentVendingMachine vm = new ConcurrentVendingMachine(new int[] { 0, 0, 0, 0, 3, 0, 0, 0, 0 });
+
+		Transaction transaction = vm.beginTransaction();
+		transaction.deposit(GBPCoin.of("1"));
+		Assert.assertTrue(transaction.quoteChange(40)); // 60p change: three 20p
+
+		try
+		{
+			transaction.quoteChange(-1);
+			Assert.fail();
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("cannot be negative"));
+		}
+
+		Assert.assertTrue(transaction.getChangeValue() == 60);
+		Assert.assertTrue(transaction.getChangeCount(GBPCoin.of("20p")) == 3);
+		Assert.assertTrue(vm.getCoinQuantity(GBPCoin.of("20p")) == 0);
+
+		Assert.assertFalse(transaction.quoteChange(30)); // 70p cannot be made from 20p coins
+		Assert.assertTrue(transaction.getChangeValue() == 0);
+		Assert.assertTrue(transaction.getChangeCount(GBPCoin.of("20p")) == 0);
+		Assert.assertTrue(vm.getCoinQuantity(GBPCoin.of("20p")) == 3);
+		transaction.abort();
+	}
+
+	/**
+	 * Verifies that depositing after a quote returns the quoted change to the machine
+	 */
+	@Test
+	void testDepositAfterQuote()
+	{
+		ConcurrentVendingMachine vm = new ConcurrentVendingMachine(initCoins10);
+		long startingFunds = vm.getTotalFundsInPence();
+
+		Transaction transaction = vm.beginTransaction();
+		transaction.deposit(GBPCoin.of("1"));
+		Assert.assertTrue(transaction.quoteChange(50));
+		transaction.deposit(GBPCoin.of("1"));
+
+		Assert.assertTrue(vm.getTotalFundsInPence() == startingFunds);
+		Assert.assertTrue(transaction.quoteChange(50));
+		Assert.assertTrue(transaction.getChangeValue() == 150);
+		transaction.abort();
+	}
+
+	/**
+	 * Verifies that finished transactions are reused and cannot be used again
+	 */
+	@Test
+	void testReused()
+	{
+		ConcurrentVendingMachine vm = new ConcurrentVendingMachine(initCoins10);
+
+		Transaction first = vm.beginTransaction();
+		first.deposit(GBPCoin.of("5p"));
+		first.abort();
+
+		try
+		{
+			first.deposit(GBPCoin.of("5p"));
+			Assert.fail();
+		}
+
+		catch (IllegalStateException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("already been committed or aborted"));
+		}
+
+		Transaction second = vm.beginTransaction();
+		Assert.assertSame(first, second);
+		Assert.assertTrue(second.getDepositedValue() == 0);
+		second.abort();
+	}
+
+	/**
+	 * Verifies that several transactions can be open against the same machine at once
+	 */
+	@Test
+	void testConcurrentTransactions()
+	{
+		ConcurrentVendingMachine vm = new ConcurrentVendingMachine(new int[] { 0, 0, 0, 0, 1, 1, 0, 0, 0 });
+
+		Transaction first = vm.beginTransaction();
+		Transaction second = vm.beginTransaction();
+		first.deposit(GBPCoin.of("1"));
+		second.deposit(GBPCoin.of("1"));
+
+		Assert.assertTrue(first.quoteChange(50)); // takes the only 50p
+		Assert.assertFalse(second.quoteChange(50));
+		Assert.assertTrue(second.quoteChange(80)); // 20p is still available
+
+		first.commit();
+		second.commit();
+
+		Assert.assertTrue(vm.getTotalFundsInPence() == 200);
+	}
+
+}
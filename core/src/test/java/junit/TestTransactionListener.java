@@ -0,0 +1,224 @@
+package junit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import main.AsyncTransactionLog;
+import main.ChangeFailure;
+import main.Denomination;
+import main.GBPCoin;
+import main.TransactionListener;
+import main.VendingMachine;
+
+/**
+ * Tests the events reported by the Vending Machine and the asynchronous transaction log
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ */
+class TestTransactionListener
+{
+
+	/** Records each event as a short line */
+	static class RecordingListener implements TransactionListener
+	{
+		ArrayList<String> mEvents = new ArrayList<String>();
+
+		@Override
+		public void coinDeposited(Denomination aCoin, long aTotalFunds)
+		{
+			mEvents.add("deposited " + aCoin + " " + aTotalFunds);
+		}
+
+		@Override
+		public void coinsDeposited(int[] aCoinCounts, long aTotalFunds)
+		{
+			mEvents.add("deposited " + Arrays.toString(aCoinCounts) + " " + aTotalFunds);
+		}
+
+		@Override
+		public void coinRejected(String aCoin, String aReason)
+		{
+			mEvents.add("rejected " + aCoin);
+		}
+
+		@Override
+		public void changeProduced(int aTargetValue, int[] aCoinsChosen)
+		{
+			mEvents.add("produced " + aTargetValue + " " + aCoinsChosen[4]);
+		}
+
+		@Override
+		public void changeFailed(int aTargetValue, ChangeFailure aReason)
+		{
+			mEvents.add("failed " + aTargetValue + " " + aReason);
+		}
+
+		@Override
+		public void coinDispensed(Denomination aCoin, long aTotalFunds)
+		{
+			mEvents.add("dispensed " + aCoin + " " + aTotalFunds);
+		}
+
+		@Override
+		public void coinsDispensed(int[] aCoinCounts, long aTotalFunds)
+		{
+			mEvents.add("dispensed " + Arrays.toString(aCoinCounts) + " " + aTotalFunds);
+		}
+	}
+
+	/** Initialise the Vending Machine with no coins */
+	int[] initCoinsZero = new int[] { 0, 0, 0, 0, 0, 0, 0, 0, 0 };
+
+	/**
+	 * Verifies that the Vending Machine reports each event to the listener
+	 */
+	@Test
+	void testEventsReported()
+	{
+		RecordingListener listener = new RecordingListener();
+		VendingMachine vm = new VendingMachine(initCoinsZero);
+		vm.setTransactionListener(listener);
+
+		vm.depositCoin("20p");
+		vm.depositCoin("15p");
+		vm.proceduceCoins(-1);
+		vm.proceduceCoins(50);
+		vm.proceduceCoins(10);
+		vm.dispenseCoins(vm.proceduceCoins(20));
+
+		Assert.assertEquals("deposited 20p 20", listener.mEvents.get(0));
+		Assert.assertEquals("rejected 15p", listener.mEvents.get(1));
+		Assert.assertEquals("failed -1 NEGATIVE_VALUE", listener.mEvents.get(2));
+		Assert.assertEquals("failed 50 INSUFFICIENT_FUNDS", listener.mEvents.get(3));
+		Assert.assertEquals("failed 10 NOT_POSSIBLE", listener.mEvents.get(4));
+		Assert.assertEquals("produced 20 1", listener.mEvents.get(5));
+		Assert.assertEquals("dispensed 20p 0", listener.mEvents.get(6));
+		Assert.assertTrue(listener.mEvents.size() == 7);
+	}
+
+	/**
+	 * Verifies that the asynchronous log passes on every event in order once closed
+	 */
+	@Test
+	void testAsyncLogInOrder()
+	{
+		RecordingListener listener = new RecordingListener();
+		AsyncTransactionLog log = new AsyncTransactionLog(listener, 4096, 16, 10);
+
+		VendingMachine vm = new VendingMachine(initCoinsZero);
+		vm.setTransactionListener(log);
+
+		for (int i = 0; i < 1000; i++)
+		{
+			vm.depositCoin("1p");
+		}
+
+		log.close();
+
+		Assert.assertTrue(log.getDroppedCount() == 0);
+		Assert.assertTrue(listener.mEvents.size() == 1000);
+
+		for (int i = 0; i < 1000; i++)
+		{
+			Assert.assertEquals("deposited 1p " + (i + 1), listener.mEvents.get(i));
+		}
+	}
+
+	/**
+	 * Verifies that a batch of coins is reported as one event, also through the asynchronous log
+	 */
+	@Test
+	void testBatchDepositReported()
+	{
+		RecordingListener listener = new RecordingListener();
+		AsyncTransactionLog log = new AsyncTransactionLog(listener);
+
+		VendingMachine vm = new VendingMachine(initCoinsZero);
+		vm.setTransactionListener(log);
+
+		int[] coins = new int[] { 100, 0, 0, 0, 3, 0, 0, 0, 0 };
+		vm.depositCoins(coins);
+		coins[0] = 0; // The log keeps its own copy
+
+		log.close();
+
+		Assert.assertTrue(listener.mEvents.size() == 1);
+		Assert.assertEquals("deposited [100, 0, 0, 0, 3, 0, 0, 0, 0] 160", listener.mEvents.get(0));
+	}
+
+	/**
+	 * Verifies that committed change is reported as one batch of coins dispensed, also through the
+	 * asynchronous log and to each listener combined by TransactionListener.of
+	 */
+	@Test
+	void testBatchDispenseReported()
+	{
+		RecordingListener listener = new RecordingListener();
+		RecordingListener other = new RecordingListener();
+		AsyncTransactionLog log = new AsyncTransactionLog(listener);
+
+		VendingMachine vm = new VendingMachine(new int[] { 100, 0, 0, 0, 3, 0, 0, 0, 0 });
+		vm.setTransactionListener(TransactionListener.of(log, other));
+
+		Assert.assertTrue(vm.commitChange(vm.quoteChange(45)));
+		log.close();
+
+		Assert.assertTrue(listener.mEvents.size() == 2);
+		Assert.assertEquals("produced 45 2", listener.mEvents.get(0));
+		Assert.assertEquals("dispensed [5, 0, 0, 0, 2, 0, 0, 0, 0] 115", listener.mEvents.get(1));
+		Assert.assertEquals(listener.mEvents, other.mEvents);
+	}
+
+	/**
+	 * Verifies that the asynchronous log keeps writing events after the listener throws on one
+	 */
+	@Test
+	void testAsyncLogListenerFails()
+	{
+		RecordingListener listener = new RecordingListener()
+		{
+			@Override
+			public void coinRejected(String aCoin, String aReason)
+			{
+				throw new IllegalStateException("Cannot write " + aCoin);
+			}
+		};
+		AsyncTransactionLog log = new AsyncTransactionLog(listener, 256, 4, 10);
+
+		VendingMachine vm = new VendingMachine(initCoinsZero);
+		vm.setTransactionListener(log);
+
+		for (int i = 0; i < 100; i++)
+		{
+			vm.depositCoin(i % 2 == 0 ? "1p" : "3p");
+		}
+
+		log.close();
+
+		Assert.assertEquals(0, log.getDroppedCount());
+		Assert.assertEquals(50, log.getFailedCount());
+		Assert.assertEquals(50, listener.mEvents.size());
+		Assert.assertEquals("deposited 1p 50", listener.mEvents.get(49));
+	}
+
+	/**
+	 * Verifies that events recorded after the log is closed are dropped
+	 */
+	@Test
+	void testAsyncLogClosed()
+	{
+		RecordingListener listener = new RecordingListener();
+		AsyncTransactionLog log = new AsyncTransactionLog(listener);
+
+		log.close();
+		log.coinDeposited(GBPCoin.of("1p"), 1);
+
+		Assert.assertTrue(log.getDroppedCount() == 1);
+		Assert.assertTrue(listener.mEvents.isEmpty());
+	}
+
+}
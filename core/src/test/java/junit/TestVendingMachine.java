@@ -0,0 +1,838 @@
+package junit;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import main.BoundedChangeSolver;
+import main.ChangeFailure;
+import main.ChangeQuote;
+import main.ChangeStrategy;
+import main.CurrencyProfile;
+import main.Denomination;
+import main.GBPCoin;
+import main.VendingMachine;
+
+/**
+ * Tests the Vending Machine class and APIs
+ * 
+ * @author Peter Tomboline
+ * @date 07/06/2020
+ */
+class TestVendingMachine
+{
+
+	/** The Vending Machine to test*/
+	VendingMachine vm;
+
+	/** Used to generate a random number */
+	Random randomGen = new Random();
+
+	/** The range of the number randomly generated (0 .. n-1) */
+	int randRange = 25;
+
+	/** Random numbers generated from the defined range */
+	int random1 = randomGen.nextInt(randRange);
+	int random2 = randomGen.nextInt(randRange);
+	int random3 = randomGen.nextInt(randRange);
+	int random4 = randomGen.nextInt(randRange);
+	int random5 = randomGen.nextInt(randRange);
+	int random6 = randomGen.nextInt(randRange);
+	int random7 = randomGen.nextInt(randRange);
+	int random8 = randomGen.nextInt(randRange);
+	int random9 = randomGen.nextInt(randRange);
+
+	/** Initialise the Vending Machine with 10 of all coins */
+	int[] initCoins10 = new int[] { 10, 10, 10, 10, 10, 10, 10, 10, 10 };
+
+	/** Initialise the Vending Machine with odd quantities of all coins */
+	int[] initCoinsOdd = new int[] { 1, 3, 5, 7, 9, 11, 13, 15, 17 };
+
+	/** Initialise the Vending Machine with no coins */
+	int[] initCoinsZero = new int[] { 0, 0, 0, 0, 0, 0, 0, 0, 0 };
+
+	/** Initialise the Vending Machine with negative quantity of coins*/
+	int[] initCoinsNegative = new int[] { -1, -2, -3, -4, -5, -6, -7, -8, 0 };
+
+	/** Initialise the Vending Machine with an empty number coins*/
+	int[] initCoinsEmpty = new int[] {};
+
+	/** Initialise the Vending Machine with an only half number of coins*/
+	int[] initCoinsHalf = new int[] { 1, 2, 3, 4, 5 };
+
+	/** Initialise the Vending Machine with randomly generated quantities of all coins */
+	int[] initCoinsRandom = new int[] { random1, random2, random3, random4, random5, random6, random7, random8,
+			random9 };
+
+	/**
+	 * Verifies that a Vending Machine cannot be created with empty
+	 * quantities of coins
+	 */
+	@Test
+	void testEmptyInput()
+	{
+		try
+		{
+			vm = new VendingMachine(initCoinsEmpty);
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("Must specify quantity of each type of GBP coin"));
+		}
+	}
+
+	/**
+	 * Verifies that a Vending Machine cannot be created with empty
+	 * quantities of coins
+	 */
+	@Test
+	void testNegativeInput()
+	{
+		try
+		{
+			vm = new VendingMachine(initCoinsNegative);
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("cannot be negative"));
+		}
+	}
+
+	/**
+	 * Verifies that a Vending Machine can only be created when all quantities
+	 * for all valid coins are specified
+	 */
+	@Test
+	void testHalfInput()
+	{
+		try
+		{
+			vm = new VendingMachine(initCoinsHalf);
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("Must specify quantity of each type of GBP coin"));
+		}
+	}
+
+	/**
+	 * Verifies that valid input initialises a Vending Machine
+	 */
+	@Test
+	void testValidInput()
+	{
+		vm = new VendingMachine(initCoins10);
+		Assert.assertFalse(vm == null);
+	}
+
+	/**
+	 * Verifies that a Vending Machine can be created with zero coins
+	 */
+	@Test
+	void testValidInputZero()
+	{
+		vm = new VendingMachine(initCoinsZero);
+		Assert.assertFalse(vm == null);
+	}
+
+	/**
+	 * Verifies that valid input initialises a Vending Machine with correct quantity
+	 */
+	@Test
+	void testValidInputQuantity()
+	{
+		vm = new VendingMachine(initCoins10); // 10 of each coin
+
+		Collection<Long> values = vm.getCoinQuantityMap().values();
+
+		for (Long val : values) // check quantities of all coins is 10
+		{
+			if (val != 10)
+			{
+				Assert.fail();
+			}
+		}
+	}
+
+	/**
+	 * Verifies that valid input initialises a Vending Machine with correct (zero) quantity
+	 */
+	@Test
+	void testValidInputQuantityZero()
+	{
+		vm = new VendingMachine(initCoinsZero); // 0 of each coin
+
+		Assert.assertTrue(vm.getTotalFundsInPence() == 0);
+	}
+
+	/**
+	 * Verifies ability to deposit a valid GBP coin
+	 */
+	@Test
+	void testDepositValid()
+	{
+		vm = new VendingMachine(initCoinsZero); // 0 of each coin
+		vm.depositCoin("1p");
+
+		Map<Denomination, Long> vmModel = vm.getCoinQuantityMap();
+		GBPCoin onePence = new GBPCoin("1p");
+
+		Assert.assertTrue(vmModel.get(onePence) == 1);
+	}
+
+	/**
+	 * Verifies ability to deposit a valid GBP coin
+	 */
+	@Test
+	void testDepositValidRandom()
+	{
+		vm = new VendingMachine(initCoinsRandom); // 0 of each coin
+		vm.depositCoin("1p");
+
+		Map<Denomination, Long> vmModel = vm.getCoinQuantityMap();
+		GBPCoin onePence = new GBPCoin("1p");
+
+		Assert.assertTrue(vmModel.get(onePence) == (random1 + 1));
+	}
+
+	/**
+	 * Verifies that it is not possible to deposit an invalid GBP coin
+	 */
+	@Test
+	void testDepositInvalid()
+	{
+		vm = new VendingMachine(initCoinsZero); // 0 of each coin
+
+		try
+		{
+			vm.depositCoin("167p");
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("Coin rejected"));
+		}
+	}
+
+	/**
+	 * Verifies that it is not possible to deposit an empty
+	 */
+	@Test
+	void testDepositInvalidEmpty()
+	{
+		vm = new VendingMachine(initCoinsZero); // 0 of each coin
+
+		try
+		{
+			vm.depositCoin("");
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("Coin rejected"));
+		}
+	}
+
+	/**
+	 * Verifies ability to deposit a valid GBP coin and model is updated
+	 */
+	@Test
+	void testDepositValidUpdatesFunds()
+	{
+		vm = new VendingMachine(initCoinsZero); // 0 of each coin
+		vm.depositCoin("1p");
+
+		Assert.assertTrue(vm.getTotalFundsInPence() == 1);
+	}
+
+	/**
+	 * Verifies ability to deposit consecutive valid GBP coin
+	 */
+	@Test
+	void testDepositValidConsecutive()
+	{
+		vm = new VendingMachine(initCoinsZero); // 0 of each coin
+		vm.depositCoin("1p");
+		vm.depositCoin("1p");
+		vm.depositCoin("2p");
+		vm.depositCoin("5p");
+		vm.depositCoin("10p");
+		vm.depositCoin("2");
+		vm.depositCoin("1");
+		vm.depositCoin("1");
+		vm.depositCoin("1");
+		vm.depositCoin("2");
+
+		Map<Denomination, Long> vmModel = vm.getCoinQuantityMap();
+		GBPCoin onePence = new GBPCoin("1p");
+		GBPCoin onePound = new GBPCoin("1");
+		GBPCoin tenPence = new GBPCoin("10p");
+
+		Assert.assertTrue(vmModel.get(onePence) == 2);
+		Assert.assertTrue(vmModel.get(onePound) == 3);
+		Assert.assertTrue(vmModel.get(tenPence) == 1);
+		Assert.assertTrue(vm.getTotalFundsInPence() == 719);
+
+	}
+
+	/**
+	 * Verifies ability to produce coins for valid input
+	 */
+	@Test
+	void testProduceCoinsValid()
+	{
+		vm = new VendingMachine(initCoins10); // 10 of each coin
+
+		ArrayList<Denomination> coinsToDispense = vm.proceduceCoins(1000); // 10
+
+		int coinsTotal = 0;
+		for (Denomination coin : coinsToDispense)
+		{
+			coinsTotal += coin.getValue();
+		}
+
+		Assert.assertTrue(coinsTotal == 1000);
+	}
+	
+	/**
+	 * Verifies ability to produce coins for an input of 0
+	 */
+	@Test
+	void testProduceCoinsValidZero()
+	{
+		vm = new VendingMachine(initCoins10); // 10 of each coin
+
+		ArrayList<Denomination> coinsToDispense = vm.proceduceCoins(0); // 0.00
+
+		int coinsTotal = 0;
+		for (Denomination coin : coinsToDispense)
+		{
+			coinsTotal += coin.getValue();
+		}
+
+		Assert.assertTrue(coinsTotal == 0);
+	}
+
+	/**
+	 * Verifies ability to produce coins to identify an input sum that is too large
+	 */
+	@Test
+	void testProduceCoinsInputTooLarge()
+	{
+		vm = new VendingMachine(initCoins10); // 10 of each coin
+
+		try
+		{
+			vm.proceduceCoins(1234567); // 12,345.67
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("Insufficient funds in Vending Machine"));
+		}
+
+	}
+
+	/**
+	 * Verifies ability to produce coins to catch insufficient coins 
+	 */
+	@Test
+	void testProduceCoinsInsufficient()
+	{
+		vm = new VendingMachine(initCoinsZero); // 0 of each coin
+		vm.depositCoin("10p");
+		vm.depositCoin("2");
+
+		try
+		{
+			vm.proceduceCoins(203); // 2.30
+		} catch (RuntimeException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("Not able to create"));
+		}
+	}
+
+	/**
+	 * Verifies ability to produce coins to catch insufficient coins 
+	 */
+	@Test
+	void testProduceCoinsInsufficient2()
+	{
+		vm = new VendingMachine(initCoinsZero); // 0 of each coin
+		vm.depositCoin("10p");
+		vm.depositCoin("2");
+
+		try
+		{
+			vm.proceduceCoins(203); // 2.30
+		} catch (RuntimeException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("Not able to create"));
+		}
+	}
+
+	/**
+	 * Verifies ability to produce coins to catch negative input
+	 */
+	@Test
+	void testProduceCoinsNegative()
+	{
+		vm = new VendingMachine(initCoins10); // 10 of each coin
+
+		try
+		{
+			vm.proceduceCoins(-5); // -0.05
+		} catch (RuntimeException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("Cannot produce coins for negative input"));
+		}
+	}
+
+	/**
+	 * Verifies ability to produce coins for valid input
+	 */
+	@Test
+	void testProduceCoinsValid2()
+	{
+		vm = new VendingMachine(initCoinsOdd);
+
+		ArrayList<Denomination> coinsToDispense = vm.proceduceCoins(12345); // 123.45
+
+		int coinsTotal = 0;
+		for (Denomination coin : coinsToDispense)
+		{
+			coinsTotal += coin.getValue();
+		}
+
+		Assert.assertTrue(coinsTotal == 12345);
+	}
+
+	/**
+	 * Verifies ability to produce coins for valid input and updates the 
+	 * Vending Machine's model
+	 */
+	@Test
+	void testProduceCoinsValidAndUpdates()
+	{
+		vm = new VendingMachine(initCoins10); // 10 of each coin
+		long startingFunds = vm.getTotalFundsInPence();
+		ArrayList<Denomination> coinsToDispense = vm.proceduceCoins(748); // 7.48
+
+		int coinsTotal = 0;
+		for (Denomination coin : coinsToDispense)
+		{
+			coinsTotal += coin.getValue();
+		}
+
+		Assert.assertTrue(coinsTotal == 748); // Checks coins total sum
+
+		vm.dispenseCoins(coinsToDispense);
+
+		Assert.assertTrue(vm.getTotalFundsInPence() == (startingFunds - coinsTotal));
+	}
+
+	/**
+	 * Verifies ability to produce coins for valid input and updates the 
+	 * Vending Machine's model
+	 */
+	@Test
+	void testProduceCoinsValidAndUpdates2()
+	{
+		vm = new VendingMachine(initCoinsZero); // 0 of each coin
+		vm.depositCoin("1p");
+		vm.depositCoin("5p");
+
+		Map<Denomination, Long> vmModel = vm.getCoinQuantityMap(); // Check model
+		GBPCoin onePence = new GBPCoin("1p");
+		GBPCoin fivePence = new GBPCoin("5p");
+
+		Assert.assertTrue(vmModel.get(onePence) == 1);
+		Assert.assertTrue(vmModel.get(fivePence) == 1);
+
+		Assert.assertTrue(vm.getTotalFundsInPence() == 6); // Check funds have updated
+
+		ArrayList<Denomination> coinsToDispense = vm.proceduceCoins(6); // 0.06
+
+		int coinsTotal = 0;
+		for (Denomination coin : coinsToDispense)
+		{
+			coinsTotal += coin.getValue();
+		}
+
+		Assert.assertTrue(coinsTotal == 6); // Checks coins being dispensed total sum
+
+		vm.dispenseCoins(coinsToDispense);
+
+		Assert.assertTrue(vmModel.get(onePence) == 0); // Check coins removed from model
+		Assert.assertTrue(vmModel.get(fivePence) == 0);
+
+		Assert.assertTrue(vm.getTotalFundsInPence() == 0); // Check total funds update
+
+	}
+
+	/**
+	 * Verifies ability to produce coins where preferring the largest coin first would fail
+	 */
+	@Test
+	void testProduceCoinsLargestCoinBlocks()
+	{
+		vm = new VendingMachine(new int[] { 0, 0, 0, 0, 3, 1, 0, 0, 0 }); // 3 x 20p, 1 x 50p
+
+		ArrayList<Denomination> coinsToDispense = vm.proceduceCoins(60); // 0.60
+
+		Assert.assertTrue(coinsToDispense.size() == 3);
+
+		for (Denomination coin : coinsToDispense)
+		{
+			Assert.assertTrue(coin.getValue() == 20);
+		}
+	}
+
+	/**
+	 * Verifies that the coin quantity map reflects coins deposited and cannot be modified
+	 */
+	@Test
+	void testCoinQuantityMapView()
+	{
+		vm = new VendingMachine(initCoinsZero); // 0 of each coin
+		Map<Denomination, Long> vmModel = vm.getCoinQuantityMap();
+
+		vm.depositCoin("20p");
+		vm.depositCoin("20p");
+
+		GBPCoin twentyPence = new GBPCoin("20p");
+		Assert.assertTrue(vmModel.get(twentyPence) == 2);
+		Assert.assertTrue(vm.getCoinQuantity(twentyPence) == 2);
+		Assert.assertTrue(vmModel.size() == 9);
+
+		try
+		{
+			vmModel.put(twentyPence, 100L);
+			Assert.fail();
+		}
+
+		catch (UnsupportedOperationException e)
+		{
+			Assert.assertTrue(vmModel.get(twentyPence) == 2);
+		}
+	}
+
+	/**
+	 * Verifies that the total funds are kept up to date through deposit, produce and dispense
+	 */
+	@Test
+	void testTotalFundsVerified()
+	{
+		vm = new VendingMachine(initCoinsRandom);
+		vm.setVerifyFunds(true); // throws if the running total is ever incorrect
+
+		vm.depositCoin("2");
+		vm.depositCoin("5p");
+
+		long startingFunds = vm.getTotalFundsInPence();
+		Assert.assertTrue(vm.hasSufficientFunds(startingFunds));
+		Assert.assertFalse(vm.hasSufficientFunds(startingFunds + 1));
+
+		vm.dispenseCoins(vm.proceduceCoins(205));
+
+		Assert.assertTrue(vm.getTotalFundsInPence() == startingFunds - 205);
+	}
+
+	/**
+	 * Verifies that a batch of coins is deposited in one go and updates the funds
+	 */
+	@Test
+	void testDepositBatch()
+	{
+		vm = new VendingMachine(initCoins10); // 10 of each coin
+		long startingFunds = vm.getTotalFundsInPence();
+
+		vm.depositCoins(new int[] { 300, 0, 0, 0, 5, 0, 2, 0, 0 });
+
+		Assert.assertTrue(vm.getCoinQuantity(GBPCoin.of("1p")) == 310);
+		Assert.assertTrue(vm.getCoinQuantity(GBPCoin.of("20p")) == 15);
+		Assert.assertTrue(vm.getCoinQuantity(GBPCoin.of("1")) == 12);
+		Assert.assertTrue(vm.getCoinQuantity(GBPCoin.of("5")) == 10);
+		Assert.assertTrue(vm.getTotalFundsInPence() == startingFunds + 300 + 100 + 200);
+		Assert.assertTrue(vm.getCoinsDeposited().isEmpty());
+	}
+
+	/**
+	 * Verifies that an invalid batch of coins is rejected without depositing any of the coins
+	 */
+	@Test
+	void testDepositBatchInvalid()
+	{
+		vm = new VendingMachine(initCoins10); // 10 of each coin
+		vm.setVerifyFunds(true);
+		long startingFunds = vm.getTotalFundsInPence();
+
+		try
+		{
+			vm.depositCoins(new int[] { 1, 2, 3, 4, 5 });
+			Assert.fail();
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("Must specify quantity of each type of GBP coin"));
+		}
+
+		try
+		{
+			vm.depositCoins(new int[] { 5, 5, 5, 5, 5, 5, 5, 5, -1 });
+			Assert.fail();
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("cannot be negative"));
+		}
+
+		Assert.assertTrue(vm.getTotalFundsInPence() == startingFunds);
+		Assert.assertTrue(vm.getCoinQuantity(GBPCoin.of("1p")) == 10);
+
+		// Counts past Integer.MAX_VALUE are held, but not a total past Long.MAX_VALUE
+		vm.depositCoins(new int[] { 0, 0, 0, 0, 0, 0, 0, 0, Integer.MAX_VALUE / 500 });
+		vm = new VendingMachine(CurrencyProfile.GBP, new long[] { 0, 0, 0, 0, 0, 0, 0, 0, Long.MAX_VALUE / 500 });
+		startingFunds = vm.getTotalFundsInPence();
+
+		try
+		{
+			vm.depositCoins(new int[] { 0, 0, 0, 0, 0, 0, 0, 0, 1 });
+			Assert.fail();
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("Total funds would exceed"));
+		}
+
+		Assert.assertTrue(vm.getTotalFundsInPence() == startingFunds);
+	}
+
+	/**
+	 * Verifies that a stream of coins is deposited in one go, skipping any invalid coins
+	 */
+	@Test
+	void testDepositStream()
+	{
+		vm = new VendingMachine(initCoinsZero); // 0 of each coin
+		vm.setVerifyFunds(true);
+
+		int deposited = vm.depositCoins(Arrays.asList("1p", "20p", "15p", "2", "20p", ""));
+
+		Assert.assertTrue(deposited == 4);
+		Assert.assertTrue(vm.getCoinQuantity(GBPCoin.of("1p")) == 1);
+		Assert.assertTrue(vm.getCoinQuantity(GBPCoin.of("20p")) == 2);
+		Assert.assertTrue(vm.getCoinQuantity(GBPCoin.of("2")) == 1);
+		Assert.assertTrue(vm.getTotalFundsInPence() == 241);
+
+		Assert.assertTrue(vm.depositCoins(new ArrayList<String>()) == 0);
+		Assert.assertTrue(vm.getTotalFundsInPence() == 241);
+	}
+
+	/**
+	 * Verifies that the amounts change can be made for match the coins produced, 
+	 * as coins are deposited and dispensed, without producing any coins
+	 */
+	@Test
+	void testCanMakeChange()
+	{
+		vm = new VendingMachine(new int[] { 0, 0, 1, 0, 2, 0, 0, 0, 0 }); // 5p, 2 x 20p
+
+		Assert.assertTrue(vm.canMakeChange(0));
+		Assert.assertTrue(vm.canMakeChange(25));
+		Assert.assertFalse(vm.canMakeChange(30));
+		Assert.assertFalse(vm.canMakeChange(-5));
+		Assert.assertFalse(vm.canMakeChange(50));
+		Assert.assertTrue(vm.getCoinsDispensed().isEmpty());
+
+		vm.depositCoin("10p");
+		Assert.assertTrue(vm.canMakeChange(30));
+		Assert.assertTrue(vm.canMakeChange(55));
+
+		vm.dispenseCoins(vm.proceduceCoins(40)); // 2 x 20p
+		Assert.assertFalse(vm.canMakeChange(20));
+		Assert.assertTrue(vm.canMakeChange(15));
+
+		vm.depositCoins(new int[] { 0, 0, 0, 0, 0, 0, 0, 0, 2000 });
+		Assert.assertTrue(vm.canMakeChange(10015));
+		Assert.assertFalse(vm.canMakeChange(10020));
+
+		BitSet amounts = vm.getMakeableAmounts(20);
+		Assert.assertEquals("{0, 5, 10, 15}", amounts.toString());
+
+		for (int limit : new int[] { -1, Integer.MAX_VALUE })
+		{
+			try
+			{
+				vm.getMakeableAmounts(limit);
+				Assert.fail("Expected IllegalArgumentException for limit " + limit);
+			}
+
+			catch (IllegalArgumentException e)
+			{
+				Assert.assertTrue(e.getMessage().contains("must be from 0"));
+			}
+		}
+
+		for (int value = 0; value <= 1100; value++)
+		{
+			Assert.assertEquals(vm.canMakeChange(value), !vm.proceduceCoins(value).isEmpty() || value == 0);
+		}
+	}
+
+	/**
+	 * Verifies that quoting change does not change the machine, and committing the quote dispenses its coins
+	 */
+	@Test
+	void testQuoteAndCommitChange()
+	{
+		vm = new VendingMachine(initCoins10);
+		vm.setVerifyFunds(true);
+		long startingFunds = vm.getTotalFundsInPence();
+
+		ChangeQuote quote = vm.quoteChange(270);
+
+		Assert.assertTrue(quote.isPossible());
+		Assert.assertEquals("[2, 50p, 20p]", quote.toString());
+		Assert.assertEquals(1, quote.getCoinCount(GBPCoin.of("2")));
+		Assert.assertEquals(3, quote.getTotalCoinCount());
+		Assert.assertTrue(vm.getCoinsDispensed().isEmpty());
+		Assert.assertTrue(vm.getTotalFundsInPence() == startingFunds);
+
+		Assert.assertTrue(vm.commitChange(quote));
+		Assert.assertTrue(vm.getTotalFundsInPence() == startingFunds - 270);
+		Assert.assertTrue(vm.getCoinQuantity(GBPCoin.of("2")) == 9);
+		Assert.assertTrue(vm.getCoinQuantity(GBPCoin.of("20p")) == 9);
+
+		Assert.assertEquals(ChangeFailure.NEGATIVE_VALUE, vm.quoteChange(-1).getFailure());
+		Assert.assertEquals(ChangeFailure.INSUFFICIENT_FUNDS, vm.quoteChange((int) startingFunds).getFailure());
+		Assert.assertFalse(vm.commitChange(vm.quoteChange(-1)));
+		Assert.assertTrue(vm.getTotalFundsInPence() == startingFunds - 270);
+
+		vm = new VendingMachine(new int[] { 0, 0, 0, 0, 0, 1, 0, 0, 0 }); // 50p
+		Assert.assertEquals(ChangeFailure.NOT_POSSIBLE, vm.quoteChange(20).getFailure());
+	}
+
+	/**
+	 * Verifies that a quote is not committed once its coins have been dispensed, 
+	 * and that nothing is dispensed in that case
+	 */
+	@Test
+	void testCommitStaleQuote()
+	{
+		vm = new VendingMachine(new int[] { 0, 0, 0, 0, 3, 1, 0, 0, 0 }); // 3 x 20p, 50p
+
+		ChangeQuote sixty = vm.quoteChange(60);
+		ChangeQuote fifty = vm.quoteChange(50);
+
+		Assert.assertTrue(vm.commitChange(fifty));
+		Assert.assertTrue(vm.commitChange(sixty)); // 3 x 20p are still held
+		Assert.assertFalse(vm.commitChange(sixty));
+		Assert.assertTrue(vm.getTotalFundsInPence() == 0);
+
+		vm = new VendingMachine(new int[] { 0, 0, 0, 0, 1, 1, 0, 0, 0 }); // 20p, 50p
+		ChangeQuote seventy = vm.quoteChange(70);
+		vm.dispenseCoins(vm.proceduceCoins(50));
+
+		Assert.assertFalse(vm.commitChange(seventy));
+		Assert.assertTrue(vm.getCoinQuantity(GBPCoin.of("20p")) == 1);
+		Assert.assertTrue(vm.getTotalFundsInPence() == 20);
+	}
+
+	/**
+	 * Verifies that quotes for many prices can be calculated in parallel, each thread with its own solver, 
+	 * and match the coins produced one at a time
+	 */
+	@Test
+	void testParallelQuotes()
+	{
+		vm = new VendingMachine(initCoinsOdd);
+		ThreadLocal<BoundedChangeSolver> solvers = ThreadLocal.withInitial(BoundedChangeSolver::new);
+
+		List<ChangeQuote> quotes = IntStream.rangeClosed(0, 2000).parallel()
+				.mapToObj(value -> vm.quoteChange(value, solvers.get())).collect(Collectors.toList());
+
+		for (int value = 0; value <= 2000; value++)
+		{
+			ArrayList<Denomination> coins = vm.proceduceCoins(value);
+
+			Assert.assertEquals(value, quotes.get(value).getTargetValue());
+			Assert.assertEquals(coins.toString(), quotes.get(value).isPossible() ? quotes.get(value).toString() : "[]");
+		}
+	}
+
+	/**
+	 * Verifies that the Console reports only the first unexpected argument of a command, and does nothing else
+	 */
+	@Test
+	void testConsoleUnexpectedArgument() throws UnsupportedEncodingException
+	{
+		vm = new VendingMachine(initCoins10);
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		InputStream in = System.in;
+		PrintStream out = System.out;
+
+		try
+		{
+			System.setIn(new ByteArrayInputStream(
+					"deposit 10p 20p 50p\nproducecoins 20  30 40\nexit\n".getBytes(StandardCharsets.US_ASCII)));
+			System.setOut(new PrintStream(output, true, "UTF-8"));
+			vm.init();
+		}
+
+		finally
+		{
+			System.setIn(in);
+			System.setOut(out);
+		}
+
+		String console = new String(output.toByteArray(), StandardCharsets.UTF_8);
+		Assert.assertTrue(console, console.contains("Unexpected input: 20p, please deposit one coin at a time"));
+		Assert.assertTrue(console, console.contains("Cannot process input: 30, please provide value in pence"));
+		Assert.assertTrue(vm.getTotalFundsInPence() == 8880);
+	}
+
+	/**
+	 * Verifies that quotes of the machine's strategy can be calculated in parallel, each thread being given 
+	 * its own solver, and match the coins produced one at a time
+	 */
+	@Test
+	void testParallelQuotesOfStrategy()
+	{
+		vm = new VendingMachine(initCoinsOdd);
+		vm.setChangeStrategy(ChangeStrategy.MAXIMISE_COVERAGE);
+
+		List<ChangeQuote> quotes = IntStream.rangeClosed(0, 2000).parallel()
+				.mapToObj(value -> vm.quoteChange(value)).collect(Collectors.toList());
+
+		for (int value = 0; value <= 2000; value++)
+		{
+			ArrayList<Denomination> coins = vm.proceduceCoins(value);
+
+			Assert.assertEquals(value, quotes.get(value).getTargetValue());
+			Assert.assertEquals(coins.toString(), quotes.get(value).isPossible() ? quotes.get(value).toString() : "[]");
+		}
+	}
+
+}
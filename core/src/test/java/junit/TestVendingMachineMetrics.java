@@ -0,0 +1,142 @@
+package junit;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import main.ChangeFailure;
+import main.GBPCoin;
+import main.HistogramSnapshot;
+import main.MetricsHistogram;
+import main.VendingMachine;
+import main.VendingMachineMetrics;
+
+/**
+ * Tests the counters and histograms recorded in Vending Machine Metrics
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ */
+class TestVendingMachineMetrics
+{
+
+	/** Initialise the Vending Machine with 10 of all coins */
+	int[] initCoins10 = new int[] { 10, 10, 10, 10, 10, 10, 10, 10, 10 };
+
+	/**
+	 * Verifies that deposits, change requests, failures and dispenses are counted
+	 */
+	@Test
+	void testMachineRecorded()
+	{
+		VendingMachine vm = new VendingMachine(initCoins10);
+		VendingMachineMetrics metrics = new VendingMachineMetrics();
+		vm.setMetrics(metrics);
+
+		vm.depositCoin("2");
+		vm.depositCoin("50p");
+		vm.depositCoin("3p");
+		vm.depositCoins(new int[] { 5, 0, 0, 0, 0, 0, 0, 0, 1 });
+		vm.dispenseCoins(vm.proceduceCoins(270)); // 2, 50p, 20p
+		vm.proceduceCoins(-1);
+		vm.proceduceCoins(1000000);
+		vm.commitChange(vm.quoteChange(3)); // 2p, 1p
+
+		VendingMachineMetrics.Snapshot snapshot = metrics.getSnapshot();
+
+		Assert.assertEquals(1, snapshot.getDeposits(GBPCoin.of("2")));
+		Assert.assertEquals(5, snapshot.getDeposits(GBPCoin.of("1p")));
+		Assert.assertEquals(8, snapshot.getTotalDeposits());
+		Assert.assertEquals(1, snapshot.getRejected());
+		Assert.assertEquals(2, snapshot.getDepositLatency().getCount()); // batches are not timed
+
+		Assert.assertEquals(3, snapshot.getChangeRequests());
+		Assert.assertEquals(1, snapshot.getChangeFailures(ChangeFailure.NEGATIVE_VALUE));
+		Assert.assertEquals(1, snapshot.getChangeFailures(ChangeFailure.INSUFFICIENT_FUNDS));
+		Assert.assertEquals(0, snapshot.getChangeFailures(ChangeFailure.NOT_POSSIBLE));
+		Assert.assertEquals(3, snapshot.getChangeLatency().getCount());
+
+		Assert.assertEquals(2, snapshot.getDispenseSizes().getCount());
+		Assert.assertEquals(3, snapshot.getDispenseSizes().getMax());
+		Assert.assertTrue(snapshot.toString().contains("insufficient funds: 1"));
+
+		// Later events are not in the snapshot taken
+		vm.depositCoin("2");
+		Assert.assertEquals(1, snapshot.getDeposits(GBPCoin.of("2")));
+		Assert.assertEquals(2, metrics.getSnapshot().getDeposits(GBPCoin.of("2")));
+	}
+
+	/**
+	 * Verifies that machines on many threads sharing the metrics lose no counts
+	 */
+	@Test
+	void testSharedAcrossThreads() throws InterruptedException
+	{
+		VendingMachineMetrics metrics = new VendingMachineMetrics();
+		Thread[] threads = new Thread[8];
+
+		for (int t = 0; t < threads.length; t++)
+		{
+			threads[t] = new Thread(() ->
+			{
+				VendingMachine vm = new VendingMachine(initCoins10);
+				vm.setMetrics(metrics);
+
+				for (int i = 0; i < 10000; i++)
+				{
+					vm.depositCoin("10p");
+					vm.dispenseCoins(vm.proceduceCoins(10));
+				}
+			});
+			threads[t].start();
+		}
+
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+
+		VendingMachineMetrics.Snapshot snapshot = metrics.getSnapshot();
+		Assert.assertEquals(80000, snapshot.getDeposits(GBPCoin.of("10p")));
+		Assert.assertEquals(80000, snapshot.getChangeRequests());
+		Assert.assertEquals(80000, snapshot.getDepositLatency().getCount());
+		Assert.assertEquals(80000, snapshot.getDispenseSizes().getCount());
+		Assert.assertEquals(1, snapshot.getDispenseSizes().getValueAtPercentile(100));
+	}
+
+	/**
+	 * Verifies that percentiles are reported to within the width of a bucket
+	 */
+	@Test
+	void testHistogramPercentiles()
+	{
+		MetricsHistogram histogram = new MetricsHistogram();
+		Assert.assertEquals(0, histogram.getSnapshot().getValueAtPercentile(99));
+
+		long[] values = new long[10000];
+		for (int i = 0; i < values.length; i++)
+		{
+			values[i] = (i * 7919L) % 1000000; // spread over 0 to 1ms
+			histogram.record(values[i]);
+		}
+		Arrays.sort(values);
+
+		HistogramSnapshot snapshot = histogram.getSnapshot();
+		Assert.assertEquals(values.length, snapshot.getCount());
+		Assert.assertEquals(values[values.length - 1], snapshot.getMax());
+
+		for (double percentile : new double[] { 50, 90, 99, 99.9 })
+		{
+			long exact = values[(int) Math.ceil(values.length * percentile / 100) - 1];
+			long reported = snapshot.getValueAtPercentile(percentile);
+
+			Assert.assertTrue(reported >= exact);
+			Assert.assertTrue(reported <= exact + exact / 8 + 1);
+		}
+
+		double mean = Arrays.stream(values).average().getAsDouble();
+		Assert.assertEquals(mean, snapshot.getMean(), mean / 8);
+	}
+
+}
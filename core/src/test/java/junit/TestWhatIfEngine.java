@@ -0,0 +1,242 @@
+package junit;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import main.ChangeQuote;
+import main.ChangeStrategy;
+import main.CurrencyProfile;
+import main.Denomination;
+import main.GBPCoin;
+import main.InventorySnapshot;
+import main.VendingMachine;
+import main.WhatIfEngine;
+
+/**
+ * Tests replaying recorded sales under many scenarios with the What If Engine
+ *
+ * @author Peter Tomboline
+ * @date 18/10/2026
+ */
+class TestWhatIfEngine
+{
+
+	/** The float used by the Console */
+	int[] consoleFloat = new int[] { 1, 2, 5, 1, 2, 5, 1, 2, 5 };
+
+	/**
+	 * Records random sales, each paid for in 5p to 2 coins covering a price from 25p to 3
+	 */
+	private void addSales(WhatIfEngine aEngine, int aSales, long aSeed)
+	{
+		Random random = new Random(aSeed);
+
+		for (int sale = 0; sale < aSales; sale++)
+		{
+			int price = (5 + random.nextInt(56)) * 5;
+			int[] coins = new int[GBPCoin.COUNT];
+			int paid = 0;
+
+			while (paid < price)
+			{
+				int index = 2 + random.nextInt(6);
+				coins[index]++;
+				paid += GBPCoin.fromIndex(index).getValue();
+			}
+
+			aEngine.addSale(coins, price);
+		}
+	}
+
+	/**
+	 * Verifies that a scenario ends with the same coins as a Vending Machine serving the same sales
+	 */
+	@Test
+	void testMatchesVendingMachine()
+	{
+		WhatIfEngine engine = new WhatIfEngine(consoleFloat);
+		addSales(engine, 500, 23);
+
+		WhatIfEngine.Outcome outcome = engine.evaluate(new WhatIfEngine.Scenario(ChangeStrategy.MIN_COINS, 0));
+
+		// Serve the same sales from a machine
+		VendingMachine vm = new VendingMachine(consoleFloat);
+		Random random = new Random(23);
+		int served = 0;
+
+		for (int sale = 0; sale < 500; sale++)
+		{
+			int price = (5 + random.nextInt(56)) * 5;
+			int[] coins = new int[GBPCoin.COUNT];
+			ArrayList<Denomination> refund = new ArrayList<Denomination>();
+			int paid = 0;
+
+			while (paid < price)
+			{
+				int index = 2 + random.nextInt(6);
+				coins[index]++;
+				refund.add(GBPCoin.fromIndex(index));
+				paid += GBPCoin.fromIndex(index).getValue();
+			}
+
+			vm.depositCoins(coins);
+			ChangeQuote quote = vm.quoteChange(paid - price);
+
+			if (vm.commitChange(quote))
+			{
+				served++;
+			}
+
+			else
+			{
+				vm.dispenseCoins(refund);
+			}
+		}
+
+		Assert.assertEquals(500, outcome.getSales());
+		Assert.assertEquals(served, outcome.getServed());
+		Assert.assertEquals(500 - served, outcome.getChangeFailures());
+		Assert.assertTrue(outcome.getChangeFailures() > 0); // the float does run short
+		Assert.assertEquals(vm.getTotalFundsInPence(), outcome.getEndTotalFunds());
+
+		for (int i = 0; i < GBPCoin.COUNT; i++)
+		{
+			Assert.assertEquals(vm.getCoinQuantity(GBPCoin.fromIndex(i)),
+					outcome.getEndCoinQuantity(GBPCoin.fromIndex(i)));
+		}
+	}
+
+	/**
+	 * Verifies that scenarios evaluated in parallel from a snapshot have the outcomes they have one at a time,
+	 * in the order given
+	 */
+	@Test
+	void testParallelMatchesSequential()
+	{
+		int size = InventorySnapshot.size(CurrencyProfile.GBP);
+		ByteBuffer buffer = ByteBuffer.allocate(size * 2);
+		InventorySnapshot.write(buffer, size, 1, new int[] { 5, 5, 5, 5, 5, 5, 5, 5, 5 });
+
+		WhatIfEngine engine = new WhatIfEngine(buffer, size);
+		addSales(engine, 2000, 7);
+
+		ArrayList<WhatIfEngine.Scenario> scenarios = new ArrayList<WhatIfEngine.Scenario>();
+		for (ChangeStrategy strategy : ChangeStrategy.values())
+		{
+			for (int priceChange = -20; priceChange <= 20; priceChange += 5)
+			{
+				scenarios.add(new WhatIfEngine.Scenario(strategy, priceChange));
+			}
+		}
+
+		WhatIfEngine.Outcome[] parallel = engine.evaluate(scenarios);
+		WhatIfEngine.Outcome[] sequential = engine.evaluate(scenarios, new ForkJoinPool(1));
+
+		Assert.assertEquals(scenarios.size(), parallel.length);
+
+		for (int i = 0; i < parallel.length; i++)
+		{
+			Assert.assertSame(scenarios.get(i), parallel[i].getScenario());
+			Assert.assertEquals(sequential[i].toString(), parallel[i].toString());
+			Assert.assertArrayEquals(sequential[i].getEndCoinQuantities(), parallel[i].getEndCoinQuantities());
+		}
+
+		// The snapshot is read, not changed
+		Assert.assertEquals(5, InventorySnapshot.getCoinQuantity(buffer, size, 0));
+		Assert.assertEquals("MIN_COINS -20p", parallel[0].getScenario().getName());
+	}
+
+	/**
+	 * Verifies that a price rise leaves sales whose coins no longer cover the price unserved, and that
+	 * invalid sales are not recorded
+	 */
+	@Test
+	void testPriceChange()
+	{
+		WhatIfEngine engine = new WhatIfEngine(new int[] { 10, 10, 10, 10, 10, 10, 10, 10, 10 });
+		engine.addSale(new int[] { 0, 0, 0, 0, 0, 0, 1, 0, 0 }, 100); // exact
+		engine.addSale(new int[] { 0, 0, 0, 0, 0, 0, 0, 1, 0 }, 150); // 50p change
+
+		WhatIfEngine.Outcome same = engine.evaluate(new WhatIfEngine.Scenario(ChangeStrategy.MIN_COINS, 0));
+		Assert.assertEquals(1.0, same.getSuccessRate(), 0);
+		Assert.assertEquals(9, same.getEndCoinQuantity(GBPCoin.of("50p")));
+		Assert.assertEquals(8880 + 250, same.getEndTotalFunds());
+
+		WhatIfEngine.Outcome rise = engine.evaluate(new WhatIfEngine.Scenario(ChangeStrategy.MIN_COINS, 10));
+		Assert.assertEquals(1, rise.getUnderpaid());
+		Assert.assertEquals(1, rise.getServed());
+		Assert.assertEquals(0.5, rise.getSuccessRate(), 0);
+		Assert.assertEquals(8880 + 160, rise.getEndTotalFunds());
+
+		int[][] coins = { { 1, 0, 0 }, { -1, 0, 0, 0, 0, 0, 1, 0, 0 }, { 0, 0, 0, 0, 0, 0, 1, 0, 0 } };
+		int[] prices = { 1, 50, 101 };
+
+		for (int i = 0; i < coins.length; i++)
+		{
+			try
+			{
+				engine.addSale(coins[i], prices[i]);
+				Assert.fail("Expected IllegalArgumentException for sale " + i);
+			}
+
+			catch (IllegalArgumentException e)
+			{
+				// expected
+			}
+		}
+
+		Assert.assertEquals(2, engine.getSaleCount());
+	}
+
+	/**
+	 * Verifies that the float of another currency is taken from a machine or a snapshot, and its coins and
+	 * notes are replayed and reported
+	 */
+	@Test
+	void testCurrency()
+	{
+		CurrencyProfile eur = CurrencyProfile.EUR_WITH_NOTES;
+		int[] coins = new int[eur.getDenominationCount()];
+		coins[5] = 3; // 50c
+
+		WhatIfEngine fromMachine = new WhatIfEngine(new VendingMachine(eur, coins));
+		Assert.assertSame(eur, fromMachine.getCurrency());
+
+		int size = InventorySnapshot.size(eur);
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		InventorySnapshot.write(buffer, 0, 1, new VendingMachine(eur, coins));
+		WhatIfEngine fromSnapshot = new WhatIfEngine(buffer, 0);
+		Assert.assertSame(eur, fromSnapshot.getCurrency());
+
+		for (WhatIfEngine engine : new WhatIfEngine[] { fromMachine, fromSnapshot })
+		{
+			int[] paid = new int[coins.length];
+			paid[8] = 1; // 5
+			engine.addSale(paid, 350);
+
+			WhatIfEngine.Outcome outcome = engine.evaluate(new WhatIfEngine.Scenario(ChangeStrategy.MIN_COINS, 0));
+			Assert.assertEquals(1, outcome.getServed());
+			Assert.assertEquals(1, outcome.getEndCoinQuantity(eur.of("5")));
+			Assert.assertEquals(0, outcome.getEndCoinQuantity(eur.of("50c")));
+			Assert.assertEquals(0, outcome.getEndCoinQuantity(GBPCoin.of("50p")));
+			Assert.assertEquals(150 + 350, outcome.getEndTotalFunds());
+		}
+
+		try
+		{
+			new WhatIfEngine(buffer, 0, CurrencyProfile.EUR);
+			Assert.fail();
+		}
+
+		catch (IllegalArgumentException e)
+		{
+			Assert.assertTrue(e.getMessage().contains("is not of EUR coins"));
+		}
+	}
+
+}